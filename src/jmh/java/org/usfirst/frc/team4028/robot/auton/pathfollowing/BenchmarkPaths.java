@@ -0,0 +1,59 @@
+package org.usfirst.frc.team4028.robot.auton.pathfollowing;
+
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.Path;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.PathCursor;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.RigidTransform;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Rotation;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Translation;
+
+/** Real auton paths (built from the Paths waypoints) + robot poses along them for the benchmarks */
+class BenchmarkPaths {
+	/** @param pathName ex. "Left.R_SCALE" */
+	static Enum<?> getPathName(String pathName) {
+		for (Enum<?> name : Paths.getAllPathNames()) {
+			if ((name.getDeclaringClass().getSimpleName() + "." + name.name()).equals(pathName)) {
+				return name;
+			}
+		}
+		throw new IllegalArgumentException("No path named " + pathName);
+	}
+	
+	static Path buildPath(Enum<?> pathName) {
+		return Paths.buildPathsFromWaypoints(new Enum<?>[] {pathName}, false)[0];
+	}
+	
+	/**
+	 * Poses a robot passes through driving the path start to end, each step moves toward the lookahead point
+	 * (so it cuts corners a little, like the real robot) and faces the way the path is driven.
+	 */
+	static RigidTransform[] samplePoses(Path path, int count) {
+		PathCursor cursor = new PathCursor(path);
+		Translation robot = path.getStartPose().getTranslation();
+		double stepLength = cursor.getTargetPoint(robot).remaining_path_distance / count;
+		cursor.reset();
+		
+		RigidTransform[] poses = new RigidTransform[count];
+		Rotation heading = Rotation.fromDegrees(path.getStartingAngle());
+		for (int i = 0; i < count; i++) {
+			Path.TargetPointReport report = cursor.getTargetPoint(robot);
+			Translation lookahead = new Translation(report.lookahead_point_x, report.lookahead_point_y);
+			Translation toLookahead = new Translation(robot, lookahead);
+			if (toLookahead.norm() > 1E-6) {
+				heading = path.isReversed() ? toLookahead.inverse().direction() : toLookahead.direction();
+				robot = robot.translateBy(toLookahead.scale(Math.min(1.0, stepLength / toLookahead.norm())));
+			}
+			poses[i] = new RigidTransform(robot, heading);
+		}
+		return poses;
+	}
+	
+	/** Distance driven to reach each pose (what RobotState.getDistanceDriven() would report) */
+	static double[] getDisplacements(RigidTransform[] poses, boolean isReversed) {
+		double[] displacements = new double[poses.length];
+		for (int i = 1; i < poses.length; i++) {
+			double step = new Translation(poses[i - 1].getTranslation(), poses[i].getTranslation()).norm();
+			displacements[i] = displacements[i - 1] + (isReversed ? -step : step);
+		}
+		return displacements;
+	}
+}
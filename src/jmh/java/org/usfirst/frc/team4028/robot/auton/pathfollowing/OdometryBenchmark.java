@@ -0,0 +1,57 @@
+package org.usfirst.frc.team4028.robot.auton.pathfollowing;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.RigidTransform;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Twist;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.util.Kinematics;
+
+/** The per scan drive kinematics & pose tracking */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OdometryBenchmark {
+	private static final double SCAN_PERIOD_SEC = 0.01;
+	
+	// a gentle left turn at 60 in/s
+	private final Twist _velocity = new Twist(60.0, 0.0, 0.5);
+	private final Twist _measuredDelta = new Twist(60.0 * SCAN_PERIOD_SEC, 0.0, 0.5 * SCAN_PERIOD_SEC);
+	
+	private RobotState _robotState;
+	private double _timestamp;
+	private double _heading;
+	
+	@Setup
+	public void setup() {
+		_robotState = RobotState.getInstance();
+		_robotState.reset(0.0, new RigidTransform());
+	}
+	
+	@Benchmark
+	public Kinematics.DriveVelocity inverseKinematics() {
+		return Kinematics.inverseKinematics(_velocity);
+	}
+	
+	@Benchmark
+	public RobotState addObservations() {
+		_timestamp += SCAN_PERIOD_SEC;
+		_robotState.addObservations(_timestamp, _measuredDelta, _velocity);
+		return _robotState;
+	}
+	
+	/** what Chassis actually calls every scan */
+	@Benchmark
+	public RobotState addOdometryObservation() {
+		_timestamp += SCAN_PERIOD_SEC;
+		_heading += _measuredDelta.dtheta;
+		_robotState.addOdometryObservation(_timestamp, 0.59, 0.61, _heading, 59.0, 61.0);
+		return _robotState;
+	}
+}
@@ -0,0 +1,115 @@
+package org.usfirst.frc.team4028.robot.auton.pathfollowing;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.AdaptivePurePursuitController;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.Path;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.PathCursor;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.PathFollower;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.RigidTransform;
+
+/**
+ * Building a path and the per scan path following calls, on real auton paths.
+ * Each scan benchmark steps through poses along the whole path (then starts the path over),
+ * so short & long paths and every segment type are covered. Starting over resets the same objects, so the gc
+ * profiler's alloc rate of the per scan benchmarks is what a scan really allocates (should be 0 B/op).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PathFollowingBenchmark {
+	private static final int POSE_COUNT = 256;
+	private static final double SCAN_PERIOD_SEC = 0.01;
+	private static final double VELOCITY = 60.0; // inches per second
+	
+	@Param({"Center.AUTO_RUN", "Center.L_SWITCH", "Left.R_SCALE"})
+	public String pathName;
+	
+	private Enum<?>[] _pathNames;
+	private Path _path;
+	private RigidTransform[] _poses;
+	private double[] _displacements;
+	private double[] _x, _y, _cos, _sin;
+	
+	private PathCursor _cursor;
+	private int _cursorPoseIndex;
+	private AdaptivePurePursuitController _steeringController;
+	private int _steeringPoseIndex;
+	private PathFollower _pathFollower;
+	private int _followerPoseIndex;
+	private double _timestamp;
+	
+	@Setup
+	public void setup() {
+		_pathNames = new Enum<?>[] {BenchmarkPaths.getPathName(pathName)};
+		_path = BenchmarkPaths.buildPath(_pathNames[0]);
+		_poses = BenchmarkPaths.samplePoses(_path, POSE_COUNT);
+		_displacements = BenchmarkPaths.getDisplacements(_poses, _path.isReversed());
+		// the robot pose as RobotState.getLatest() hands it to the followers
+		_x = new double[POSE_COUNT];
+		_y = new double[POSE_COUNT];
+		_cos = new double[POSE_COUNT];
+		_sin = new double[POSE_COUNT];
+		for (int i = 0; i < POSE_COUNT; i++) {
+			_x[i] = _poses[i].getTranslation().x();
+			_y[i] = _poses[i].getTranslation().y();
+			_cos[i] = _poses[i].getRotation().cos();
+			_sin[i] = _poses[i].getRotation().sin();
+		}
+		
+		_cursor = new PathCursor(_path);
+		_steeringController = new AdaptivePurePursuitController(_path, _path.isReversed());
+		_pathFollower = new PathFollower(_path, _path.isReversed(), _path.maxAccel, _path.maxDecel, _path.inertiaSteeringGain);
+	}
+	
+	//=====================================================================================
+	// Path Building
+	//=====================================================================================
+	@Benchmark
+	public Path buildPathFromWaypoints() {
+		return Paths.buildPathsFromWaypoints(_pathNames, false)[0];
+	}
+	
+	//=====================================================================================
+	// Per Scan
+	//=====================================================================================
+	@Benchmark
+	public Path.TargetPointReport getTargetPoint() {
+		if (_cursorPoseIndex == POSE_COUNT) {
+			_cursorPoseIndex = 0;
+			_cursor.reset();
+		}
+		final int i = _cursorPoseIndex++;
+		return _cursor.getTargetPoint(_x[i], _y[i]);
+	}
+	
+	@Benchmark
+	public AdaptivePurePursuitController.Command adaptivePurePursuitUpdate() {
+		if (_steeringPoseIndex == POSE_COUNT) {
+			_steeringPoseIndex = 0;
+			_steeringController.reset();
+		}
+		final int i = _steeringPoseIndex++;
+		return _steeringController.update(_x[i], _y[i], _cos[i], _sin[i]);
+	}
+	
+	@Benchmark
+	public double pathFollowerUpdate() {
+		if (_followerPoseIndex == POSE_COUNT || _pathFollower.isFinished()) {
+			_followerPoseIndex = 0;
+			_pathFollower.reset();
+		}
+		_timestamp += SCAN_PERIOD_SEC;
+		final int i = _followerPoseIndex++;
+		_pathFollower.update(_timestamp, _x[i], _y[i], _cos[i], _sin[i], _displacements[i], _path.isReversed() ? -VELOCITY : VELOCITY);
+		return _pathFollower.getCommandDx() + _pathFollower.getCommandDtheta();
+	}
+}
@@ -0,0 +1,131 @@
+package org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.usfirst.frc.team4028.robot.Constants;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile.MotionProfileGoal.CompletionBehavior;
+
+/** Profile generation & the per scan setpoint, w/ the constraints PathFollower uses */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MotionProfileBenchmark {
+	private static final double SCAN_PERIOD_SEC = 0.01;
+	private static final double GOAL_POS = 200.0; // inches
+	private static final int LONG_PROFILE_SEGMENT_COUNT = 256;
+	
+	private final MotionProfileConstraints _constraints = new MotionProfileConstraints(Constants.PATH_FOLLOWING_MAX_VEL, 100.0, 100.0);
+	private final MotionProfileGoal _goal = new MotionProfileGoal(GOAL_POS, 0.0, CompletionBehavior.VIOLATE_MAX_ACCEL,
+			Constants.PATH_FOLLOWING_GOAL_POS_TOLERANCE, Constants.PATH_FOLLOWING_GOAL_VEL_TOLERANCE);
+	private final MotionState _restState = new MotionState(0.0, 0.0, 0.0, 0.0);
+	private final MotionState _movingState = new MotionState(0.0, 20.0, 60.0, 0.0);
+	private final SetpointGenerator.Setpoint _restSetpoint = new SetpointGenerator.Setpoint(_restState, false);
+	private final MotionProfileGoal _movingGoal = new MotionProfileGoal(0.0);
+	private final MotionProfile _profile = new MotionProfile();
+	
+	private SetpointGenerator _setpointGenerator;
+	private SetpointGenerator.Setpoint _setpoint;
+	private double _timestamp;
+	private MotionProfile _longProfile;
+	private double _sampleTime;
+	
+	@Setup
+	public void setup() {
+		_setpointGenerator = new SetpointGenerator();
+		restartSetpoints();
+		
+		// speeds up & slows down over and over, pos only ever increases
+		_longProfile = new MotionProfile();
+		_longProfile.reset(new MotionState(0.0, 0.0, 10.0, 0.0));
+		for (int i = 0; i < LONG_PROFILE_SEGMENT_COUNT; i++) {
+			_longProfile.appendControl((i % 2 == 0) ? 50.0 : -50.0, 0.1);
+		}
+	}
+	
+	@Benchmark
+	public MotionProfile generateProfileFromRest() {
+		return MotionProfileGenerator.generateProfile(_constraints, _goal, _restState);
+	}
+	
+	@Benchmark
+	public MotionProfile generateProfileWhileMoving() {
+		return MotionProfileGenerator.generateProfile(_constraints, _goal, _movingState);
+	}
+	
+	/** same, regenerated into a reused profile like SetpointGenerator does */
+	@Benchmark
+	public MotionProfile generateProfileWhileMovingReused() {
+		MotionProfileGenerator.generateProfile(_constraints, _goal, _movingState.t(), _movingState.pos(), _movingState.vel(),
+				_movingState.acc(), _profile);
+		return _profile;
+	}
+	
+	/** same goal every scan, the last setpoint is fed back (the profile is reused & trimmed) */
+	@Benchmark
+	public SetpointGenerator.Setpoint getSetpointFixedGoal() {
+		_timestamp += SCAN_PERIOD_SEC;
+		SetpointGenerator.Setpoint setpoint = _setpointGenerator.getSetpoint(_constraints, _goal,
+				_setpoint.t, _setpoint.pos, _setpoint.vel, _setpoint.acc, _timestamp);
+		_setpoint = setpoint;
+		if (setpoint.final_setpoint) {
+			restartSetpoints();
+		}
+		return setpoint;
+	}
+	
+	/** new goal every scan, like PathFollower (goal = distance driven + steering dx) */
+	@Benchmark
+	public SetpointGenerator.Setpoint getSetpointMovingGoal() {
+		return getSetpointMovingGoal(0.0, 0.0);
+	}
+	
+	/** same, w/ PathFollower's goal reuse tolerance */
+	@Benchmark
+	public SetpointGenerator.Setpoint getSetpointMovingGoalReused() {
+		return getSetpointMovingGoal(Constants.PATH_FOLLOWING_GOAL_REUSE_POS_TOLERANCE, Constants.PATH_FOLLOWING_GOAL_REUSE_VEL_TOLERANCE);
+	}
+	
+	/** one sample per scan along a long profile (binary search by time) */
+	@Benchmark
+	public double sampleLongProfileByTime() {
+		_sampleTime += SCAN_PERIOD_SEC;
+		if (_sampleTime > _longProfile.endTime()) {
+			_sampleTime = 0.0;
+		}
+		return _longProfile.posByTimeClamped(_sampleTime) + _longProfile.velByTimeClamped(_sampleTime);
+	}
+	
+	/** speed lookup by distance along a long profile, like PathSegment.getSpeedByDistance() */
+	@Benchmark
+	public double sampleLongProfileByPos() {
+		_sampleTime += SCAN_PERIOD_SEC;
+		if (_sampleTime > _longProfile.endTime()) {
+			_sampleTime = 0.0;
+		}
+		return _longProfile.firstVelByPos(_longProfile.endPos() * _sampleTime / _longProfile.endTime());
+	}
+	
+	private SetpointGenerator.Setpoint getSetpointMovingGoal(double posReuseTolerance, double velReuseTolerance) {
+		_setpointGenerator.setGoalReuseTolerance(posReuseTolerance, velReuseTolerance);
+		_timestamp += SCAN_PERIOD_SEC;
+		_movingGoal.set(_setpoint.pos + 30.0, 60.0, CompletionBehavior.VIOLATE_MAX_ACCEL,
+				Constants.PATH_FOLLOWING_GOAL_POS_TOLERANCE, Constants.PATH_FOLLOWING_GOAL_VEL_TOLERANCE);
+		SetpointGenerator.Setpoint setpoint = _setpointGenerator.getSetpoint(_constraints, _movingGoal,
+				_setpoint.t, _setpoint.pos, _setpoint.vel, _setpoint.acc, _timestamp);
+		_setpoint = setpoint;
+		return setpoint;
+	}
+	
+	private void restartSetpoints() {
+		_setpointGenerator.reset();
+		_timestamp = 0.0;
+		_setpoint = _restSetpoint;
+	}
+}
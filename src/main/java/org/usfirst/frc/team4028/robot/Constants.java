@@ -41,7 +41,23 @@ public class Constants
 	public static final double PATH_FOLLOWING_PROFILE_KFFA = 0.1;
 	public static final double PATH_FOLLOWING_GOAL_POS_TOLERANCE = 0.75;
 	public static final double PATH_FOLLOWING_GOAL_VEL_TOLERANCE = 12.0;
+	// the goal moves a little every scan, within this of the goal the current velocity profile was made for it is reused
+	//  4 in covers 1 20 mSec scan at PATH_FOLLOWING_MAX_VEL (3.6 in), all paths command the same velocities as w/ 0
+	public static final double PATH_FOLLOWING_GOAL_REUSE_POS_TOLERANCE = 4.0; // inches
+	public static final double PATH_FOLLOWING_GOAL_REUSE_VEL_TOLERANCE = 2.0; // inches per second
 	public static final double PATH_STOP_STEERING_DISTANCE = 2.0;
+	// paths are pre-built at compile time by PathCacheGenerator (gradle generatePathCache) into this jar resource
+	//  when disabled (or the resource is missing) every path is built from its waypoints in robotInit
+	public static final boolean IS_PATH_CACHE_ENABLED = true;
+	public static final String PATH_CACHE_RESOURCE = "/pathCache.bin";
+	// same for the trajectories, sampled at compile time by TrajectoryTableGenerator (gradle generateTrajectoryCache)
+	public static final String TRAJECTORY_CACHE_RESOURCE = "/trajectoryCache.bin";
+	// trajectory following: a path is sampled 1x (TrajectorySampler) into a fixed dt table of wheel velocities that is
+	//  streamed as the feedforward, pure pursuit & the distance driven only correct the error from it
+	public static final double TRAJECTORY_SAMPLE_PERIOD_SEC = 0.01;
+	public static final double TRAJECTORY_MAX_DURATION_SEC = 15.0; // a whole auton
+	public static final double TRAJECTORY_STEERING_CORRECTION_GAIN = 0.5; // 0 = table only .. 1 = pure pursuit only
+	public static final double TRAJECTORY_DISTANCE_CORRECTION_KP = 2.0; // inches per second per inch behind the table
 	
 	public static final double CELERY_SPEED = 0.0000001;
 	public static final double TURTLE_SPEED = 20;
@@ -58,12 +74,34 @@ public class Constants
 	public static final double DRIVE_VELOCITY_MAX_SETPOINT = 15 * 12.0; // 15 fps
 	//Deadbands for Chassis
 	public static final double CHASSIS_DRIVE_SET_DISTANCE_DEADBAND = 1.0;
+	// Optional dedicated chassis control thread (odometry, pure pursuit, auto turn, drive set distance)
+	//  when disabled the chassis is updated from autonomousPeriodic at the 50 Hz main loop rate
+	public static final boolean IS_CHASSIS_CONTROL_LOOP_ENABLED = false;
+	public static final double CHASSIS_CONTROL_LOOP_PERIOD_SEC = 0.005; // 200 Hz
 	
 	// Logging
 	// this is where the USB stick is mounted on the RoboRIO filesystem.  
 	// You can confirm by logging into the RoboRIO using WinSCP
 	public static final String PRIMARY_LOG_FILE_PATH = "/media/sda1/logging";
 	public static final String ALTERNATE_LOG_FILE_PATH = "/media/sdb1/logging";
+	// when true, scans are queued as primitive records and written in binary by a background thread
+	// use BinaryLogConverter offline (gradlew convertBinaryLog -PlogFile=<file.bin>) to turn a .bin log back into the familiar .tsv
+	public static final boolean IS_BINARY_LOGGING_ENABLED = true;
+	public static final int BINARY_LOG_RING_BUFFER_CAPACITY = 1024; // records (~20 sec @ 50 Hz)
+	public static final long BINARY_LOG_FLUSH_INTERVAL_MSEC = 500;
+	
+	// Loop Profiler
+	public static final long LOOP_BUDGET_NANOS = 20 * 1000000L; // TimedRobot default period
+	public static final long LOOP_PROFILER_BUCKET_WIDTH_NANOS = 50 * 1000L; // 50 uSec resolution
+	public static final int LOOP_PROFILER_BUCKET_COUNT = 1000; // spans 50 mSec
+	public static final long LOOP_PROFILER_DASHBOARD_PERIOD_MSEC = 1000;
+	
+	// Auton waits this long for the FMS game data (w/o blocking) before it runs the fallback auton
+	public static final double GAME_DATA_TIMEOUT_SEC = 0.5;
+	
+	// Dashboard Publisher (the FAST / NORMAL / SLOW tiers are multiples of this period, see DashboardPublisher.TIER)
+	public static final double DASHBOARD_PUBLISH_PERIOD_SEC = 0.02;
+	public static final int DASHBOARD_MAX_KEYS = 256;
 	
 	public static final int BIG_NUMBER = (int)1e6;
 	public static final double EPSILON_NEGATIVE_6 = 1e-6;
@@ -3,14 +3,22 @@ package org.usfirst.frc.team4028.robot;
 // #region
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.Paths;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.Paths.Center;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.Paths.Left;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.Paths.Right;
 import org.usfirst.frc.team4028.robot.commands.Auton_CG_BaseLine;
 import org.usfirst.frc.team4028.robot.commands.Auton_CG_ChassisTune;
 import org.usfirst.frc.team4028.robot.commands.Auton_CG_Switch;
 import org.usfirst.frc.team4028.robot.commands.Auton_DoNothing;
 import org.usfirst.frc.team4028.robot.commands.Auton_CG_PIDTune;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher.TIER;
 
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
@@ -28,7 +36,7 @@ import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
  *		- provide real-time info to the drive team
  */
 public class Dashboard {
-	private enum AUTON_MODE {
+	public enum AUTON_MODE {
 		UNDEFINED,
 		DO_NOTHING,
 		AUTO_RUN,
@@ -45,7 +53,7 @@ public class Dashboard {
 		AUTO_TUNE,
 		TEST_AUTON
 	}
-	private enum STARTING_SIDE {
+	public enum STARTING_SIDE {
 		LEFT,
 		RIGHT
 	}
@@ -53,7 +61,25 @@ public class Dashboard {
 	private SendableChooser<AUTON_MODE> _autonModeChooser = new SendableChooser<>();
 	private SendableChooser<STARTING_SIDE> _autonStartingSideChooser = new SendableChooser<>();
 	
-	private boolean _isSwitchLeft, _isScaleLeft, _isStartingLeft = true;
+	private boolean _isSwitchLeft, _isScaleLeft;
+	
+	// last selection whose paths were handed to Paths.prewarmInBackground
+	private AUTON_MODE _prewarmedAutonMode = null;
+	private STARTING_SIDE _prewarmedStartingSide = null;
+	
+	// game data watcher: FMS string cached the 1st scan it shows up
+	private String _gameData = "";
+	
+	// every auton routine built ahead of time, indexed [auton mode][starting side][switch / scale sides LL, LR, RL, RR]
+	//	autons that don't use the game data only fill the LL slot, a slot is null until it is built (1 per disabled scan)
+	//	& again once its routine is handed off
+	private static final int GAME_DATA_PERMUTATION_COUNT = 4;
+	private final CommandGroup[][][] _autonTable 
+		= new CommandGroup[AUTON_MODE.values().length][STARTING_SIDE.values().length][GAME_DATA_PERMUTATION_COUNT];
+	private int _autonTableEmptySlotCount;
+	private double _autonTableBuildMSec, _autonTableMaxSlotBuildMSec;
+	
+	private int _dashAutonSelected, _dashAutonTableBuildMSec, _dashAutonTableMaxSlotBuildMSec;
 	
 	//=====================================================================================
 	// Define Singleton Pattern
@@ -84,22 +110,198 @@ public class Dashboard {
 		_autonStartingSideChooser.addDefault("LEFT", STARTING_SIDE.LEFT);
 		_autonStartingSideChooser.addObject("RIGHT", STARTING_SIDE.RIGHT);
 		SmartDashboard.putData("AUTON STARTING SIDE: ", _autonStartingSideChooser);
+		
+		// nothing is built at boot (that would load every path), refillAutonTable fills the table while disabled
+		_autonTableEmptySlotCount = getAutonTableSelections().size();
 	}
 	
 	public boolean isGameDataReceived() {
+		return _gameData.length() > 0;
+	}
+	
+	/** 
+	 * Called every scan from disabledPeriodic & autonomousInit / Periodic, never blocks.
+	 * Caches the FMS game data the scan it arrives (or changes), the auton for it is already in the auton table
+	 */
+	public void pollGameData() {
 		String gameData = DriverStation.getInstance().getGameSpecificMessage();
 		//String gameData = "LLL";
 		
-		if (gameData.length() > 0) {
+		if (gameData == null || gameData.length() < 2) {
+			// the DS clears the message between matches, don't hold on to the last match's sides
+			clearGameData();
+		} else if (!gameData.equals(_gameData)) {
+			_gameData = gameData;
 			_isSwitchLeft = (gameData.charAt(0) == 'L');
 			_isScaleLeft = (gameData.charAt(1) == 'L');
 			DriverStation.reportWarning("GAMEDATA: "+ gameData, false);
-			return true;
-		} else {
-			return false;
 		}
 	}
 	
+	/** Called from disabledInit, the next auton only uses game data read after this, never the last match's */
+	public void clearGameData() {
+		_gameData = "";
+		_isSwitchLeft = false;
+		_isScaleLeft = false;
+	}
+	
+	/** 
+	 * Hands off the auton table's routine for the current selection & game data (an O(1) lookup, its slot is
+	 * rebuilt later by refillAutonTable), builds it now if its slot isn't filled yet,
+	 * or returns null while the selected auton is still waiting on game data
+	 */
+	public CommandGroup takePreparedAuton() {
+		AUTON_MODE autonMode = getImplementedAutonMode(_autonModeChooser.getSelected());
+		if (isGameDataNeeded(autonMode) && !isGameDataReceived()) {
+			return null;
+		}
+		STARTING_SIDE startingSide = _autonStartingSideChooser.getSelected();
+		if (startingSide == null) {
+			startingSide = STARTING_SIDE.LEFT;
+		}
+		int gameDataIndex = isGameDataNeeded(autonMode) ? getGameDataIndex(_isSwitchLeft, _isScaleLeft) : 0;
+		
+		CommandGroup auton = _autonTable[autonMode.ordinal()][startingSide.ordinal()][gameDataIndex];
+		if (auton == null) {
+			// not built yet, already handed off & not refilled yet, or not safe to build ahead of time
+			return buildAuton(autonMode, startingSide == STARTING_SIDE.LEFT, _isSwitchLeft, _isScaleLeft);
+		}
+		_autonTable[autonMode.ordinal()][startingSide.ordinal()][gameDataIndex] = null;
+		_autonTableEmptySlotCount++;
+		return auton;
+	}
+	
+	//=====================================================================================
+	// Auton Table
+	//=====================================================================================
+	/** 
+	 * Called from disabledPeriodic, builds at most 1 empty slot per scan (all of them after boot, then the ones whose
+	 * routine was handed off so a practice auton can be rerun), so no routine is built (class loading, command
+	 * construction, path lookups) in the 1st scans of the match & boot doesn't load every path
+	 */
+	public void refillAutonTable() {
+		if (_autonTableEmptySlotCount == 0) {
+			return;
+		}
+		for (AUTON_MODE autonMode : AUTON_MODE.values()) {
+			if (!isPrebuilt(autonMode)) {
+				continue;
+			}
+			for (STARTING_SIDE startingSide : STARTING_SIDE.values()) {
+				for (int gameDataIndex = 0; gameDataIndex < getGameDataPermutationCount(autonMode); gameDataIndex++) {
+					if (_autonTable[autonMode.ordinal()][startingSide.ordinal()][gameDataIndex] == null) {
+						long startNanos = System.nanoTime();
+						buildAutonTableSlot(autonMode, startingSide, gameDataIndex);
+						double buildMSec = (System.nanoTime() - startNanos) / 1E6;
+						_autonTableBuildMSec += buildMSec;
+						_autonTableMaxSlotBuildMSec = Math.max(_autonTableMaxSlotBuildMSec, buildMSec);
+						_autonTableEmptySlotCount--;
+						return;
+					}
+				}
+			}
+		}
+		_autonTableEmptySlotCount = 0;
+	}
+	
+	/** 
+	 * Every selection & game data the auton table holds a routine for (the same slots refillAutonTable fills),
+	 * so the simulator runs exactly the routines the drive team can pick
+	 */
+	public List<AutonSelection> getAutonTableSelections() {
+		List<AutonSelection> selections = new ArrayList<AutonSelection>();
+		for (AUTON_MODE autonMode : AUTON_MODE.values()) {
+			if (!isPrebuilt(autonMode)) {
+				continue;
+			}
+			for (STARTING_SIDE startingSide : STARTING_SIDE.values()) {
+				for (int gameDataIndex = 0; gameDataIndex < getGameDataPermutationCount(autonMode); gameDataIndex++) {
+					selections.add(new AutonSelection(autonMode, startingSide, gameDataIndex, isGameDataNeeded(autonMode)));
+				}
+			}
+		}
+		return selections;
+	}
+	
+	/** Returns a new routine for the selection, built the same way as the auton table's */
+	public CommandGroup buildAuton(AutonSelection selection) {
+		return buildAuton(selection.autonMode, selection.startingSide == STARTING_SIDE.LEFT, 
+				selection.isSwitchLeft, selection.isScaleLeft);
+	}
+	
+	/** An auton mode, starting side & switch / scale sides (1 slot of the auton table) */
+	public static class AutonSelection {
+		public final AUTON_MODE autonMode;
+		public final STARTING_SIDE startingSide;
+		public final boolean isSwitchLeft, isScaleLeft;
+		private final boolean _isGameDataNeeded;
+		
+		private AutonSelection(AUTON_MODE autonMode, STARTING_SIDE startingSide, int gameDataIndex, boolean isGameDataNeeded) {
+			this.autonMode = autonMode;
+			this.startingSide = startingSide;
+			this.isSwitchLeft = (gameDataIndex & 2) == 0;
+			this.isScaleLeft = (gameDataIndex & 1) == 0;
+			_isGameDataNeeded = isGameDataNeeded;
+		}
+		
+		/** ex. SWITCH_LEFT_RL (switch & scale sides only for autons that use the game data) */
+		@Override
+		public String toString() {
+			return autonMode + "_" + startingSide 
+					+ (_isGameDataNeeded ? "_" + (isSwitchLeft ? "L" : "R") + (isScaleLeft ? "L" : "R") : "");
+		}
+	}
+	
+	private void buildAutonTableSlot(AUTON_MODE autonMode, STARTING_SIDE startingSide, int gameDataIndex) {
+		_autonTable[autonMode.ordinal()][startingSide.ordinal()][gameDataIndex] = buildAuton(autonMode, 
+				startingSide == STARTING_SIDE.LEFT, (gameDataIndex & 2) == 0, (gameDataIndex & 1) == 0);
+	}
+	
+	/** LL = 0, LR = 1, RL = 2, RR = 3 (switch side, scale side) */
+	private static int getGameDataIndex(boolean isSwitchLeft, boolean isScaleLeft) {
+		return (isSwitchLeft ? 0 : 2) + (isScaleLeft ? 0 : 1);
+	}
+	
+	private int getGameDataPermutationCount(AUTON_MODE autonMode) {
+		return isGameDataNeeded(autonMode) ? GAME_DATA_PERMUTATION_COUNT : 1;
+	}
+	
+	/** 
+	 * Only the modes buildAuton has a routine for are prebuilt (the rest run DO_NOTHING, see getImplementedAutonMode),
+	 * Chassis Tune takes over the drive Talons in its constructor so it is only built when it is run
+	 */
+	private boolean isPrebuilt(AUTON_MODE autonMode) {
+		switch(autonMode) {
+			case DO_NOTHING:
+			case AUTO_RUN:
+			case SWITCH:
+				return true;
+			default:
+				return false;
+		}
+	}
+	
+	/** The selected mode, or DO_NOTHING for modes buildAuton has no routine for (yet) & no selection */
+	private static AUTON_MODE getImplementedAutonMode(AUTON_MODE autonMode) {
+		if (autonMode == null) {
+			return AUTON_MODE.DO_NOTHING;
+		}
+		switch(autonMode) {
+			case DO_NOTHING:
+			case AUTO_RUN:
+			case SWITCH:
+			case AUTO_TUNE:
+				return autonMode;
+			default:
+				return AUTON_MODE.DO_NOTHING;
+		}
+	}
+	
+	/** Run when the game data has not arrived GAME_DATA_TIMEOUT_SEC into auton, does not depend on the field sides */
+	public CommandGroup getGameDataFallbackAuton() {
+		return new Auton_CG_BaseLine();
+	}
+	
 	public boolean isBlueAlliance() {
 		return DriverStation.getInstance().getAlliance() == Alliance.Blue;
 	}
@@ -111,77 +313,75 @@ public class Dashboard {
 		DriverStation.reportWarning(">>>>> Is FMS Attached : [" + isFMSAttached + "] <<<<<<", false);
 	}
 	
-	/** Returns the autonBase object associated with the auton selected on the dashboard */
-	public CommandGroup getSelectedAuton() {
+	/** Returns a new autonBase object for the auton mode, starting side & switch / scale sides */
+	private CommandGroup buildAuton(AUTON_MODE autonMode, boolean isStartingLeft, boolean isSwitchLeft, boolean isScaleLeft) {
 		//return new Auton_CG_BaseLine();
-		_isStartingLeft = (_autonStartingSideChooser.getSelected() == STARTING_SIDE.LEFT);
-		
-		switch(_autonModeChooser.getSelected()) {
+		switch(autonMode) {
 			case DO_NOTHING:
 				return new Auton_DoNothing();
 			case AUTO_RUN:
 				return new Auton_CG_BaseLine();
 			case SWITCH:
-				return new Auton_CG_Switch(_isSwitchLeft);
+				return new Auton_CG_Switch(isSwitchLeft);
 			case AUTO_TUNE:
 			return new Auton_CG_ChassisTune();
 			/*case DOUBLE_SWITCH:
-				return new DoubleSwitch(_isSwitchLeft);
+				return new DoubleSwitch(isSwitchLeft);
 			case SCALE:
-				return new Scale(_isScaleLeft, _isStartingLeft);
+				return new Scale(isScaleLeft, isStartingLeft);
 			case SCALE_OUTSIDE:
-				if (_isScaleLeft == _isStartingLeft) {
-					return new ScaleOutside(_isStartingLeft);
-				} else if (_isSwitchLeft == _isStartingLeft) {
-					return new ToSwitchThenBackCenter(_isStartingLeft);
+				if (isScaleLeft == isStartingLeft) {
+					return new ScaleOutside(isStartingLeft);
+				} else if (isSwitchLeft == isStartingLeft) {
+					return new ToSwitchThenBackCenter(isStartingLeft);
 				} else {
-					return new ToBackCenter(_isStartingLeft);
+					return new ToBackCenter(isStartingLeft);
 				}
 			case DOUBLE_SCALE:
-				return new DoubleScale(_isScaleLeft, _isStartingLeft);
+				return new DoubleScale(isScaleLeft, isStartingLeft);
 			case SCALE_THEN_SWITCH:
-				if(_isScaleLeft == _isSwitchLeft) {
-					return new ScaleThenSwitchSameSide(_isScaleLeft);
-				} else if (!_isScaleLeft && _isSwitchLeft){
+				if(isScaleLeft == isSwitchLeft) {
+					return new ScaleThenSwitchSameSide(isScaleLeft);
+				} else if (!isScaleLeft && isSwitchLeft){
 					return new CloseSwitchFarScale();
 				} else {
 					return new FarSwitchCloseScale();
 				}
 			case DOUBLE_SCALE_THEN_SWITCH:
-				if (_isStartingLeft) {
-					if (_isScaleLeft && _isSwitchLeft) {
-						return new DoubleScaleAndSwitch(_isScaleLeft);
-					} else if (!_isScaleLeft && !_isSwitchLeft) {
-						return new ScaleThenSwitchSameSide(_isScaleLeft);
-					} else if (_isScaleLeft && !_isSwitchLeft){
+				if (isStartingLeft) {
+					if (isScaleLeft && isSwitchLeft) {
+						return new DoubleScaleAndSwitch(isScaleLeft);
+					} else if (!isScaleLeft && !isSwitchLeft) {
+						return new ScaleThenSwitchSameSide(isScaleLeft);
+					} else if (isScaleLeft && !isSwitchLeft){
 						return new FarSwitchCloseScale();
 					} else {
 						return new CloseSwitchFarScale();
 					}
 				} else {
-					if (!_isScaleLeft && !_isSwitchLeft) {
-						return new DoubleScaleAndSwitch(_isScaleLeft);
-					} else if (_isScaleLeft && _isSwitchLeft) {
-						return new ScaleThenSwitchSameSide(_isScaleLeft);
+					if (!isScaleLeft && !isSwitchLeft) {
+						return new DoubleScaleAndSwitch(isScaleLeft);
+					} else if (isScaleLeft && isSwitchLeft) {
+						return new ScaleThenSwitchSameSide(isScaleLeft);
 					} else {
 						return new FarSwitchCloseScale();
 					}
 				}
 				
 			case TRIPLE_SCALE:
-				if (_isStartingLeft == _isScaleLeft) {
-					return new TripleScale(_isStartingLeft);
+				if (isStartingLeft == isScaleLeft) {
+					return new TripleScale(isStartingLeft);
 				} else {
-					return new DoubleScale(_isScaleLeft, _isStartingLeft);
+					return new DoubleScale(isScaleLeft, isStartingLeft);
 				}
 				
 			case TRIPLE_SCALE_SAME_SIDE:
-				if (_isScaleLeft == _isStartingLeft) {
-					return new TripleScale(_isStartingLeft);
-				} else if (_isSwitchLeft == _isStartingLeft) {
-					return new ToSwitchThenBackCenter(_isStartingLeft);
+				if (isScaleLeft == isStartingLeft) {
+					return new TripleScale(isStartingLeft);
+				} else if (isSwitchLeft == isStartingLeft) {
+					return new ToSwitchThenBackCenter(isStartingLeft);
 				} else {
-					return new ToBackCenter(_isStartingLeft);
+					return new ToBackCenter(isStartingLeft);
 				}
 				
 			case EXPERIMENTAL:
@@ -196,8 +396,69 @@ public class Dashboard {
 		//return null;
 	}
 	
-	public void outputToDashboard() {
-		SmartDashboard.putString("AUTON SELECTED", _autonModeChooser.getSelected().toString());
+	/** Autons that pick their paths from the switch / scale sides can't be built until the game data is here */
+	private boolean isGameDataNeeded(AUTON_MODE autonMode) {
+		switch(autonMode) {
+			case SWITCH:
+				return true;
+			default:
+				return false;
+		}
+	}
+	
+	/** 
+	 * Called from disabledPeriodic, when the auton / starting side selection changes the paths that selection
+	 * can use (both field sides, game data isn't known yet) are built in the background
+	 */
+	public void prewarmSelectedAutonPaths() {
+		AUTON_MODE autonMode = _autonModeChooser.getSelected();
+		STARTING_SIDE startingSide = _autonStartingSideChooser.getSelected();
+		if (autonMode == _prewarmedAutonMode && startingSide == _prewarmedStartingSide) {
+			return;
+		}
+		_prewarmedAutonMode = autonMode;
+		_prewarmedStartingSide = startingSide;
+		
+		if (autonMode == null) {
+			return;
+		}
+		switch(autonMode) {
+			case AUTO_RUN:
+				Paths.prewarmInBackground(Center.AUTO_RUN);
+				break;
+			case SWITCH:
+				Paths.prewarmInBackground(Center.L_SWITCH, Center.R_SWITCH);
+				break;
+			case DOUBLE_SWITCH:
+				Paths.prewarmInBackground(Center.L_SWITCH, Center.R_SWITCH, 
+						Center.L_SWITCH_TO_PYRAMID_FRONT, Center.R_SWITCH_TO_PYRAMID_FRONT,
+						Center.TO_PYRAMID, Center.FROM_PYRAMID, 
+						Center.S_TURN_TO_L_SWITCH, Center.S_TURN_TO_R_SWITCH,
+						Center.AWAY_FROM_L_SWITCH, Center.AWAY_FROM_R_SWITCH,
+						Center.PYRAMID_AGAIN_FROM_L, Center.PYRAMID_AGAIN_FROM_R);
+				break;
+			case SCALE:
+				if (startingSide == STARTING_SIDE.RIGHT) {
+					Paths.prewarmInBackground(Right.L_SCALE, Right.R_SCALE);
+				} else {
+					Paths.prewarmInBackground(Left.L_SCALE, Left.R_SCALE);
+				}
+				break;
+			default:
+				break;
+		}
+	}
+	
+	public void registerDashboardKeys(DashboardPublisher publisher) {
+		_dashAutonSelected = publisher.registerString("AUTON SELECTED", TIER.NORMAL);
+		_dashAutonTableBuildMSec = publisher.registerNumber("Auton: Table Build Time [ms]", TIER.SLOW, 0.01);
+		_dashAutonTableMaxSlotBuildMSec = publisher.registerNumber("Auton: Table Max Slot Build Time [ms]", TIER.SLOW, 0.01);
+	}
+
+	public void outputToDashboard(DashboardPublisher publisher) {
+		publisher.set(_dashAutonSelected, _autonModeChooser.getSelected().toString());
+		publisher.set(_dashAutonTableBuildMSec, _autonTableBuildMSec);
+		publisher.set(_dashAutonTableMaxSlotBuildMSec, _autonTableMaxSlotBuildMSec);
 		// 	    	SmartDashboard.putString("FMS Debug Msg", _fmsDebugMsg);
 	}
 }
\ No newline at end of file
@@ -13,9 +13,6 @@ import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.command.Command;
 import edu.wpi.first.wpilibj.command.Scheduler;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
-
-import java.util.Date;
 
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.Paths;
 import org.usfirst.frc.team4028.robot.commands.Elevator_ZeroElevator;
@@ -26,9 +23,13 @@ import org.usfirst.frc.team4028.robot.subsystems.Chassis;
 import org.usfirst.frc.team4028.robot.subsystems.Climber;
 import org.usfirst.frc.team4028.robot.subsystems.Elevator;
 import org.usfirst.frc.team4028.robot.subsystems.Infeed;
+import org.usfirst.frc.team4028.robot.util.CachingTalonSRX;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher.TIER;
 import org.usfirst.frc.team4028.robot.util.GeneralUtilities;
 import org.usfirst.frc.team4028.robot.util.LogDataBE;
-import org.usfirst.frc.team4028.robot.util.MovingAverage;
+import org.usfirst.frc.team4028.robot.util.LoopProfiler;
+import org.usfirst.frc.team4028.robot.util.LoopProfiler.PHASE;
 import org.usfirst.frc.team4028.robot.util.DataLogger;
 // #endregion
 
@@ -49,14 +50,17 @@ public class Robot extends TimedRobot
 	private Infeed _infeed = Infeed.getInstance();
 	private OI _oi = OI.getInstance();
 	private SwitchableCameraServer _camera = SwitchableCameraServer.getInstance();
+	private LoopProfiler _profiler = LoopProfiler.getInstance();
+	private DashboardPublisher _publisher = DashboardPublisher.getInstance();
 
 	
 	// class level working variables
 	private DataLogger _dataLogger = null;
+	private LogDataBE _logData = new LogDataBE();
 	private String _buildMsg = "?";
- 	long _lastScanEndTimeInMSec = 0;
- 	long _lastDashboardWriteTimeMSec;
- 	MovingAverage _scanTimeSamples;
+	private Command _autonCommand = null;	// null until the selected auton's game data is here
+	private double _autonInitTime;
+	private int _dashBuildMsg;
  	
 	/**
 	 * This function is run when the robot is first started up and should be used for any initialization code.
@@ -65,10 +69,14 @@ public class Robot extends TimedRobot
 	public void robotInit() 
 	{
 		_chassis.stop();
-		Paths.buildPaths();
+		Paths.buildPaths();	// loads the pre-built path cache, see PathCacheGenerator
+		registerAllLogChannels();
+		registerAllDashboardKeys();
 		_buildMsg = GeneralUtilities.WriteBuildInfoToDashboard(ROBOT_NAME);
+		_publisher.set(_publisher.registerNumber("Auton: Path Load Time [ms]", TIER.SLOW, 0), Paths.getPathLoadTimeMSec());
 
 		outputAllToDashboard();
+		_publisher.start();
 	}
 
 	/**
@@ -78,13 +86,28 @@ public class Robot extends TimedRobot
 	 */
 	@Override
 	public void disabledInit() {
-
+		_chassis.stopControlLoop();
+		_dashboard.clearGameData();	// the next auton waits for this match's game data
+		
+		// close out the auton / teleop log so the background writer can drain to the USB stick
+		if (_dataLogger != null) {
+			_dataLogger.close();
+			_dataLogger = null;
+		}
 	}
 
 	@Override
 	public void disabledPeriodic() {
+		readAllSensors();
 		Scheduler.getInstance().run();
-
+		
+		// build the paths the selected auton can use now, not in autonomousInit
+		_dashboard.prewarmSelectedAutonPaths();
+		
+		// cache the game data as soon as it shows up & build the next auton table slot (every auton routine for every
+		//	game data, so auton start is a lookup)
+		_dashboard.pollGameData();
+		_dashboard.refillAutonTable();
 	}
 
 	/**
@@ -92,26 +115,18 @@ public class Robot extends TimedRobot
 	 */
 	@Override
 	public void autonomousInit() {
+		CachingTalonSRX.invalidateAllIfReset();
 		_chassis.stop();
-		_dashboard.getSelectedAuton().start();
+		_autonInitTime = Timer.getFPGATimestamp();
+		_autonCommand = null;
+		startAutonWhenReady();	// never waits, if the game data is not here yet autonomousPeriodic keeps checking
 		Scheduler.getInstance().run();
 
 		_chassis.recordAutonStartTime();
 		_chassis.zeroSensors();
 		_chassis.setHighGear(true);
+		_chassis.startControlLoop();
 
-		int retries = 100;
-		
-		while(!_dashboard.isGameDataReceived() && retries > 0) {
-			retries--;
-			try { 
-				Thread.sleep(5);
-			} catch (InterruptedException ie) {}
-		}
-		
-		if (retries == 0) {
-			DriverStation.reportError("Failed To Receive Game Data", false);
-		}
 		if (!_infeed.get_hasArmsBeenZeroed()) {
 			Command reZeroInfeedArmsCommand = new Infeed_ZeroInfeedArms();
 			reZeroInfeedArmsCommand.start();
@@ -120,9 +135,9 @@ public class Robot extends TimedRobot
 			Command reZeroElevatorCommand = new Elevator_ZeroElevator();
 			reZeroElevatorCommand.start();
 		}
-		_lastDashboardWriteTimeMSec = new Date().getTime(); // snapshot time to control spamming
 		_dataLogger = GeneralUtilities.setupLogging("Auton"); // init data logging	
-		_dashboard.outputToDashboard();
+		_profiler.reset();
+		_dashboard.outputToDashboard(_publisher);
 	}
 
 	/**
@@ -131,16 +146,32 @@ public class Robot extends TimedRobot
 	@Override
 	public void autonomousPeriodic() 
 	{
+		long phaseStartNanos = _profiler.startScan();
+		
+		// ============= Snapshot Sensors (1x per scan) =============
+		readAllSensors();
+		phaseStartNanos = _profiler.lap(PHASE.SENSORS, phaseStartNanos);
+		
+		if (_autonCommand == null) {
+			startAutonWhenReady();
+		}
 		Scheduler.getInstance().run();
-		_chassis.updateChassis(Timer.getFPGATimestamp());
+		phaseStartNanos = _profiler.lap(PHASE.SCHEDULER, phaseStartNanos);
+		
+		_chassis.updateChassisFromMainLoop(Timer.getFPGATimestamp());
+		phaseStartNanos = _profiler.lap(PHASE.CHASSIS_UPDATE, phaseStartNanos);
 		// System.out.println(_chassis.isDoneWithPath());
 		
 		// ============= Refresh Dashboard =============
-		_dashboard.outputToDashboard();
+		_dashboard.outputToDashboard(_publisher);
 		outputAllToDashboard();
+		phaseStartNanos = _profiler.lap(PHASE.DASHBOARD, phaseStartNanos);
 		
 		// ============= Optionally Log Data =============
 		logAllData();
+		_profiler.lap(PHASE.LOGGING, phaseStartNanos);
+		
+		_profiler.endScan();
 	}
 
 	/**
@@ -163,10 +194,11 @@ public class Robot extends TimedRobot
 			Command reZeroElevatorCommand = new Elevator_ZeroElevator();
 			reZeroElevatorCommand.start();
 		}
+		CachingTalonSRX.invalidateAllIfReset();
+		_chassis.stopControlLoop();
 		_chassis.stop();
-		_lastDashboardWriteTimeMSec = new Date().getTime(); // snapshot time to control spamming
 		_dataLogger = GeneralUtilities.setupLogging("Teleop"); // init data logging
-		_lastDashboardWriteTimeMSec = new Date().getTime(); // snapshot time to control spamming
+		_profiler.reset();
 	}
 
 	/**
@@ -174,13 +206,25 @@ public class Robot extends TimedRobot
 	 */
 	@Override
 	public void teleopPeriodic() {
+		long phaseStartNanos = _profiler.startScan();
+		
+		// ============= Snapshot Sensors (1x per scan) =============
+		readAllSensors();
+		phaseStartNanos = _profiler.lap(PHASE.SENSORS, phaseStartNanos);
+		
 		Scheduler.getInstance().run();
+		phaseStartNanos = _profiler.lap(PHASE.SCHEDULER, phaseStartNanos);
+		
 		// ============= Refresh Dashboard =============
 		outputAllToDashboard();
-		_dashboard.outputToDashboard();
+		_dashboard.outputToDashboard(_publisher);
+		phaseStartNanos = _profiler.lap(PHASE.DASHBOARD, phaseStartNanos);
 		
 		// ============= Optionally Log Data =============
 		logAllData();
+		_profiler.lap(PHASE.LOGGING, phaseStartNanos);
+		
+		_profiler.endScan();
 	}
 
 	/**
@@ -189,52 +233,106 @@ public class Robot extends TimedRobot
 	@Override
 	public void testPeriodic() {}
 	
-	/** Method to Push Data to ShuffleBoard */
+	/** 
+	 * Starts the auton table's routine for the game data (see Dashboard.takePreparedAuton) the 1st scan it is here,
+	 * if the game data never shows up the fallback auton is started after GAME_DATA_TIMEOUT_SEC
+	 */
+	private void startAutonWhenReady() {
+		_dashboard.pollGameData();
+		_autonCommand = _dashboard.takePreparedAuton();
+		
+		if (_autonCommand == null && (Timer.getFPGATimestamp() - _autonInitTime) > Constants.GAME_DATA_TIMEOUT_SEC) {
+			DriverStation.reportError("Failed To Receive Game Data", false);
+			_autonCommand = _dashboard.getGameDataFallbackAuton();
+		}
+		if (_autonCommand != null) {
+			_autonCommand.start();
+		}
+	}
+	
+	/** Each subsystem reads its sensors exactly 1x into an immutable snapshot that the rest of the scan uses */
+	private void readAllSensors() {
+		// a Talon that reset mid mode (ex. brownout) lost its config, resend it on the next config call
+		CachingTalonSRX.invalidateAllIfReset();
+		_chassis.readSensors();
+		_elevator.readSensors();
+		_infeed.readSensors();
+		_carriage.readSensors();
+		_climber.readSensors();
+	}
+	
+	/**
+	 * Method to Push Data to ShuffleBoard
+	 * This only stages the values, the publisher thread sends the changed ones at each key's tier rate
+	 */
 	private void outputAllToDashboard() {
-		// limit spamming
-    	long scanCycleDeltaInMSecs = new Date().getTime() - _lastScanEndTimeInMSec;
-    	// add scan time sample to calc scan time rolling average
-    	//_scanTimeSamples.add(new BigDecimal(scanCycleDeltaInMSecs));
-    	
-    	if((new Date().getTime() - _lastDashboardWriteTimeMSec) > 100) {
-    		// each subsystem should add a call to a outputToSmartDashboard method
-    		// to push its data out to the dashboard
-
-    		_chassis.updateDashboard(); 
-    		_elevator.updateDashboard();
-    		_infeed.updateDashboard();
-    		_carriage.updateDashboard();
-	    	_climber.updateDashboard();
-	    	
-    		// write the overall robot dashboard info
-	    	SmartDashboard.putString("Robot Build", _buildMsg);
-	    	
-	    	//BigDecimal movingAvg = _scanTimeSamples.getAverage();
-	    	//DecimalFormat df = new DecimalFormat("####");
-	    	//SmartDashboard.putString("Scan Time (2 sec roll avg)", df.format(movingAvg) + " mSec");
-    		// snapshot last time
-    		_lastDashboardWriteTimeMSec = new Date().getTime();
-    	}
-    	
-    	// snapshot when this scan ended
-    	_lastScanEndTimeInMSec = new Date().getTime();
+		// each subsystem should add a call to a updateDashboard method
+		// to stage its data for the dashboard
+		long phaseStartNanos = System.nanoTime();
+		_chassis.updateDashboard(_publisher); 
+		phaseStartNanos = _profiler.lap(PHASE.CHASSIS_DASHBOARD, phaseStartNanos);
+		_elevator.updateDashboard(_publisher);
+		phaseStartNanos = _profiler.lap(PHASE.ELEVATOR_DASHBOARD, phaseStartNanos);
+		_infeed.updateDashboard(_publisher);
+		phaseStartNanos = _profiler.lap(PHASE.INFEED_DASHBOARD, phaseStartNanos);
+		_carriage.updateDashboard(_publisher);
+		phaseStartNanos = _profiler.lap(PHASE.CARRIAGE_DASHBOARD, phaseStartNanos);
+		_climber.updateDashboard(_publisher);
+		_profiler.lap(PHASE.CLIMBER_DASHBOARD, phaseStartNanos);
+		
+		// write the overall robot dashboard info
+		_publisher.set(_dashBuildMsg, _buildMsg);
+		CachingTalonSRX.updateDashboard(_publisher);
+		
+		// loop timing stats (p50 / p99 / max / overruns), published at a lower rate
+		_profiler.updateDashboard(_publisher);
+	}
+	
+	/** Each subsystem declares its dashboard keys & their tier 1x, like the log channels */
+	private void registerAllDashboardKeys() {
+		_dashBuildMsg = _publisher.registerString("Robot Build", TIER.SLOW);
+		_dashboard.registerDashboardKeys(_publisher);
+		_chassis.registerDashboardKeys(_publisher);
+		_elevator.registerDashboardKeys(_publisher);
+		_infeed.registerDashboardKeys(_publisher);
+		_carriage.registerDashboardKeys(_publisher);
+		_climber.registerDashboardKeys(_publisher);
+		CachingTalonSRX.registerDashboardKeys(_publisher);
+		_profiler.registerDashboardKeys(_publisher);
+	}
+	
+	/** Each subsystem declares its log channels 1x, the column set is fixed after this */
+	private void registerAllLogChannels() {
+		_chassis.registerLogChannels(_logData);
+		_elevator.registerLogChannels(_logData);
+		_infeed.registerLogChannels(_logData);
+		_carriage.registerLogChannels(_logData);
+		_climber.registerLogChannels(_logData);
+		_profiler.registerLogChannels(_logData);
 	}
 	
 	/** Method for Logging Data to the USB Stick plugged into the RoboRio */
 	private void logAllData() { 
 		// always call this 1st to calc drive metrics
     	if(_dataLogger != null) {    	
-	    	// create a new, empty logging class
-        	LogDataBE logData = new LogDataBE();
+	    	// reuse the same preallocated channel slots, just clear last scan's values
+	    	_logData.ResetData();
 	    	
-	    	// ask each subsystem that exists to add its data
-	    	_chassis.updateLogData(logData);
-	    	_elevator.updateLogData(logData);
-	    	_infeed.updateLogData(logData);
-	    	_carriage.updateLogData(logData);
-			_climber.updateLogData(logData);
+	    	// ask each subsystem that exists to set its channels
+	    	long phaseStartNanos = System.nanoTime();
+	    	_chassis.updateLogData(_logData);
+	    	phaseStartNanos = _profiler.lap(PHASE.CHASSIS_LOG, phaseStartNanos);
+	    	_elevator.updateLogData(_logData);
+	    	phaseStartNanos = _profiler.lap(PHASE.ELEVATOR_LOG, phaseStartNanos);
+	    	_infeed.updateLogData(_logData);
+	    	phaseStartNanos = _profiler.lap(PHASE.INFEED_LOG, phaseStartNanos);
+	    	_carriage.updateLogData(_logData);
+	    	phaseStartNanos = _profiler.lap(PHASE.CARRIAGE_LOG, phaseStartNanos);
+			_climber.updateLogData(_logData);
+			_profiler.lap(PHASE.CLIMBER_LOG, phaseStartNanos);
+			_profiler.updateLogData(_logData);
 			
-	    	_dataLogger.WriteDataLine(logData);
+	    	_dataLogger.WriteDataLine(_logData);
     	}
 	}
 }
@@ -12,15 +12,16 @@ import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Translation;
 
 import static org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Translation.getAngle;
 
+/**
+ * Builds Paths from lists of Waypoints. Holds no static state (the accel / decel limits are read from the Path being built)
+ * so different paths can be built on different threads at the same time, as long as each uses its own Waypoints.
+ */
 public class PathBuilder {
 	private static final double kEpsilon = 1E-9;
     private static final double kReallyBigNumber = 1E9;
-    private static double maxAccel, maxDecel;
 
     public static Path buildPathFromWaypoints(double max_Accel, double max_Decel, double inertiaSteeringGain, boolean isReversed, List<Waypoint> w) {
         Path p = new Path(max_Accel, max_Decel, inertiaSteeringGain);
-        maxAccel = max_Accel;
-        maxDecel = max_Decel;
         if (w.size() < 2)
             throw new Error("Path must contain at least 2 waypoints");
         int i = 0;
@@ -173,10 +174,10 @@ public class PathBuilder {
             if (pathLength > kEpsilon) {
                 if (b.marker != null) {
                     p.addSegment(new PathSegment(start.x(), start.y(), end.x(), end.y(), b.speed,
-                            p.getLastMotionState(), endSpeed, maxAccel, maxDecel, b.marker));
+                            p.getLastMotionState(), endSpeed, p.maxAccel, p.maxDecel, b.marker));
                 } else {
                     p.addSegment(new PathSegment(start.x(), start.y(), end.x(), end.y(), b.speed,
-                            p.getLastMotionState(), endSpeed, maxAccel, maxDecel));
+                            p.getLastMotionState(), endSpeed, p.maxAccel, p.maxDecel));
                 }
             }
         }
@@ -205,7 +206,7 @@ public class PathBuilder {
             a.addToPath(p, speed);
             if (radius > kEpsilon && radius < kReallyBigNumber) {
                 p.addSegment(new PathSegment(a.end.x(), a.end.y(), b.start.x(), b.start.y(), center.x(), center.y(),
-                        speed, p.getLastMotionState(), b.speed, maxAccel, maxDecel));
+                        speed, p.getLastMotionState(), b.speed, p.maxAccel, p.maxDecel));
             }
         }
 
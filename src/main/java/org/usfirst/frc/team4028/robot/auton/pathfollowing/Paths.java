@@ -1,10 +1,30 @@
 package org.usfirst.frc.team4028.robot.auton.pathfollowing;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Hashtable;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
 
+import org.usfirst.frc.team4028.robot.Constants;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.PathBuilder.Waypoint;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.Path;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.PathSerializer;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.Trajectory;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.TrajectorySampler;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Translation;
 
 import static org.usfirst.frc.team4028.robot.auton.pathfollowing.PathBuilder.buildPathFromWaypoints;
@@ -12,28 +32,28 @@ import static org.usfirst.frc.team4028.robot.auton.pathfollowing.PathBuilder.get
 import static org.usfirst.frc.team4028.robot.auton.pathfollowing.PathBuilder.flipPath;
 import static org.usfirst.frc.team4028.robot.auton.pathfollowing.PathBuilder.reversePath;
 
+/**
+ * All the named auton paths. Nothing is built up front, each path is built (or read from the pre-built
+ * path cache) the 1st time getPath() asks for it, or ahead of time by prewarmInBackground() while disabled.
+ */
 public class Paths {
-	private static Hashtable<Center, Path> centerPaths = new Hashtable<Center, Path>();
-	private static Hashtable<Left, Path> leftPaths = new Hashtable<Left, Path>();
-	private static Hashtable<Right, Path> rightPaths = new Hashtable<Right, Path>();
-	
 	public enum Center {
 		AUTO_RUN,
-		
+
 		// First Cube
 		L_SWITCH,
 		R_SWITCH,
-		
+
 		// Second Cube
 		L_SWITCH_TO_PYRAMID_FRONT,
 		R_SWITCH_TO_PYRAMID_FRONT,
-		
+
 		TO_PYRAMID,
 		FROM_PYRAMID,
-		
+
 		S_TURN_TO_L_SWITCH,
 		S_TURN_TO_R_SWITCH,
-		
+
 		// Third Cube
 		AWAY_FROM_L_SWITCH,
 		PYRAMID_AGAIN_FROM_L,
@@ -41,24 +61,16 @@ public class Paths {
 		AWAY_FROM_R_SWITCH,
 		PYRAMID_AGAIN_FROM_R,
 	}
-	
-	private static Path autoRunPath;
-	private static Path lSwitchPath, rSwitchPath;
-	private static Path lSwitchToPyramidFrontPath, rSwitchToPyramidFrontPath;
-	private static Path toPyramidPath, fromPyramidPath;
-	private static Path sTurnToLSwitchPath, sTurnToRSwitchPath;
-	private static Path awayFromLSwitchPath, awayFromRSwitchPath;
-	private static Path pyramidAgainFromLeftPath, pyramidAgainFromRightPath;
-	
+
 	public enum Left {
 		TO_BACK_CENTER,
-		
+
 		// First Cube
 		L_SCALE,
 		R_SCALE,
-		
+
 		L_SCALE_OUTSIDE,
-		
+
 		// Second Cube
 		L_SCALE_TO_L_SWITCH,
 		L_SCALE_TO_L_SWITCH_EXP,
@@ -66,188 +78,548 @@ public class Paths {
 		L_SWITCH_TO_L_SCALE_EXP,
 		R_SCALE_TO_R_SWITCH,
 		R_SWITCH_TO_R_SCALE,
-		
+
 		L_SCALE_TO_R_SWITCH,
-		
+
 		L_SWITCH_SIDE,
 		L_SWITCH_SIDE_TO_R_SCALE,
-		
+
 		TO_R_SCALE_SECOND_CUBE,
-		
+
 		TO_BACK_LEFT,
-		
+
 		// Third Cube
 		L_SWITCH_TO_L_SCALE_SECOND_CUBE,
-		
+
 		L_SCALE_TO_L_SWITCH_THIRD_CUBE,
 		L_SWITCH_TO_L_SCALE_THIRD_CUBE,
 		L_SCALE_TO_L_SWITCH_THIRD_CUBE_EXP,
 		L_SWITCH_TO_L_SCALE_THIRD_CUBE_EXP
 	}
-	
-	private static Path toBackCenterL;
-	private static Path lScaleToLSwitchPathLExperiment, lSwitchtoLScalePathLExperiment;
-	private static Path lScalePathL, rScalePathL;
-	private static Path lScaleOutsidePathL;
-	private static Path lScaleToLSwitchPathL, lSwitchToLScalePathL;
-	private static Path rScaleToRSwitchPathL, rSwitchToRScalePathL;
-	private static Path lScaleToRSwitchPathL;
-	private static Path lSwitchSidePathL, lSwitchSideToRScalePathL;
-	private static Path toRScaleSecondCubeL;
-	private static Path toBackLeft;
-	private static Path lSwitchToLScaleSecondCubeL;
-	private static Path lScaleToLSwitchThirdCube, lSwitchToLScaleThirdCube, lScaleToLSwitchThirdCubeExp, lSwitchToLScaleThirdCubeExp;
-	
+
 	public enum Right {
 		TO_BACK_CENTER,
 		TO_BACK_RIGHT,
-		
+
 		// First Cube
 		L_SCALE,
 		R_SCALE,
-		
+
 		R_SCALE_OUTSIDE,
-		
+
 		// Second Cube
 		L_SCALE_TO_L_SWITCH,
 		L_SWITCH_TO_L_SCALE,
-		
+
 		R_SCALE_TO_R_SWITCH,
 		R_SWITCH_TO_R_SCALE,
-		
+
 		R_SWITCH_SIDE,
-		
+
 		// Third Cube
 		R_SWITCH_TO_R_SCALE_SECOND_CUBE,
-		
+
 		R_SCALE_TO_R_SWITCH_THIRD_CUBE,
 		R_SWITCH_TO_R_SCALE_THIRD_CUBE
 	}
-	
-	private static Path toBackCenterR, toBackR;
-	private static Path lScalePathR, rScalePathR;
-	private static Path rScaleOutsidePathR;
-	private static Path lScaleToLSwitchPathR, lSwitchToLScalePathR;
-	private static Path rScaleToRSwitchPathR, rSwitchToRScalePathR;
-	private static Path rSwitchSidePathR;
-	private static Path rSwitchToRScaleThirdCubeR;
-	private static Path rScaleToRSwitchThirdCube, rSwitchToRScaleThirdCube;
-	
+
+	// filled 1x in the static init & never modified after, so safe to read from any thread
+	private static final EnumMap<Center, LazyPath> centerPaths = createLazyPaths(Center.class);
+	private static final EnumMap<Left, LazyPath> leftPaths = createLazyPaths(Left.class);
+	private static final EnumMap<Right, LazyPath> rightPaths = createLazyPaths(Right.class);
+
+	// pre-built path & trajectory caches (see PathCacheGenerator & TrajectoryTableGenerator), each entry is
+	// only deserialized the 1st time it is asked for
+	private static final int PATH_CACHE_MAGIC = 0x50415448; // "PATH"
+	private static final int TRAJECTORY_CACHE_MAGIC = 0x5452414A; // "TRAJ"
+	private static final int CACHE_VERSION = 1;
+	private static volatile CacheFile _pathCache = null;
+	private static volatile CacheFile _trajectoryCache = null;
+	private static double _pathLoadTimeMSec;
+
+	// single low priority background thread, queued requests run in order
+	private static ExecutorService _prewarmExecutor = null;
+
+	/** Called from robotInit, only indexes the pre-built path cache (if there is one), no path is built here */
 	public static void buildPaths() {
-		buildCenterPaths();
-		buildLeftPaths();
-		buildRightPaths();
+		long startNanos = System.nanoTime();
+		String source;
+		if (Constants.IS_PATH_CACHE_ENABLED) {
+			_pathCache = loadCache(Constants.PATH_CACHE_RESOURCE, PATH_CACHE_MAGIC);
+			_trajectoryCache = loadCache(Constants.TRAJECTORY_CACHE_RESOURCE, TRAJECTORY_CACHE_MAGIC);
+		}
+		if (_pathCache != null) {
+			source = "indexed " + _pathCache.size() + " cached paths";
+		} else {
+			source = "no path cache, paths will be built from waypoints on 1st use";
+		}
+		if (_trajectoryCache != null) {
+			source += ", " + _trajectoryCache.size() + " cached trajectories";
+		} else {
+			source += ", no trajectory cache, trajectories will be sampled on 1st use";
+		}
+		_pathLoadTimeMSec = (System.nanoTime() - startNanos) / 1000000.0;
+		System.out.println("Paths: " + source + " in " + _pathLoadTimeMSec + " mSec");
+	}
+
+	/** Every path name (Center, Left then Right) in enum order */
+	static Enum<?>[] getAllPathNames() {
+		ArrayList<Enum<?>> pathNames = new ArrayList<Enum<?>>();
+		pathNames.addAll(centerPaths.keySet());
+		pathNames.addAll(leftPaths.keySet());
+		pathNames.addAll(rightPaths.keySet());
+		return pathNames.toArray(new Enum<?>[pathNames.size()]);
+	}
+
+	/**
+	 * Builds new paths from their waypoints (ignores the path cache & the memoized paths), used by
+	 * PathCacheGenerator & PathBuildBenchmark. When isParallel the paths are built at the same time
+	 * across all cores on the common fork-join pool, the result is the same either way.
+	 */
+	static Path[] buildPathsFromWaypoints(Enum<?>[] pathNames, boolean isParallel) {
+		Path[] paths = new Path[pathNames.length];
+		if (isParallel && pathNames.length > 0) {
+			ForkJoinPool.commonPool().invoke(new BuildPathsTask(pathNames, paths, 0, pathNames.length));
+		} else {
+			for (int i = 0; i < pathNames.length; i++) {
+				paths[i] = buildPath(pathNames[i]);
+			}
+		}
+		return paths;
+	}
+
+	/** Splits the path names in half until each task builds a single path (into its own slot of paths) */
+	private static class BuildPathsTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final Enum<?>[] _pathNames;
+		private final Path[] _paths;
+		private final int _from, _to;
+
+		BuildPathsTask(Enum<?>[] pathNames, Path[] paths, int from, int to) {
+			_pathNames = pathNames;
+			_paths = paths;
+			_from = from;
+			_to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (_to - _from == 1) {
+				_paths[_from] = buildPath(_pathNames[_from]);
+			} else {
+				int mid = (_from + _to) >>> 1;
+				invokeAll(new BuildPathsTask(_pathNames, _paths, _from, mid),
+							new BuildPathsTask(_pathNames, _paths, mid, _to));
+			}
+		}
 	}
-	
+
 	public static Path getPath(Center pathName) {
-		return centerPaths.get(pathName);
+		return centerPaths.get(pathName).get();
 	}
-	
+
 	public static Path getPath(Left pathName) {
-		return leftPaths.get(pathName);
+		return leftPaths.get(pathName).get();
 	}
-	
+
 	public static Path getPath(Right pathName) {
-		return rightPaths.get(pathName);
-	}
-	
-	private static void buildCenterPaths() {
-		// Auto Run
-		autoRunPath = buildPathFromWaypoints(getStraightPathWaypoints(new Translation(20, 46), 0, 120));
-		centerPaths.put(Center.AUTO_RUN, autoRunPath);
-		
-		// First Cube
-		lSwitchPath = buildPathFromWaypoints(0.0015, Arrays.asList(
+		return rightPaths.get(pathName).get();
+	}
+
+	/**
+	 * The path sampled into a fixed dt table (see TrajectorySampler), read from the pre-sampled trajectory cache
+	 * the 1st time it is asked for (only sampled on the robot when the jar has no cache)
+	 */
+	public static Trajectory getTrajectory(Center pathName) {
+		return centerPaths.get(pathName).getTrajectory();
+	}
+
+	public static Trajectory getTrajectory(Left pathName) {
+		return leftPaths.get(pathName).getTrajectory();
+	}
+
+	public static Trajectory getTrajectory(Right pathName) {
+		return rightPaths.get(pathName).getTrajectory();
+	}
+
+	/** Time robotInit spent in buildPaths() */
+	public static double getPathLoadTimeMSec() {
+		return _pathLoadTimeMSec;
+	}
+
+	//=====================================================================================
+	// Lazy Paths
+	//=====================================================================================
+	/** Memoizing supplier, the path is read from the path cache or built the 1st time it is asked for */
+	private static class LazyPath implements Supplier<Path> {
+		private final Enum<?> _pathName;
+		private Path _path;			// guarded by this
+		private boolean _isLoaded;	// guarded by this (a path name w/ no path stays null)
+		private Trajectory _trajectory;	// guarded by this
+
+		LazyPath(Enum<?> pathName) {
+			_pathName = pathName;
+		}
+
+		@Override
+		public synchronized Path get() {
+			if (!_isLoaded) {
+				_path = loadPath(_pathName);
+				_isLoaded = true;
+			}
+			return _path;
+		}
+
+		public synchronized Trajectory getTrajectory() {
+			if (_trajectory == null && get() != null) {
+				_trajectory = loadTrajectory(_pathName, _path);
+			}
+			return _trajectory;
+		}
+	}
+
+	private static <E extends Enum<E>> EnumMap<E, LazyPath> createLazyPaths(Class<E> pathNames) {
+		EnumMap<E, LazyPath> paths = new EnumMap<E, LazyPath>(pathNames);
+		for (E pathName : pathNames.getEnumConstants()) {
+			paths.put(pathName, new LazyPath(pathName));
+		}
+		return paths;
+	}
+
+	private static Path loadPath(Enum<?> pathName) {
+		if (_pathCache != null) {
+			Path path = readCachedPath(getCacheKey(pathName));
+			if (path != null) {
+				return path;
+			}
+		}
+		return buildPath(pathName);
+	}
+
+	private static Trajectory loadTrajectory(Enum<?> pathName, Path path) {
+		if (_trajectoryCache != null) {
+			Trajectory trajectory = readCachedTrajectory(getCacheKey(pathName), path);
+			if (trajectory != null) {
+				return trajectory;
+			}
+		}
+		System.out.println("Paths: sampling [" + getCacheKey(pathName) + "] on the robot");
+		return TrajectorySampler.sample(path, Constants.TRAJECTORY_SAMPLE_PERIOD_SEC);
+	}
+
+	private static Path buildPath(Enum<?> pathName) {
+		if (pathName instanceof Center) {
+			return buildCenterPath((Center)pathName);
+		} else if (pathName instanceof Left) {
+			return buildLeftPath((Left)pathName);
+		} else {
+			return buildRightPath((Right)pathName);
+		}
+	}
+
+	/**
+	 * Loads the paths on a background thread so the 1st getPath() in autonomousInit doesn't have to. Called from
+	 * disabledPeriodic (via the Dashboard) with only the paths the selected auton can use. Trajectories are not
+	 * loaded here, getTrajectory() reads one from the trajectory cache when an auton asks for it.
+	 */
+	public static synchronized void prewarmInBackground(Enum<?>... pathNames) {
+		if (_prewarmExecutor == null) {
+			_prewarmExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable task) {
+					Thread thread = new Thread(task, "PathPrewarm");
+					thread.setDaemon(true);
+					thread.setPriority(Thread.MIN_PRIORITY);
+					return thread;
+				}
+			});
+		}
+
+		final Enum<?>[] pathsToLoad = pathNames.clone();
+		_prewarmExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				for (Enum<?> pathName : pathsToLoad) {
+					getLazyPath(pathName).get();
+				}
+			}
+		});
+	}
+
+	private static LazyPath getLazyPath(Enum<?> pathName) {
+		if (pathName instanceof Center) {
+			return centerPaths.get(pathName);
+		} else if (pathName instanceof Left) {
+			return leftPaths.get(pathName);
+		} else {
+			return rightPaths.get(pathName);
+		}
+	}
+
+	//=====================================================================================
+	// Path & Trajectory Caches
+	//=====================================================================================
+	// file layout: magic, version, entry count, {key, offset, length} per entry, data length, serialized entries
+
+	/** Writes the built paths (pathNames[i] => paths[i], null paths are skipped), called by PathCacheGenerator */
+	static int writePathCache(DataOutputStream out, Enum<?>[] pathNames, final Path[] paths) throws IOException {
+		return writeCache(out, PATH_CACHE_MAGIC, pathNames, new EntryWriter() {
+			@Override
+			public boolean write(DataOutputStream dataOut, int i) throws IOException {
+				if (paths[i] == null) {
+					return false;
+				}
+				PathSerializer.writePath(dataOut, paths[i]);
+				return true;
+			}
+		});
+	}
+
+	/** Same as above for the sampled trajectories, called by TrajectoryTableGenerator */
+	static int writeTrajectoryCache(DataOutputStream out, Enum<?>[] pathNames, final Trajectory[] trajectories) throws IOException {
+		return writeCache(out, TRAJECTORY_CACHE_MAGIC, pathNames, new EntryWriter() {
+			@Override
+			public boolean write(DataOutputStream dataOut, int i) throws IOException {
+				if (trajectories[i] == null) {
+					return false;
+				}
+				PathSerializer.writeTrajectory(dataOut, trajectories[i]);
+				return true;
+			}
+		});
+	}
+
+	/** Writes entry i of a cache, returns false to leave it out */
+	private interface EntryWriter {
+		boolean write(DataOutputStream dataOut, int i) throws IOException;
+	}
+
+	private static int writeCache(DataOutputStream out, int magic, Enum<?>[] pathNames, EntryWriter writer) throws IOException {
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		DataOutputStream dataOut = new DataOutputStream(data);
+		Map<String, int[]> index = new LinkedHashMap<String, int[]>();
+		for (int i = 0; i < pathNames.length; i++) {
+			int offset = dataOut.size();
+			if (writer.write(dataOut, i)) {
+				index.put(getCacheKey(pathNames[i]), new int[] {offset, dataOut.size() - offset});
+			}
+		}
+		dataOut.flush();
+
+		out.writeInt(magic);
+		out.writeInt(CACHE_VERSION);
+		out.writeInt(index.size());
+		for (Map.Entry<String, int[]> entry : index.entrySet()) {
+			out.writeUTF(entry.getKey());
+			out.writeInt(entry.getValue()[0]);
+			out.writeInt(entry.getValue()[1]);
+		}
+		out.writeInt(data.size());
+		data.writeTo(out);
+		return index.size();
+	}
+
+	/** A cache resource read into memory: only the index & raw bytes, entries are deserialized on 1st use */
+	private static class CacheFile {
+		private final Map<String, int[]> _index;	// key => {offset, length} into _data
+		private final byte[] _data;
+
+		CacheFile(Map<String, int[]> index, byte[] data) {
+			_index = index;
+			_data = data;
+		}
+
+		int size() {
+			return _index.size();
+		}
+
+		/** @return a stream over the key's entry, null if it is not in the cache */
+		DataInputStream open(String key) {
+			int[] location = _index.get(key);
+			if (location == null) {
+				return null;
+			}
+			return new DataInputStream(new ByteArrayInputStream(_data, location[0], location[1]));
+		}
+	}
+
+	/** @return the cache, null if the jar has none or it can't be read */
+	private static CacheFile loadCache(String resource, int magic) {
+		InputStream stream = Paths.class.getResourceAsStream(resource);
+		if (stream == null) {
+			System.out.println("Paths: no cache [" + resource + "] in the jar");
+			return null;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+			if (in.readInt() != magic || in.readInt() != CACHE_VERSION) {
+				System.out.println("Paths: [" + resource + "] is not a supported version");
+				return null;
+			}
+			int entryCount = in.readInt();
+			Map<String, int[]> index = new HashMap<String, int[]>();
+			for (int i = 0; i < entryCount; i++) {
+				index.put(in.readUTF(), new int[] {in.readInt(), in.readInt()});
+			}
+			byte[] data = new byte[in.readInt()];
+			in.readFully(data);
+			return new CacheFile(index, data);
+		} catch (IOException ex) {
+			System.out.println("Paths: error reading [" + resource + "]: " + ex.getMessage());
+			return null;
+		}
+	}
+
+	private static Path readCachedPath(String key) {
+		DataInputStream in = _pathCache.open(key);
+		if (in == null) {
+			System.out.println("Paths: [" + key + "] is not in the path cache");
+			return null;
+		}
+		try {
+			return PathSerializer.readPath(in);
+		} catch (IOException ex) {
+			System.out.println("Paths: error reading [" + key + "] from the path cache: " + ex.getMessage());
+			return null;
+		}
+	}
+
+	private static Trajectory readCachedTrajectory(String key, Path path) {
+		DataInputStream in = _trajectoryCache.open(key);
+		if (in == null) {
+			System.out.println("Paths: [" + key + "] is not in the trajectory cache");
+			return null;
+		}
+		try {
+			return PathSerializer.readTrajectory(in, path);
+		} catch (IOException ex) {
+			System.out.println("Paths: error reading [" + key + "] from the trajectory cache: " + ex.getMessage());
+			return null;
+		}
+	}
+
+	private static String getCacheKey(Enum<?> pathName) {
+		return pathName.getDeclaringClass().getSimpleName() + "." + pathName.name();
+	}
+
+	//=====================================================================================
+	// Path Definitions
+	//=====================================================================================
+	// waypoint lists shared by more than 1 path are built fresh by a method (PathBuilder can modify waypoints)
+
+	private static Path buildCenterPath(Center pathName) {
+		switch (pathName) {
+			// Auto Run
+			case AUTO_RUN:
+				return buildPathFromWaypoints(getStraightPathWaypoints(new Translation(20, 46), 0, 120));
+
+			// First Cube
+			case L_SWITCH:
+				return buildPathFromWaypoints(0.0015, Arrays.asList(
 						new Waypoint(20,166,0,0),
 						new Waypoint(50,166,25,80),
 						new Waypoint(90,107,30,80),
 						new Waypoint(128,107,0,80)));
-		centerPaths.put(Center.L_SWITCH, lSwitchPath);
-		
-		rSwitchPath = buildPathFromWaypoints(0.0030, Arrays.asList(
+
+			case R_SWITCH:
+				return buildPathFromWaypoints(0.0030, Arrays.asList(
 						new Waypoint(20,166,0,0),
 						new Waypoint(50,166,25,80),
 						new Waypoint(90,217,30,80),
 						new Waypoint(128,217,0,80)));
-		centerPaths.put(Center.R_SWITCH, rSwitchPath);
-		
-		// Second Cube
-		lSwitchToPyramidFrontPath = buildPathFromWaypoints(true, Arrays.asList(
+
+			// Second Cube
+			case L_SWITCH_TO_PYRAMID_FRONT:
+				return buildPathFromWaypoints(true, Arrays.asList(
 						new Waypoint(123,107,0,0),
 						new Waypoint(95,107,20,60),
 						new Waypoint(65,170,20,60),
 						new Waypoint(45,170,0,50)));
-		centerPaths.put(Center.L_SWITCH_TO_PYRAMID_FRONT, lSwitchToPyramidFrontPath);
-		
-		rSwitchToPyramidFrontPath = buildPathFromWaypoints(true, Arrays.asList(
+
+			case R_SWITCH_TO_PYRAMID_FRONT:
+				return buildPathFromWaypoints(true, Arrays.asList(
 						new Waypoint(123,217,0,0),
 						new Waypoint(95,217,20,60),
 						new Waypoint(65,158,20,60),
 						new Waypoint(45,158,0,50)));
-		centerPaths.put(Center.R_SWITCH_TO_PYRAMID_FRONT, rSwitchToPyramidFrontPath);
-		
-		ArrayList<Waypoint> toPyramidWaypoints = new ArrayList<Waypoint>();
-		toPyramidWaypoints.add(new Waypoint(45,162,0,0));
-		toPyramidWaypoints.add(new Waypoint(82,162,0,40));
-		toPyramidPath = buildPathFromWaypoints(toPyramidWaypoints);
-		centerPaths.put(Center.TO_PYRAMID, toPyramidPath);
-		
-		fromPyramidPath = buildPathFromWaypoints(true, reversePath(toPyramidWaypoints));
-		centerPaths.put(Center.FROM_PYRAMID, fromPyramidPath);
-		
-		sTurnToLSwitchPath = buildPathFromWaypoints(Arrays.asList(
+
+			case TO_PYRAMID:
+				return buildPathFromWaypoints(getToPyramidWaypoints());
+
+			case FROM_PYRAMID:
+				return buildPathFromWaypoints(true, reversePath(getToPyramidWaypoints()));
+
+			case S_TURN_TO_L_SWITCH:
+				return buildPathFromWaypoints(Arrays.asList(
 						new Waypoint(45,162,0,0),
 						new Waypoint(65,162,20,60),
 						new Waypoint(95,107,30,60),
 						new Waypoint(128,107,0,60)));
-		centerPaths.put(Center.S_TURN_TO_L_SWITCH, sTurnToLSwitchPath);
-		
-		sTurnToRSwitchPath = buildPathFromWaypoints(Arrays.asList(
+
+			case S_TURN_TO_R_SWITCH:
+				return buildPathFromWaypoints(Arrays.asList(
 						new Waypoint(45,162,0,0),
 						new Waypoint(65,162,20,60),
 						new Waypoint(95,217,30,60),
 						new Waypoint(128,217,0,60)));
-		centerPaths.put(Center.S_TURN_TO_R_SWITCH, sTurnToRSwitchPath);
-		
-		// Third Cube
+
+			// Third Cube
+			case AWAY_FROM_L_SWITCH:
+				return buildPathFromWaypoints(true, getAwayFromLSwitchWaypoints());
+
+			case AWAY_FROM_R_SWITCH:
+				return buildPathFromWaypoints(true, flipPath(getAwayFromLSwitchWaypoints()));
+
+			case PYRAMID_AGAIN_FROM_L: {
+				ArrayList<Waypoint> pyramidAgainFromLeftWaypoints = new ArrayList<Waypoint>();
+				pyramidAgainFromLeftWaypoints.add(new Waypoint(60,115,0,0));
+				pyramidAgainFromLeftWaypoints.add(new Waypoint(77,115,15,60));
+				pyramidAgainFromLeftWaypoints.add(new Waypoint(102,140,0,60));
+				return buildPathFromWaypoints(pyramidAgainFromLeftWaypoints);
+			}
+
+			case PYRAMID_AGAIN_FROM_R:
+				return buildPathFromWaypoints(Arrays.asList(
+						new Waypoint(60,209,0,0),
+						new Waypoint(77,209,15,60),
+						new Waypoint(106,184,0,60)));
+
+			default:
+				return null;
+		}
+	}
+
+	private static ArrayList<Waypoint> getToPyramidWaypoints() {
+		ArrayList<Waypoint> toPyramidWaypoints = new ArrayList<Waypoint>();
+		toPyramidWaypoints.add(new Waypoint(45,162,0,0));
+		toPyramidWaypoints.add(new Waypoint(82,162,0,40));
+		return toPyramidWaypoints;
+	}
+
+	private static ArrayList<Waypoint> getAwayFromLSwitchWaypoints() {
 		ArrayList<Waypoint> awayFromLSwitchWaypoints = new ArrayList<Waypoint>();
 		awayFromLSwitchWaypoints.add(new Waypoint(122,115,0,0));
 		awayFromLSwitchWaypoints.add(new Waypoint(60,115,0,80));
-		awayFromLSwitchPath = buildPathFromWaypoints(true, awayFromLSwitchWaypoints);
-		centerPaths.put(Center.AWAY_FROM_L_SWITCH, awayFromLSwitchPath);
-		
-		awayFromRSwitchPath = buildPathFromWaypoints(true, flipPath(awayFromLSwitchWaypoints));
-		centerPaths.put(Center.AWAY_FROM_R_SWITCH, awayFromRSwitchPath);
-		
-		ArrayList<Waypoint> pyramidAgainFromLeftWaypoints = new ArrayList<Waypoint>();
-		pyramidAgainFromLeftWaypoints.add(new Waypoint(60,115,0,0));
-		pyramidAgainFromLeftWaypoints.add(new Waypoint(77,115,15,60));
-		pyramidAgainFromLeftWaypoints.add(new Waypoint(102,140,0,60));
-		pyramidAgainFromLeftPath = buildPathFromWaypoints(pyramidAgainFromLeftWaypoints);
-		centerPaths.put(Center.PYRAMID_AGAIN_FROM_L, pyramidAgainFromLeftPath);
-		
-		pyramidAgainFromRightPath= buildPathFromWaypoints(Arrays.asList(
-				new Waypoint(60,209,0,0),
-				new Waypoint(77,209,15,60),
-				new Waypoint(106,184,0,60)));
-		centerPaths.put(Center.PYRAMID_AGAIN_FROM_R, pyramidAgainFromRightPath);
-	}
-	
-	private static void buildLeftPaths() {
-		toBackCenterL = buildPathFromWaypoints(Arrays.asList(
+		return awayFromLSwitchWaypoints;
+	}
+
+	private static Path buildLeftPath(Left pathName) {
+		switch (pathName) {
+			case TO_BACK_CENTER:
+				return buildPathFromWaypoints(Arrays.asList(
 						new Waypoint(12,46,0,0),
 				        new Waypoint(240,46,50,60),
 				        new Waypoint(240,120,0,60)));
-		leftPaths.put(Left.TO_BACK_CENTER, toBackCenterL);
-		
-		// First Cube
-		lScalePathL = buildPathFromWaypoints(Arrays.asList(
+
+			// First Cube
+			case L_SCALE:
+				return buildPathFromWaypoints(Arrays.asList(
 						new Waypoint(20,46,0,0),
 						new Waypoint(220,46,50,140),
 						new Waypoint(275,73,0,140)));
-		leftPaths.put(Left.L_SCALE, lScalePathL);
-		
-		rScalePathL = buildPathFromWaypoints(0.002, Arrays.asList(
+
+			case R_SCALE:
+				return buildPathFromWaypoints(0.002, Arrays.asList(
 						new Waypoint(20,46,0,0),
 						new Waypoint(190,46,0,140),//120
 						new Waypoint(240,46,50,90),//90
@@ -257,115 +629,128 @@ public class Paths {
 						new Waypoint(240,206,0,60),
 						new Waypoint(240,253,34,80),//60
 						new Waypoint(275,253,0,40)));
-		leftPaths.put(Left.R_SCALE, rScalePathL);
-		
-		lScaleOutsidePathL = buildPathFromWaypoints(Arrays.asList(
+
+			case L_SCALE_OUTSIDE:
+				return buildPathFromWaypoints(Arrays.asList(
 						new Waypoint(12,46,0,0),
 						new Waypoint(120,46,40,100),
 						new Waypoint(220,34,40,100),
 						new Waypoint(320,34,0,100)));
-		leftPaths.put(Left.L_SCALE_OUTSIDE, lScaleOutsidePathL);
-		
-		// Second Cube
-		ArrayList<Waypoint> lScaletoLSwitchExperimentWaypoints = new ArrayList<Waypoint>();
-		lScaletoLSwitchExperimentWaypoints.add(new Waypoint(275,73,0,0));
-		lScaletoLSwitchExperimentWaypoints.add(new Waypoint(258,83,16,80));
-		lScaletoLSwitchExperimentWaypoints.add(new Waypoint(240,87,0,80));
-		lScaleToLSwitchPathLExperiment = buildPathFromWaypoints(lScaletoLSwitchExperimentWaypoints);
-			
-		leftPaths.put(Left.L_SCALE_TO_L_SWITCH_EXP, lScaleToLSwitchPathLExperiment);
-		
-		lSwitchtoLScalePathLExperiment = buildPathFromWaypoints(reversePath(lScaletoLSwitchExperimentWaypoints));
-		lSwitchtoLScalePathLExperiment.setIsReversed(true);
-		leftPaths.put(Left.L_SWITCH_TO_L_SCALE_EXP,lSwitchtoLScalePathLExperiment);
-		
-		
-		ArrayList<Waypoint> lScaleToLSwitchWaypoints = getStraightPathWaypoints(new Translation(277, 72), 160, 39);
-        lScaleToLSwitchPathL = buildPathFromWaypoints(lScaleToLSwitchWaypoints);
-		leftPaths.put(Left.L_SCALE_TO_L_SWITCH, lScaleToLSwitchPathL);
-		
-		lSwitchToLScalePathL = buildPathFromWaypoints(true, getStraightPathWaypoints(new Translation(lScaleToLSwitchWaypoints.get(1).pos), 160, -39));
-		leftPaths.put(Left.L_SWITCH_TO_L_SCALE, lSwitchToLScalePathL);
-		
-		ArrayList<Waypoint> rScaleToRSwitchWaypoints = getStraightPathWaypoints(new Translation(278, 252), -160, 44);
-		rScaleToRSwitchPathL = buildPathFromWaypoints(Arrays.asList(
-			       new Waypoint(275,257,0,0),
-			       new Waypoint(260,242,17,40),
-			       new Waypoint(234,235,0,40)));
-		leftPaths.put(Left.R_SCALE_TO_R_SWITCH, rScaleToRSwitchPathL);
-		
-		rSwitchToRScalePathL = buildPathFromWaypoints(true, getStraightPathWaypoints(new Translation(rScaleToRSwitchWaypoints.get(1).pos), -160, -42));
-		leftPaths.put(Left.R_SWITCH_TO_R_SCALE, rSwitchToRScalePathL);
-		
-		lScaleToRSwitchPathL = buildPathFromWaypoints(0.006, Arrays.asList(
+
+			// Second Cube
+			case L_SCALE_TO_L_SWITCH_EXP:
+				return buildPathFromWaypoints(getLScaleToLSwitchExperimentWaypoints());
+
+			case L_SWITCH_TO_L_SCALE_EXP: {
+				Path lSwitchtoLScalePathLExperiment = buildPathFromWaypoints(reversePath(getLScaleToLSwitchExperimentWaypoints()));
+				lSwitchtoLScalePathLExperiment.setIsReversed(true);
+				return lSwitchtoLScalePathLExperiment;
+			}
+
+			case L_SCALE_TO_L_SWITCH:
+				return buildPathFromWaypoints(getStraightPathWaypoints(new Translation(277, 72), 160, 39));
+
+			case L_SWITCH_TO_L_SCALE: {
+				ArrayList<Waypoint> lScaleToLSwitchWaypoints = getStraightPathWaypoints(new Translation(277, 72), 160, 39);
+				return buildPathFromWaypoints(true, getStraightPathWaypoints(new Translation(lScaleToLSwitchWaypoints.get(1).pos), 160, -39));
+			}
+
+			case R_SCALE_TO_R_SWITCH:
+				return buildPathFromWaypoints(Arrays.asList(
+					       new Waypoint(275,257,0,0),
+					       new Waypoint(260,242,17,40),
+					       new Waypoint(234,235,0,40)));
+
+			case R_SWITCH_TO_R_SCALE: {
+				ArrayList<Waypoint> rScaleToRSwitchWaypoints = getStraightPathWaypoints(new Translation(278, 252), -160, 44);
+				return buildPathFromWaypoints(true, getStraightPathWaypoints(new Translation(rScaleToRSwitchWaypoints.get(1).pos), -160, -42));
+			}
+
+			case L_SCALE_TO_R_SWITCH:
+				return buildPathFromWaypoints(0.006, Arrays.asList(
 						new Waypoint(273,74,0,0),
 						new Waypoint(247,87,28,80),//80
 						new Waypoint(250,260,0,120)));//120
-		leftPaths.put(Left.L_SCALE_TO_R_SWITCH, lScaleToRSwitchPathL);
-		
-		lSwitchSidePathL = buildPathFromWaypoints(Arrays.asList(
+
+			case L_SWITCH_SIDE:
+				return buildPathFromWaypoints(Arrays.asList(
 						new Waypoint(12,46,0,0),
 						new Waypoint(126,46,15,100),
        					new Waypoint(137,63,0,70)));
-        leftPaths.put(Left.L_SWITCH_SIDE, lSwitchSidePathL);
-        
-        lSwitchSideToRScalePathL = buildPathFromWaypoints(0.001, Arrays.asList(
+
+			case L_SWITCH_SIDE_TO_R_SCALE:
+				return buildPathFromWaypoints(0.001, Arrays.asList(
         				new Waypoint(140,61,0,0),
         				new Waypoint(240,61,40,80),
         				new Waypoint(240,102,0,80),
         				new Waypoint(240,114,0,25),
         				new Waypoint(240,263,0,120)));
-		leftPaths.put(Left.L_SWITCH_SIDE_TO_R_SCALE, lSwitchSideToRScalePathL);
-		
-		toRScaleSecondCubeL = buildPathFromWaypoints(Arrays.asList(
+
+			case TO_R_SCALE_SECOND_CUBE:
+				return buildPathFromWaypoints(Arrays.asList(
 						new Waypoint(235,241,0,0),
 						new Waypoint(248,251,13,60),
 						new Waypoint(266,246,0,60)));
-		leftPaths.put(Left.TO_R_SCALE_SECOND_CUBE, toRScaleSecondCubeL);
-		
-		toBackLeft = buildPathFromWaypoints(Arrays.asList(
+
+			case TO_BACK_LEFT:
+				return buildPathFromWaypoints(Arrays.asList(
 						new Waypoint(137,59,0,0),
 					    new Waypoint(193,59,30,100),
 					    new Waypoint(226,90,0,100)));
-		leftPaths.put(Left.TO_BACK_LEFT, toBackLeft);
-		
-		// Third Cube
-		lSwitchToLScaleSecondCubeL = buildPathFromWaypoints(Arrays.asList(
+
+			// Third Cube
+			case L_SWITCH_TO_L_SCALE_SECOND_CUBE:
+				return buildPathFromWaypoints(Arrays.asList(
 						new Waypoint(229,96,0,0),
 						new Waypoint(251,77,20,70),
 						new Waypoint(273,80,0,70)));
-		leftPaths.put(Left.L_SWITCH_TO_L_SCALE_SECOND_CUBE, lSwitchToLScaleSecondCubeL);
-		
-		ArrayList<Waypoint> lScaleToLSwitchThirdCubeWaypoints = getStraightPathWaypoints(new Translation(278, 68), 140, 52);
-		lScaleToLSwitchThirdCube = buildPathFromWaypoints(lScaleToLSwitchThirdCubeWaypoints);
-		leftPaths.put(Left.L_SCALE_TO_L_SWITCH_THIRD_CUBE, lScaleToLSwitchThirdCube);
-		
-		lSwitchToLScaleThirdCube = buildPathFromWaypoints(true, getStraightPathWaypoints(new Translation(lScaleToLSwitchThirdCubeWaypoints.get(1).pos), 140, -52));
-		leftPaths.put(Left.L_SWITCH_TO_L_SCALE_THIRD_CUBE, lSwitchToLScaleThirdCube);
-		
-        ArrayList<Waypoint> lScaletoLSwitchthirdCubeExpWaypoints = new ArrayList<Waypoint>();
-        lScaletoLSwitchthirdCubeExpWaypoints.add(new Waypoint(275,73,0,0));
-        lScaletoLSwitchthirdCubeExpWaypoints.add(new Waypoint(260,100,18,60));
-        lScaletoLSwitchthirdCubeExpWaypoints.add(new Waypoint(238,108,0,60));
-        lScaleToLSwitchThirdCubeExp = buildPathFromWaypoints(lScaletoLSwitchthirdCubeExpWaypoints);
-        leftPaths.put(Left.L_SCALE_TO_L_SWITCH_THIRD_CUBE_EXP, lScaleToLSwitchThirdCubeExp);
-        
-        lSwitchToLScaleThirdCubeExp = buildPathFromWaypoints(Arrays.asList(
-        		new Waypoint(238,108,0,40),
-        		new Waypoint(251,75,20,40),
-        		new Waypoint(271,78,0,40)));
-        leftPaths.put(Left.L_SWITCH_TO_L_SCALE_THIRD_CUBE_EXP, lSwitchToLScaleThirdCubeExp);
-
-	}
-	
-	private static void buildRightPaths() {
-		toBackCenterR = buildPathFromWaypoints(Arrays.asList(
+
+			case L_SCALE_TO_L_SWITCH_THIRD_CUBE:
+				return buildPathFromWaypoints(getStraightPathWaypoints(new Translation(278, 68), 140, 52));
+
+			case L_SWITCH_TO_L_SCALE_THIRD_CUBE: {
+				ArrayList<Waypoint> lScaleToLSwitchThirdCubeWaypoints = getStraightPathWaypoints(new Translation(278, 68), 140, 52);
+				return buildPathFromWaypoints(true, getStraightPathWaypoints(new Translation(lScaleToLSwitchThirdCubeWaypoints.get(1).pos), 140, -52));
+			}
+
+			case L_SCALE_TO_L_SWITCH_THIRD_CUBE_EXP: {
+		        ArrayList<Waypoint> lScaletoLSwitchthirdCubeExpWaypoints = new ArrayList<Waypoint>();
+		        lScaletoLSwitchthirdCubeExpWaypoints.add(new Waypoint(275,73,0,0));
+		        lScaletoLSwitchthirdCubeExpWaypoints.add(new Waypoint(260,100,18,60));
+		        lScaletoLSwitchthirdCubeExpWaypoints.add(new Waypoint(238,108,0,60));
+		        return buildPathFromWaypoints(lScaletoLSwitchthirdCubeExpWaypoints);
+			}
+
+			case L_SWITCH_TO_L_SCALE_THIRD_CUBE_EXP:
+				return buildPathFromWaypoints(Arrays.asList(
+		        		new Waypoint(238,108,0,40),
+		        		new Waypoint(251,75,20,40),
+		        		new Waypoint(271,78,0,40)));
+
+			default:
+				return null;
+		}
+	}
+
+	private static ArrayList<Waypoint> getLScaleToLSwitchExperimentWaypoints() {
+		ArrayList<Waypoint> lScaletoLSwitchExperimentWaypoints = new ArrayList<Waypoint>();
+		lScaletoLSwitchExperimentWaypoints.add(new Waypoint(275,73,0,0));
+		lScaletoLSwitchExperimentWaypoints.add(new Waypoint(258,83,16,80));
+		lScaletoLSwitchExperimentWaypoints.add(new Waypoint(240,87,0,80));
+		return lScaletoLSwitchExperimentWaypoints;
+	}
+
+	private static Path buildRightPath(Right pathName) {
+		switch (pathName) {
+			case TO_BACK_CENTER:
+				return buildPathFromWaypoints(Arrays.asList(
 						new Waypoint(12,278,0,0),
 				        new Waypoint(240,278,50,60),
 				        new Waypoint(240,204,0,60)));
-		rightPaths.put(Right.TO_BACK_CENTER, toBackCenterR);
-		// First Cube
-		lScalePathR = buildPathFromWaypoints(Arrays.asList(
+
+			// First Cube
+			case L_SCALE:
+				return buildPathFromWaypoints(Arrays.asList(
 						new Waypoint(20,278,0,0),
 						new Waypoint(190,278,0,120),
 						new Waypoint(240,278,40,80),
@@ -374,71 +759,81 @@ public class Paths {
 						new Waypoint(240,114,0,120),
 						new Waypoint(240,72,35,100),
 						new Waypoint(278,72,0,80)));
-		rightPaths.put(Right.L_SCALE, lScalePathR);
-		
-		rScalePathR = buildPathFromWaypoints(Arrays.asList(
+
+			case R_SCALE:
+				return buildPathFromWaypoints(Arrays.asList(
 						new Waypoint(20,278,0,0),
 						new Waypoint(213,270,50,140),
 						new Waypoint(266,253,0,140)));
-		rightPaths.put(Right.R_SCALE, rScalePathR);
-		
-		rScaleOutsidePathR = buildPathFromWaypoints(Arrays.asList(
+
+			case R_SCALE_OUTSIDE:
+				return buildPathFromWaypoints(Arrays.asList(
 						new Waypoint(12,278,0,0),
 						new Waypoint(120,278,40,100),
 						new Waypoint(220,290,40,100),
 						new Waypoint(320,290,0,100)));
-		rightPaths.put(Right.R_SCALE_OUTSIDE, rScaleOutsidePathR);
-		
-		// Second Cube
-		ArrayList<Waypoint> lScaleToLSwitchWaypoints = getStraightPathWaypoints(new Translation(280, 74), 160, 38);
-		lScaleToLSwitchPathR = buildPathFromWaypoints(lScaleToLSwitchWaypoints);
-		rightPaths.put(Right.L_SCALE_TO_L_SWITCH, lScaleToLSwitchPathR);
-		
-		lSwitchToLScalePathR = buildPathFromWaypoints(true, getStraightPathWaypoints(new Translation(lScaleToLSwitchWaypoints.get(1).pos), 160, -38));
-		rightPaths.put(Right.L_SWITCH_TO_L_SCALE, lSwitchToLScalePathR);
-		
+
+			// Second Cube
+			case L_SCALE_TO_L_SWITCH:
+				return buildPathFromWaypoints(getStraightPathWaypoints(new Translation(280, 74), 160, 38));
+
+			case L_SWITCH_TO_L_SCALE: {
+				ArrayList<Waypoint> lScaleToLSwitchWaypoints = getStraightPathWaypoints(new Translation(280, 74), 160, 38);
+				return buildPathFromWaypoints(true, getStraightPathWaypoints(new Translation(lScaleToLSwitchWaypoints.get(1).pos), 160, -38));
+			}
+
+			case R_SCALE_TO_R_SWITCH:
+				return buildPathFromWaypoints(getRScaleToRSwitchWaypoints());
+
+			case R_SWITCH_TO_R_SCALE: {
+				Path rSwitchToRScalePathR = buildPathFromWaypoints(reversePath(getRScaleToRSwitchWaypoints()));
+				rSwitchToRScalePathR.setIsReversed(true);
+				return rSwitchToRScalePathR;
+			}
+
+			case R_SWITCH_SIDE:
+				return buildPathFromWaypoints(Arrays.asList(
+						new Waypoint(12,278,0,0),
+						new Waypoint(126,278,15,80),
+						new Waypoint(137,260,0,70)));
+
+			case TO_BACK_RIGHT:
+				return buildPathFromWaypoints(Arrays.asList(
+						new Waypoint(137,265,0,0),
+					    new Waypoint(201,265,30,100),
+					    new Waypoint(236,237,0,100)));
+
+			// Third Cube
+			/*case R_SWITCH_TO_R_SCALE_THIRD_CUBE:
+				return buildPathFromWaypoints(Arrays.asList(
+						new Waypoint(220,232,0,0),
+						new Waypoint(240,256,30,60),
+						new Waypoint(270,244,0,60)));*/
+
+			case R_SCALE_TO_R_SWITCH_THIRD_CUBE: {
+		        ArrayList<Waypoint> rScaleToRSwitchThirdCubeWaypoints = new ArrayList<Waypoint>();
+		        rScaleToRSwitchThirdCubeWaypoints.add(new Waypoint(275,251,0,0));
+		        rScaleToRSwitchThirdCubeWaypoints.add(new Waypoint(275,219,16,60));
+		        rScaleToRSwitchThirdCubeWaypoints.add(new Waypoint(245,213,0,60));
+		        return buildPathFromWaypoints(rScaleToRSwitchThirdCubeWaypoints);
+			}
+
+			case R_SWITCH_TO_R_SCALE_THIRD_CUBE:
+				return buildPathFromWaypoints(Arrays.asList(
+		        		new Waypoint(245,213,0,40),
+		        		new Waypoint(251,253,20,40),
+		        		new Waypoint(275,251,0,40)));
+
+			default:
+				return null;
+		}
+	}
+
+	private static ArrayList<Waypoint> getRScaleToRSwitchWaypoints() {
 		ArrayList<Waypoint> rScaleToRSwitchWaypoints = new ArrayList<Waypoint>();
 		rScaleToRSwitchWaypoints.add(new Waypoint(275,251,0,0));
 		rScaleToRSwitchWaypoints.add(new Waypoint(261,240,15,80));
 		rScaleToRSwitchWaypoints.add(new Waypoint(246,235,0,80));
-		rScaleToRSwitchPathR = buildPathFromWaypoints(rScaleToRSwitchWaypoints);
-		rightPaths.put(Right.R_SCALE_TO_R_SWITCH, rScaleToRSwitchPathR);
-		
-		rSwitchToRScalePathR = buildPathFromWaypoints(reversePath(rScaleToRSwitchWaypoints));
-		rSwitchToRScalePathR.setIsReversed(true);
-		rightPaths.put(Right.R_SWITCH_TO_R_SCALE, rSwitchToRScalePathR);
-		
-		rSwitchSidePathR = buildPathFromWaypoints(Arrays.asList(
-					new Waypoint(12,278,0,0),
-					new Waypoint(126,278,15,80),
-					new Waypoint(137,260,0,70)));
-        rightPaths.put(Right.R_SWITCH_SIDE, rSwitchSidePathR);
-        
-        toBackR = buildPathFromWaypoints(Arrays.asList(
-				new Waypoint(137,265,0,0),
-			    new Waypoint(201,265,30,100),
-			    new Waypoint(236,237,0,100)));
-        rightPaths.put(Right.TO_BACK_RIGHT, toBackR);
-        
-		
-		// Third Cube
-		/*rSwitchToRScaleThirdCubeR = buildPathFromWaypoints(Arrays.asList(
-						new Waypoint(220,232,0,0),
-						new Waypoint(240,256,30,60),
-						new Waypoint(270,244,0,60)));
-		rightPaths.put(Right.R_SWITCH_TO_R_SCALE_THIRD_CUBE, rSwitchToRScaleThirdCubeR);*/
-		
-        ArrayList<Waypoint> rScaleToRSwitchThirdCubeWaypoints = new ArrayList<Waypoint>();
-        rScaleToRSwitchThirdCubeWaypoints.add(new Waypoint(275,251,0,0));
-        rScaleToRSwitchThirdCubeWaypoints.add(new Waypoint(275,219,16,60));
-        rScaleToRSwitchThirdCubeWaypoints.add(new Waypoint(245,213,0,60));
-        rScaleToRSwitchThirdCube = buildPathFromWaypoints(rScaleToRSwitchThirdCubeWaypoints);
-		rightPaths.put(Right.R_SCALE_TO_R_SWITCH_THIRD_CUBE, rScaleToRSwitchThirdCube);
-		
-		rSwitchToRScaleThirdCube = buildPathFromWaypoints(Arrays.asList(
-        		new Waypoint(245,213,0,40),
-        		new Waypoint(251,253,20,40),
-        		new Waypoint(275,251,0,40)));
-		rightPaths.put(Right.R_SWITCH_TO_R_SCALE_THIRD_CUBE, rSwitchToRScaleThirdCube);
-	}
-}
\ No newline at end of file
+		return rScaleToRSwitchWaypoints;
+	}
+}
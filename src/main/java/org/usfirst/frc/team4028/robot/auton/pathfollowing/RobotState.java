@@ -3,8 +3,11 @@ package org.usfirst.frc.team4028.robot.auton.pathfollowing;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.*;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.util.*;
 
+import java.util.AbstractMap;
 import java.util.Map;
 
+import org.usfirst.frc.team4028.robot.Constants;
+
 /**
  * RobotState keeps track of the robot pose relative to its start point throughout the match for use in autonomous.
  *
@@ -20,20 +23,31 @@ public class RobotState {
 
     private static final int kObservationBufferSize = 100;
     
-    // FPGATimestamp -> RigidTransform2d or Rotation2d
-    private InterpolatingTreeMap<InterpolatingDouble, RigidTransform> _fieldToVehicle;
-    private Twist _vehicleVelocityPredicted;
+    // FPGATimestamp -> field to vehicle pose, preallocated so steady state odometry updates do not allocate
+    private final PoseHistory _fieldToVehicle = new PoseHistory(kObservationBufferSize);
+    private double _vehicleVelocityPredictedDx, _vehicleVelocityPredictedDtheta;
     private double _distanceDriven;
     
+    /** Latest pose (heading as cos / sin) w/ the distance & velocity of the same observation, filled in by getLatest */
+    public static final class PoseSnapshot {
+        public double timestamp;
+        public double x, y, cos, sin;
+        public double distanceDriven;
+        public double predictedVelocityDx;
+    }
+
     private RobotState() {
         reset(0, new RigidTransform());
     }
 
     /** Resets the field to robot transform (robot's position on the field) */
     public synchronized void reset(double start_time, RigidTransform initial_field_to_vehicle) {
-        _fieldToVehicle = new InterpolatingTreeMap<>(kObservationBufferSize);
-        _fieldToVehicle.put(new InterpolatingDouble(start_time), initial_field_to_vehicle);
-        _vehicleVelocityPredicted = Twist.identity();
+        _fieldToVehicle.clear();
+        _fieldToVehicle.add(start_time, 
+        		initial_field_to_vehicle.getTranslation().x(), initial_field_to_vehicle.getTranslation().y(),
+        		initial_field_to_vehicle.getRotation().cos(), initial_field_to_vehicle.getRotation().sin());
+        _vehicleVelocityPredictedDx = 0.0;
+        _vehicleVelocityPredictedDtheta = 0.0;
         _distanceDriven = 0.0;
     }
 
@@ -42,27 +56,99 @@ public class RobotState {
     }
 
     public synchronized Map.Entry<InterpolatingDouble, RigidTransform> getLatestFieldToVehicle() {
-        return _fieldToVehicle.lastEntry();
+        return new AbstractMap.SimpleImmutableEntry<>(new InterpolatingDouble(_fieldToVehicle.getLatestTimestamp()), 
+        		_fieldToVehicle.getLatest());
+    }
+
+    /**
+     * Copies the latest pose into the caller's snapshot under 1 lock, so x, y & heading always come from the same
+     * observation (reading them 1 getter at a time can mix 2 poses). Allocates nothing, for the per scan path following.
+     */
+    public synchronized void getLatest(PoseSnapshot snapshot) {
+        snapshot.timestamp = _fieldToVehicle.getLatestTimestamp();
+        snapshot.x = _fieldToVehicle.getLatestX();
+        snapshot.y = _fieldToVehicle.getLatestY();
+        snapshot.cos = _fieldToVehicle.getLatestCos();
+        snapshot.sin = _fieldToVehicle.getLatestSin();
+        snapshot.distanceDriven = _distanceDriven;
+        snapshot.predictedVelocityDx = _vehicleVelocityPredictedDx;
     }
 
-    private synchronized void addFieldToVehicleObservation(double timestamp, RigidTransform observation) {
-        _fieldToVehicle.put(new InterpolatingDouble(timestamp), observation);
+    /** Returns the robot's position on the field at a certain time, interpolated between observations */
+    public synchronized RigidTransform getFieldToVehicle(double timestamp) {
+        return _fieldToVehicle.getInterpolated(timestamp);
     }
 
     public synchronized void addObservations(double timestamp, Twist measured_velocity,
             Twist predicted_velocity) {
-        addFieldToVehicleObservation(timestamp,
-                Kinematics.integrateForwardKinematics(getLatestFieldToVehicle().getValue(), measured_velocity));
-        _vehicleVelocityPredicted = predicted_velocity;
+        integrateFieldToVehicleObservation(timestamp, measured_velocity.dx, measured_velocity.dy, measured_velocity.dtheta);
+        _vehicleVelocityPredictedDx = predicted_velocity.dx;
+        _vehicleVelocityPredictedDtheta = predicted_velocity.dtheta;
     }
 
     public synchronized Twist generateOdometryFromSensors(double left_encoder_delta_distance,
             double right_encoder_delta_distance, Rotation current_gyro_angle) {
-        final RigidTransform last_measurement = getLatestFieldToVehicle().getValue();
-        final Twist delta = Kinematics.forwardKinematics(last_measurement.getRotation(),
-                left_encoder_delta_distance, right_encoder_delta_distance, current_gyro_angle);
-        _distanceDriven += delta.dx;
-        return delta;
+        final double dx = (left_encoder_delta_distance + right_encoder_delta_distance) / 2.0;
+        final double dtheta = headingChangeSinceLatest(current_gyro_angle.cos(), current_gyro_angle.sin());
+        _distanceDriven += dx;
+        return new Twist(dx, 0, dtheta);
+    }
+
+    /**
+     * Same as generateOdometryFromSensors followed by addObservations, but on primitives so the
+     * per scan odometry update allocates nothing.
+     */
+    public synchronized void addOdometryObservation(double timestamp, double left_encoder_delta_distance,
+            double right_encoder_delta_distance, double gyro_angle_radians, double left_velocity, double right_velocity) {
+        final double dx = (left_encoder_delta_distance + right_encoder_delta_distance) / 2.0;
+        final double dtheta = headingChangeSinceLatest(Math.cos(gyro_angle_radians), Math.sin(gyro_angle_radians));
+        _distanceDriven += dx;
+        integrateFieldToVehicleObservation(timestamp, dx, 0, dtheta);
+
+        _vehicleVelocityPredictedDx = (left_velocity + right_velocity) / 2.0;
+        _vehicleVelocityPredictedDtheta = Kinematics.forwardKinematicsRotation(left_velocity, right_velocity);
+    }
+
+    /** latest.getRotation().inverse().rotateBy(current).getRadians() */
+    private double headingChangeSinceLatest(double current_cos, double current_sin) {
+        final double last_cos = _fieldToVehicle.getLatestCos();
+        final double last_sin = _fieldToVehicle.getLatestSin();
+        return Math.atan2(last_cos * current_sin - last_sin * current_cos, last_cos * current_cos + last_sin * current_sin);
+    }
+
+    /** latest.transformBy(RigidTransform.exp(delta)), see Kinematics.integrateForwardKinematics */
+    private void integrateFieldToVehicleObservation(double timestamp, double dx, double dy, double dtheta) {
+        // exp of the twist (constant curvature arc)
+        final double sin_theta = Math.sin(dtheta);
+        final double cos_theta = Math.cos(dtheta);
+        double s, c;
+        if (Math.abs(dtheta) < Constants.EPSILON_NEGATIVE_9) {
+            s = 1.0 - 1.0 / 6.0 * dtheta * dtheta;
+            c = .5 * dtheta;
+        } else {
+            s = sin_theta / dtheta;
+            c = (1.0 - cos_theta) / dtheta;
+        }
+        final double delta_x = dx * s - dy * c;
+        final double delta_y = dx * c + dy * s;
+
+        // transform the latest pose by it
+        final double x = _fieldToVehicle.getLatestX();
+        final double y = _fieldToVehicle.getLatestY();
+        final double cos = _fieldToVehicle.getLatestCos();
+        final double sin = _fieldToVehicle.getLatestSin();
+        double new_cos = cos * cos_theta - sin * sin_theta;
+        double new_sin = cos * sin_theta + sin * cos_theta;
+        final double magnitude = Math.hypot(new_cos, new_sin);
+        if (magnitude > Constants.EPSILON_NEGATIVE_9) {
+            new_cos /= magnitude;
+            new_sin /= magnitude;
+        } else {
+            new_cos = 1;
+            new_sin = 0;
+        }
+
+        _fieldToVehicle.add(timestamp, x + delta_x * cos - delta_y * sin, y + delta_x * sin + delta_y * cos, new_cos, new_sin);
     }
 
     public synchronized double getDistanceDriven() {
@@ -70,6 +156,11 @@ public class RobotState {
     }
 
     public synchronized Twist getPredictedVelocity() {
-        return _vehicleVelocityPredicted;
+        return new Twist(_vehicleVelocityPredictedDx, 0, _vehicleVelocityPredictedDtheta);
+    }
+
+    /** Forward component of the predicted velocity, without building a Twist */
+    public synchronized double getPredictedVelocityDx() {
+        return _vehicleVelocityPredictedDx;
     }
 }
\ No newline at end of file
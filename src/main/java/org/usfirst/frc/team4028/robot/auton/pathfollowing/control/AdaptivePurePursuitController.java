@@ -1,65 +1,96 @@
 package org.usfirst.frc.team4028.robot.auton.pathfollowing.control;
 
 import org.usfirst.frc.team4028.robot.Constants;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.PoseArc;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.RigidTransform;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Rotation;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Translation;
-import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Twist;
 
+/**
+ * Steers along a Path. update() runs every scan so it fits its arc w/ a reused PoseArc and reuses its Command
+ * (and the PathCursor's report), nothing is allocated per scan. The static helpers below are the object based
+ * versions of the same math.
+ */
 public class AdaptivePurePursuitController {
+    /** Reused by every update(), only valid until the next one. The steering delta is deltaDx forward + deltaDtheta (dy is always 0) */
     public static class Command {
-        public Twist delta = Twist.identity();
+        public double deltaDx;
+        public double deltaDtheta;
         public double crossTrackError;
         public double maxVelocity;
         public double endVelocity;
-        public Translation lookaheadPoint;
+        public double lookaheadX, lookaheadY;
         public double remainingPathLength;
 
-        public Command(Twist delta, double crossTrackError, double maxVelocity, double endVelocity,
-                Translation lookaheadVelocity, double remainingPathLength) {
-            this.delta = delta;
+        void set(double deltaDx, double deltaDtheta, double crossTrackError, double maxVelocity, double endVelocity,
+                double lookaheadX, double lookaheadY, double remainingPathLength) {
+            this.deltaDx = deltaDx;
+            this.deltaDtheta = deltaDtheta;
             this.crossTrackError = crossTrackError;
             this.maxVelocity = maxVelocity;
             this.endVelocity = endVelocity;
-            this.lookaheadPoint = lookaheadVelocity;
+            this.lookaheadX = lookaheadX;
+            this.lookaheadY = lookaheadY;
             this.remainingPathLength = remainingPathLength;
         }
     }
 
-    Path path;
+    final PathCursor path;
     boolean atEndOfPath = false;
     final boolean reversed;
+    private final Command command = new Command();
+    private final PoseArc arc = new PoseArc();
 
     public AdaptivePurePursuitController(Path path, boolean reversed) {
-        this.path = path;
+        this(path, reversed, PathFollowingGains.DEFAULT);
+    }
+
+    public AdaptivePurePursuitController(Path path, boolean reversed, PathFollowingGains gains) {
+        this.path = new PathCursor(path, gains);
         this.reversed = reversed;
     }
 
+    /** Start following the path over from its start */
+    public void reset() {
+        path.reset();
+        atEndOfPath = false;
+    }
+
     /**
      * Gives the RigidTransform2d.Delta that the robot should take to follow the path
      * 
      * @param pose
      *            robot pose
-     * @return movement command for the robot to follow
+     * @return movement command for the robot to follow (reused, valid until the next update)
      */
     public Command update(RigidTransform pose) {
+        return update(pose.getTranslation().x(), pose.getTranslation().y(), pose.getRotation().cos(), pose.getRotation().sin());
+    }
+
+    /** Same as above w/ the robot pose as primitives, position (x, y) heading (cos, sin) */
+    public Command update(double x, double y, double cos, double sin) {
         if (reversed) {
-            pose = new RigidTransform(pose.getTranslation(),
-                    pose.getRotation().rotateBy(Rotation.fromRadians(Math.PI)));
+            // heading rotated by 180 deg
+            cos = -cos;
+            sin = -sin;
         }
 
-        final Path.TargetPointReport report = path.getTargetPoint(pose.getTranslation());
+        final Path.TargetPointReport report = path.getTargetPoint(x, y);
+        final double px = report.lookahead_point_x;
+        final double py = report.lookahead_point_y;
         if (isFinished()) {
             // Stop.
-            return new Command(Twist.identity(), report.closest_point_distance, report.max_speed, 0.0,
-                    report.lookahead_point, report.remaining_path_distance);
+            command.set(0.0, 0.0, report.closest_point_distance, report.max_speed, 0.0,
+                    px, py, report.remaining_path_distance);
+            return command;
         }
 
-        final Arc arc = new Arc(pose, report.lookahead_point);
+        arc.fit(x, y, cos, sin, px, py);
+        final double arcLength = arc.getLength();
         double scale_factor = 1.0;
         // Ensure we don't overshoot the end of the path (once the lookahead speed drops to zero).
-        if (report.lookahead_point_speed < 1E-6 && report.remaining_path_distance < arc.length) {
-            scale_factor = Math.max(0.0, report.remaining_path_distance / arc.length);
+        if (report.lookahead_point_speed < 1E-6 && report.remaining_path_distance < arcLength) {
+            scale_factor = Math.max(0.0, report.remaining_path_distance / arcLength);
             atEndOfPath = true;
         } else {
             atEndOfPath = false;
@@ -68,12 +99,12 @@ public class AdaptivePurePursuitController {
             scale_factor *= -1;
         }
 
-        return new Command(
-                new Twist(scale_factor * arc.length, 0.0,
-                        arc.length * getDirection(pose, report.lookahead_point) * Math.abs(scale_factor) / arc.radius),
+        command.set(scale_factor * arcLength,
+                arcLength * PoseArc.getDirection(x, y, cos, sin, px, py) * Math.abs(scale_factor) / arc.getRadius(),
                 report.closest_point_distance, report.max_speed,
-                report.lookahead_point_speed * Math.signum(scale_factor), report.lookahead_point,
+                report.lookahead_point_speed * Math.signum(scale_factor), px, py,
                 report.remaining_path_distance);
+        return command;
     }
 
     public boolean hasPassedMarker(String marker) {
@@ -1,23 +1,26 @@
 package org.usfirst.frc.team4028.robot.auton.pathfollowing.control;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 
-import org.usfirst.frc.team4028.robot.Constants;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.RigidTransform;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Rotation;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Translation;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile.MotionState;
 
+/**
+ * A path definition, the segments + their motion profiles. Once built it is never changed by following it,
+ * each run follows it through its own PathCursor, so the same (cached) path can be driven any number of times.
+ */
 public class Path {
-	List<PathSegment> segments;
-	PathSegment prevSegment;
-	HashSet<String> mMarkersCrossed = new HashSet<String>();
+	final List<PathSegment> segments;
 	boolean isReversed;
 	public double maxAccel, maxDecel;
 	public double inertiaSteeringGain;
 	private double startingAngle;
+	// cumulativeLengths[i] = length of all the segments before segment i, built 1x on 1st use
+	// so each scan is a subtraction + binary search instead of re-summing the segments
+	private volatile double[] cumulativeLengths;
 	
 	public void extrapolateLast() {
 		PathSegment last = segments.get(segments.size() - 1);
@@ -39,6 +42,7 @@ public class Path {
      */
     public void addSegment(PathSegment segment) {
         segments.add(segment);
+        cumulativeLengths = null;
     }
 
     /** @return the last MotionState in the path */
@@ -55,29 +59,11 @@ public class Path {
 		return new RigidTransform(segments.get(0).getStart(), new Rotation(Rotation.fromDegrees(0.0)));
     }
 
-    /**
-     * get the remaining distance left for the robot to travel on the current segment
-     * 
-     * @param robotPos
-     *            robot position
-     * @return remaining distance on current segment
-     */
-    public double getSegmentRemainingDist(Translation robotPos) {
-        PathSegment currentSegment = segments.get(0);
-        return currentSegment.getRemainingDistance(currentSegment.getClosestPoint(robotPos));
-    }
-    
-    /** @return the length of the current segment */
-    public double getSegmentLength() {
-        PathSegment currentSegment = segments.get(0);
-        return currentSegment.getLength();
-    }
-
     public static class TargetPointReport {
-        public Translation closest_point;
+        public double closest_point_x, closest_point_y;
         public double closest_point_distance;
         public double closest_point_speed;
-        public Translation lookahead_point;
+        public double lookahead_point_x, lookahead_point_y;
         public double max_speed;
         public double lookahead_point_speed;
         public double remaining_segment_distance;
@@ -86,59 +72,6 @@ public class Path {
         public TargetPointReport() {}
     }
 
-    /**
-     * Gives the position of the lookahead point (and removes any segments prior to this point).
-     * 
-     * @param robot
-     *            Translation of the current robot pose.
-     * @return report containing everything we might want to know about the target point.
-     */
-    public TargetPointReport getTargetPoint(Translation robot) {
-        TargetPointReport rv = new TargetPointReport();
-        PathSegment currentSegment = segments.get(0);
-        rv.closest_point = currentSegment.getClosestPoint(robot);
-        rv.closest_point_distance = new Translation(robot, rv.closest_point).norm();
-        rv.remaining_segment_distance = currentSegment.getRemainingDistance(rv.closest_point);
-        rv.remaining_path_distance = rv.remaining_segment_distance;
-        for (int i = 1; i < segments.size(); ++i) {
-            rv.remaining_path_distance += segments.get(i).getLength();
-        }
-        rv.closest_point_speed = currentSegment
-                .getSpeedByDistance(currentSegment.getLength() - rv.remaining_segment_distance);
-        double lookahead_distance = getLookaheadForSpeed(rv.closest_point_speed) + rv.closest_point_distance;
-        if (rv.remaining_segment_distance < lookahead_distance && segments.size() > 1) {
-            lookahead_distance -= rv.remaining_segment_distance;
-            for (int i = 1; i < segments.size(); ++i) {
-                currentSegment = segments.get(i);
-                final double length = currentSegment.getLength();
-                if (length < lookahead_distance && i < segments.size() - 1) {
-                    lookahead_distance -= length;
-                } else {
-                    break;
-                }
-            }
-        } else {
-            lookahead_distance += (currentSegment.getLength() - rv.remaining_segment_distance);
-        }
-        rv.max_speed = currentSegment.getMaxSpeed();
-        rv.lookahead_point = currentSegment.getPointByDistance(lookahead_distance);
-        rv.lookahead_point_speed = currentSegment.getSpeedByDistance(lookahead_distance);
-        checkSegmentDone(rv.closest_point);
-        return rv;
-    }
-
-    /**
-     * Gives the speed the robot should be traveling at the given position
-     * 
-     * @param robotPos
-     *            position of the robot
-     * @return speed robot should be traveling
-     */
-    public double getSpeed(Translation robotPos) {
-        PathSegment currentSegment = segments.get(0);
-        return currentSegment.getSpeedByClosestPoint(robotPos);
-    }
-    
     public void setIsReversed(boolean isReversed) {
     	this.isReversed = isReversed;
     }
@@ -155,27 +88,6 @@ public class Path {
     	return startingAngle;
     }
     
-    /**
-     * Checks if the robot has finished traveling along the current segment then removes it from the path if it has
-     * 
-     * @param robotPos
-     *            robot position
-     */
-    public void checkSegmentDone(Translation robotPos) {
-        PathSegment currentSegment = segments.get(0);
-        double remainingDist = currentSegment.getRemainingDistance(currentSegment.getClosestPoint(robotPos));
-        if (remainingDist < Constants.SEGMENT_COMPLETION_TOLERANCE) {
-            removeCurrentSegment();
-        }
-    }
-
-    public void removeCurrentSegment() {
-        prevSegment = segments.remove(0);
-        String marker = prevSegment.getMarker();
-        if (marker != null)
-            mMarkersCrossed.add(marker);
-    }
-
     /** Ensures that all speeds in the path are attainable and robot can slow down in time */
     public void verifySpeeds() {
         double maxStartSpeed = 0.0;
@@ -200,16 +112,27 @@ public class Path {
         }
     }
 
-    public boolean hasPassedMarker(String marker) {
-        return mMarkersCrossed.contains(marker);
+    /** @return the number of segments in the path */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+    
+    PathSegment getSegment(int index) {
+        return segments.get(index);
+    }
+    
+    double[] getCumulativeLengths() {
+        double[] cumulative = cumulativeLengths;
+        if (cumulative == null) {
+            cumulative = new double[segments.size() + 1];
+            for (int i = 0; i < segments.size(); i++) {
+                cumulative[i + 1] = cumulative[i] + segments.get(i).getLength();
+            }
+            cumulativeLengths = cumulative;
+        }
+        return cumulative;
     }
     
-    /** Calculate the lookahead distance for the given speed */
-    private double getLookaheadForSpeed(double speed) {
-		double lookahead = Constants.DELTA_LOOKAHEAD * (speed - Constants.MIN_LOOKAHEAD_SPEED) / Constants.DELTA_LOOKAHEAD_SPEED + Constants.MIN_LOOKAHEAD;
-		return Double.isNaN(lookahead) ? Constants.MIN_LOOKAHEAD : Math.max(Constants.MIN_LOOKAHEAD, Math.min(Constants.MAX_LOOKAHEAD, lookahead));
-	}
-
     public String toString() {
         String str = "";
         for (PathSegment s : segments) {
@@ -0,0 +1,183 @@
+package org.usfirst.frc.team4028.robot.auton.pathfollowing.control;
+
+import org.usfirst.frc.team4028.robot.Constants;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Translation;
+
+/**
+ * One run along a Path. The Path itself is never changed, the cursor only keeps the index of the
+ * current segment, so moving to the next segment is O(1) and the same Path can be followed again
+ * by a new cursor (or this one after reset()). Following allocates nothing, the report returned by
+ * getTargetPoint() is reused and only valid until the next call.
+ */
+public class PathCursor {
+    private final Path path;
+    private final double minLookahead, maxLookahead;
+    private int currentSegment;
+    private int completedSegmentCount;  // == currentSegment until the last segment is completed
+    
+    private final Path.TargetPointReport report = new Path.TargetPointReport();
+    private final double[] point = new double[2];  // {x, y} scratch for the PathSegment point queries
+
+    public PathCursor(Path path) {
+        this(path, PathFollowingGains.DEFAULT);
+    }
+
+    public PathCursor(Path path, PathFollowingGains gains) {
+        this.path = path;
+        minLookahead = gains.minLookahead;
+        maxLookahead = gains.maxLookahead;
+        reset();
+    }
+
+    /** Go back to the start of the path */
+    public void reset() {
+        currentSegment = 0;
+        completedSegmentCount = 0;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /** @return the index of the segment being followed */
+    public int getCurrentSegmentIndex() {
+        return currentSegment;
+    }
+
+    /**
+     * get the remaining distance left for the robot to travel on the current segment
+     *
+     * @param robotPos
+     *            robot position
+     * @return remaining distance on current segment
+     */
+    public double getSegmentRemainingDist(Translation robotPos) {
+        return getSegmentRemainingDist(robotPos.x(), robotPos.y());
+    }
+
+    /** Same as above w/ the robot position (x, y) as primitives */
+    public double getSegmentRemainingDist(double x, double y) {
+        PathSegment segment = path.getSegment(currentSegment);
+        segment.getClosestPoint(x, y, point);
+        return segment.getRemainingDistance(point[0], point[1]);
+    }
+
+    /** @return the length of the current segment */
+    public double getSegmentLength() {
+        return path.getSegment(currentSegment).getLength();
+    }
+
+    /**
+     * Gives the position of the lookahead point (and moves past any segments prior to this point).
+     *
+     * @param robot
+     *            Translation of the current robot pose.
+     * @return report containing everything we might want to know about the target point (reused, valid until the next call).
+     */
+    public Path.TargetPointReport getTargetPoint(Translation robot) {
+        return getTargetPoint(robot.x(), robot.y());
+    }
+
+    /** Same as above w/ the robot position (x, y) as primitives */
+    public Path.TargetPointReport getTargetPoint(double x, double y) {
+        final Path.TargetPointReport rv = report;
+        PathSegment segment = path.getSegment(currentSegment);
+        segment.getClosestPoint(x, y, point);
+        rv.closest_point_x = point[0];
+        rv.closest_point_y = point[1];
+        rv.closest_point_distance = Math.hypot(rv.closest_point_x - x, rv.closest_point_y - y);
+        rv.remaining_segment_distance = segment.getRemainingDistance(rv.closest_point_x, rv.closest_point_y);
+        final double[] cumulative = path.getCumulativeLengths();
+        final int last = path.getSegmentCount() - 1;
+        rv.remaining_path_distance = rv.remaining_segment_distance + (cumulative[last + 1] - cumulative[currentSegment + 1]);
+        rv.closest_point_speed = segment
+                .getSpeedByDistance(segment.getLength() - rv.remaining_segment_distance);
+        double lookahead_distance = getLookaheadForSpeed(rv.closest_point_speed) + rv.closest_point_distance;
+        if (rv.remaining_segment_distance < lookahead_distance && currentSegment < last) {
+            // distance along the whole path to the lookahead point, then find the segment it lands on
+            final double lookahead_path_distance = cumulative[currentSegment + 1] + lookahead_distance - rv.remaining_segment_distance;
+            final int i = findSegmentByPathDistance(cumulative, currentSegment + 1, last, lookahead_path_distance);
+            segment = path.getSegment(i);
+            lookahead_distance = lookahead_path_distance - cumulative[i];
+        } else {
+            lookahead_distance += (segment.getLength() - rv.remaining_segment_distance);
+        }
+        rv.max_speed = segment.getMaxSpeed();
+        segment.getPointByDistance(lookahead_distance, point);
+        rv.lookahead_point_x = point[0];
+        rv.lookahead_point_y = point[1];
+        rv.lookahead_point_speed = segment.getSpeedByDistance(lookahead_distance);
+        checkSegmentDone(rv.closest_point_x, rv.closest_point_y);
+        return rv;
+    }
+
+    /**
+     * Gives the speed the robot should be traveling at the given position
+     *
+     * @param robotPos
+     *            position of the robot
+     * @return speed robot should be traveling
+     */
+    public double getSpeed(Translation robotPos) {
+        return path.getSegment(currentSegment).getSpeedByClosestPoint(robotPos);
+    }
+
+    /**
+     * Checks if the robot has finished traveling along the current segment then moves to the next one if it has
+     *
+     * @param robotPos
+     *            robot position
+     */
+    public void checkSegmentDone(Translation robotPos) {
+        checkSegmentDone(robotPos.x(), robotPos.y());
+    }
+
+    /** Same as above w/ the robot position (x, y) as primitives */
+    public void checkSegmentDone(double x, double y) {
+        if (getSegmentRemainingDist(x, y) < Constants.SEGMENT_COMPLETION_TOLERANCE) {
+            moveToNextSegment();
+        }
+    }
+
+    /** the last segment is never left (only marked completed), a finished path keeps following (extrapolating) it */
+    public void moveToNextSegment() {
+        if (completedSegmentCount < path.getSegmentCount()) {
+            completedSegmentCount++;
+        }
+        currentSegment = Math.min(completedSegmentCount, path.getSegmentCount() - 1);
+    }
+
+    /** @return has a segment w/ this marker been completed on this run */
+    public boolean hasPassedMarker(String marker) {
+        for (int i = 0; i < completedSegmentCount; i++) {
+            if (marker.equals(path.getSegment(i).getMarker())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Binary search for the 1st segment in [first, last] that ends at or past pathDistance,
+     * the last segment if none do (its lookahead point is then clamped / extrapolated)
+     */
+    private static int findSegmentByPathDistance(double[] cumulative, int first, int last, double pathDistance) {
+        int low = first;
+        int high = last;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid + 1] < pathDistance) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Calculate the lookahead distance for the given speed */
+    private double getLookaheadForSpeed(double speed) {
+        double lookahead = (maxLookahead - minLookahead) * (speed - Constants.MIN_LOOKAHEAD_SPEED) / Constants.DELTA_LOOKAHEAD_SPEED + minLookahead;
+        return Double.isNaN(lookahead) ? minLookahead : Math.max(minLookahead, Math.min(maxLookahead, lookahead));
+    }
+}
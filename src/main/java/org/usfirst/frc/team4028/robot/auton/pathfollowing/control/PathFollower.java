@@ -4,40 +4,70 @@ import org.usfirst.frc.team4028.robot.Constants;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.RigidTransform;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Twist;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile.MotionProfileConstraints;
-import org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile.MotionProfileGoal;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile.MotionProfileGoal.CompletionBehavior;
-
-import edu.wpi.first.wpilibj.Timer;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
-
-import org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile.MotionState;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile.ProfileFollower;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher.TIER;
 
 public class PathFollower {
     AdaptivePurePursuitController mSteeringController;
-    Twist mLastSteeringDelta;
+    double mLastSteeringDx, mLastSteeringDtheta;  // last steering delta (dy is always 0)
     ProfileFollower mVelocityController;
     boolean overrideFinished = false;
     boolean doneSteering = false;
     double maxAccel, maxDecel;
     double inertiaSteeringGain;
+    MotionProfileConstraints[] mSegmentConstraints;  // 1 per path segment max speed, built up front so update() creates none
+    MotionProfileConstraints mConstraints;
+    double mCommandDx, mCommandDtheta;  // latest velocity command (dy is always 0)
     double remainingPathLength;
     boolean hasAutoStopCounterStarted;
     double autoStopCounterInitTime;
     boolean checkedSteerQ = false;
     boolean checkedVeloFinishedQ = false;
     boolean checkedVeloOnTargetQ = false;
+    DashboardPublisher mDashboard = DashboardPublisher.getInstance();
+    int mDashRemainingPathLength;
 
     /** Create a new PathFollower for a given path */
     public PathFollower(Path path, boolean reversed, double maxAccel, double maxDecel, double inertiaSteeringGain) {
-        mSteeringController = new AdaptivePurePursuitController(path, reversed);
-        mLastSteeringDelta = Twist.identity();
+        this(path, reversed, maxAccel, maxDecel, inertiaSteeringGain, PathFollowingGains.DEFAULT);
+    }
+
+    /** Create a new PathFollower for a given path w/ other than the default lookahead & profile gains */
+    public PathFollower(Path path, boolean reversed, double maxAccel, double maxDecel, double inertiaSteeringGain,
+            PathFollowingGains gains) {
+        mSteeringController = new AdaptivePurePursuitController(path, reversed, gains);
+        mLastSteeringDx = 0.0;
+        mLastSteeringDtheta = 0.0;
         mVelocityController = new ProfileFollower();
+        mVelocityController.setGains(gains.profileKp, gains.profileKi, gains.profileKv, gains.profileKffv, gains.profileKffa);
         this.maxAccel = maxAccel;
         this.maxDecel = maxDecel;
         this.inertiaSteeringGain = inertiaSteeringGain;
         mVelocityController.setConstraints(
                 new MotionProfileConstraints(Constants.PATH_FOLLOWING_MAX_VEL, maxAccel, maxDecel));
+        mVelocityController.setGoalReuseTolerance(Constants.PATH_FOLLOWING_GOAL_REUSE_POS_TOLERANCE,
+                Constants.PATH_FOLLOWING_GOAL_REUSE_VEL_TOLERANCE);
+        mSegmentConstraints = new MotionProfileConstraints[path.getSegmentCount()];
+        for (int i = 0; i < mSegmentConstraints.length; i++) {
+            mSegmentConstraints[i] = new MotionProfileConstraints(
+                    Math.min(Constants.PATH_FOLLOWING_MAX_VEL, path.getSegment(i).getMaxSpeed()), maxAccel, maxDecel);
+        }
+        hasAutoStopCounterStarted = false;
+        mDashRemainingPathLength = mDashboard.registerNumber("Remaining Path Length", TIER.NORMAL, 0.1);
+    }
+
+    /** Follow the path over from its start (w/o re-registering the dashboard values like a new PathFollower would) */
+    public synchronized void reset() {
+        mSteeringController.reset();
+        mVelocityController.resetProfile();
+        mLastSteeringDx = 0.0;
+        mLastSteeringDtheta = 0.0;
+        mCommandDx = 0.0;
+        mCommandDtheta = 0.0;
+        overrideFinished = false;
+        doneSteering = false;
         hasAutoStopCounterStarted = false;
     }
 
@@ -55,15 +85,24 @@ public class PathFollower {
      * @return The velocity command to apply
      */
     public synchronized Twist update(double t, RigidTransform pose, double displacement, double velocity) {
+        update(t, pose.getTranslation().x(), pose.getTranslation().y(), pose.getRotation().cos(), pose.getRotation().sin(),
+                displacement, velocity);
+        return new Twist(mCommandDx, 0.0, mCommandDtheta);
+    }
+
+    /**
+     * Same as above w/ the robot pose as primitives, position (x, y) heading (cos, sin), creates no objects. The
+     * velocity command is read back w/ getCommandDx() & getCommandDtheta().
+     */
+    public synchronized void update(double t, double x, double y, double cos, double sin, double displacement, double velocity) {
         if (!mSteeringController.isFinished()) {
-            final AdaptivePurePursuitController.Command steering_command = mSteeringController.update(pose);
-            mLastSteeringDelta = steering_command.delta;
-            mVelocityController.setGoalAndConstraints(
-                    new MotionProfileGoal(displacement + steering_command.delta.dx,
-                            Math.abs(steering_command.endVelocity), CompletionBehavior.VIOLATE_MAX_ACCEL,
-                            Constants.PATH_FOLLOWING_GOAL_POS_TOLERANCE, Constants.PATH_FOLLOWING_GOAL_VEL_TOLERANCE),
-                    new MotionProfileConstraints(Math.min(Constants.PATH_FOLLOWING_MAX_VEL, steering_command.maxVelocity),
-                            maxAccel, maxDecel));
+            final AdaptivePurePursuitController.Command steering_command = mSteeringController.update(x, y, cos, sin);
+            mLastSteeringDx = steering_command.deltaDx;
+            mLastSteeringDtheta = steering_command.deltaDtheta;
+            mVelocityController.setGoalAndConstraints(displacement + steering_command.deltaDx,
+                    Math.abs(steering_command.endVelocity), CompletionBehavior.VIOLATE_MAX_ACCEL,
+                    Constants.PATH_FOLLOWING_GOAL_POS_TOLERANCE, Constants.PATH_FOLLOWING_GOAL_VEL_TOLERANCE,
+                    getConstraints(Math.min(Constants.PATH_FOLLOWING_MAX_VEL, steering_command.maxVelocity)));
 
             if (steering_command.remainingPathLength < Constants.PATH_STOP_STEERING_DISTANCE) {
                 doneSteering = true;
@@ -72,30 +111,49 @@ public class PathFollower {
             
             if (!hasAutoStopCounterStarted && (steering_command.remainingPathLength < 25.0)) {
             	hasAutoStopCounterStarted = true;
-            	autoStopCounterInitTime = Timer.getFPGATimestamp();
+            	autoStopCounterInitTime = t;
             }
             
-            if (hasAutoStopCounterStarted && ((Timer.getFPGATimestamp() - autoStopCounterInitTime) > 2.0)) {
+            if (hasAutoStopCounterStarted && ((t - autoStopCounterInitTime) > 2.0)) {
             	forceFinish();
             }
-            
-            SmartDashboard.putNumber("Remaining Path Length", remainingPathLength);
         }
 
-        final double velocity_command = mVelocityController.update(new MotionState(t, displacement, velocity, 0.0), t);
-        final double curvature = mLastSteeringDelta.dtheta / mLastSteeringDelta.dx;
-        double dtheta = mLastSteeringDelta.dtheta;
+        final double velocity_command = mVelocityController.update(t, displacement, velocity, 0.0, t);
+        final double curvature = mLastSteeringDtheta / mLastSteeringDx;
+        double dtheta = mLastSteeringDtheta;
         if (!Double.isNaN(curvature) && Math.abs(curvature) < Constants.BIG_NUMBER) {
             // Regenerate angular velocity command from adjusted curvature.
-            final double abs_velocity_setpoint = Math.abs(mVelocityController.getSetpoint().vel());
-            dtheta = mLastSteeringDelta.dx * curvature * (1.0 + inertiaSteeringGain * abs_velocity_setpoint);
+            final double abs_velocity_setpoint = Math.abs(mVelocityController.getSetpointVel());
+            dtheta = mLastSteeringDx * curvature * (1.0 + inertiaSteeringGain * abs_velocity_setpoint);
         }
-        double scale = velocity_command / mLastSteeringDelta.dx;
-        final Twist rv = new Twist(mLastSteeringDelta.dx * scale, 0.0, -dtheta * scale);
+        double scale = velocity_command / mLastSteeringDx;
+        mCommandDx = mLastSteeringDx * scale;
+        mCommandDtheta = -dtheta * scale;
+    }
+
+    public synchronized double getCommandDx() {
+        return mCommandDx;
+    }
 
-        return rv;
+    public synchronized double getCommandDtheta() {
+        return mCommandDtheta;
     }
     
+    /** the max velocity only changes between segments, so use that segment's constraints (a new one if it's none of them) */
+    private MotionProfileConstraints getConstraints(double maxVelocity) {
+        final double maxAbsVel = Math.abs(maxVelocity);
+        for (int i = 0; i < mSegmentConstraints.length; i++) {
+            if (mSegmentConstraints[i].getMaxAbsVel() == maxAbsVel) {
+                return mSegmentConstraints[i];
+            }
+        }
+        if (mConstraints == null || mConstraints.getMaxAbsVel() != maxAbsVel) {
+            mConstraints = new MotionProfileConstraints(maxVelocity, maxAccel, maxDecel);
+        }
+        return mConstraints;
+    }
+
     public boolean isFinished() {
         /*checkedSteerQ = false;
         checkedVeloFinishedQ = false;
@@ -127,4 +185,9 @@ public class PathFollower {
     public double remainingPathLength() {
     	return remainingPathLength;
     }
+
+    public void updateDashboard() {
+        mDashboard.set(mDashRemainingPathLength, remainingPathLength);
+        mVelocityController.updateDashboard();
+    }
 }
\ No newline at end of file
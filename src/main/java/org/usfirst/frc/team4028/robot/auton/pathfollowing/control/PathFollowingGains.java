@@ -0,0 +1,34 @@
+package org.usfirst.frc.team4028.robot.auton.pathfollowing.control;
+
+import org.usfirst.frc.team4028.robot.Constants;
+
+/**
+ * The pure pursuit lookahead & velocity profile follower gains a PathFollower uses. The robot always runs the
+ * hand tuned DEFAULT (Constants), other sets are only tried out in the simulator (see sim.GainSweep).
+ */
+public class PathFollowingGains {
+	public static final PathFollowingGains DEFAULT = new PathFollowingGains(Constants.MIN_LOOKAHEAD, Constants.MAX_LOOKAHEAD,
+			Constants.PATH_FOLLOWING_PROFILE_KP, Constants.PATH_FOLLOWING_PROFILE_KI, Constants.PATH_FOLLOWING_PROFILE_KV,
+			Constants.PATH_FOLLOWING_PROFILE_KFFV, Constants.PATH_FOLLOWING_PROFILE_KFFA);
+
+	// lookahead (inches) grows linearly from min to max between MIN_LOOKAHEAD_SPEED & MAX_LOOKAHEAD_SPEED
+	public final double minLookahead, maxLookahead;
+	public final double profileKp, profileKi, profileKv, profileKffv, profileKffa;
+
+	public PathFollowingGains(double minLookahead, double maxLookahead,
+			double profileKp, double profileKi, double profileKv, double profileKffv, double profileKffa) {
+		this.minLookahead = minLookahead;
+		this.maxLookahead = maxLookahead;
+		this.profileKp = profileKp;
+		this.profileKi = profileKi;
+		this.profileKv = profileKv;
+		this.profileKffv = profileKffv;
+		this.profileKffa = profileKffa;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("lookahead %.1f-%.1f in, profile kP %.3f kI %.4f kV %.4f kFFV %.3f kFFA %.4f",
+				minLookahead, maxLookahead, profileKp, profileKi, profileKv, profileKffv, profileKffa);
+	}
+}
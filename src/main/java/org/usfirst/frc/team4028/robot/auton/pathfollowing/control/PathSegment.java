@@ -1,8 +1,5 @@
 package org.usfirst.frc.team4028.robot.auton.pathfollowing.control;
 
-import java.util.Optional;
-
-import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Rotation;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Translation;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile.MotionProfile;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile.MotionProfileConstraints;
@@ -22,6 +19,10 @@ public class PathSegment {
 	private MotionProfile speedController;
 	private boolean extrapolateLookahead;
 	private String marker;
+	// fixed by the geometry, computed 1x instead of re-running the trig on every call
+	private double length;
+	private double totalAngle;			// arc only, unsigned radians from start to end
+	private double signedTotalAngle;	// arc only, + if counter-clockwise
 	
 	/**
      * Constructor for a linear segment
@@ -48,10 +49,11 @@ public class PathSegment {
         this.end = new Translation(x2, y2);
 
         this.deltaStart = new Translation(start, end);
+        isLine = true;
+        initGeometry();
 
         this.maxSpeed = maxSpeed;
         extrapolateLookahead = false;
-        isLine = true;
         this.maxAccel = maxAccel;
         this.maxDecel = maxDecel;
         this.marker = marker;
@@ -89,16 +91,39 @@ public class PathSegment {
 
         this.deltaStart = new Translation(center, start);
         this.deltaEnd = new Translation(center, end);
+        isLine = false;
+        initGeometry();
 
         this.maxSpeed = maxSpeed;
         extrapolateLookahead = false;
-        isLine = false;
         this.maxAccel = maxAccel;
         this.maxDecel = maxDecel;
         this.marker = marker;
         createMotionProfiler(startState, endSpeed);
     }
     
+    /** Restores a segment exactly as it was built (incl. its motion profile), used by PathSerializer */
+    PathSegment(boolean isLine, Translation start, Translation end, Translation center, double maxSpeed,
+            double maxAccel, double maxDecel, boolean extrapolateLookahead, String marker, MotionProfile speedController) {
+        this.start = start;
+        this.end = end;
+        this.center = center;
+        this.isLine = isLine;
+        if (isLine) {
+            this.deltaStart = new Translation(start, end);
+        } else {
+            this.deltaStart = new Translation(center, start);
+            this.deltaEnd = new Translation(center, end);
+        }
+        initGeometry();
+        this.maxSpeed = maxSpeed;
+        this.maxAccel = maxAccel;
+        this.maxDecel = maxDecel;
+        this.extrapolateLookahead = extrapolateLookahead;
+        this.marker = marker;
+        this.speedController = speedController;
+    }
+    
     public double getMaxSpeed() {
     	return maxSpeed;
     }
@@ -120,15 +145,21 @@ public class PathSegment {
         return end;
     }
 
-    /** @return the total length of the segment */
-    public double getLength() {
+    private void initGeometry() {
         if (isLine) {
-            return deltaStart.norm();
+            length = deltaStart.norm();
         } else {
-            return deltaStart.norm() * Translation.getAngle(deltaStart, deltaEnd).getRadians();
+            totalAngle = Translation.getAngle(deltaStart, deltaEnd).getRadians();
+            signedTotalAngle = totalAngle * ((Translation.cross(deltaStart, deltaEnd) >= 0) ? 1 : -1);
+            length = deltaStart.norm() * totalAngle;
         }
     }
 
+    /** @return the total length of the segment */
+    public double getLength() {
+        return length;
+    }
+
     /**
      * Set whether or not to extrapolate the lookahead point. Should only be true for the last segment in the path
      * 
@@ -146,22 +177,35 @@ public class PathSegment {
      * @return the point on the segment closest to the robot
      */
     public Translation getClosestPoint(Translation position) {
+        final double[] point = new double[2];
+        getClosestPoint(position.x(), position.y(), point);
+        return new Translation(point[0], point[1]);
+    }
+
+    /** Same as getClosestPoint(position) w/ the robot position (x, y) as primitives, the point is written into result {x, y} */
+    public void getClosestPoint(double x, double y, double[] result) {
     	if (isLine) {
-            Translation delta = new Translation(start, end);
-            double u = ((position.x() - start.x()) * delta.x() + (position.y() - start.y()) * delta.y())
-                    / (delta.x() * delta.x() + delta.y() * delta.y());
-            if (u >= 0 && u <= 1)
-                return new Translation(start.x() + u * delta.x(), start.y() + u * delta.y());
-            return (u < 0) ? start : end;
+            final double dx = deltaStart.x(), dy = deltaStart.y();
+            double u = ((x - start.x()) * dx + (y - start.y()) * dy)
+                    / (dx * dx + dy * dy);
+            if (u >= 0 && u <= 1) {
+                setPoint(result, start.x() + u * dx, start.y() + u * dy);
+            } else {
+                setPoint(result, (u < 0) ? start : end);
+            }
         } else {
-            Translation deltaPosition = new Translation(center, position);
-            deltaPosition = deltaPosition.scale(deltaStart.norm() / deltaPosition.norm());
-            if (Translation.cross(deltaPosition, deltaStart) * Translation.cross(deltaPosition, deltaEnd) < 0) {
-                return center.translateBy(deltaPosition);
+            double dx = x - center.x(), dy = y - center.y();
+            final double scale = deltaStart.norm() / Math.hypot(dx, dy);
+            dx *= scale;
+            dy *= scale;
+            final double crossStart = dx * deltaStart.y() - dy * deltaStart.x();
+            final double crossEnd = dx * deltaEnd.y() - dy * deltaEnd.x();
+            if (crossStart * crossEnd < 0) {
+                setPoint(result, center.x() + dx, center.y() + dy);
             } else {
-                Translation startDist = new Translation(position, start);
-                Translation endDist = new Translation(position, end);
-                return (endDist.norm() < startDist.norm()) ? end : start;
+                final double startDist = Math.hypot(start.x() - x, start.y() - y);
+                final double endDist = Math.hypot(end.x() - x, end.y() - y);
+                setPoint(result, (endDist < startDist) ? end : start);
             }
         }
     }
@@ -174,18 +218,24 @@ public class PathSegment {
      * @return point on the segment <code>dist</code> distance from the starting point
      */
     public Translation getPointByDistance(double dist) {
-        double length = getLength();
+        final double[] point = new double[2];
+        getPointByDistance(dist, point);
+        return new Translation(point[0], point[1]);
+    }
+
+    /** Same as getPointByDistance(dist) but the point is written into result {x, y}, nothing is allocated */
+    public void getPointByDistance(double dist, double[] result) {
         if (!extrapolateLookahead && dist > length) {
             dist = length;
         }
         if (isLine) {
-            return start.translateBy(deltaStart.scale(dist / length));
+            final double scale = dist / length;
+            setPoint(result, start.x() + deltaStart.x() * scale, start.y() + deltaStart.y() * scale);
         } else {
-            double deltaAngle = Translation.getAngle(deltaStart, deltaEnd).getRadians()
-                    * ((Translation.cross(deltaStart, deltaEnd) >= 0) ? 1 : -1);
-            deltaAngle *= dist / length;
-            Translation t = deltaStart.rotateBy(Rotation.fromRadians(deltaAngle));
-            return center.translateBy(t);
+            final double deltaAngle = signedTotalAngle * (dist / length);
+            final double cos = Math.cos(deltaAngle), sin = Math.sin(deltaAngle);
+            setPoint(result, center.x() + (deltaStart.x() * cos - deltaStart.y() * sin),
+                                center.y() + (deltaStart.x() * sin + deltaStart.y() * cos));
         }
     }
 
@@ -197,16 +247,29 @@ public class PathSegment {
      * @return distance remaining
      */
     public double getRemainingDistance(Translation position) {
+        return getRemainingDistance(position.x(), position.y());
+    }
+
+    /** Same as above w/ the point (x, y) as primitives */
+    public double getRemainingDistance(double x, double y) {
         if (isLine) {
-            return new Translation(end, position).norm();
+            return Math.hypot(x - end.x(), y - end.y());
         } else {
-            Translation deltaPosition = new Translation(center, position);
-            double angle = Translation.getAngle(deltaEnd, deltaPosition).getRadians();
-            double totalAngle = Translation.getAngle(deltaStart, deltaEnd).getRadians();
-            return angle / totalAngle * getLength();
+            double angle = Translation.getAngleRadians(deltaEnd.x(), deltaEnd.y(),
+                                                        x - center.x(), y - center.y());
+            return angle / totalAngle * length;
         }
     }
 
+    private static void setPoint(double[] result, double x, double y) {
+        result[0] = x;
+        result[1] = y;
+    }
+
+    private static void setPoint(double[] result, Translation point) {
+        setPoint(result, point.x(), point.y());
+    }
+
     private double getDistanceTravelled(Translation robotPosition) {
         Translation pathPosition = getClosestPoint(robotPosition);
         return getLength() - getRemainingDistance(pathPosition);
@@ -218,9 +281,9 @@ public class PathSegment {
         } else if (dist > speedController.endPos()) {
             dist = speedController.endPos();
         }
-        Optional<MotionState> state = speedController.firstStateByPos(dist);
-        if (state.isPresent()) {
-            return state.get().vel();
+        double vel = speedController.firstVelByPos(dist);
+        if (!Double.isNaN(vel)) {
+            return vel;
         } else {
             System.out.println("Velocity does not exist at that position!");
             return 0.0;
@@ -243,6 +306,31 @@ public class PathSegment {
         return marker;
     }
 
+    // raw state for PathSerializer
+    boolean isLine() {
+        return isLine;
+    }
+
+    Translation getCenter() {
+        return center;
+    }
+
+    double getMaxAccel() {
+        return maxAccel;
+    }
+
+    double getMaxDecel() {
+        return maxDecel;
+    }
+
+    boolean isExtrapolateLookahead() {
+        return extrapolateLookahead;
+    }
+
+    MotionProfile getSpeedController() {
+        return speedController;
+    }
+
     public String toString() {
         if (isLine) {
             return "(" + "start: " + start + ", end: " + end + ", speed: " + maxSpeed + ")";
@@ -0,0 +1,138 @@
+package org.usfirst.frc.team4028.robot.auton.pathfollowing.control;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Translation;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile.MotionProfile;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile.MotionSegment;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile.MotionState;
+
+/**
+ * Writes / reads a fully built Path (segments + their generated motion profiles) in a compact binary form.
+ * Every double is written as its raw bits, so a path read back behaves exactly like the one that was built.
+ * Only the as-built state is saved, a path must be written before it is followed.
+ * A Trajectory is written w/o its path, it is read back onto the (cached) path it was sampled from.
+ */
+public class PathSerializer {
+	//=====================================================================================
+	// Write
+	//=====================================================================================
+	public static void writePath(DataOutputStream out, Path path) throws IOException {
+		out.writeDouble(path.maxAccel);
+		out.writeDouble(path.maxDecel);
+		out.writeDouble(path.inertiaSteeringGain);
+		out.writeBoolean(path.isReversed);
+		out.writeDouble(path.getStartingAngle());
+
+		out.writeInt(path.segments.size());
+		for (PathSegment segment : path.segments) {
+			writeSegment(out, segment);
+		}
+	}
+
+	private static void writeSegment(DataOutputStream out, PathSegment segment) throws IOException {
+		out.writeBoolean(segment.isLine());
+		writeTranslation(out, segment.getStart());
+		writeTranslation(out, segment.getEnd());
+		if (!segment.isLine()) {
+			writeTranslation(out, segment.getCenter());
+		}
+		out.writeDouble(segment.getMaxSpeed());
+		out.writeDouble(segment.getMaxAccel());
+		out.writeDouble(segment.getMaxDecel());
+		out.writeBoolean(segment.isExtrapolateLookahead());
+
+		// PathBuilder leaves marker null for a line w/o one, PathSegment defaults to ""
+		out.writeBoolean(segment.getMarker() != null);
+		if (segment.getMarker() != null) {
+			out.writeUTF(segment.getMarker());
+		}
+
+		MotionProfile speedController = segment.getSpeedController();
+		out.writeInt(speedController.size());
+		for (int i = 0; i < speedController.size(); i++) {
+			MotionSegment profileSegment = speedController.segment(i);
+			writeMotionState(out, profileSegment.start());
+			writeMotionState(out, profileSegment.end());
+		}
+	}
+
+	private static void writeTranslation(DataOutputStream out, Translation translation) throws IOException {
+		out.writeDouble(translation.x());
+		out.writeDouble(translation.y());
+	}
+
+	private static void writeMotionState(DataOutputStream out, MotionState state) throws IOException {
+		out.writeDouble(state.t());
+		out.writeDouble(state.pos());
+		out.writeDouble(state.vel());
+		out.writeDouble(state.acc());
+	}
+
+	public static void writeTrajectory(DataOutputStream out, Trajectory trajectory) throws IOException {
+		out.writeDouble(trajectory.getDt());
+		out.writeInt(trajectory.getSampleCount());
+		for (int i = 0; i < trajectory.getSampleCount(); i++) {
+			for (int value = 0; value < Trajectory.SAMPLE_SIZE; value++) {
+				out.writeDouble(trajectory.get(i, value));
+			}
+		}
+	}
+
+	//=====================================================================================
+	// Read
+	//=====================================================================================
+	public static Path readPath(DataInputStream in) throws IOException {
+		Path path = new Path(in.readDouble(), in.readDouble(), in.readDouble());
+		path.setIsReversed(in.readBoolean());
+		path.setStartingAngle(in.readDouble());
+
+		int segmentCount = in.readInt();
+		for (int i = 0; i < segmentCount; i++) {
+			path.addSegment(readSegment(in));
+		}
+		return path;
+	}
+
+	private static PathSegment readSegment(DataInputStream in) throws IOException {
+		boolean isLine = in.readBoolean();
+		Translation start = readTranslation(in);
+		Translation end = readTranslation(in);
+		Translation center = isLine ? null : readTranslation(in);
+		double maxSpeed = in.readDouble();
+		double maxAccel = in.readDouble();
+		double maxDecel = in.readDouble();
+		boolean extrapolateLookahead = in.readBoolean();
+		String marker = in.readBoolean() ? in.readUTF() : null;
+
+		int profileSegmentCount = in.readInt();
+		MotionProfile speedController = new MotionProfile();
+		for (int i = 0; i < profileSegmentCount; i++) {
+			speedController.appendSegment(new MotionSegment(readMotionState(in), readMotionState(in)));
+		}
+
+		return new PathSegment(isLine, start, end, center, maxSpeed, maxAccel, maxDecel,
+								extrapolateLookahead, marker, speedController);
+	}
+
+	private static Translation readTranslation(DataInputStream in) throws IOException {
+		return new Translation(in.readDouble(), in.readDouble());
+	}
+
+	private static MotionState readMotionState(DataInputStream in) throws IOException {
+		return new MotionState(in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble());
+	}
+
+	/** @param path the path the trajectory was sampled from */
+	public static Trajectory readTrajectory(DataInputStream in, Path path) throws IOException {
+		double dt = in.readDouble();
+		int sampleCount = in.readInt();
+		double[] samples = new double[sampleCount * Trajectory.SAMPLE_SIZE];
+		for (int i = 0; i < samples.length; i++) {
+			samples[i] = in.readDouble();
+		}
+		return new Trajectory(path, dt, samples, sampleCount);
+	}
+}
@@ -0,0 +1,97 @@
+package org.usfirst.frc.team4028.robot.auton.pathfollowing.control;
+
+/**
+ * A Path sampled at a fixed dt (see TrajectorySampler): sample i is the state at time i * dt after the start.
+ * Everything is packed into a single double[] (SAMPLE_SIZE values per sample) so looking up any time is O(1).
+ * Immutable once sampled, so the same table can be streamed from any thread.
+ */
+public class Trajectory {
+	// offsets of each value within a sample
+	static final int X = 0;					// inches
+	static final int Y = 1;					// inches
+	static final int HEADING = 2;			// radians
+	static final int LEFT_VELOCITY = 3;		// inches per second
+	static final int RIGHT_VELOCITY = 4;	// inches per second
+	static final int DISTANCE = 5;			// inches driven since the start (negative when reversed)
+	static final int SAMPLE_SIZE = 6;
+
+	private final Path _path;
+	private final double _dt;
+	private final double[] _samples;
+	private final int _sampleCount;
+
+	Trajectory(Path path, double dt, double[] samples, int sampleCount) {
+		_path = path;
+		_dt = dt;
+		_samples = samples;
+		_sampleCount = sampleCount;
+	}
+
+	/** @return the sample at or just before t (seconds since the start), clamped to the 1st / last sample */
+	public int getIndex(double t) {
+		int index = (int) (t / _dt);
+		if (index < 0 || Double.isNaN(t)) {
+			return 0;
+		}
+		return Math.min(index, _sampleCount - 1);
+	}
+
+	/** @return value (ex. LEFT_VELOCITY) at t, linearly interpolated between the 2 samples around it */
+	double getInterpolated(double t, int value) {
+		final int index = getIndex(t);
+		if (index >= _sampleCount - 1) {
+			return get(index, value);
+		}
+		final double fraction = Math.max(0.0, t / _dt - index);
+		final double start = get(index, value);
+		return start + (get(index + 1, value) - start) * fraction;
+	}
+
+	double get(int index, int value) {
+		return _samples[index * SAMPLE_SIZE + value];
+	}
+
+	//=====================================================================================
+	// Property Accessors follow
+	//=====================================================================================
+	public Path getPath() {
+		return _path;
+	}
+
+	public double getDt() {
+		return _dt;
+	}
+
+	public int getSampleCount() {
+		return _sampleCount;
+	}
+
+	/** @return time of the last sample (the robot is stopped at the end of the path from then on) */
+	public double getDuration() {
+		return (_sampleCount - 1) * _dt;
+	}
+
+	public double getX(int index) {
+		return get(index, X);
+	}
+
+	public double getY(int index) {
+		return get(index, Y);
+	}
+
+	public double getHeadingRadians(int index) {
+		return get(index, HEADING);
+	}
+
+	public double getLeftVelocity(int index) {
+		return get(index, LEFT_VELOCITY);
+	}
+
+	public double getRightVelocity(int index) {
+		return get(index, RIGHT_VELOCITY);
+	}
+
+	public double getDistance(int index) {
+		return get(index, DISTANCE);
+	}
+}
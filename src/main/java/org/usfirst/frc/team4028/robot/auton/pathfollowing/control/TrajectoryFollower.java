@@ -0,0 +1,108 @@
+package org.usfirst.frc.team4028.robot.auton.pathfollowing.control;
+
+import org.usfirst.frc.team4028.robot.Constants;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.util.Kinematics;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher.TIER;
+
+/**
+ * Streams a pre-sampled Trajectory: the wheel velocities come straight from the table (O(1) lookup by time), pure
+ * pursuit on the measured pose and the distance driven vs. the table only correct the error from it. When the robot
+ * is exactly on the trajectory both corrections are ~0. No velocity profile is generated and nothing is allocated
+ * per update.
+ */
+public class TrajectoryFollower {
+    Trajectory mTrajectory;
+    AdaptivePurePursuitController mSteeringController;
+    double inertiaSteeringGain;
+    double mStartTime = Double.NaN;  // timestamp of the 1st update
+    double mElapsedTime;
+    double mLeftVelocity, mRightVelocity;  // inches per second
+    double mDistanceError;
+    double remainingPathLength;
+    boolean overrideFinished = false;
+    DashboardPublisher mDashboard = DashboardPublisher.getInstance();
+    int mDashRemainingPathLength, mDashElapsedTime, mDashDistanceError;
+
+    public TrajectoryFollower(Trajectory trajectory) {
+        mTrajectory = trajectory;
+        mSteeringController = new AdaptivePurePursuitController(trajectory.getPath(), trajectory.getPath().isReversed());
+        inertiaSteeringGain = trajectory.getPath().inertiaSteeringGain;
+        mDashRemainingPathLength = mDashboard.registerNumber("Remaining Path Length", TIER.NORMAL, 0.1);
+        mDashElapsedTime = mDashboard.registerNumber("Trajectory: Elapsed Time", TIER.NORMAL, 0.01);
+        mDashDistanceError = mDashboard.registerNumber("Trajectory: Distance Error", TIER.NORMAL, 0.01);
+    }
+
+    /**
+     * Get new wheel velocity commands (read them w/ getLeftVelocity() / getRightVelocity()).
+     *
+     * @param t
+     *            The current timestamp
+     * @param x, y, cos, sin
+     *            The current robot pose, position (x, y) heading (cos, sin)
+     * @param displacement
+     *            The current robot displacement (total distance driven).
+     */
+    public synchronized void update(double t, double x, double y, double cos, double sin, double displacement) {
+        if (Double.isNaN(mStartTime)) {
+            mStartTime = t;
+        }
+        mElapsedTime = t - mStartTime;
+        if (isFinished()) {
+            mLeftVelocity = 0.0;
+            mRightVelocity = 0.0;
+            return;
+        }
+
+        // feedforward, in the same (twist) form as the PathFollower command
+        final double left = mTrajectory.getInterpolated(mElapsedTime, Trajectory.LEFT_VELOCITY);
+        final double right = mTrajectory.getInterpolated(mElapsedTime, Trajectory.RIGHT_VELOCITY);
+        double velocity = (left + right) / 2.0;
+        double dtheta = Kinematics.forwardKinematicsRotation(left, right);
+
+        if (!mSteeringController.isFinished()) {
+            final AdaptivePurePursuitController.Command steering_command = mSteeringController.update(x, y, cos, sin);
+            remainingPathLength = steering_command.remainingPathLength;
+            final double curvature = steering_command.deltaDtheta / steering_command.deltaDx;
+            if (!Double.isNaN(curvature) && Math.abs(curvature) < Constants.BIG_NUMBER) {
+                // what PathFollower would command to reach the lookahead point at the table's velocity
+                final double steeringDtheta = -velocity * curvature * (1.0 + inertiaSteeringGain * Math.abs(velocity));
+                dtheta += Constants.TRAJECTORY_STEERING_CORRECTION_GAIN * (steeringDtheta - dtheta);
+            }
+        }
+
+        mDistanceError = mTrajectory.getInterpolated(mElapsedTime, Trajectory.DISTANCE) - displacement;
+        velocity += Constants.TRAJECTORY_DISTANCE_CORRECTION_KP * mDistanceError;
+
+        final double deltaV = Kinematics.inverseKinematicsDeltaV(dtheta);
+        mLeftVelocity = velocity - deltaV;
+        mRightVelocity = velocity + deltaV;
+    }
+
+    /** the table ends w/ the robot stopped at the end of the path */
+    public synchronized boolean isFinished() {
+        return mElapsedTime > mTrajectory.getDuration() || overrideFinished;
+    }
+
+    public synchronized void forceFinish() {
+        overrideFinished = true;
+    }
+
+    public synchronized double getLeftVelocity() {
+        return mLeftVelocity;
+    }
+
+    public synchronized double getRightVelocity() {
+        return mRightVelocity;
+    }
+
+    public synchronized double remainingPathLength() {
+        return remainingPathLength;
+    }
+
+    public synchronized void updateDashboard() {
+        mDashboard.set(mDashRemainingPathLength, remainingPathLength);
+        mDashboard.set(mDashElapsedTime, mElapsedTime);
+        mDashboard.set(mDashDistanceError, mDistanceError);
+    }
+}
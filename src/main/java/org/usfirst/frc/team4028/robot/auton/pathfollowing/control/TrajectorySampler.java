@@ -0,0 +1,68 @@
+package org.usfirst.frc.team4028.robot.auton.pathfollowing.control;
+
+import java.util.Arrays;
+
+import org.usfirst.frc.team4028.robot.Constants;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.RigidTransform;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Twist;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.util.Kinematics;
+
+/**
+ * Bakes a Path into a Trajectory: runs the normal PathFollower (pure pursuit + velocity profile) against an ideal
+ * drivetrain that reaches every commanded wheel velocity at once, 1 update every dt, and records the robot state
+ * & wheel velocity commands of each step. Done once per path (never in the control loop), it allocates freely.
+ */
+public class TrajectorySampler {
+	private TrajectorySampler() {}
+
+	/**
+	 * @param path
+	 *            the path to follow (not changed)
+	 * @param dt
+	 *            seconds between samples
+	 * @return the sampled trajectory, up to Constants.TRAJECTORY_MAX_DURATION_SEC long
+	 */
+	public static Trajectory sample(Path path, double dt) {
+		PathFollower follower = new PathFollower(path, path.isReversed(), path.maxAccel, path.maxDecel, path.inertiaSteeringGain);
+		RigidTransform pose = path.getStartPose();
+		double distance = 0.0;
+		double velocity = 0.0;
+
+		final int maxSampleCount = (int) Math.ceil(Constants.TRAJECTORY_MAX_DURATION_SEC / dt) + 1;
+		double[] samples = new double[maxSampleCount * Trajectory.SAMPLE_SIZE];
+		int sampleCount = 0;
+		while (sampleCount < maxSampleCount) {
+			Twist command = follower.update(sampleCount * dt, pose, distance, velocity);
+			final boolean isFinished = follower.isFinished();
+			double left = 0.0;
+			double right = 0.0;
+			if (!isFinished) {
+				// same wheel velocities Chassis.updatePathFollower would command
+				Kinematics.DriveVelocity setpoint = Kinematics.inverseKinematics(command);
+				final double maxDesired = Math.max(Math.abs(setpoint.left), Math.abs(setpoint.right));
+				final double scale = maxDesired > Constants.DRIVE_VELOCITY_MAX_SETPOINT ? Constants.DRIVE_VELOCITY_MAX_SETPOINT / maxDesired : 1.0;
+				left = setpoint.left * scale;
+				right = setpoint.right * scale;
+			}
+
+			final int offset = sampleCount * Trajectory.SAMPLE_SIZE;
+			samples[offset + Trajectory.X] = pose.getTranslation().x();
+			samples[offset + Trajectory.Y] = pose.getTranslation().y();
+			samples[offset + Trajectory.HEADING] = pose.getRotation().getRadians();
+			samples[offset + Trajectory.LEFT_VELOCITY] = left;
+			samples[offset + Trajectory.RIGHT_VELOCITY] = right;
+			samples[offset + Trajectory.DISTANCE] = distance;
+			sampleCount++;
+			if (isFinished) {
+				break;
+			}
+
+			// the gyro (navX yaw) is clockwise positive, so the field heading turns opposite to the wheel twist
+			velocity = (left + right) / 2.0;
+			final double headingRate = -Kinematics.forwardKinematicsRotation(left, right);
+			pose = Kinematics.integrateForwardKinematics(pose, new Twist(velocity * dt, 0.0, headingRate * dt));
+			distance += velocity * dt;
+		}
+		return new Trajectory(path, dt, Arrays.copyOf(samples, sampleCount * Trajectory.SAMPLE_SIZE), sampleCount);
+	}
+}
@@ -0,0 +1,127 @@
+package org.usfirst.frc.team4028.robot.auton.pathfollowing.motion;
+
+import static org.usfirst.frc.team4028.robot.util.GeneralUtilities.epsilonEquals;
+
+import org.usfirst.frc.team4028.robot.Constants;
+
+/**
+ * The circular arc from a pose, position (x, y) heading (cos, sin), thru a point. Same math as
+ * AdaptivePurePursuitController.Arc but on primitive doubles: fit() overwrites this arc, so the pure pursuit
+ * controller reuses 1 PoseArc every scan instead of creating Translations & Rotations.
+ */
+public class PoseArc {
+    private double centerX, centerY;
+    private double radius;
+    private double length;
+
+    /**
+     * Fits the arc from the pose (x, y) heading (cos, sin) thru the point (px, py)
+     *
+     * @return this
+     */
+    public PoseArc fit(double x, double y, double cos, double sin, double px, double py) {
+        // perpendicular bisector of pose -> point, through the halfway point
+        final double mx = 0.5 * (px - x) + x;
+        final double my = 0.5 * (py - y) + y;
+        double vx = mx - x, vy = my - y;
+        final double vNorm = Math.hypot(vx, vy);
+        if (vNorm > Constants.EPSILON_NEGATIVE_9) {
+            vx /= vNorm;
+            vy /= vNorm;
+        } else {
+            vx = 1.0;
+            vy = 0.0;
+        }
+        final double bisectorCos = -vy, bisectorSin = vx;
+        // normal from the pose
+        final double normalCos = -sin, normalSin = cos;
+
+        if (isColinear(x, y, normalCos, normalSin, mx, my, -bisectorSin, bisectorCos)) {
+            // Special case: center is poseToPointHalfway.
+            centerX = mx;
+            centerY = my;
+        } else if (epsilonEquals(normalCos * bisectorSin - normalSin * bisectorCos, 0.0, Constants.EPSILON_NEGATIVE_9)) {
+            // Lines are parallel.
+            centerX = Double.POSITIVE_INFINITY;
+            centerY = Double.POSITIVE_INFINITY;
+        } else {
+            // same as RigidTransform.intersection()
+            final boolean isNormalFirst = Math.abs(normalCos) < Math.abs(bisectorCos);
+            final double ax = isNormalFirst ? x : mx, ay = isNormalFirst ? y : my;
+            final double ac = isNormalFirst ? normalCos : bisectorCos, as = isNormalFirst ? normalSin : bisectorSin;
+            final double bx = isNormalFirst ? mx : x, by = isNormalFirst ? my : y;
+            final double bc = isNormalFirst ? bisectorCos : normalCos, bs = isNormalFirst ? bisectorSin : normalSin;
+            final double tan_b = tan(bc, bs);
+            final double t = ((ax - bx) * tan_b + by - ay) / (as - ac * tan_b);
+            centerX = ax + ac * t;
+            centerY = ay + as * t;
+        }
+
+        radius = Math.hypot(px - centerX, py - centerY);
+        if (radius < Constants.BIG_NUMBER) {
+            // If the point is behind pose, we want the opposite of this angle.
+            final boolean behind = Math.signum(normalCos * (py - y) - normalSin * (px - x)) > 0.0;
+            final double angle = Translation.getAngleRadians(x - centerX, y - centerY, px - centerX, py - centerY);
+            length = radius * (behind ? 2.0 * Math.PI - Math.abs(angle) : Math.abs(angle));
+        } else {
+            length = Math.hypot(px - x, py - y);
+        }
+        return this;
+    }
+
+    public double getCenterX() {
+        return centerX;
+    }
+
+    public double getCenterY() {
+        return centerY;
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+
+    /** length of the arc from the pose to the point (assuming forward motion) */
+    public double getLength() {
+        return length;
+    }
+
+    /** The direction the pose (x, y) heading (cos, sin) has to turn toward the point (px, py): -1 is left, +1 is right */
+    public static int getDirection(double x, double y, double cos, double sin, double px, double py) {
+        return (cos * (py - y) - sin * (px - x) < 0) ? -1 : 1;
+    }
+
+    /** Primitive version of RigidTransform.isColinear(), transform a = (ax, ay) heading (ac, as) */
+    private static boolean isColinear(double ax, double ay, double ac, double as, double bx, double by, double bc, double bs) {
+        // a.inverse().transformBy(b)
+        final double tx = (bx - ax) * ac + (by - ay) * as;
+        final double ty = -(bx - ax) * as + (by - ay) * ac;
+        double rc = ac * bc + as * bs;
+        double rs = ac * bs - as * bc;
+        final double rNorm = Math.hypot(rc, rs);
+        if (rNorm > Constants.EPSILON_NEGATIVE_9) {
+            rc /= rNorm;
+            rs /= rNorm;
+        } else {
+            rc = 1.0;
+            rs = 0.0;
+        }
+        // RigidTransform.log(), only dy & dtheta are needed
+        final double dtheta = Math.atan2(rs, rc);
+        final double halfDtheta = 0.5 * dtheta;
+        final double cosMinusOne = rc - 1.0;
+        final double halfthetaByTanOfHalfdtheta = (Math.abs(cosMinusOne) < Constants.EPSILON_NEGATIVE_9)
+                ? 1.0 - 1.0 / 12.0 * dtheta * dtheta
+                : -(halfDtheta * rs) / cosMinusOne;
+        final double dy = tx * -halfDtheta + ty * halfthetaByTanOfHalfdtheta;
+        return epsilonEquals(dy, 0.0, Constants.EPSILON_NEGATIVE_9) && epsilonEquals(dtheta, 0.0, Constants.EPSILON_NEGATIVE_9);
+    }
+
+    /** same as Rotation.tan() */
+    private static double tan(double cos, double sin) {
+        if (Math.abs(cos) < Constants.EPSILON_NEGATIVE_9) {
+            return (sin >= 0.0) ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        }
+        return sin / cos;
+    }
+}
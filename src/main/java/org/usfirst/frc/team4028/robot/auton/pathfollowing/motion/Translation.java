@@ -98,6 +98,15 @@ public class Translation {
         return Rotation.fromRadians(Math.acos(Math.min(1.0, Math.max(cos_angle, -1.0))));
     }
     
+    /** Same as getAngle(a, b).getRadians() w/o creating any objects, for the per-scan path following math */
+    public static double getAngleRadians(double ax, double ay, double bx, double by) {
+        double cos_angle = (ax * bx + ay * by) / (Math.hypot(ax, ay) * Math.hypot(bx, by));
+        if (Double.isNaN(cos_angle)) {
+            return 0.0;
+        }
+        return Math.acos(Math.min(1.0, Math.max(cos_angle, -1.0)));
+    }
+    
     public static double dot(Translation a, Translation b) {
         return a._x * b._x + a._y * b._y;
     }
@@ -2,8 +2,7 @@ package org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile;
 
 import static org.usfirst.frc.team4028.robot.util.GeneralUtilities.epsilonEquals;
 
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,58 +11,77 @@ import org.usfirst.frc.team4028.robot.Constants;
 /**
  * A motion profile specifies a 1D time-parameterized trajectory. The trajectory is composed of successively coincident
  * MotionSegments from which the desired state of motion at any given distance or time can be calculated.
+ *
+ * The segments are stored as parallel primitive arrays of their start and end states, the live segments are the ones
+ * in [mFirst, mCount). Queries by time (and by pos when pos never reverses) are binary searches, trimming only moves
+ * mFirst.
  */
 public class MotionProfile {
-	protected List<MotionSegment> mSegments;
-	
-	/** Create an empty MotionProfile */
+    private static final int INITIAL_CAPACITY = 8;
+
+    // is pos along the segments' start / end states monotonic? (lets firstStateByPos binary search)
+    private static final int POS_ORDER_UNKNOWN = 0;
+    private static final int POS_ORDER_INCREASING = 1;
+    private static final int POS_ORDER_DECREASING = 2;
+    private static final int POS_ORDER_NONE = 3;
+
+    private double[] mStartT, mStartPos, mStartVel, mStartAcc;
+    private double[] mEndT, mEndPos, mEndVel, mEndAcc;
+    private int mFirst;
+    private int mCount;
+    private int mPosOrder = POS_ORDER_UNKNOWN;
+
+    /** Create an empty MotionProfile */
     public MotionProfile() {
-        mSegments = new ArrayList<>();
+        allocate(INITIAL_CAPACITY);
     }
 
     /**
-     * Create a MotionProfile from an existing list of segments (note that validity is not checked).
-     * 
+     * Create a MotionProfile from an existing list of segments (note that validity is not checked). The segments are
+     * copied, changing them afterwards does not change the profile.
+     *
      * @param segments
      *            The new segments of the profile.
      */
     public MotionProfile(List<MotionSegment> segments) {
-        mSegments = segments;
+        allocate(Math.max(INITIAL_CAPACITY, segments.size()));
+        for (int i = 0; i < segments.size(); i++) {
+            appendSegment(segments.get(i));
+        }
     }
 
     /**
      * Checks if the given MotionProfile is valid. This checks that:
-     * 
+     *
      * 1. All segments are valid.
-     * 
+     *
      * 2. Successive segments are C1 continuous in position and C0 continuous in velocity.
-     * 
+     *
      * @return True if the MotionProfile is valid.
      */
     public boolean isValid() {
-        MotionSegment prev_segment = null;
-        for (MotionSegment s : mSegments) {
-            if (!s.isValid()) {
+        for (int i = mFirst; i < mCount; i++) {
+            if (!isSegmentValid(i)) {
+                segmentAt(i).isValid();  // prints why
                 return false;
             }
-            if (prev_segment != null && !s.start().coincident(prev_segment.end())) {
+            if (i > mFirst && !isCoincident(mEndT[i - 1], mEndPos[i - 1], mEndVel[i - 1], mStartT[i], mStartPos[i], mStartVel[i])) {
                 // Adjacent segments are not continuous.
-                System.err.println("Segments not continuous! End: " + prev_segment.end() + ", Start: " + s.start());
+                System.err.println("Segments not continuous! End: " + endStateAt(i - 1) + ", Start: " + startStateAt(i));
                 return false;
             }
-            prev_segment = s;
         }
         return true;
     }
 
     /** Check if there are no segments in the profile. */
     public boolean isEmpty() {
-        return mSegments.isEmpty();
+        return mCount == mFirst;
     }
-    
+
     /**
      * Get the interpolated MotionState at any given time.
-     * 
+     *
      * @param t
      *            The time to query.
      * @return Empty if the time is outside the time bounds of the profile, or the resulting MotionState otherwise.
@@ -75,17 +93,16 @@ public class MotionProfile {
         if (t > endTime() && t - Constants.EPSILON_NEGATIVE_6 <= endTime()) {
             return Optional.of(endState());
         }
-        for (MotionSegment s : mSegments) {
-            if (s.containsTime(t)) {
-                return Optional.of(s.start().extrapolate(t));
-            }
+        final int i = segmentIndexByTime(t);
+        if (i < 0) {
+            return Optional.empty();
         }
-        return Optional.empty();
+        return Optional.of(extrapolate(i, t));
     }
-    
+
     /**
      * Get the interpolated MotionState at any given time, clamping to the endpoints if time is out of bounds.
-     * 
+     *
      * @param t
      *            The time to query.
      * @return The MotionState at time t, or closest to it if t is outside the profile.
@@ -96,91 +113,210 @@ public class MotionProfile {
         } else if (t > endTime()) {
             return endState();
         }
-        for (MotionSegment s : mSegments) {
-            if (s.containsTime(t)) {
-                return s.start().extrapolate(t);
-            }
+        final int i = segmentIndexByTime(t);
+        if (i < 0) {
+            // Should never get here.
+            return MotionState.kInvalidState;
+        }
+        return extrapolate(i, t);
+    }
+
+    /** Same as stateByTimeClamped(t).pos() w/o creating any objects */
+    public double posByTimeClamped(double t) {
+        if (t < startTime()) {
+            return startPos();
+        } else if (t > endTime()) {
+            return endPos();
+        }
+        final int i = segmentIndexByTime(t);
+        if (i < 0) {
+            return Double.NaN;
+        }
+        final double dt = t - mStartT[i];
+        return mStartPos[i] + mStartVel[i] * dt + .5 * mStartAcc[i] * dt * dt;
+    }
+
+    /** Same as stateByTimeClamped(t).vel() w/o creating any objects */
+    public double velByTimeClamped(double t) {
+        if (isEmpty()) {
+            return Double.NaN;
+        } else if (t < startTime()) {
+            return mStartVel[mFirst];
+        } else if (t > endTime()) {
+            return mEndVel[mCount - 1];
+        }
+        final int i = segmentIndexByTime(t);
+        if (i < 0) {
+            return Double.NaN;
+        }
+        return mStartVel[i] + mStartAcc[i] * (t - mStartT[i]);
+    }
+
+    /** Same as stateByTimeClamped(t).acc() w/o creating any objects */
+    public double accByTimeClamped(double t) {
+        if (isEmpty()) {
+            return Double.NaN;
+        } else if (t < startTime()) {
+            return mStartAcc[mFirst];
+        } else if (t > endTime()) {
+            return mEndAcc[mCount - 1];
+        }
+        final int i = segmentIndexByTime(t);
+        return (i < 0) ? Double.NaN : mStartAcc[i];
+    }
+
+    /** Same as stateByTime(t) being present & equal to the state (t, pos, vel, acc) w/o creating any objects */
+    public boolean isStateAtTime(double t, double pos, double vel, double acc) {
+        if (t < startTime() && t + Constants.EPSILON_NEGATIVE_6 >= startTime()) {
+            return isStateEqual(mStartT[mFirst], mStartPos[mFirst], mStartVel[mFirst], mStartAcc[mFirst], t, pos, vel, acc);
+        }
+        if (t > endTime() && t - Constants.EPSILON_NEGATIVE_6 <= endTime()) {
+            final int last = mCount - 1;
+            return isStateEqual(mEndT[last], mEndPos[last], mEndVel[last], mEndAcc[last], t, pos, vel, acc);
+        }
+        final int i = segmentIndexByTime(t);
+        if (i < 0) {
+            return false;
         }
-        // Should never get here.
-        return MotionState.kInvalidState;
+        final double dt = t - mStartT[i];
+        return isStateEqual(t, mStartPos[i] + mStartVel[i] * dt + .5 * mStartAcc[i] * dt * dt, mStartVel[i] + mStartAcc[i] * dt,
+                mStartAcc[i], t, pos, vel, acc);
     }
-    
+
     /**
      * Get the interpolated MotionState by distance (the "pos()" field of MotionState). Note that since a profile may
      * reverse, this method only returns the *first* instance of this position.
-     * 
+     *
      * @param pos
      *            The position to query.
      * @return Empty if the profile never crosses pos or if the profile is invalid, or the resulting MotionState
      *         otherwise.
      */
     public Optional<MotionState> firstStateByPos(double pos) {
-        for (MotionSegment s : mSegments) {
-            if (s.containsPos(pos)) {
-                if (epsilonEquals(s.end().pos(), pos, Constants.EPSILON_NEGATIVE_6)) {
-                    return Optional.of(s.end());
-                }
-                final double t = Math.min(s.start().nextTimeAtPos(pos), s.end().t());
-                if (Double.isNaN(t)) {
-                    System.err.println("Error! We should reach 'pos' but we don't");
-                    return Optional.empty();
-                }
-                return Optional.of(s.start().extrapolate(t));
-            }
+        final int i = firstSegmentIndexByPos(pos);
+        if (i < 0) {
+            // We never reach pos.
+            return Optional.empty();
+        }
+        if (epsilonEquals(mEndPos[i], pos, Constants.EPSILON_NEGATIVE_6)) {
+            return Optional.of(endStateAt(i));
+        }
+        final double t = firstTimeAtPos(i, pos);
+        if (Double.isNaN(t)) {
+            System.err.println("Error! We should reach 'pos' but we don't");
+            return Optional.empty();
+        }
+        return Optional.of(extrapolate(i, t));
+    }
+
+    /** Same as firstStateByPos(pos).get().vel() w/o creating any objects, NaN if we never reach pos */
+    public double firstVelByPos(double pos) {
+        final int i = firstSegmentIndexByPos(pos);
+        if (i < 0) {
+            // We never reach pos.
+            return Double.NaN;
+        }
+        if (epsilonEquals(mEndPos[i], pos, Constants.EPSILON_NEGATIVE_6)) {
+            return mEndVel[i];
+        }
+        final double t = firstTimeAtPos(i, pos);
+        if (Double.isNaN(t)) {
+            System.err.println("Error! We should reach 'pos' but we don't");
+            return Double.NaN;
         }
-        // We never reach pos.
-        return Optional.empty();
+        return mStartVel[i] + mStartAcc[i] * (t - mStartT[i]);
     }
-    
+
     /**
      * Remove all parts of the profile prior to the query time. This eliminates whole segments and also shortens any
      * segments containing t.
-     * 
+     *
      * @param t
      *            The query time.
      */
     public void trimBeforeTime(double t) {
-        for (Iterator<MotionSegment> iterator = mSegments.iterator(); iterator.hasNext();) {
-            MotionSegment s = iterator.next();
-            if (s.end().t() <= t) {
-                // Segment is fully before t.
-                iterator.remove();
-                continue;
+        // 1st segment that ends after t, everything before it is dropped
+        int low = mFirst;
+        int high = mCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mEndT[mid] <= t) {
+                low = mid + 1;
+            } else {
+                high = mid;
             }
-            if (s.start().t() <= t) {
-                // Segment begins before t; let's shorten the segment.
-                s.setStart(s.start().extrapolate(t));
-            }
-            break;
         }
+        mFirst = low;
+        if (mFirst < mCount && mStartT[mFirst] <= t) {
+            // Segment begins before t; let's shorten the segment.
+            final double dt = t - mStartT[mFirst];
+            mStartPos[mFirst] = mStartPos[mFirst] + mStartVel[mFirst] * dt + .5 * mStartAcc[mFirst] * dt * dt;
+            mStartVel[mFirst] = mStartVel[mFirst] + mStartAcc[mFirst] * dt;
+            mStartT[mFirst] = t;
+        }
+        mPosOrder = POS_ORDER_UNKNOWN;
     }
 
     /**
      * Remove all segments and initialize to the desired state (actually a segment of length 0 that starts and ends at
      * initial_state).
-     * 
+     *
      * @param initial_state
      *            The MotionState to initialize to.
      */
     public void reset(MotionState initial_state) {
-        mSegments.clear();
-        mSegments.add(new MotionSegment(initial_state, initial_state));
+        mFirst = 0;
+        mCount = 0;
+        appendSegment(new MotionSegment(initial_state, initial_state));
+    }
+
+    /** Remove all segments, the capacity is kept so refilling a reused profile creates no objects */
+    public void clear() {
+        mFirst = 0;
+        mCount = 0;
+        mPosOrder = POS_ORDER_UNKNOWN;
     }
 
     /** Remove redundant segments (segments whose start and end states are coincident). */
     public void consolidate() {
-        for (Iterator<MotionSegment> iterator = mSegments.iterator(); iterator.hasNext() && mSegments.size() > 1;) {
-            MotionSegment s = iterator.next();
-            if (s.start().coincident(s.end())) {
-                iterator.remove();
+        int size = size();
+        int write = mFirst;
+        for (int read = mFirst; read < mCount; read++) {
+            if (size > 1 && isCoincident(mStartT[read], mStartPos[read], mStartVel[read], mEndT[read], mEndPos[read], mEndVel[read])) {
+                size--;
+                continue;
             }
+            if (write != read) {
+                copySegment(read, write);
+            }
+            write++;
         }
+        mCount = write;
+        mPosOrder = POS_ORDER_UNKNOWN;
+    }
+
+    /** Mirror every segment in place (pos, vel, and acc are all negated, but time is not) */
+    public void flip() {
+        flip(0);
     }
-    
+
+    /** Same as flip() but only segment firstSegment (0 = the first segment) & the ones after it are mirrored */
+    public void flip(int firstSegment) {
+        for (int i = mFirst + firstSegment; i < mCount; i++) {
+            mStartPos[i] = -mStartPos[i];
+            mStartVel[i] = -mStartVel[i];
+            mStartAcc[i] = -mStartAcc[i];
+            mEndPos[i] = -mEndPos[i];
+            mEndVel[i] = -mEndVel[i];
+            mEndAcc[i] = -mEndAcc[i];
+        }
+        mPosOrder = POS_ORDER_UNKNOWN;
+    }
+
     /**
      * Add to the profile by applying an acceleration control for a given time. This is appended to the previous last
      * state.
-     * 
+     *
      * @param acc
      *            The acceleration to apply.
      * @param dt
@@ -191,60 +327,85 @@ public class MotionProfile {
             System.err.println("Error!  Trying to append to empty profile");
             return;
         }
-        MotionState last_end_state = mSegments.get(mSegments.size() - 1).end();
-        MotionState new_start_state = new MotionState(last_end_state.t(), last_end_state.pos(), last_end_state.vel(),
-                acc);
-        appendSegment(new MotionSegment(new_start_state, new_start_state.extrapolate(new_start_state.t() + dt)));
+        final int last = mCount - 1;
+        final double t = mEndT[last];
+        final double pos = mEndPos[last];
+        final double vel = mEndVel[last];
+        // same math as MotionState.extrapolate()
+        final double endT = t + dt;
+        final double endDt = endT - t;
+        appendSegment(t, pos, vel, acc, endT, pos + vel * endDt + .5 * acc * endDt * endDt, vel + acc * endDt, acc);
     }
 
     /**
      * Add to the profile by inserting a new segment. No validity checking is done.
-     * 
+     *
      * @param segment
      *            The segment to add.
      */
     public void appendSegment(MotionSegment segment) {
-        mSegments.add(segment);
+        final MotionState start = segment.start();
+        final MotionState end = segment.end();
+        appendSegment(start.t(), start.pos(), start.vel(), start.acc(), end.t(), end.pos(), end.vel(), end.acc());
     }
-    
+
+    /** Same as appendSegment(segment) w/ the segment's start & end states as primitives */
+    public void appendSegment(double startT, double startPos, double startVel, double startAcc,
+            double endT, double endPos, double endVel, double endAcc) {
+        if (mCount == mStartT.length) {
+            makeRoom();
+        }
+        final int i = mCount++;
+        mStartT[i] = startT;
+        mStartPos[i] = startPos;
+        mStartVel[i] = startVel;
+        mStartAcc[i] = startAcc;
+        mEndT[i] = endT;
+        mEndPos[i] = endPos;
+        mEndVel[i] = endVel;
+        mEndAcc[i] = endAcc;
+        mPosOrder = POS_ORDER_UNKNOWN;
+    }
+
     /**
      * Add to the profile by inserting a new profile after the final state. No validity checking is done.
-     * 
+     *
      * @param profile
      *            The profile to add.
      */
     public void appendProfile(MotionProfile profile) {
-        for (MotionSegment s : profile.segments()) {
-            appendSegment(s);
+        for (int i = profile.mFirst; i < profile.mCount; i++) {
+            appendSegment(profile.mStartT[i], profile.mStartPos[i], profile.mStartVel[i], profile.mStartAcc[i],
+                    profile.mEndT[i], profile.mEndPos[i], profile.mEndVel[i], profile.mEndAcc[i]);
         }
     }
 
     /** @return The number of segments */
     public int size() {
-        return mSegments.size();
+        return mCount - mFirst;
     }
 
-    /** @return The list of segments */
-    public List<MotionSegment> segments() {
-        return mSegments;
+    /** @return A copy of segment i (0 = the first segment), changing it does not change the profile */
+    public MotionSegment segment(int i) {
+        return segmentAt(mFirst + i);
     }
-    
+
     /** @return The first state in the profile (or kInvalidState if empty) */
     public MotionState startState() {
         if (isEmpty()) {
             return MotionState.kInvalidState;
         }
-        return mSegments.get(0).start();
+        return startStateAt(mFirst);
     }
 
     /** @return The time of the first state in the profile (or NaN if empty) */
     public double startTime() {
-        return startState().t();
+        return isEmpty() ? Double.NaN : mStartT[mFirst];
     }
 
     /** @return The pos of the first state in the profile (or NaN if empty) */
     public double startPos() {
-        return startState().pos();
+        return isEmpty() ? Double.NaN : mStartPos[mFirst];
     }
 
     /** @return The last state in the profile (or kInvalidState if empty) */
@@ -252,16 +413,195 @@ public class MotionProfile {
         if (isEmpty()) {
             return MotionState.kInvalidState;
         }
-        return mSegments.get(mSegments.size() - 1).end();
+        return endStateAt(mCount - 1);
     }
 
     /** @return The time of the last state in the profile (or NaN if empty) */
     public double endTime() {
-        return endState().t();
+        return isEmpty() ? Double.NaN : mEndT[mCount - 1];
     }
 
     /** @return The pos of the last state in the profile (or NaN if empty) */
     public double endPos() {
-        return endState().pos();
+        return isEmpty() ? Double.NaN : mEndPos[mCount - 1];
+    }
+
+    /** @return The vel of the last state in the profile (or NaN if empty) */
+    public double endVel() {
+        return isEmpty() ? Double.NaN : mEndVel[mCount - 1];
+    }
+
+    /** @return The acc of the last state in the profile (or NaN if empty) */
+    public double endAcc() {
+        return isEmpty() ? Double.NaN : mEndAcc[mCount - 1];
+    }
+
+    //=====================================================================================
+    // Private Helper methods below
+    //=====================================================================================
+    private void allocate(int capacity) {
+        mStartT = new double[capacity];
+        mStartPos = new double[capacity];
+        mStartVel = new double[capacity];
+        mStartAcc = new double[capacity];
+        mEndT = new double[capacity];
+        mEndPos = new double[capacity];
+        mEndVel = new double[capacity];
+        mEndAcc = new double[capacity];
+    }
+
+    /** Reclaim the trimmed slots if that frees enough, otherwise double the capacity */
+    private void makeRoom() {
+        if (mFirst > mStartT.length / 2) {
+            for (int i = mFirst; i < mCount; i++) {
+                copySegment(i, i - mFirst);
+            }
+            mCount -= mFirst;
+            mFirst = 0;
+            return;
+        }
+        final int capacity = Math.max(INITIAL_CAPACITY, mStartT.length * 2);
+        mStartT = Arrays.copyOf(mStartT, capacity);
+        mStartPos = Arrays.copyOf(mStartPos, capacity);
+        mStartVel = Arrays.copyOf(mStartVel, capacity);
+        mStartAcc = Arrays.copyOf(mStartAcc, capacity);
+        mEndT = Arrays.copyOf(mEndT, capacity);
+        mEndPos = Arrays.copyOf(mEndPos, capacity);
+        mEndVel = Arrays.copyOf(mEndVel, capacity);
+        mEndAcc = Arrays.copyOf(mEndAcc, capacity);
+    }
+
+    private void copySegment(int from, int to) {
+        mStartT[to] = mStartT[from];
+        mStartPos[to] = mStartPos[from];
+        mStartVel[to] = mStartVel[from];
+        mStartAcc[to] = mStartAcc[from];
+        mEndT[to] = mEndT[from];
+        mEndPos[to] = mEndPos[from];
+        mEndVel[to] = mEndVel[from];
+        mEndAcc[to] = mEndAcc[from];
+    }
+
+    /** Binary search for the 1st segment containing t (segment times never go backwards), -1 if none do */
+    private int segmentIndexByTime(double t) {
+        int low = mFirst;
+        int high = mCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mEndT[mid] < t) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return (low < mCount && mStartT[low] <= t) ? low : -1;
+    }
+
+    /**
+     * The 1st segment containing pos, -1 if none do. Binary search when pos never reverses along the profile
+     * (always the case for a path segment's speed profile), linear scan otherwise.
+     */
+    private int firstSegmentIndexByPos(double pos) {
+        final int order = getPosOrder();
+        if (order == POS_ORDER_NONE) {
+            for (int i = mFirst; i < mCount; i++) {
+                if (containsPos(i, pos)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        final boolean isIncreasing = (order == POS_ORDER_INCREASING);
+        int low = mFirst;
+        int high = mCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (isIncreasing ? mEndPos[mid] < pos : mEndPos[mid] > pos) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return (low < mCount && containsPos(low, pos)) ? low : -1;
+    }
+
+    // worked out lazily & only reset by changes, so concurrent readers of a finished profile at most redo it
+    private int getPosOrder() {
+        int order = mPosOrder;
+        if (order == POS_ORDER_UNKNOWN) {
+            boolean isIncreasing = true;
+            boolean isDecreasing = true;
+            double prevPos = Double.NaN;
+            for (int i = mFirst; i < mCount && (isIncreasing || isDecreasing); i++) {
+                if (i > mFirst) {
+                    isIncreasing &= (prevPos <= mStartPos[i]);
+                    isDecreasing &= (prevPos >= mStartPos[i]);
+                }
+                isIncreasing &= (mStartPos[i] <= mEndPos[i]);
+                isDecreasing &= (mStartPos[i] >= mEndPos[i]);
+                prevPos = mEndPos[i];
+            }
+            order = isIncreasing ? POS_ORDER_INCREASING : (isDecreasing ? POS_ORDER_DECREASING : POS_ORDER_NONE);
+            mPosOrder = order;
+        }
+        return order;
+    }
+
+    private boolean containsPos(int i, double pos) {
+        return pos >= mStartPos[i] && pos <= mEndPos[i] || pos <= mStartPos[i] && pos >= mEndPos[i];
+    }
+
+    // same as Math.min(start.nextTimeAtPos(pos), end.t())
+    private double firstTimeAtPos(int i, double pos) {
+        return Math.min(MotionState.nextTimeAtPos(mStartT[i], mStartPos[i], mStartVel[i], mStartAcc[i], pos), mEndT[i]);
+    }
+
+    // same as MotionState.extrapolate()
+    private MotionState extrapolate(int i, double t) {
+        final double dt = t - mStartT[i];
+        return new MotionState(t, mStartPos[i] + mStartVel[i] * dt + .5 * mStartAcc[i] * dt * dt, mStartVel[i] + mStartAcc[i] * dt, mStartAcc[i]);
+    }
+
+    private MotionState startStateAt(int i) {
+        return new MotionState(mStartT[i], mStartPos[i], mStartVel[i], mStartAcc[i]);
+    }
+
+    private MotionState endStateAt(int i) {
+        return new MotionState(mEndT[i], mEndPos[i], mEndVel[i], mEndAcc[i]);
+    }
+
+    private MotionSegment segmentAt(int i) {
+        return new MotionSegment(startStateAt(i), endStateAt(i));
+    }
+
+    /** Same checks as MotionSegment.isValid() w/o creating any objects (or printing) */
+    private boolean isSegmentValid(int i) {
+        final double eps = Constants.EPSILON_NEGATIVE_6;
+        if (!epsilonEquals(mStartAcc[i], mEndAcc[i], eps)) {
+            return false;
+        }
+        if (Math.signum(mStartVel[i]) * Math.signum(mEndVel[i]) < 0.0 && !epsilonEquals(mStartVel[i], 0.0, eps)
+                && !epsilonEquals(mEndVel[i], 0.0, eps)) {
+            return false;
+        }
+        final double dt = mEndT[i] - mStartT[i];
+        final double pos = mStartPos[i] + mStartVel[i] * dt + .5 * mStartAcc[i] * dt * dt;
+        final double vel = mStartVel[i] + mStartAcc[i] * dt;
+        if (!(isCoincident(mEndT[i], pos, vel, mEndT[i], mEndPos[i], mEndVel[i]) && epsilonEquals(mStartAcc[i], mEndAcc[i], eps))) {
+            // One allowed exception: If acc is infinite and dt is zero.
+            return mStartT[i] == mEndT[i] && Double.isInfinite(mStartAcc[i]);
+        }
+        return true;
+    }
+
+    // same as MotionState.equals()
+    private static boolean isStateEqual(double t1, double pos1, double vel1, double acc1, double t2, double pos2, double vel2, double acc2) {
+        return isCoincident(t1, pos1, vel1, t2, pos2, vel2) && epsilonEquals(acc1, acc2, Constants.EPSILON_NEGATIVE_6);
+    }
+
+    // same as MotionState.coincident()
+    private static boolean isCoincident(double t1, double pos1, double vel1, double t2, double pos2, double vel2) {
+        final double eps = Constants.EPSILON_NEGATIVE_6;
+        return epsilonEquals(t1, t2, eps) && epsilonEquals(pos1, pos2, eps) && epsilonEquals(vel1, vel2, eps);
     }
-}
\ No newline at end of file
+}
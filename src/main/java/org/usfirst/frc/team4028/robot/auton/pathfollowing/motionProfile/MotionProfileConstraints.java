@@ -11,4 +11,37 @@ public class MotionProfileConstraints {
 		this.maxAbsVel = Math.abs(max_vel);
 		this.maxDecel = max_decel;
 	}
+	
+	public double getMaxAbsVel() {
+		return maxAbsVel;
+	}
+	
+	public double getMaxAcc() {
+		return maxAcc;
+	}
+	
+	public double getMaxDecel() {
+		return maxDecel;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof MotionProfileConstraints)) {
+			return false;
+		}
+		final MotionProfileConstraints other = (MotionProfileConstraints) obj;
+		return other.maxAbsVel == maxAbsVel && other.maxAcc == maxAcc && other.maxDecel == maxDecel;
+	}
+	
+	@Override
+	public int hashCode() {
+		int hash = Double.hashCode(maxAbsVel);
+		hash = 31 * hash + Double.hashCode(maxAcc);
+		return 31 * hash + Double.hashCode(maxDecel);
+	}
+	
+	@Override
+	public String toString() {
+		return "(maxAbsVel=" + maxAbsVel + ", maxAcc=" + maxAcc + ", maxDecel=" + maxDecel + ")";
+	}
 }
\ No newline at end of file
@@ -5,16 +5,6 @@ import org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile.MotionPr
 public class MotionProfileGenerator {
     private MotionProfileGenerator() {}
 
-    protected static MotionProfile generateFlippedProfile(MotionProfileConstraints constraints,
-            MotionProfileGoal goal_state, MotionState prev_state) {
-        MotionProfile profile = generateProfile(constraints, goal_state.flipped(), prev_state.flipped());
-        for (MotionSegment s : profile.segments()) {
-            s.setStart(s.start().flipped());
-            s.setEnd(s.end().flipped());
-        }
-        return profile;
-    }
-
     /**
      * Generate a motion profile.
      * 
@@ -25,65 +15,97 @@ public class MotionProfileGenerator {
      * @param prev_state
      *            The initial state to use.
      * @return A motion profile from prev_state to goal_state that satisfies constraints.
+     * 
+     *         Uses no shared state, so it is safe to call from several threads at once.
      */
-    public synchronized static MotionProfile generateProfile(MotionProfileConstraints constraints,
+    public static MotionProfile generateProfile(MotionProfileConstraints constraints,
             MotionProfileGoal goalState,
             MotionState prevState) {
-    	double deltaPos = goalState.pos() - prevState.pos(); 
-    	if (deltaPos < 0.0 || (deltaPos == 0.0 && prevState.vel() < 0.0)) {
+        MotionProfile profile = new MotionProfile();
+        generateProfile(constraints, goalState, prevState.t(), prevState.pos(), prevState.vel(), prevState.acc(), profile);
+        return profile;
+    }
+
+    /**
+     * Same as above w/ the initial state (t, pos, vel, acc) as primitives, the profile is generated into profile
+     * (replacing its segments) so regenerating into a reused profile creates no objects
+     */
+    public static void generateProfile(MotionProfileConstraints constraints, MotionProfileGoal goalState,
+            double t, double pos, double vel, double acc, MotionProfile profile) {
+        profile.clear();
+        appendProfile(constraints, goalState.pos(), goalState.getMaxAbsVel(), goalState.getCompletionBehavior(),
+                goalState.getPosTolerance(), goalState.getVelTolerance(), t, pos, vel, acc, profile);
+        profile.consolidate();
+    }
+
+    //=====================================================================================
+    // Private Helper methods below
+    //=====================================================================================
+    private static void appendFlippedProfile(MotionProfileConstraints constraints, double goalPos, double goalMaxAbsVel,
+            CompletionBehavior completionBehavior, double goalPosTolerance, double goalVelTolerance,
+            double t, double pos, double vel, double acc, MotionProfile profile) {
+        final int firstSegment = profile.size();
+        appendProfile(constraints, -goalPos, goalMaxAbsVel, completionBehavior, goalPosTolerance, goalVelTolerance,
+                t, -pos, -vel, -acc, profile);
+        profile.flip(firstSegment);
+    }
+
+    /** Appends the profile from the state (t, pos, vel, acc) to the goal (goalPos, goalMaxAbsVel, ...) */
+    private static void appendProfile(MotionProfileConstraints constraints, double goalPos, double goalMaxAbsVel,
+            CompletionBehavior completionBehavior, double goalPosTolerance, double goalVelTolerance,
+            double t, double pos, double vel, double acc, MotionProfile profile) {
+    	double deltaPos = goalPos - pos; 
+    	if (deltaPos < 0.0 || (deltaPos == 0.0 && vel < 0.0)) {
             // For simplicity, we always assume the goal requires positive movement. If negative, we flip to solve, then
             // flip the solution.
-            return generateFlippedProfile(constraints, goalState, prevState);
+            appendFlippedProfile(constraints, goalPos, goalMaxAbsVel, completionBehavior, goalPosTolerance, goalVelTolerance,
+                    t, pos, vel, acc, profile);
+            return;
         }
     	// Invariant from this point on: deltaPos >= 0.0
         // Clamp the start state to be valid.
-        MotionState startState = new MotionState(prevState.t(), prevState.pos(),
-                Math.signum(prevState.vel()) * Math.min(Math.abs(prevState.vel()), constraints.maxAbsVel),
-                getMaxAccDec(prevState.acc(), constraints));
-        MotionProfile profile = new MotionProfile();
-        profile.reset(startState);
+        double startVel = Math.signum(vel) * Math.min(Math.abs(vel), constraints.maxAbsVel);
+        final double startAcc = getMaxAccDec(acc, constraints);
+        profile.appendSegment(t, pos, startVel, startAcc, t, pos, startVel, startAcc);
         // If our velocity is headed away from the goal, the first thing we need to do is to stop.
-        if (startState.vel() < 0.0 && deltaPos > 0.0) {
-            final double stopping_time = Math.abs(startState.vel() / constraints.maxDecel);
+        if (startVel < 0.0 && deltaPos > 0.0) {
+            final double stopping_time = Math.abs(startVel / constraints.maxDecel);
             profile.appendControl(constraints.maxDecel, stopping_time);
-            startState = profile.endState();
-            deltaPos = goalState.pos() - startState.pos();
+            startVel = profile.endVel();
+            deltaPos = goalPos - profile.endPos();
         }
         // Invariant from this point on: start_state.vel() >= 0.0
-        final double minAbsVelAtGoalSqr = startState.vel2() - 2.0 * constraints.maxDecel * deltaPos;
+        final double minAbsVelAtGoalSqr = startVel * startVel - 2.0 * constraints.maxDecel * deltaPos;
         final double minAbsVelAtGoal = Math.sqrt(Math.abs(minAbsVelAtGoalSqr));
-        final double maxAbsVelAtGoal = Math.sqrt(startState.vel2() + 2.0 * constraints.maxAcc * deltaPos);
-        double goalVel = goalState.getMaxAbsVel();
+        final double maxAbsVelAtGoal = Math.sqrt(startVel * startVel + 2.0 * constraints.maxAcc * deltaPos);
+        double goalVel = goalMaxAbsVel;
         double maxAcc = constraints.maxAcc;
         double maxDecel = constraints.maxDecel;
         if (minAbsVelAtGoalSqr > 0.0
-                && minAbsVelAtGoal > (goalState.getMaxAbsVel() + goalState.getVelTolerance())) {
+                && minAbsVelAtGoal > (goalMaxAbsVel + goalVelTolerance)) {
             // Overshoot is unavoidable with the current constraints. Look at completion_behavior to see what we should
             // do.
-            if (goalState.getCompletionBehavior() == CompletionBehavior.VIOLATE_MAX_ABS_VEL) {
+            if (completionBehavior == CompletionBehavior.VIOLATE_MAX_ABS_VEL) {
                 // Adjust the goal velocity.
                 goalVel = minAbsVelAtGoal;
-            } else if (goalState.getCompletionBehavior() == CompletionBehavior.VIOLATE_MAX_ACCEL) {
-                if (Math.abs(deltaPos) < goalState.getPosTolerance()) {
+            } else if (completionBehavior == CompletionBehavior.VIOLATE_MAX_ACCEL) {
+                if (Math.abs(deltaPos) < goalPosTolerance) {
                     // Special case: We are at the goal but moving too fast. This requires 'infinite' acceleration,
                     // which will result in NaNs below, so we can return the profile immediately.
-                    profile.appendSegment(new MotionSegment(
-                            new MotionState(profile.endTime(), profile.endPos(), profile.endState().vel(),
-                                    Double.NEGATIVE_INFINITY),
-                            new MotionState(profile.endTime(), profile.endPos(), goalVel, Double.NEGATIVE_INFINITY)));
-                    profile.consolidate();
-                    return profile;
+                    profile.appendSegment(profile.endTime(), profile.endPos(), profile.endVel(), Double.NEGATIVE_INFINITY,
+                            profile.endTime(), profile.endPos(), goalVel, Double.NEGATIVE_INFINITY);
+                    return;
                 }
                 // Adjust the max deceleration.
-                maxDecel = Math.abs(goalVel * goalVel - startState.vel2()) / (2.0 * deltaPos);
+                maxDecel = Math.abs(goalVel * goalVel - startVel * startVel) / (2.0 * deltaPos);
             } else {
                 // We are going to overshoot the goal, so the first thing we need to do is come to a stop.
-                final double stopping_time = Math.abs(startState.vel() / constraints.maxDecel);
+                final double stopping_time = Math.abs(startVel / constraints.maxDecel);
                 profile.appendControl(-constraints.maxDecel, stopping_time);
                 // Now we need to travel backwards, so generate a flipped profile.
-                profile.appendProfile(generateFlippedProfile(constraints, goalState, profile.endState()));
-                profile.consolidate();
-                return profile;
+                appendFlippedProfile(constraints, goalPos, goalMaxAbsVel, completionBehavior, goalPosTolerance, goalVelTolerance,
+                        profile.endTime(), profile.endPos(), profile.endVel(), profile.endAcc(), profile);
+                return;
             }
         }
         goalVel = Math.min(goalVel, maxAbsVelAtGoal);
@@ -98,33 +120,30 @@ public class MotionProfileGenerator {
         // Vgoal^2 = Vmax^2 - 2*a*d_decel
         // delta_pos = d_accel + d_decel
         final double vMax = Math.min(constraints.maxAbsVel,
-                Math.sqrt((startState.vel2() + goalVel * goalVel) / 2.0 + deltaPos * maxAcc));
+                Math.sqrt((startVel * startVel + goalVel * goalVel) / 2.0 + deltaPos * maxAcc));
 
         // Accelerate to v_max
-        if (vMax > startState.vel()) {
-            final double accelTime = (vMax - startState.vel()) / maxAcc;
+        if (vMax > startVel) {
+            final double accelTime = (vMax - startVel) / maxAcc;
             profile.appendControl(maxAcc, accelTime);
-            startState = profile.endState();
+            startVel = profile.endVel();
         }
         // Figure out how much distance will be covered during deceleration.
         final double distanceDecel = Math.max(0.0,
-                (startState.vel2() - goalVel * goalVel) / (2.0 * maxDecel));
-        final double distanceCruise = Math.max(0.0, goalState.pos() - startState.pos() - distanceDecel);
+                (startVel * startVel - goalVel * goalVel) / (2.0 * maxDecel));
+        final double distanceCruise = Math.max(0.0, goalPos - profile.endPos() - distanceDecel);
         //System.out.println(distanceDecel);
         // Cruise at constant velocity.
         if (distanceCruise > 0.0) {
-            final double cruise_time = distanceCruise / startState.vel();
+            final double cruise_time = distanceCruise / startVel;
             profile.appendControl(0.0, cruise_time);
-            startState = profile.endState();
+            startVel = profile.endVel();
         }
         // Decelerate to goal velocity.
         if (distanceDecel > 0.0) {
-            final double decelTime = (startState.vel() - goalVel) / maxDecel;
+            final double decelTime = (startVel - goalVel) / maxDecel;
             profile.appendControl(-maxDecel, decelTime);
         }
-        
-        profile.consolidate();
-        return profile;
     }
     
     private static double getMaxAccDec(double prevStateAcc, MotionProfileConstraints constraints) {
@@ -137,4 +156,4 @@ public class MotionProfileGenerator {
     		return 0.0;
     	}
     }
-}
\ No newline at end of file
+}
@@ -65,6 +65,34 @@ public class MotionProfileGoal {
         this.velTolerance = vel_tolerance;
         sanityCheck();
     }
+
+    public MotionProfileGoal(MotionProfileGoal other) {
+        this(other.pos, other.maxAbsVel, other.completionBehavior, other.posTolerance, other.velTolerance);
+    }
+
+    /**
+     * Overwrites this goal, for the owners of a goal that changes every scan (SetpointGenerator, ProfileFollower)
+     * 
+     * @return true if the goal changed
+     */
+    boolean set(double pos, double max_abs_vel, CompletionBehavior completion_behavior,
+            double pos_tolerance, double vel_tolerance) {
+        final double prevPos = this.pos, prevMaxAbsVel = maxAbsVel, prevPosTolerance = posTolerance, prevVelTolerance = velTolerance;
+        final CompletionBehavior prevCompletionBehavior = completionBehavior;
+        this.pos = pos;
+        this.maxAbsVel = max_abs_vel;
+        this.completionBehavior = completion_behavior;
+        this.posTolerance = pos_tolerance;
+        this.velTolerance = vel_tolerance;
+        sanityCheck();
+        return completionBehavior != prevCompletionBehavior || this.pos != prevPos || maxAbsVel != prevMaxAbsVel
+                || posTolerance != prevPosTolerance || velTolerance != prevVelTolerance;
+    }
+
+    /** Same as above, copying other */
+    boolean set(MotionProfileGoal other) {
+        return set(other.pos, other.maxAbsVel, other.completionBehavior, other.posTolerance, other.velTolerance);
+    }
     
     /** @return A flipped MotionProfileGoal (where the position is negated, but all other attributes remain the same) */
     public MotionProfileGoal flipped() {
@@ -92,7 +120,12 @@ public class MotionProfileGoal {
     }
     
     public boolean atGoalState(MotionState state) {
-    	return atGoalPos(state.pos()) && (Math.abs(state.vel()) < (maxAbsVel + velTolerance)
+    	return atGoalState(state.pos(), state.vel());
+    }
+
+    /** Same as above w/ the state's pos & vel as primitives */
+    public boolean atGoalState(double pos, double vel) {
+    	return atGoalPos(pos) && (Math.abs(vel) < (maxAbsVel + velTolerance)
                 || completionBehavior == CompletionBehavior.VIOLATE_MAX_ABS_VEL);
     }
     
@@ -100,6 +133,40 @@ public class MotionProfileGoal {
         return epsilonEquals(pos, this.pos, posTolerance);
     }
     
+    /**
+     * @return true if other only differs from this goal by at most posTolerance in pos & velTolerance in max abs vel
+     *         (the completion behavior & at goal tolerances must be the same)
+     */
+    public boolean isWithin(MotionProfileGoal other, double posTolerance, double velTolerance) {
+        return other != null && other.completionBehavior == completionBehavior
+                && other.posTolerance == this.posTolerance && other.velTolerance == this.velTolerance
+                && Math.abs(other.pos - pos) <= posTolerance && Math.abs(other.maxAbsVel - maxAbsVel) <= velTolerance;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof MotionProfileGoal)) {
+            return false;
+        }
+        final MotionProfileGoal other = (MotionProfileGoal) obj;
+        return other.completionBehavior == completionBehavior && other.pos == pos && other.maxAbsVel == maxAbsVel
+                && other.posTolerance == posTolerance && other.velTolerance == velTolerance;
+    }
+    
+    @Override
+    public int hashCode() {
+        int hash = completionBehavior.hashCode();
+        hash = 31 * hash + Double.hashCode(pos);
+        hash = 31 * hash + Double.hashCode(maxAbsVel);
+        hash = 31 * hash + Double.hashCode(posTolerance);
+        return 31 * hash + Double.hashCode(velTolerance);
+    }
+    
+    @Override
+    public String toString() {
+        return "(pos=" + pos + ", maxAbsVel=" + maxAbsVel + ", " + completionBehavior + ")";
+    }
+    
     /** This method makes sure that the completion behavior is compatible with the max goal velocity. */
     protected void sanityCheck() {
         if (maxAbsVel > velTolerance && completionBehavior == CompletionBehavior.OVERSHOOT) {
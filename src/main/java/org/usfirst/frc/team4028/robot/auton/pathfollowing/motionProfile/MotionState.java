@@ -61,13 +61,18 @@ public class MotionState {
      * @return The time when we are next at pos() if we are extrapolating with a positive dt. NaN if we never reach pos.
      */
     public double nextTimeAtPos(double pos) {
-        if (epsilonEquals(pos, this.pos, Constants.EPSILON_NEGATIVE_6)) {
+        return nextTimeAtPos(t, this.pos, vel, acc, pos);
+    }
+
+    /** Same as new MotionState(t, statePos, vel, acc).nextTimeAtPos(pos) w/o creating the MotionState */
+    static double nextTimeAtPos(double t, double statePos, double vel, double acc, double pos) {
+        if (epsilonEquals(pos, statePos, Constants.EPSILON_NEGATIVE_6)) {
             // Already at pos.
             return t;
         }
         if (epsilonEquals(acc, 0.0, Constants.EPSILON_NEGATIVE_6)) {
             // Zero acceleration case.
-            final double delta_pos = pos - this.pos;
+            final double delta_pos = pos - statePos;
             if (!epsilonEquals(vel, 0.0, Constants.EPSILON_NEGATIVE_6) && Math.signum(delta_pos) == Math.signum(vel)) {
                 // Constant velocity heading towards pos.
                 return delta_pos / vel + t;
@@ -80,8 +85,8 @@ public class MotionState {
         // x = dt
         // a = .5 * acc
         // b = vel
-        // c = this.pos - pos
-        final double disc = vel * vel - 2.0 * acc * (this.pos - pos);
+        // c = statePos - pos
+        final double disc = vel * vel - 2.0 * acc * (statePos - pos);
         if (disc < 0.0) {
             // Extrapolating this MotionState never reaches the desired pos.
             return Double.NaN;
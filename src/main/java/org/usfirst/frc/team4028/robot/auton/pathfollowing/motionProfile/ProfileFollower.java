@@ -2,8 +2,8 @@ package org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile;
 
 import org.usfirst.frc.team4028.robot.Constants;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile.MotionProfileGoal.CompletionBehavior;
-
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher.TIER;
 
 public class ProfileFollower {
 	protected double mKp = Constants.PATH_FOLLOWING_PROFILE_KP;
@@ -14,41 +14,78 @@ public class ProfileFollower {
 
     protected double mMinOutput = Double.NEGATIVE_INFINITY;
     protected double mMaxOutput = Double.POSITIVE_INFINITY;
-    protected MotionState mLatestActualState;
-    protected MotionState mInitialState;
+    protected double mLatestActualPos, mLatestActualVel;
+    protected double mInitialPos;
     protected double mLatestPosError;
     protected double mLatestVelError;
     protected double mTotalError;
+    protected double mLatestOutput;
 
-    protected MotionProfileGoal mGoal = null;
+    // owned copy of the goal, overwritten by every setGoalAndConstraints(), mHasGoal is false until the 1st one
+    protected final MotionProfileGoal mGoal = new MotionProfileGoal(0.0);
+    protected boolean mHasGoal = false;
     protected MotionProfileConstraints mConstraints = null;
     protected SetpointGenerator mSetpointGenerator = new SetpointGenerator();
     protected SetpointGenerator.Setpoint mLatestSetpoint = null;
+
+    private final DashboardPublisher mDashboard = DashboardPublisher.getInstance();
+    private final int mDashPosError, mDashVelError, mDashTotalError, mDashOutput, mDashCacheHits, mDashRegenerations;
     
     public ProfileFollower() {
         resetProfile();
+        mDashPosError = mDashboard.registerNumber("PosError: ", TIER.NORMAL, 0.01);
+        mDashVelError = mDashboard.registerNumber("Vel Error: ", TIER.NORMAL, 0.01);
+        mDashTotalError = mDashboard.registerNumber("Total Error: ", TIER.NORMAL, 0.01);
+        mDashOutput = mDashboard.registerNumber("Output: ", TIER.NORMAL, 0.01);
+        mDashCacheHits = mDashboard.registerNumber("Profile: Cache Hits", TIER.SLOW, 0);
+        mDashRegenerations = mDashboard.registerNumber("Profile: Regenerations", TIER.SLOW, 0);
+    }
+
+    public void setGains(double kp, double ki, double kv, double kffv, double kffa) {
+        mKp = kp;
+        mKi = ki;
+        mKv = kv;
+        mKffv = kffv;
+        mKffa = kffa;
     }
 
     /** Completely clear all state related to the current profile (min and max outputs are maintained) */
     public void resetProfile() {
         mTotalError = 0.0;
-        mInitialState = MotionState.kInvalidState;
-        mLatestActualState = MotionState.kInvalidState;
+        mInitialPos = Double.NaN;
+        mLatestActualPos = Double.NaN;
+        mLatestActualVel = Double.NaN;
         mLatestPosError = Double.NaN;
         mLatestVelError = Double.NaN;
         mSetpointGenerator.reset();
-        mGoal = null;
+        mHasGoal = false;
         mConstraints = null;
         resetSetpoint();
     }
 
     /** Specify a goal and constraints for achieving the goal */
-    public void setGoalAndConstraints(MotionProfileGoal goal, MotionProfileConstraints constraints) {
-        if (mGoal != null && !mGoal.equals(goal) && mLatestSetpoint != null) {
+    public synchronized void setGoalAndConstraints(MotionProfileGoal goal, MotionProfileConstraints constraints) {
+        if (goal == null) {
+            if (mHasGoal && mLatestSetpoint != null) {
+                mLatestSetpoint.final_setpoint = false;
+            }
+            mHasGoal = false;
+            mConstraints = constraints;
+            return;
+        }
+        setGoalAndConstraints(goal.pos(), goal.getMaxAbsVel(), goal.getCompletionBehavior(), goal.getPosTolerance(),
+                goal.getVelTolerance(), constraints);
+    }
+
+    /** Same as above w/ the goal as primitives, the goal is copied into this follower's own so nothing is created */
+    public synchronized void setGoalAndConstraints(double goalPos, double goalMaxAbsVel, CompletionBehavior completionBehavior,
+            double goalPosTolerance, double goalVelTolerance, MotionProfileConstraints constraints) {
+        final boolean isGoalChanged = mGoal.set(goalPos, goalMaxAbsVel, completionBehavior, goalPosTolerance, goalVelTolerance);
+        if (mHasGoal && isGoalChanged && mLatestSetpoint != null) {
             // Clear the final state bit since the goal has changed.
             mLatestSetpoint.final_setpoint = false;
         }
-        mGoal = goal;
+        mHasGoal = true;
         mConstraints = constraints;
     }
 
@@ -56,17 +93,35 @@ public class ProfileFollower {
         setGoalAndConstraints(goal, mConstraints);
     }
 
-    /** @return The current goal (null if no goal has been set since the latest call to reset()) */
-    public MotionProfileGoal getGoal() {
-        return mGoal;
+    /** @return A copy of the current goal (null if no goal has been set since the latest call to reset()) */
+    public synchronized MotionProfileGoal getGoal() {
+        return mHasGoal ? new MotionProfileGoal(mGoal) : null;
+    }
+
+    public synchronized void setConstraints(MotionProfileConstraints constraints) {
+        mConstraints = constraints;
+    }
+
+    /** see SetpointGenerator.setGoalReuseTolerance */
+    public void setGoalReuseTolerance(double posTolerance, double velTolerance) {
+        mSetpointGenerator.setGoalReuseTolerance(posTolerance, velTolerance);
     }
 
-    public void setConstraints(MotionProfileConstraints constraints) {
-        setGoalAndConstraints(mGoal, constraints);
+    public long getProfileCacheHitCount() {
+        return mSetpointGenerator.getCacheHitCount();
+    }
+
+    public long getProfileRegenerateCount() {
+        return mSetpointGenerator.getRegenerateCount();
     }
 
     public MotionState getSetpoint() {
-        return (mLatestSetpoint == null ? MotionState.kInvalidState : mLatestSetpoint.motion_state);
+        return (mLatestSetpoint == null ? MotionState.kInvalidState : mLatestSetpoint.getMotionState());
+    }
+
+    /** Same as getSetpoint().vel() w/o creating any objects */
+    public double getSetpointVel() {
+        return (mLatestSetpoint == null ? Double.NaN : mLatestSetpoint.vel);
     }
 
     /**
@@ -88,24 +143,33 @@ public class ProfileFollower {
      *            The timestamp for which the setpoint is desired.
      * @return An output that reflects the control output to apply to achieve the new setpoint.
      */
-    public synchronized double update(MotionState latest_state, double t) {
-        mLatestActualState = latest_state;
-        MotionState prev_state = latest_state;
+    public double update(MotionState latest_state, double t) {
+        return update(latest_state.t(), latest_state.pos(), latest_state.vel(), latest_state.acc(), t);
+    }
+
+    /** Same as above w/ the latest actual state (latestT, latestPos, latestVel, latestAcc) as primitives, creates no objects */
+    public synchronized double update(double latestT, double latestPos, double latestVel, double latestAcc, double t) {
+        mLatestActualPos = latestPos;
+        mLatestActualVel = latestVel;
+        double prevT = latestT, prevPos = latestPos, prevVel = latestVel, prevAcc = latestAcc;
         if (mLatestSetpoint != null) {
-            prev_state = mLatestSetpoint.motion_state;
+            prevT = mLatestSetpoint.t;
+            prevPos = mLatestSetpoint.pos;
+            prevVel = mLatestSetpoint.vel;
+            prevAcc = mLatestSetpoint.acc;
         } else {
-            mInitialState = prev_state;
+            mInitialPos = latestPos;
         }
-        final double dt = Math.max(0.0, t - prev_state.t());
-        mLatestSetpoint = mSetpointGenerator.getSetpoint(mConstraints, mGoal, prev_state, t);
+        final double dt = Math.max(0.0, t - prevT);
+        mLatestSetpoint = mSetpointGenerator.getSetpoint(mConstraints, mHasGoal ? mGoal : null, prevT, prevPos, prevVel, prevAcc, t);
 
         // Update error.
-        mLatestPosError = mLatestSetpoint.motion_state.pos() - latest_state.pos();
-        mLatestVelError = mLatestSetpoint.motion_state.vel() - latest_state.vel();
+        mLatestPosError = mLatestSetpoint.pos - latestPos;
+        mLatestVelError = mLatestSetpoint.vel - latestVel;
 
         // Calculate the feedforward and proportional terms.
-        double output = mKp * mLatestPosError + mKv * mLatestVelError + mKffv * mLatestSetpoint.motion_state.vel()
-                + (Double.isNaN(mLatestSetpoint.motion_state.acc()) ? 0.0 : mKffa * mLatestSetpoint.motion_state.acc());
+        double output = mKp * mLatestPosError + mKv * mLatestVelError + mKffv * mLatestSetpoint.vel
+                + (Double.isNaN(mLatestSetpoint.acc) ? 0.0 : mKffa * mLatestSetpoint.acc);
         if (output >= mMinOutput && output <= mMaxOutput) {
             // Update integral.
             mTotalError += mLatestPosError * dt;
@@ -116,15 +180,21 @@ public class ProfileFollower {
         }
         // Clamp to limits.
         output = Math.max(mMinOutput, Math.min(mMaxOutput, output));
+        mLatestOutput = output;
 
-        SmartDashboard.putNumber("PosError: ", mLatestPosError);
-        SmartDashboard.putNumber("Vel Error: ", mLatestVelError);
-        SmartDashboard.putNumber("Total Error: ", mTotalError);
-        SmartDashboard.putNumber("Output: ", output);
-        
         return output; 
     }
 
+    /** Publishes the latest errors / output, called from the main loop (update() may run on the control thread) */
+    public synchronized void updateDashboard() {
+        mDashboard.set(mDashPosError, mLatestPosError);
+        mDashboard.set(mDashVelError, mLatestVelError);
+        mDashboard.set(mDashTotalError, mTotalError);
+        mDashboard.set(mDashOutput, mLatestOutput);
+        mDashboard.set(mDashCacheHits, mSetpointGenerator.getCacheHitCount());
+        mDashboard.set(mDashRegenerations, mSetpointGenerator.getRegenerateCount());
+    }
+
     /**
      * We are finished the profile when the final setpoint has been generated. Note that this does not check whether we
      * are anywhere close to the final setpoint, however.
@@ -132,7 +202,7 @@ public class ProfileFollower {
      * @return True if the final setpoint has been generated for the current goal.
      */
     public boolean isFinishedProfile() {
-        return mGoal != null && mLatestSetpoint != null && mLatestSetpoint.final_setpoint;
+        return mHasGoal && mLatestSetpoint != null && mLatestSetpoint.final_setpoint;
     }
 
     /**
@@ -142,15 +212,15 @@ public class ProfileFollower {
      * @return True if we have actually achieved the current goal.
      */
     public boolean onTarget() {
-        if (mGoal == null || mLatestSetpoint == null) {
+        if (!mHasGoal || mLatestSetpoint == null) {
             return false;
         }
         // For the options that don't achieve the goal velocity exactly, also count any instance where we have passed
         // the finish line.
-        final double goal_to_start = mGoal.pos() - mInitialState.pos();
-        final double goal_to_actual = mGoal.pos() - mLatestActualState.pos();
+        final double goal_to_start = mGoal.pos() - mInitialPos;
+        final double goal_to_actual = mGoal.pos() - mLatestActualPos;
         final boolean passed_goal_state = Math.signum(goal_to_start) * Math.signum(goal_to_actual) < 0.0;
-        return mGoal.atGoalState(mLatestActualState)
+        return mGoal.atGoalState(mLatestActualPos, mLatestActualVel)
                 || (mGoal.getCompletionBehavior() != CompletionBehavior.OVERSHOOT && passed_goal_state);
     }
 }
\ No newline at end of file
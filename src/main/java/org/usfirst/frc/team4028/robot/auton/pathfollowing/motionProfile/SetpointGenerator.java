@@ -1,7 +1,5 @@
 package org.usfirst.frc.team4028.robot.auton.pathfollowing.motionProfile;
 
-import java.util.Optional;
-
 /**
  * A SetpointGenerate does just-in-time motion profile generation to supply a stream of setpoints that obey the given
  * constraints to a controller. The profile is regenerated when any of the inputs change, but is cached (and trimmed as
@@ -10,32 +8,63 @@ import java.util.Optional;
  * Note that typically for smooth control, a user will feed the last iteration's setpoint as the argument to
  * getSetpoint(), and should only use a measured state directly on the first iteration or if a large disturbance is
  * detected.
+ *
+ * Goals & constraints are compared by value. With a goal reuse tolerance set, a new goal within that tolerance of the
+ * goal the cached profile was generated for also keeps (and trims) the cached profile instead of regenerating it.
  */
 public class SetpointGenerator {
 	/**
      * A Setpoint is just a MotionState and an additional flag indicating whether this setpoint achieves the goal
-     * (useful for higher-level logic to know that it is now time to do something else).
+     * (useful for higher-level logic to know that it is now time to do something else). The state is kept as
+     * primitives so the generator can reuse 1 Setpoint for every getSetpoint().
      */
     public static class Setpoint {
-        public MotionState motion_state;
+        public double t, pos, vel, acc;
         public boolean final_setpoint;
 
+        public Setpoint() {}
+
         public Setpoint(MotionState motionState, boolean finalSetpoint) {
-            this.motion_state = motionState;
+            set(motionState.t(), motionState.pos(), motionState.vel(), motionState.acc(), finalSetpoint);
+        }
+
+        void set(double t, double pos, double vel, double acc, boolean finalSetpoint) {
+            this.t = t;
+            this.pos = pos;
+            this.vel = vel;
+            this.acc = acc;
             this.final_setpoint = finalSetpoint;
         }
+
+        /** @return a new MotionState of this setpoint */
+        public MotionState getMotionState() {
+            return new MotionState(t, pos, vel, acc);
+        }
     }
 
-    protected MotionProfile mProfile = null;
-    protected MotionProfileGoal mGoal = null;
+    // the profile & goal are overwritten in place when regenerating, mHasProfile is false until the 1st one
+    protected final MotionProfile mProfile = new MotionProfile();
+    protected final MotionProfileGoal mGoal = new MotionProfileGoal(0.0);
     protected MotionProfileConstraints mConstraints = null;
+    protected boolean mHasProfile = false;
+    protected final Setpoint mSetpoint = new Setpoint();
+    // default 0 = only an equal goal reuses the cached profile
+    protected double mGoalPosReuseTolerance = 0.0;
+    protected double mGoalVelReuseTolerance = 0.0;
+    protected long mCacheHitCount = 0;
+    protected long mRegenerateCount = 0;
 
     public SetpointGenerator() {}
 
+    /** A new goal at most this far (pos & max abs vel) from the cached profile's goal reuses the cached profile */
+    public synchronized void setGoalReuseTolerance(double posTolerance, double velTolerance) {
+        mGoalPosReuseTolerance = posTolerance;
+        mGoalVelReuseTolerance = velTolerance;
+    }
+
     /** Force a reset of the profile. */
-    public void reset() {
-        mProfile = null;
-        mGoal = null;
+    public synchronized void reset() {
+        mHasProfile = false;
         mConstraints = null;
     }
 
@@ -50,51 +79,68 @@ public class SetpointGenerator {
      *            The previous setpoint (or measured state of the system to do a reset).
      * @param t
      *            The time to generate a setpoint for.
-     * @return The new Setpoint at time t.
+     * @return The new Setpoint at time t (reused, valid until the next call).
      */
-    public synchronized Setpoint getSetpoint(MotionProfileConstraints constraints, MotionProfileGoal goal,
+    public Setpoint getSetpoint(MotionProfileConstraints constraints, MotionProfileGoal goal,
             MotionState prev_state, double t) {
-        boolean regenerate = mConstraints == null || !mConstraints.equals(constraints) || mGoal == null
-                || !mGoal.equals(goal) || mProfile == null;
+        return getSetpoint(constraints, goal, prev_state.t(), prev_state.pos(), prev_state.vel(), prev_state.acc(), t);
+    }
+
+    /** Same as above w/ the previous setpoint (prevT, prevPos, prevVel, prevAcc) as primitives, creates no objects */
+    public synchronized Setpoint getSetpoint(MotionProfileConstraints constraints, MotionProfileGoal goal,
+            double prevT, double prevPos, double prevVel, double prevAcc, double t) {
+        boolean regenerate = !mHasProfile || !mConstraints.equals(constraints)
+                || !mGoal.isWithin(goal, mGoalPosReuseTolerance, mGoalVelReuseTolerance);
         if (!regenerate && !mProfile.isEmpty()) {
-            Optional<MotionState> expected_state = mProfile.stateByTime(prev_state.t());
-            regenerate = !expected_state.isPresent() || !expected_state.get().equals(prev_state);
+            regenerate = !mProfile.isStateAtTime(prevT, prevPos, prevVel, prevAcc);
         }
         if (regenerate) {
             // Regenerate the profile, as our current profile does not satisfy the inputs.
             mConstraints = constraints;
-            mGoal = goal;
-            mProfile = MotionProfileGenerator.generateProfile(constraints, goal, prev_state);
+            mGoal.set(goal);
+            MotionProfileGenerator.generateProfile(constraints, goal, prevT, prevPos, prevVel, prevAcc, mProfile);
+            mHasProfile = true;
+            mRegenerateCount++;
+        } else {
+            // keep mGoal = the goal the cached profile was generated for, so reused goals can't drift from it
+            //  (only the reuse check uses mGoal, the setpoint is finished against the goal asked for)
+            mCacheHitCount++;
         }
 
         // Sample the profile at time t.
-        Setpoint rv = null;
+        final Setpoint rv = mSetpoint;
         if (!mProfile.isEmpty() && mProfile.isValid()) {
-            MotionState setpoint;
-            if (t > mProfile.endTime()) {
-                setpoint = mProfile.endState();
-            } else if (t < mProfile.startTime()) {
-                setpoint = mProfile.startState();
-            } else {
-                setpoint = mProfile.stateByTime(t).get();
-            }
+            // clamped to the start / end state of the profile
+            final double setpointT = Math.max(mProfile.startTime(), Math.min(mProfile.endTime(), t));
+            final double pos = mProfile.posByTimeClamped(t);
+            final double vel = mProfile.velByTimeClamped(t);
+            final double acc = mProfile.accByTimeClamped(t);
             // Shorten the profile and return the new setpoint.
             mProfile.trimBeforeTime(t);
-            rv = new Setpoint(setpoint, mProfile.isEmpty() || mGoal.atGoalState(setpoint));
-        }
-
-        // Invalid or empty profile - just output the same state again.
-        if (rv == null) {
-            rv = new Setpoint(prev_state, true);
+            rv.set(setpointT, pos, vel, acc, mProfile.isEmpty() || goal.atGoalState(pos, vel));
+        } else {
+            // Invalid or empty profile - just output the same state again.
+            rv.set(prevT, prevPos, prevVel, prevAcc, true);
         }
 
         if (rv.final_setpoint) {
-            // Ensure the final setpoint matches the goal exactly.
-            rv.motion_state = new MotionState(rv.motion_state.t(), mGoal.pos(),
-                    Math.signum(rv.motion_state.vel()) * Math.max(mGoal.getMaxAbsVel(), Math.abs(rv.motion_state.vel())),
-                    0.0);
+            // Ensure the final setpoint matches the goal exactly (the goal asked for, not the one a reused profile
+            // was generated for, so the result is the same as if the profile had been regenerated)
+            rv.pos = goal.pos();
+            rv.vel = Math.signum(rv.vel) * Math.max(goal.getMaxAbsVel(), Math.abs(rv.vel));
+            rv.acc = 0.0;
         }
 
         return rv;
     }
-}
\ No newline at end of file
+
+    /** @return number of getSetpoint() calls that reused the cached profile */
+    public synchronized long getCacheHitCount() {
+        return mCacheHitCount;
+    }
+
+    /** @return number of getSetpoint() calls that generated a new profile */
+    public synchronized long getRegenerateCount() {
+        return mRegenerateCount;
+    }
+}
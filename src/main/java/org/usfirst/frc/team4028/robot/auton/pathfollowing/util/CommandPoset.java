@@ -1,287 +1,165 @@
 package org.usfirst.frc.team4028.robot.auton.pathfollowing.util;
 
-import java.util.*;
-
+import java.util.ArrayList;
+import java.util.List;
 
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.command.Command;
 
-/*
+/**
+ * Runs commands as a dependency graph instead of hand nested Series_Command / Simultaneous_Command:
+ * each command declares which commands have to finish before it, and is started the same scan the last of them
+ * finishes, so ex. the elevator & infeed can start partway thru a drive path while the drive goes on.
+ * 	CommandPoset auton = new CommandPoset();
+ * 	int drive = auton.addAfter(new Auton_RunTimedMotionProfileCommand(toSwitch, 3.0));
+ * 	int wait = auton.addAfter(new WaitCommand(1.0));
+ * 	int elevator = auton.addAfter(new Elevator_MoveElevatorToPresetPosition(SWITCH_HEIGHT), wait);
+ * 	auton.addWithTimeout(new CG_OutfeedCube(), 0.5, drive, elevator);
+ * (2 names, not 2 add overloads, so a timeout can't be mistaken for a predecessor index or the other way around)
+ * The graph is checked & put in topological order (see Poset) 1x on the 1st start, after that no commands can be added.
+ * Like Simultaneous_Command the children are started on the Scheduler, so they can't be part of a CommandGroup.
+ */
 public class CommandPoset extends Command {
-
-    enum addedType 
-    {
-        SEQUENTIAL, 
-        PARALLEL
-    }
-    private int numCommands; //This is the total number of commands in the commandGroup
-    private Command[] commandsVector; //This contains all of the commands in the commandGroup, each command being identifiable by its index here
-    private int[] statesVector; //-1 for yet to run, 0 for running, 1 for finished
-    private int[] prevStatesVector = null;
-    private List<Integer> yetToRunIndices;
-    private List<Integer> runningIndices;
-    private List<Integer> haveRanIndices;
-    private int[][] dependencyMatrix; //This is a skew-symmetric Matrix w/ [i][j] being 1 if i requires j finishes, -1 if j requires i finishes, and 0 if they do not require each other
-    private double[] timeoutVector; //This is a vector of Timeouts, each being -1 in the abscence of a timeout
-    private List<Adder> addedVector = new ArrayList<Adder>();
-
-    public CommandPoset() {
-    }
-  
-    public CommandPoset(String name) {
-      super(name);
-    }
-
-  
-    public final synchronized void addSequential(Command cmd){
-        // Command.validate("Can not add new command to command group");
-        addedVector.add(new Adder(cmd, -1, addedType.SEQUENTIAL));
-    }
-
-    public final synchronized void addSequential(Command cmd, double timeout){
-        // validate("Can not add new command to command group");
-        addedVector.add(new Adder(cmd, timeout, addedType.SEQUENTIAL));
-    }
-
-    public final synchronized void addParallel(Command cmd){
-        // validate("Can not add new command to command group");
-        addedVector.add(new Adder(cmd, -1, addedType.PARALLEL));
-    }
-
-    public final synchronized void addParallel(Command cmd, double timeout){
-        // validate("Can not add new command to command group");
-        addedVector.add(new Adder(cmd, timeout, addedType.PARALLEL));
-    }
-
-    public void addEdgesFromSeqsAndPars(Poset poset, List<Integer> sequentialIndices, List<Integer> parallelIndices){
-        int num = sequentialIndices.size() + parallelIndices.size();
-        List<Integer> chunksList = new ArrayList<Integer>();
-        int prevSeq = -1 ;
-        for (int count = 0; count<num; count++){
-            if (sequentialIndices.contains(count)){
-                chunksList.add(count - prevSeq);
-            }
-        }
-        int chunksNum = chunksList.size();
-        for (int chunkCount = 0; chunkCount<chunksNum -1; chunkCount++){
-            for (int prevChunkIndexer = 0; prevChunkIndexer < chunksList.get(chunkCount); prevChunkIndexer++){
-                for (int newChunkIndexer = 0; prevChunkIndexer < chunksList.get(chunkCount+1); prevChunkIndexer++){
-                    poset.addEdge(poset.getNode(sumList(chunksList, 0, chunkCount-1)+newChunkIndexer), poset.getNode(sumList(chunksList, 0, chunkCount-2)+prevChunkIndexer));
-                }
-            }
-        }
-    }
-
-    public int sumList(List<Integer> listo, int start, int stop){
-        int tot = 0;
-        for (int ind=start; ind<=stop; ind++){
-            tot+=listo.get(ind);
-        }
-        return tot;
-    }
-
-    //add implementation
-    public final void generateInfoFromAddedVector(){
-        numCommands = addedVector.size();
-        commandsVector = new Command[numCommands];
-        statesVector = new int[numCommands];
-        prevStatesVector = new int[numCommands];
-        dependencyMatrix = new int[numCommands][numCommands];
-        timeoutVector = new double[numCommands];
-        Poset _poset = new Poset(numCommands);
-        List<Integer> seqIndices = new ArrayList<Integer>();
-        List<Integer> parIndices = new ArrayList<Integer>();
-        for (int ind = 1; ind< numCommands; ind++ ){
-            prevStatesVector[ind] = -2;
-            statesVector[ind] = -1;
-            commandsVector[ind] = addedVector.get(ind).getCommand();
-            timeoutVector[ind] = addedVector.get(ind).getTimeOut();
-            addedType type = addedVector.get(ind).getType();
-            switch (type){
-                case SEQUENTIAL:
-                    seqIndices.add(ind);
-                case PARALLEL:
-                    parIndices.add(ind);
-            }
-        }
-        addEdgesFromSeqsAndPars(_poset, seqIndices, parIndices);
-        dependencyMatrix = _poset.getSkewSymmetricLinearForm();
-    }
-
-
-    public void updateIndexTypeIdentificationLists(){
-        yetToRunIndices.clear();
-        runningIndices.clear();
-        haveRanIndices.clear();
-        for (int ind = 0; ind< numCommands; ind++){
-            if (statesVector[ind] == -1) {
-                yetToRunIndices.add(ind);
-            } else if (statesVector[ind] == 0){
-                runningIndices.add(ind);
-            } else {
-                haveRanIndices.add(ind);
-            }
-        }
-    }
-
-    public boolean goodToRun(int commandIndex){
-        for (int otherInd = 0; otherInd < numCommands; otherInd++){
-            if (dependencyMatrix[commandIndex][otherInd] == 1 && statesVector[otherInd] != 1){
-                return false;
-            }
-        }
-        return true;
-    }
-
-    public boolean statesVectorChangedQ(){
-        boolean ans = (prevStatesVector == statesVector);
-        prevStatesVector = statesVector;
-        return ans;
-    }
-
-    public boolean timedOutQ(int commandIndex){
-        if (timeoutVector[commandIndex] == -1){
-            return false;
-        } else {
-            double time = commandsVector[commandIndex].timeSinceIntialized();
-            return !(time == 0 || time<timeoutVector[commandIndex]);
-        }
-    }
-
-    public void handleYetToRun(){
-        if  (! statesVectorChangedQ()){
-            return;
-        } else {
-            for(int cmdInd : yetToRunIndices) {
-                if (goodToRun(cmdInd)){
-                    commandsVector[cmdInd].start();
-                    statesVector[cmdInd] = 0;
-                }
-            }
-        }
-    }
-
-    public void handleRunning(){
-        for (int commandIndex = 0; commandIndex<numCommands; commandIndex++){
-            if (timedOutQ(commandIndex)) {
-                commandsVector[commandIndex]._cancel();
-                statesVector[commandIndex] = 1;
-              } //Note: The cmd.run() class returns if has not finished, while running execute
-              if (! commandsVector[commandIndex].run()) {
-                commandsVector[commandIndex].run().removed();
-                statesVector[commandIndex] = 1;
-              } 
-        }
-    }
-
-
-    @Override
-    void _initialize() {
-        generateInfoFromAddedVector();
-    }
-
-    @Override
-    void _execute(){
-        handleYetToRun();
-        handleRunning();
-    }
-
-    @Override
-    void _end(){
-        for (int cmdInd : yetToRunIndices){
-            commandsVector[cmdInd]._cancel();
-        }
-        for (int cmdInd : runningIndices){
-            commandsVector[cmdInd]._cancel();
-        }
-        for (int i = 0; i< numCommands; i++){
-            statesVector[i]=1;
-        }
-    }
-
-    @Override
-  void _interrupted() {
-    _end();
-  }
-
-  @Override
-  protected boolean isFinished() {
-    for (int i=0; i<numCommands; i++){
-        if (statesVector[i] != 1){
-            return false;
-        }
-    }
-    return true;
-  }
-
-  @Override
-  protected void initialize() {
-  }
-
-
-  @Override
-  protected void execute() {
-  }
-
-
-  @Override
-  protected void end() {
-  }
-
-
-  @Override
-  protected void interrupted() {
-  }
-
-  public synchronized boolean isInterruptible(){
-    if (!super.isInterruptible()) {
-        return false;
-    } else{
-        for (int ind = 0; ind<numCommands; ind++){
-            if (! commandsVector[ind].isInterruptible()){
-                return false;
-            } 
-
-        return true;
-
-
-    }
+	private static final double NO_TIMEOUT = -1;
+
+	// added commands, index = Poset vertex
+	private final List<Command> _commands = new ArrayList<Command>();
+	private final List<Double> _timeouts = new ArrayList<Double>();
+	private final List<int[]> _dependencies = new ArrayList<int[]>();	// {before, after}
+
+	// built 1x on the 1st initialize
+	private Command[] _commandArray;
+	private double[] _timeoutArray;
+	private long[] _predecessorMasks;
+	private int[] _topologicalOrder;
+	private long _allCommandsMask;
+
+	// per run, bit i = command i
+	private long _startedMask, _finishedMask;
+	private double[] _startTimes;
+
+	public CommandPoset() {
+		setInterruptible(false);
+	}
+
+	public CommandPoset(String name) {
+		super(name);
+		setInterruptible(false);
+	}
+
+	//=====================================================================================
+	// Building the graph (before the 1st start)
+	//=====================================================================================
+	/** Adds a command that starts once all of the predecessors (indexes returned by addAfter / addWithTimeout) finish, returns its index */
+	public synchronized int addAfter(Command command, int... predecessors) {
+		return addWithTimeout(command, NO_TIMEOUT, predecessors);
+	}
+
+	/** Same as above, the command is canceled (& counts as finished) timeoutSec after it starts */
+	public synchronized int addWithTimeout(Command command, double timeoutSec, int... predecessors) {
+		checkNotLocked();
+		if (_commands.size() == Poset.MAX_VERTICES) {
+			throw new IllegalStateException("CommandPoset supports at most " + Poset.MAX_VERTICES + " commands");
+		}
+		int index = _commands.size();
+		_commands.add(command);
+		_timeouts.add(timeoutSec);
+		for (int predecessor : predecessors) {
+			addDependency(predecessor, index);
+		}
+		return index;
+	}
+
+	/** The command at index after won't start before the command at index before finishes */
+	public synchronized void addDependency(int before, int after) {
+		checkNotLocked();
+		if (before < 0 || before >= _commands.size() || after < 0 || after >= _commands.size()) {
+			throw new IndexOutOfBoundsException("CommandPoset has no command " + before + " or " + after);
+		}
+		_dependencies.add(new int[] {before, after});
+	}
+
+	//=====================================================================================
+	// Command
+	//=====================================================================================
+	@Override
+	protected synchronized void initialize() {
+		if (_commandArray == null) {
+			buildGraph();
+		}
+		_startedMask = 0;
+		_finishedMask = 0;
+		startReadyCommands();
+	}
+
+	@Override
+	protected synchronized void execute() {
+		final double now = Timer.getFPGATimestamp();
+		for (long running = _startedMask & ~_finishedMask; running != 0; running &= running - 1) {
+			final int index = Long.numberOfTrailingZeros(running);
+			if (_commandArray[index].isCompleted()) {
+				_finishedMask |= 1L << index;
+			} else if (_timeoutArray[index] != NO_TIMEOUT && now - _startTimes[index] >= _timeoutArray[index]) {
+				_commandArray[index].cancel();
+				_finishedMask |= 1L << index;
+			}
+		}
+		startReadyCommands();
+	}
+
+	@Override
+	protected synchronized boolean isFinished() {
+		return _finishedMask == _allCommandsMask;
+	}
+
+	@Override
+	protected synchronized void interrupted() {
+		for (long running = _startedMask & ~_finishedMask; running != 0; running &= running - 1) {
+			_commandArray[Long.numberOfTrailingZeros(running)].cancel();
+		}
+	}
+
+	//=====================================================================================
+	// Private Helper methods below
+	//=====================================================================================
+	private void buildGraph() {
+		final int commandCount = _commands.size();
+		Poset poset = new Poset(commandCount);
+		for (int[] dependency : _dependencies) {
+			poset.addEdge(dependency[0], dependency[1]);
+		}
+
+		_commandArray = _commands.toArray(new Command[commandCount]);
+		_timeoutArray = new double[commandCount];
+		_predecessorMasks = new long[commandCount];
+		for (int index = 0; index < commandCount; index++) {
+			_timeoutArray[index] = _timeouts.get(index);
+			_predecessorMasks[index] = poset.getPredecessorMask(index);
+		}
+		_topologicalOrder = poset.getTopologicalOrder();	// throws on a dependency cycle
+		_allCommandsMask = poset.getAllVerticesMask();
+		_startTimes = new double[commandCount];
+	}
+
+	/** Starts (in topological order) every command not started yet whose predecessors have all finished */
+	private void startReadyCommands() {
+		if (_startedMask == _allCommandsMask) {
+			return;
+		}
+		final double now = Timer.getFPGATimestamp();
+		for (int index : _topologicalOrder) {
+			final long bit = 1L << index;
+			if ((_startedMask & bit) == 0 && (_predecessorMasks[index] & ~_finishedMask) == 0) {
+				_commandArray[index].start();
+				_startTimes[index] = now;
+				_startedMask |= bit;
+			}
+		}
+	}
+
+	private void checkNotLocked() {
+		if (_commandArray != null) {
+			throw new IllegalStateException("Can not add to a CommandPoset after it has been started");
+		}
+	}
 }
-
-    
-
-    
-        
-  }
-        final class Adder {
-        private final Command _command;
-        private final double _timeout;
-        private final addedType _type;
-
-
-    
-        public Adder(Command command, double timeOut, addedType type) {
-          _command = command;
-          _timeout = timeOut;
-          _type = type;
-          }
-
-        public Command getCommand(){
-            return _command;
-        }
-
-        public double getTimeOut(){
-            return _timeout;
-        }
-
-        public addedType getType(){
-            return _type;
-        }
-    
-      }
-        
-
-}
-
-*/
-
-
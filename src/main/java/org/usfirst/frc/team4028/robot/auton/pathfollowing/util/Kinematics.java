@@ -14,9 +14,14 @@ public class Kinematics {
 
     /** Using only encoders, rotation is implicit (less accurate than below, but useful for predicting motion) */
 	public static Twist forwardKinematics(double left_wheel_delta, double right_wheel_delta) {
+        return forwardKinematics(left_wheel_delta, right_wheel_delta, 
+        		forwardKinematicsRotation(left_wheel_delta, right_wheel_delta));
+    }
+
+    /** Rotation part of the encoder only forward kinematics above, without building a Twist */
+    public static double forwardKinematicsRotation(double left_wheel_delta, double right_wheel_delta) {
         double delta_v = (right_wheel_delta - left_wheel_delta) / 2 * Constants.TRACK_SCRUBBING_FACTOR;
-        double delta_rotation = delta_v * 2 / Constants.TRACK_WIDTH_INCHES;
-        return forwardKinematics(left_wheel_delta, right_wheel_delta, delta_rotation);
+        return delta_v * 2 / Constants.TRACK_WIDTH_INCHES;
     }
 
     /** Using encoders and explicitly measured rotation (ex. from gyro) */
@@ -57,4 +62,12 @@ public class Kinematics {
         double delta_v = Constants.TRACK_WIDTH_INCHES * velocity.dtheta / (2 * Constants.TRACK_SCRUBBING_FACTOR);
         return new DriveVelocity(velocity.dx - delta_v, velocity.dx + delta_v);
     }
+
+    /** Wheel velocity difference of inverseKinematics (left = dx - delta_v, right = dx + delta_v), without building a DriveVelocity */
+    public static double inverseKinematicsDeltaV(double dtheta) {
+        if (Math.abs(dtheta) < kEpsilon) {
+            return 0.0;
+        }
+        return Constants.TRACK_WIDTH_INCHES * dtheta / (2 * Constants.TRACK_SCRUBBING_FACTOR);
+    }
 }
\ No newline at end of file
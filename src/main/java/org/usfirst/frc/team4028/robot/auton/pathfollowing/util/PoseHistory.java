@@ -0,0 +1,133 @@
+package org.usfirst.frc.team4028.robot.auton.pathfollowing.util;
+
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.RigidTransform;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Rotation;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Translation;
+
+/**
+ * Fixed capacity, time ordered history of robot poses stored in parallel primitive arrays
+ * (timestamp, x, y, cos, sin). Adding a pose never allocates; once full the oldest pose is overwritten.
+ * Lookups between two stored timestamps are interpolated the same way InterpolatingTreeMap does.
+ */
+public class PoseHistory {
+	private final double[] _timestamps;
+	private final double[] _x;
+	private final double[] _y;
+	private final double[] _cos;
+	private final double[] _sin;
+	private final int _capacity;
+
+	private int _oldestIndex;
+	private int _size;
+
+	public PoseHistory(int capacity) {
+		_capacity = capacity;
+		_timestamps = new double[capacity];
+		_x = new double[capacity];
+		_y = new double[capacity];
+		_cos = new double[capacity];
+		_sin = new double[capacity];
+	}
+
+	public void clear() {
+		_oldestIndex = 0;
+		_size = 0;
+	}
+
+	/** Adds a pose, a timestamp equal to the latest replaces it, an older timestamp is ignored */
+	public void add(double timestamp, double x, double y, double cos, double sin) {
+		int index;
+		if (_size > 0 && timestamp <= getLatestTimestamp()) {
+			if (timestamp < getLatestTimestamp()) {
+				return;
+			}
+			index = physicalIndex(_size - 1);
+		} else if (_size < _capacity) {
+			index = physicalIndex(_size);
+			_size++;
+		} else {
+			// full, overwrite the oldest
+			index = _oldestIndex;
+			_oldestIndex = (_oldestIndex + 1) % _capacity;
+		}
+
+		_timestamps[index] = timestamp;
+		_x[index] = x;
+		_y[index] = y;
+		_cos[index] = cos;
+		_sin[index] = sin;
+	}
+
+	/** Pose at the timestamp, interpolated between neighbors and clamped to the oldest / latest pose, null if empty */
+	public RigidTransform getInterpolated(double timestamp) {
+		if (_size == 0) {
+			return null;
+		}
+
+		// binary search for the 1st pose at or after the timestamp
+		int low = 0;
+		int high = _size - 1;
+		if (timestamp <= _timestamps[physicalIndex(low)]) {
+			return toTransform(physicalIndex(low));
+		}
+		if (timestamp >= _timestamps[physicalIndex(high)]) {
+			return toTransform(physicalIndex(high));
+		}
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (_timestamps[physicalIndex(mid)] < timestamp) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		int upper = physicalIndex(low);
+		if (_timestamps[upper] == timestamp) {
+			return toTransform(upper);
+		}
+		int lower = physicalIndex(low - 1);
+		double fraction = (timestamp - _timestamps[lower]) / (_timestamps[upper] - _timestamps[lower]);
+		return toTransform(lower).interpolate(toTransform(upper), fraction);
+	}
+
+	private RigidTransform toTransform(int index) {
+		return new RigidTransform(new Translation(_x[index], _y[index]), new Rotation(_cos[index], _sin[index], false));
+	}
+
+	/** maps a logical index (0 = oldest) into the backing arrays */
+	private int physicalIndex(int logicalIndex) {
+		return (_oldestIndex + logicalIndex) % _capacity;
+	}
+
+	//============================================================================================
+	// Property Accessors follow (latest pose, no allocation)
+	//============================================================================================
+	public int size() {
+		return _size;
+	}
+
+	public double getLatestTimestamp() {
+		return _timestamps[physicalIndex(_size - 1)];
+	}
+
+	public double getLatestX() {
+		return _x[physicalIndex(_size - 1)];
+	}
+
+	public double getLatestY() {
+		return _y[physicalIndex(_size - 1)];
+	}
+
+	public double getLatestCos() {
+		return _cos[physicalIndex(_size - 1)];
+	}
+
+	public double getLatestSin() {
+		return _sin[physicalIndex(_size - 1)];
+	}
+
+	public RigidTransform getLatest() {
+		return (_size == 0) ? null : toTransform(physicalIndex(_size - 1));
+	}
+}
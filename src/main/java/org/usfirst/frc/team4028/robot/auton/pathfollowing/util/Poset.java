@@ -1,183 +1,99 @@
 package org.usfirst.frc.team4028.robot.auton.pathfollowing.util;
 
-import java.util.*;
-
-
+/**
+ * A partial order (DAG) over vertices 0..n-1, an edge from -> to means from has to finish before to can start.
+ * Each vertex keeps its predecessors & successors as 1 bit per vertex in a long, so an edge lookup is O(1)
+ * and "are all my predecessors done" is a single mask test. Limited to MAX_VERTICES (64) vertices.
+ */
 public class Poset {
-    int numVertices = 0;
-    static List<node> nodesList = new ArrayList<node>();
-    static List<edge> edgesList = new ArrayList<edge>();
+    public static final int MAX_VERTICES = Long.SIZE;
+
+    private final int vertexCount;
+    private final long[] predecessorMasks;
+    private final long[] successorMasks;
 
-    public Poset(int vertNum){
-        numVertices = vertNum;
-        for (int i = 0; i< vertNum; i++){
-            nodesList.add(new node(i));
+    public Poset(int vertexCount) {
+        if (vertexCount < 0 || vertexCount > MAX_VERTICES) {
+            throw new IllegalArgumentException("Poset supports 0 to " + MAX_VERTICES + " vertices: " + vertexCount);
         }
+        this.vertexCount = vertexCount;
+        predecessorMasks = new long[vertexCount];
+        successorMasks = new long[vertexCount];
     }
 
-    public void addVertex(){
-        numVertices++;
-        nodesList.add(new node(numVertices-1));
+    public int getVertexCount() {
+        return vertexCount;
     }
 
-    public void removeVertex(node N){
-        numVertices--;
-        for (node c: N.getChildren()){
-            for (node p: N.getParents()){
-                removeEdge(new edge(N, c));
-                removeEdge(new edge(p, N));
-                addEdge(p, c);
-            }
-        }
-        for (int ind = N.getIdentifier()+1; ind<numVertices; ind++){
-            getNode(ind).changeIdentifier(getNode(ind).getIdentifier() -1);
-        }
-        nodesList.remove(N.getIdentifier());
-        for (edge e: edgesList){
-            e.update();
+    /** from has to finish before to */
+    public void addEdge(int from, int to) {
+        checkVertex(from);
+        checkVertex(to);
+        if (from == to) {
+            throw new IllegalArgumentException("A vertex can not depend on itself: " + from);
         }
+        predecessorMasks[to] |= 1L << from;
+        successorMasks[from] |= 1L << to;
     }
 
-    public void removeEdge(edge e){
-        edgesList.remove(e.getPosInEdgesList());
+    public boolean queryEdgeExistence(int from, int to) {
+        checkVertex(from);
+        checkVertex(to);
+        return (successorMasks[from] & (1L << to)) != 0;
     }
 
-    public void addEdge(node nf, node n2){
-        edgesList.add(new edge(nf, n2));        
+    /** bit i is set when vertex i has to finish before vertex */
+    public long getPredecessorMask(int vertex) {
+        checkVertex(vertex);
+        return predecessorMasks[vertex];
     }
 
-
-    public node getNode(int nodeNum){
-        try {
-            return nodesList.get(nodeNum);
-        } catch(Exception e){
-            System.out.println("Error: Called Node Does Not Exist");
-            return null;
-        }
-    }
-
-    public boolean queryEdgeExistence(node maybeFrom, node maybeTo){
-        for (edge e: edgesList){
-            if (e.getIdentifiers() == new int[] {maybeFrom.getIdentifier(), maybeTo.getIdentifier()}){
-                return true;
-            }
-        }
-        return false;
+    /** bit i is set when vertex has to finish before vertex i */
+    public long getSuccessorMask(int vertex) {
+        checkVertex(vertex);
+        return successorMasks[vertex];
     }
 
-    public int[][] getSkewSymmetricLinearForm(){
-        int[][] skewSymmetricLinearForm = new int[numVertices][numVertices];
-        for (int i=0; i<numVertices; i++){
-            for (int j=0; j<numVertices; j++){
-                if (queryEdgeExistence(nodesList.get(i), nodesList.get(j))){
-                    skewSymmetricLinearForm[i][j] = 1;
-                } else if (queryEdgeExistence(nodesList.get(j), nodesList.get(i))) {
-                    skewSymmetricLinearForm[i][j]=-1;
-                } else {
-                    skewSymmetricLinearForm[i][j] = 0;
-                }
-            }
-        }
-        return skewSymmetricLinearForm;
+    /** all vertices' bits set */
+    public long getAllVerticesMask() {
+        return vertexCount == MAX_VERTICES ? -1L : (1L << vertexCount) - 1;
     }
 
-
-
-    public static class node {
-        int identifier;
-        public node(int identifyingNum){
-            identifier = identifyingNum;
-        }
-
-        public void changeIdentifier(int newIdentifier){
-            identifier = newIdentifier;
-        }
-
-        public List<node> getParents(){
-            List<node> parents = new ArrayList<node>();
-
-            for (edge e : edgesList){
-                if (e.getToIdentifier() == identifier){
-                    parents.add(e.getFromNode());
+    /**
+     * Every vertex after all of its predecessors (Kahn's algorithm, lowest vertex 1st when several are ready),
+     * throws IllegalStateException if the edges have a cycle
+     */
+    public int[] getTopologicalOrder() {
+        int[] order = new int[vertexCount];
+        long placed = 0;
+        for (int i = 0; i < vertexCount; i++) {
+            long ready = 0;
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                if ((placed & (1L << vertex)) == 0 && (predecessorMasks[vertex] & ~placed) == 0) {
+                    ready |= 1L << vertex;
                 }
             }
-
-            return parents;
-        }
-
-        public List<node> getChildren(){
-            List<node> children = new ArrayList<node>();
-
-            for (edge e : edgesList){
-                if (e.getFromIdentifier() == identifier ){
-                    children.add(e.getToNode());
-                }
+            if (ready == 0) {
+                throw new IllegalStateException("Poset has a dependency cycle between vertices " + maskToString(getAllVerticesMask() & ~placed));
             }
-
-            return children;
-        }
-
-        public int getIdentifier(){
-            return identifier;
+            int vertex = Long.numberOfTrailingZeros(ready);
+            order[i] = vertex;
+            placed |= 1L << vertex;
         }
-        
+        return order;
     }
 
-    public static class edge{
-        int fromNodeIdentifier;
-        int toNodeIdentifier;
-        node fromNode;
-        node toNode;
-        
-        public edge(node from, node to){
-            fromNode = from;
-            toNode = to;
-            fromNodeIdentifier = fromNode.getIdentifier();
-            toNodeIdentifier = toNode.getIdentifier();
-        }
-
-        public void update(){
-            fromNodeIdentifier = fromNode.getIdentifier();
-            toNodeIdentifier = toNode.getIdentifier();
-        }
-
-        public int getFromIdentifier(){
-            return fromNodeIdentifier;
-        }
-
-        public int getToIdentifier(){
-            return toNodeIdentifier;
-        }
-
-        public int[] getIdentifiers(){
-            int[] ans = new int[] {fromNodeIdentifier, toNodeIdentifier};
-            return ans;
-        } 
-
-
-        public node getFromNode() {
-            return fromNode;
-        }
-
-        public node getToNode(){
-            return toNode;
-        }
-
-        public node[] getNodes(){
-            node[] ans = new node[] {fromNode, toNode};
-            return ans;
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= vertexCount) {
+            throw new IndexOutOfBoundsException("Poset vertex " + vertex + " does not exist (" + vertexCount + " vertices)");
         }
+    }
 
-        public int getPosInEdgesList(){
-            int guess = 0;
-            boolean happy = false;
-            while (! happy){
-                happy = (edgesList.get(guess).getIdentifiers() == new int[] {fromNodeIdentifier, toNodeIdentifier});
-                guess++;
-            }
-            return guess-1;
+    private static String maskToString(long mask) {
+        StringBuilder sb = new StringBuilder("[");
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            sb.append(sb.length() == 1 ? "" : ", ").append(Long.numberOfTrailingZeros(remaining));
         }
+        return sb.append("]").toString();
     }
-
-
-}
\ No newline at end of file
+}
@@ -8,7 +8,6 @@ import com.ctre.phoenix.motorcontrol.can.TalonSRX;
 
 import org.usfirst.frc.team4028.robot.RobotMap;
 import org.usfirst.frc.team4028.robot.subsystems.Chassis;
-import org.usfirst.frc.team4028.robot.util.GeneralUtilities;
 
 public class Auton_CG_ChassisTune extends CommandGroup{
 
@@ -42,10 +41,13 @@ Chassis _chassis = Chassis.getInstance();
 
         double[] zeroes = {.1,0,0,0};
 
-        GeneralUtilities.setPIDFGains(_leftMaster, zeroes);
-        GeneralUtilities.setPIDFGains(_leftSlave, zeroes);
-        GeneralUtilities.setPIDFGains(_rightMaster, zeroes);
-        GeneralUtilities.setPIDFGains(_rightSlave, zeroes);
+        // raw Talons (not ITalonSRX) since Auton_CG_PIDTune drives them directly
+        for (TalonSRX talon : new TalonSRX[] {_leftMaster, _leftSlave, _rightMaster, _rightSlave}) {
+            talon.config_kP(0, zeroes[0], 0);
+            talon.config_kI(0, zeroes[1], 0);
+            talon.config_kD(0, zeroes[2], 0);
+            talon.config_kF(0, zeroes[3], 0);
+        }
 
 
         TalonSRX[] listOSlaves = {_rightMaster, _rightSlave, _leftSlave};
@@ -1,6 +1,5 @@
 package org.usfirst.frc.team4028.robot.commands;
 
-import org.usfirst.frc.team4028.robot.auton.pathfollowing.RobotState;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.Path;
 import org.usfirst.frc.team4028.robot.subsystems.Chassis;
 
@@ -21,7 +20,7 @@ public class Auton_RunMotionProfileAction extends Command
 
     @Override
     protected void initialize() {
-        RobotState.getInstance().reset(Timer.getFPGATimestamp(), _path.getStartPose());
+        _chassis.resetRobotState(Timer.getFPGATimestamp(), _path.getStartPose());
 		_chassis.setWantDrivePath(_path, _path.isReversed());
 		_chassis.setHighGear(true);
 		_startTime = Timer.getFPGATimestamp();
@@ -1,6 +1,5 @@
 package org.usfirst.frc.team4028.robot.commands;
 
-import org.usfirst.frc.team4028.robot.auton.pathfollowing.RobotState;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.Path;
 import org.usfirst.frc.team4028.robot.subsystems.Chassis;
 
@@ -13,6 +12,8 @@ public class Auton_RunTimedMotionProfileCommand extends Command
     private Path _path;
     private double _startTime;
     double _maxTime;
+    // paths cut short by maxTime instead of finishing, counted for the auton simulator
+    private static int _maxTimeHitCount;
 
     public Auton_RunTimedMotionProfileCommand(Path p, double maxTime)
     {
@@ -23,7 +24,7 @@ public class Auton_RunTimedMotionProfileCommand extends Command
 
     @Override
     protected void initialize() {
-        RobotState.getInstance().reset(Timer.getFPGATimestamp(), _path.getStartPose());
+        _chassis.resetRobotState(Timer.getFPGATimestamp(), _path.getStartPose());
 		_chassis.setWantDrivePath(_path, _path.isReversed());
 		//_chassis.setHighGear(true);
 		_startTime = Timer.getFPGATimestamp();
@@ -42,9 +43,13 @@ public class Auton_RunTimedMotionProfileCommand extends Command
         //System.out.println("Does the bloody Motion Profile Comand know how freaking lucky it is to Finish?");
         if (Math.floor(Timer.getFPGATimestamp() * 1000) % 1000 == 0){
             System.out.println("Second gotten to:" + Timer.getFPGATimestamp());
-        } if (_chassis.isDoneWithPath() || Timer.getFPGATimestamp()-_startTime>=_maxTime){
+        } if (_chassis.isDoneWithPath()) {
             System.out.println("Motion Profile Terminating");
             return true;
+        } else if (Timer.getFPGATimestamp()-_startTime>=_maxTime) {
+            System.out.println("Motion Profile Terminating");
+            _maxTimeHitCount++;
+            return true;
         } else {
             return false;
         }
@@ -55,4 +60,8 @@ public class Auton_RunTimedMotionProfileCommand extends Command
         _chassis.stop();
     }
 
+    public static int getMaxTimeHitCount() {
+        return _maxTimeHitCount;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package org.usfirst.frc.team4028.robot.commands;
+
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.Trajectory;
+import org.usfirst.frc.team4028.robot.subsystems.Chassis;
+
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.command.Command;
+
+/** Same as Auton_RunMotionProfileAction, but streams the path's pre-sampled trajectory (see Paths.getTrajectory) */
+public class Auton_RunTrajectoryAction extends Command
+{
+    Chassis _chassis = Chassis.getInstance();
+    private Trajectory _trajectory;
+    private double _startTime;
+
+    public Auton_RunTrajectoryAction(Trajectory trajectory)
+    {
+        requires(_chassis);
+        _trajectory = trajectory;
+    }
+
+    @Override
+    protected void initialize() {
+        _chassis.resetRobotState(Timer.getFPGATimestamp(), _trajectory.getPath().getStartPose());
+		_chassis.setWantDriveTrajectory(_trajectory);
+		_chassis.setHighGear(true);
+		_startTime = Timer.getFPGATimestamp();
+    }
+    @Override
+    protected void execute() {
+        if(Timer.getFPGATimestamp() - _startTime > 0.25) {
+			if(_chassis.get_leftPos() == 0 || _chassis.get_rightPos() == 0) {
+				_chassis.forceDoneWithPath();
+				System.out.println("Drive encoder reads 0 after 0.25 sec, check that both encoders are plugged in");
+			}
+		}
+    }
+    @Override
+    protected boolean isFinished() {
+        return _chassis.isDoneWithPath();
+    }
+    @Override
+    protected void end() {
+        _chassis.stop();
+    }
+
+}
@@ -26,7 +26,7 @@ public class Chassis_DriveSetDistanceAction extends Command
 	@Override
 	protected void execute() 
 	{
-		_chassis.updateChassis(Timer.getFPGATimestamp());
+		_chassis.updateChassisFromMainLoop(Timer.getFPGATimestamp());
 		//_chassis.moveToTargetPosDriveSetDistance();
 		System.out.println("Current Chassis Error: " +  Double.toString(_chassis.get_leftPos()-_chassis._leftMtrDriveSetDistanceCmd));
 	
@@ -27,73 +27,58 @@ public class Series_Command extends CommandGroup
 
 */
 
+
 package org.usfirst.frc.team4028.robot.commands;
 
-import org.omg.CORBA.PRIVATE_MEMBER;
-//#region  == Define Imports ==
-import org.usfirst.frc.team4028.robot.subsystems.Climber;
-import org.usfirst.frc.team4028.robot.subsystems.Elevator;
-import java.util.ArrayList;
 import java.util.List;
 
-import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.command.Command;
-//#endregion
 
 /**
- * This command implements support for toggling the position of the Climber Servo
+ * Runs commands 1 after the other, the next one is started the same scan the current one finishes.
+ * Walks an index cursor over a fixed array (nothing allocated or printed per scan), initialize rewinds it
+ * so the same instance can be started again w/o rebuilding the commands.
  */
-
 public class Series_Command extends Command
 {
-    private Command _curCommand;
-    private final ArrayList<Command> _remainingCommands;
+    private final Command[] _commands;
+    private int _currentIndex;	// command running now, _commands.length when all are done
+    private boolean _isCurrentStarted;
     
     public Series_Command(List<Command> commands) {
-    _remainingCommands = new ArrayList<>(commands.size()+1);
-    _remainingCommands.add(new Auton_ParallelStarter());
-		for (Command command : commands) {
-			_remainingCommands.add(command);
-			_curCommand = null; }
-	}
+        _commands = new Command[commands.size() + 1];
+        _commands[0] = new Auton_ParallelStarter();
+        for (int i = 0; i < commands.size(); i++) {
+            _commands[i + 1] = commands.get(i);
+        }
+    }
 
-    protected void initialize() {    
+    protected void initialize() {
+        _currentIndex = 0;
+        _isCurrentStarted = false;
     }
 
-    
     protected void execute() {
-        if (_curCommand == null) {
-            if (_remainingCommands.isEmpty()) {
-                return;
-            }
-            _curCommand = _remainingCommands.remove(0);
-            _curCommand.start();
+        if (_isCurrentStarted && _commands[_currentIndex].isCompleted()) {
+            _currentIndex++;
+            _isCurrentStarted = false;
         }
-        //_curCommand.execute();
-        if (_curCommand.isCompleted())
-         {
-            _curCommand.cancel();
-            _curCommand = null;
+        if (!_isCurrentStarted && _currentIndex < _commands.length) {
+            _commands[_currentIndex].start();
+            _isCurrentStarted = true;
         }
     }   
 
     protected boolean isFinished() {
-        if (_remainingCommands.isEmpty() && _curCommand == null){
-          System.out.println("Series Command Terminating");
-          return true;
-        } else {
-          return false;
-        }
-
+        return _currentIndex == _commands.length;
     }
 
     protected void end() {
     }
 
     protected void interrupted() {
+        if (_isCurrentStarted) {
+            _commands[_currentIndex].cancel();
+        }
     }
-
-
 }
-
-
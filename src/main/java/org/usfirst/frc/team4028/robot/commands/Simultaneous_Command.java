@@ -2,92 +2,54 @@ package org.usfirst.frc.team4028.robot.commands;
 
 import edu.wpi.first.wpilibj.command.Command;
 
-import java.util.ArrayList;
 import java.util.List;
 
-/* Allows for multiple actions to run in parallel */
+/* 
+ * Allows for multiple actions to run in parallel.
+ * Finished commands are tracked in a bitset over a fixed array (nothing allocated or printed per scan),
+ * initialize clears it so the same instance can be started again w/o rebuilding the commands.
+ */
 public class Simultaneous_Command extends Command{
-	private ArrayList<Command> _commandList;
-	private int _commandsNum;
-	private int count = 0;
-	boolean  isFirstCycle = true;
+	private final Command[] _commands;
+	private final long _allCommandsMask;
+	private long _finishedMask;	// bit i set once _commands[i] has finished
 
 	public Simultaneous_Command(List<Command> commandList) {
-		_commandList = new ArrayList<>(commandList.size()+1);
-		_commandsNum = commandList.size();
-		for (Command command : commandList) {
-			_commandList.add(command);
+		if (commandList.size() > Long.SIZE) {
+			throw new IllegalArgumentException("Simultaneous_Command supports at most " + Long.SIZE + " commands");
 		}
+		_commands = commandList.toArray(new Command[commandList.size()]);
+		_allCommandsMask = _commands.length == Long.SIZE ? -1L : (1L << _commands.length) - 1;
 		setInterruptible(false);
 	}
 	
 	protected void initialize() {
-		System.out.println("Commands in Simultaneous: " + _commandList);
-		System.out.println("number of Commands Read in simultaneous: " + _commandsNum);
+		_finishedMask = 0;
+		for (int ind = 0; ind < _commands.length; ind++) {
+			_commands[ind].start();	// Start all actions
+		}
 	}
 
 	protected void execute() {
-		if (_commandList.isEmpty()){
-			return;
-		}
-		if (isFirstCycle){
-			for (int ind = 0; ind<_commandsNum; ind++) {
-				_commandList.get(ind).start();	// Start all actions
-			}
-			isFirstCycle = false;
-		}
-		for (int ind = 0; ind<_commandsNum; ind++ ){
-			if (_commandList.get(ind).isCompleted()){
-				_commandList.get(ind).cancel();
-				_commandList.remove(ind);
-				_commandsNum--;
+		for (long running = _allCommandsMask & ~_finishedMask; running != 0; running &= running - 1) {
+			int ind = Long.numberOfTrailingZeros(running);
+			if (_commands[ind].isCompleted()) {
+				_finishedMask |= 1L << ind;
 			}
 		}
 	}
 
-
-
 	protected void end() {	
 		
 	}
 
 	protected boolean isFinished() {	// Returns true when ALL actions are finished
-		//System.out.println(" Running isFinished");
-		if(_commandList.isEmpty()){
-			System.out.println("FIRST TRY EVERY TIME EUREKA THE SIMULTANEOUS COMMAND HAS YIPPEE YEETED");
-			return true;
-		} else {
-			//System.out.println("Be there Balm in gilead, nevermore, prophet, thing of evil be ye demon be ye devil");
-			return false;
-		}
-	
+		return _finishedMask == _allCommandsMask;
 	}
 
 	protected void interrupted(){
-
-	}
-
-/*
-	private boolean isAllTrue(List<Boolean> listOfBooles){
-		if (count % 10 == 0 ) {
-			System.out.println("BoolesList: " + listOfBooles);
-		}
-		int numBools = listOfBooles.size();
-		for (int ind = 0; ind< numBools; ind++){
-			if (!listOfBooles.get(ind)){
-				return false;
-			}
-		}
-		return true;
-	}
-
-	private List<Boolean> getHasFinishedList(ArrayList<Command> listOfCommands){
-		List<Boolean> boolsList= new ArrayList<Boolean>();
-		int numCommands = listOfCommands.size();
-		for (int ind = 0; ind<numCommands; ind++){
-			boolsList.add(listOfCommands.get(ind).isCompleted());
+		for (long running = _allCommandsMask & ~_finishedMask; running != 0; running &= running - 1) {
+			_commands[Long.numberOfTrailingZeros(running)].cancel();
 		}
-		return boolsList;
 	}
-*/
-}
\ No newline at end of file
+}
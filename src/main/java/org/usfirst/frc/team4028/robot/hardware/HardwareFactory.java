@@ -0,0 +1,48 @@
+package org.usfirst.frc.team4028.robot.hardware;
+
+import org.usfirst.frc.team4028.robot.sensors.NavXGyro;
+import org.usfirst.frc.team4028.robot.util.CachingTalonSRX;
+
+/**
+ * Every subsystem gets its Talons, solenoids & gyro from here instead of creating them itself.
+ * On the robot this is the real hardware. A simulation (see sim.SimHardwareFactory) installs its own
+ * factory w/ setInstance() before the 1st subsystem singleton is created, so the same subsystem
+ * & command code runs on a dev PC w/o any hardware.
+ */
+public class HardwareFactory {
+	//=====================================================================================
+	// Define Singleton Pattern
+	//=====================================================================================
+	private static HardwareFactory _instance = new HardwareFactory();
+
+	public static HardwareFactory getInstance() {
+		return _instance;
+	}
+
+	/** Only before any subsystem exists, the subsystems keep the devices they were created with */
+	public static void setInstance(HardwareFactory factory) {
+		_instance = factory;
+	}
+
+	protected HardwareFactory() {}
+
+	//=====================================================================================
+	// Devices
+	//=====================================================================================
+	public ITalonSRX createTalonSRX(int canAddress) {
+		return new RealTalonSRX(canAddress);
+	}
+
+	/** For Talons whose gains / setpoints are re-applied every scan, see CachingTalonSRX */
+	public ITalonSRX createCachingTalonSRX(int canAddress) {
+		return new CachingTalonSRX(canAddress);
+	}
+
+	public IDoubleSolenoid createDoubleSolenoid(int pcmCanAddress, int forwardChannel, int reverseChannel) {
+		return new RealDoubleSolenoid(pcmCanAddress, forwardChannel, reverseChannel);
+	}
+
+	public IGyro getGyro() {
+		return NavXGyro.getInstance();
+	}
+}
@@ -0,0 +1,10 @@
+package org.usfirst.frc.team4028.robot.hardware;
+
+import edu.wpi.first.wpilibj.DoubleSolenoid.Value;
+
+/** The part of the WPILib DoubleSolenoid api the subsystems use (RealDoubleSolenoid or sim.SimDoubleSolenoid) */
+public interface IDoubleSolenoid {
+	void set(Value value);
+
+	Value get();
+}
@@ -0,0 +1,12 @@
+package org.usfirst.frc.team4028.robot.hardware;
+
+/** Heading sensor used by the Chassis (NavXGyro on the robot, sim.SimGyro in simulation) */
+public interface IGyro {
+	/** degrees, -180 to 180, clockwise positive (same as the navX) */
+	double getYaw();
+
+	void zeroYaw();
+
+	/** degrees, tipping forward / back */
+	double getRoll();
+}
@@ -0,0 +1,78 @@
+package org.usfirst.frc.team4028.robot.hardware;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.FeedbackDevice;
+import com.ctre.phoenix.motorcontrol.LimitSwitchNormal;
+import com.ctre.phoenix.motorcontrol.LimitSwitchSource;
+import com.ctre.phoenix.motorcontrol.NeutralMode;
+import com.ctre.phoenix.motorcontrol.RemoteLimitSwitchSource;
+import com.ctre.phoenix.motorcontrol.StatusFrame;
+import com.ctre.phoenix.motorcontrol.VelocityMeasPeriod;
+
+/**
+ * The part of the Talon SRX api the subsystems use, so they can run against a real Talon (RealTalonSRX,
+ * CachingTalonSRX) or a simulated one (sim.SimTalonSRX). Same signatures as the CTRE TalonSRX methods,
+ * so the real implementation just inherits them.
+ * Create them w/ HardwareFactory.getInstance().createTalonSRX(...), never new.
+ */
+public interface ITalonSRX {
+	// control
+	void set(ControlMode mode, double demand);
+	void set(ControlMode mode, double demand0, double demand1);
+	/** the master must come from the same HardwareFactory */
+	void follow(ITalonSRX master);
+	void setInverted(boolean invert);
+	void setSensorPhase(boolean phaseSensor);
+	void setNeutralMode(NeutralMode neutralMode);
+	void selectProfileSlot(int slotIdx, int pidIdx);
+
+	// closed loop config
+	ErrorCode config_kP(int slotIdx, double value, int timeoutMs);
+	ErrorCode config_kI(int slotIdx, double value, int timeoutMs);
+	ErrorCode config_kD(int slotIdx, double value, int timeoutMs);
+	ErrorCode config_kF(int slotIdx, double value, int timeoutMs);
+	ErrorCode config_IntegralZone(int slotIdx, int izone, int timeoutMs);
+	ErrorCode configAllowableClosedloopError(int slotIdx, int allowableClosedLoopError, int timeoutMs);
+	ErrorCode configMotionCruiseVelocity(int sensorUnitsPer100ms, int timeoutMs);
+	ErrorCode configMotionAcceleration(int sensorUnitsPer100msPerSec, int timeoutMs);
+	ErrorCode configOpenloopRamp(double secondsFromNeutralToFull, int timeoutMs);
+	ErrorCode configClosedloopRamp(double secondsFromNeutralToFull, int timeoutMs);
+
+	// output config
+	ErrorCode configPeakOutputForward(double percentOut, int timeoutMs);
+	ErrorCode configPeakOutputReverse(double percentOut, int timeoutMs);
+	ErrorCode configNominalOutputForward(double percentOut, int timeoutMs);
+	ErrorCode configNominalOutputReverse(double percentOut, int timeoutMs);
+	void enableCurrentLimit(boolean enable);
+	ErrorCode configContinuousCurrentLimit(int amps, int timeoutMs);
+	ErrorCode configPeakCurrentLimit(int amps, int timeoutMs);
+	ErrorCode configPeakCurrentDuration(int milliseconds, int timeoutMs);
+
+	// sensor & limit config
+	ErrorCode configSelectedFeedbackSensor(FeedbackDevice feedbackDevice, int pidIdx, int timeoutMs);
+	ErrorCode setStatusFramePeriod(StatusFrame frame, int periodMs, int timeoutMs);
+	ErrorCode configVelocityMeasurementPeriod(VelocityMeasPeriod period, int timeoutMs);
+	ErrorCode configVelocityMeasurementWindow(int windowSize, int timeoutMs);
+	ErrorCode configForwardLimitSwitchSource(LimitSwitchSource type, LimitSwitchNormal normalOpenOrClose, int timeoutMs);
+	ErrorCode configReverseLimitSwitchSource(LimitSwitchSource type, LimitSwitchNormal normalOpenOrClose, int timeoutMs);
+	ErrorCode configForwardLimitSwitchSource(RemoteLimitSwitchSource type, LimitSwitchNormal normalOpenOrClose, int deviceID, int timeoutMs);
+	ErrorCode configReverseLimitSwitchSource(RemoteLimitSwitchSource type, LimitSwitchNormal normalOpenOrClose, int deviceID, int timeoutMs);
+	ErrorCode configForwardSoftLimitThreshold(int forwardSensorLimit, int timeoutMs);
+	ErrorCode configForwardSoftLimitEnable(boolean enable, int timeoutMs);
+	ErrorCode configReverseSoftLimitEnable(boolean enable, int timeoutMs);
+
+	// sensors
+	int getSelectedSensorPosition(int pidIdx);
+	int getSelectedSensorVelocity(int pidIdx);
+	ErrorCode setSelectedSensorPosition(int sensorPos, int pidIdx, int timeoutMs);
+	/** sets the quad encoder count itself (getSensorCollection() on a real Talon) */
+	ErrorCode setQuadraturePosition(int newPosition, int timeoutMs);
+	double getOutputCurrent();
+	double getMotorOutputVoltage();
+	double getMotorOutputPercent();
+	/** raw state of the limit switch input (getSensorCollection() on a real Talon) */
+	boolean isFwdLimitSwitchClosed();
+	boolean isRevLimitSwitchClosed();
+	int getDeviceID();
+}
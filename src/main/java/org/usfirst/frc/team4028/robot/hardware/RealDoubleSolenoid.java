@@ -0,0 +1,10 @@
+package org.usfirst.frc.team4028.robot.hardware;
+
+import edu.wpi.first.wpilibj.DoubleSolenoid;
+
+/** A double solenoid on the PCM, set / get are inherited from the WPILib DoubleSolenoid */
+public class RealDoubleSolenoid extends DoubleSolenoid implements IDoubleSolenoid {
+	public RealDoubleSolenoid(int moduleNumber, int forwardChannel, int reverseChannel) {
+		super(moduleNumber, forwardChannel, reverseChannel);
+	}
+}
@@ -0,0 +1,33 @@
+package org.usfirst.frc.team4028.robot.hardware;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.motorcontrol.IMotorController;
+import com.ctre.phoenix.motorcontrol.can.TalonSRX;
+
+/** A CTRE Talon SRX on the CAN bus, everything but the methods below is inherited as is */
+public class RealTalonSRX extends TalonSRX implements ITalonSRX {
+	public RealTalonSRX(int deviceNumber) {
+		super(deviceNumber);
+	}
+
+	@Override
+	public void follow(ITalonSRX master) {
+		// a real Talon can only follow another real Talon
+		follow((IMotorController) master);
+	}
+
+	@Override
+	public ErrorCode setQuadraturePosition(int newPosition, int timeoutMs) {
+		return getSensorCollection().setQuadraturePosition(newPosition, timeoutMs);
+	}
+
+	@Override
+	public boolean isFwdLimitSwitchClosed() {
+		return getSensorCollection().isFwdLimitSwitchClosed();
+	}
+
+	@Override
+	public boolean isRevLimitSwitchClosed() {
+		return getSensorCollection().isRevLimitSwitchClosed();
+	}
+}
@@ -2,12 +2,14 @@ package org.usfirst.frc.team4028.robot.sensors;
 
 import org.usfirst.frc.team4028.robot.Constants;
 import org.usfirst.frc.team4028.robot.RobotMap;
+import org.usfirst.frc.team4028.robot.hardware.IGyro;
+
 import com.kauailabs.navx.frc.AHRS;
 
 import edu.wpi.first.wpilibj.DriverStation;
 
 // This class encapsulates interactions with the NavX Sensor
-public class NavXGyro 
+public class NavXGyro implements IGyro
 {
 	// define class level working variables
 	private AHRS _navXSensor;
@@ -30,19 +32,27 @@ public class NavXGyro
      }
 	}
 	
+	@Override
 	public double getYaw() { 
 		return _navXSensor.getYaw();
 	}
 	
+	@Override
 	public void zeroYaw() { 
 		_navXSensor.zeroYaw(); 
 	}
 	
+	@Override
 	public double getRoll() {
 		return _navXSensor.getPitch();
 	}
 	
 	public boolean isPitchPastThreshhold() {
-		return getRoll() >= Constants.MAX_PITCH_POSITIVE || getRoll() <= Constants.MAX_PITCH_NEGATIVE;
+		return isPitchPastThreshhold(getRoll());
+	}
+	
+	/** Same check against a pitch that was already read (ex. from a sensor snapshot) */
+	public static boolean isPitchPastThreshhold(double pitch) {
+		return pitch >= Constants.MAX_PITCH_POSITIVE || pitch <= Constants.MAX_PITCH_NEGATIVE;
 	}
 }
@@ -3,7 +3,13 @@ package org.usfirst.frc.team4028.robot.subsystems;
 //#region  == Define Imports ==
 import org.usfirst.frc.team4028.robot.Constants;
 import org.usfirst.frc.team4028.robot.RobotMap;
+import org.usfirst.frc.team4028.robot.hardware.HardwareFactory;
+import org.usfirst.frc.team4028.robot.hardware.IDoubleSolenoid;
+import org.usfirst.frc.team4028.robot.hardware.ITalonSRX;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher.TIER;
 import org.usfirst.frc.team4028.robot.util.LogDataBE;
+import org.usfirst.frc.team4028.robot.util.LogDataBE.CHANNEL_TYPE;
 
 import com.ctre.phoenix.motorcontrol.ControlMode;
 import com.ctre.phoenix.motorcontrol.FeedbackDevice;
@@ -11,12 +17,9 @@ import com.ctre.phoenix.motorcontrol.LimitSwitchNormal;
 import com.ctre.phoenix.motorcontrol.LimitSwitchSource;
 import com.ctre.phoenix.motorcontrol.NeutralMode;
 import com.ctre.phoenix.motorcontrol.RemoteLimitSwitchSource;
-import com.ctre.phoenix.motorcontrol.can.TalonSRX;
 
 import edu.wpi.first.wpilibj.DigitalInput;
-import edu.wpi.first.wpilibj.DoubleSolenoid;
 import edu.wpi.first.wpilibj.command.Subsystem;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 //#endregion
 
 /**
@@ -29,20 +32,34 @@ import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 public class Carriage extends Subsystem 
 {
 	// define class level working variables
-	private TalonSRX _carriageLeftMotor; 
-	private TalonSRX _carriageRightMotor;
+	private ITalonSRX _carriageLeftMotor; 
+	private ITalonSRX _carriageRightMotor;
 	
 	private DigitalInput _carriageLimitSwitch;
-	private DoubleSolenoid _squeezeCylinder;
-	private DoubleSolenoid _tiltCylinder;
+	private IDoubleSolenoid _squeezeCylinder;
+	private IDoubleSolenoid _tiltCylinder;
 
 	private double _currentCarriageWheelsFeedInVBusCmd = .45;
 	
 	private CARRIAGE_WHEELS_OUT_VBUS_INDEX _currentCarriageWheelsFeedOutVBusIndex = CARRIAGE_WHEELS_OUT_VBUS_INDEX.VBUS_50;
 
-	// for limit switch debouncing
+	// for limit switch debouncing, counted 1x per scan in readSensors()
 	private long _consecutiveScansCubeIsPresent = 0;
 	private static final int MIN_CONSECUTIVE_SCANS = 5;
+	
+	// sensor values read 1x per scan by readSensors(), everything else reads from here
+	private SensorSnapshot _sensors = new SensorSnapshot(false, false);
+	
+	/** Immutable set of carriage sensor values all read at the same instant */
+	public static final class SensorSnapshot {
+		public final boolean isLimitSwitchClosed;	// raw value this scan
+		public final boolean isCubeInCarriage;		// debounced
+		
+		public SensorSnapshot(boolean isLimitSwitchClosed, boolean isCubeInCarriage) {
+			this.isLimitSwitchClosed = isLimitSwitchClosed;
+			this.isCubeInCarriage = isCubeInCarriage;
+		}
+	}
 
 	private enum CARRIAGE_WHEELS_STATE {
 		STOPPED,
@@ -78,8 +95,8 @@ public class Carriage extends Subsystem
 		//====================================================================================
 		//	config master & slave talon objects
 		//====================================================================================
-		_carriageLeftMotor = new TalonSRX(RobotMap.CARRIAGE_LEFT_CAN_ADDRESS);
-		_carriageRightMotor = new TalonSRX(RobotMap.CARRIAGE_RIGHT_CAN_ADDRESS);
+		_carriageLeftMotor = HardwareFactory.getInstance().createTalonSRX(RobotMap.CARRIAGE_LEFT_CAN_ADDRESS);
+		_carriageRightMotor = HardwareFactory.getInstance().createTalonSRX(RobotMap.CARRIAGE_RIGHT_CAN_ADDRESS);
 		
 		// set motor phasing
 		_carriageLeftMotor.setInverted(false);
@@ -134,11 +151,11 @@ public class Carriage extends Subsystem
 		_carriageLimitSwitch = new DigitalInput(RobotMap.CARRIAGE_LIMIT_SWITCH_DIO_PORT);
 		
 		//Setup Solenoid for Cylinder
-		_squeezeCylinder = new DoubleSolenoid(RobotMap.PCM_CAN_ADDR, RobotMap.CARRIAGE_SQUEEZE_PCM_PORT, RobotMap.CARRIAGE_WIDE_PCM_PORT);
+		_squeezeCylinder = HardwareFactory.getInstance().createDoubleSolenoid(RobotMap.PCM_CAN_ADDR, RobotMap.CARRIAGE_SQUEEZE_PCM_PORT, RobotMap.CARRIAGE_WIDE_PCM_PORT);
 		_squeezeCylinder.set(Constants.CARRIAGE_WIDE_POS);
 		
 		//Setup Solenoid for Tilt
-		_tiltCylinder = new DoubleSolenoid(RobotMap.PCM_CAN_ADDR, RobotMap.CARRIAGE_FLAP_UP_PCM_PORT, RobotMap.CARRIAGE_FLAP_DOWN_PCM_PORT);
+		_tiltCylinder = HardwareFactory.getInstance().createDoubleSolenoid(RobotMap.PCM_CAN_ADDR, RobotMap.CARRIAGE_FLAP_UP_PCM_PORT, RobotMap.CARRIAGE_FLAP_DOWN_PCM_PORT);
 		
 		this.tiltCarriageDown();
 	}
@@ -320,19 +337,29 @@ public class Carriage extends Subsystem
 	//=====================================================================================
 	public boolean get_isCubeInCarriage() 
 	{
-		// debounce limit switch
+		return _sensors.isCubeInCarriage;
+	} 
+	
+	public SensorSnapshot get_sensors() {
+		return _sensors;
+	}
+	
+	//=====================================================================================
+	// Sensor Snapshot
+	//=====================================================================================
+	/** Reads the limit switch exactly 1x & debounces it, call at the top of each scan */
+	public void readSensors() {
 		boolean isCubePresentThisScan = _carriageLimitSwitch.get(); // normally closed switch, input is pulled low
 		if(isCubePresentThisScan)
 		{
-			_consecutiveScansCubeIsPresent++;		
-			return (_consecutiveScansCubeIsPresent >= MIN_CONSECUTIVE_SCANS);
+			_consecutiveScansCubeIsPresent++;
 		}
 		else
 		{
 			_consecutiveScansCubeIsPresent = 0;
-			return false;
 		}
-	} 
+		_sensors = new SensorSnapshot(isCubePresentThisScan, _consecutiveScansCubeIsPresent >= MIN_CONSECUTIVE_SCANS);
+	}
 
 	public boolean get_isCarriageInSqueezePosition()
 	{
@@ -395,20 +422,41 @@ public class Carriage extends Subsystem
 		}
 	}
 
+	private int _logLimitSwitch, _logVBusCmd, _logState;
+
+	public void registerLogChannels(LogDataBE logData) 
+	{
+		_logLimitSwitch = logData.registerChannel("Carriage: LimitSwitch", "", CHANNEL_TYPE.BOOLEAN);
+		_logVBusCmd = logData.registerChannel("Carriage: VBus Cmd", "%VBus", CHANNEL_TYPE.DOUBLE);
+		_logState = logData.registerChannel("State: Carriage", "ordinal", CHANNEL_TYPE.INT);
+	}
+
 	public void updateLogData(LogDataBE logData) 
 	{
-		logData.AddData("Carriage: LimitSwitch", String.valueOf(get_isCubeInCarriage()));
-		logData.AddData("Carriage: VBus Cmd", String.valueOf(get_currentCarriageWheelsFeedOutVBusCmd()));
-		logData.AddData("State: Carriage", get_carriageWheelsState().toString());
+		logData.set(_logLimitSwitch, get_isCubeInCarriage());
+		logData.set(_logVBusCmd, get_currentCarriageWheelsFeedOutVBusCmd());
+		logData.set(_logState, get_carriageWheelsState().ordinal());
+	}
+	
+	private int _dashFeedInVBus, _dashFeedOutVBus, _dashIsCubeIn, _dashIsSqueezed, _dashIsFlappedUp, _dashState;
+
+	public void registerDashboardKeys(DashboardPublisher dashboard) 
+	{
+		_dashFeedInVBus = dashboard.registerNumber("Carriage: Wheels Feed In %VBus", TIER.SLOW, 0.01);
+		_dashFeedOutVBus = dashboard.registerNumber("Carriage: Wheels Feed Out %VBus", TIER.SLOW, 0.01);
+		_dashIsCubeIn = dashboard.registerBoolean("Carriage: Is Cube In Carriage?", TIER.FAST);
+		_dashIsSqueezed = dashboard.registerBoolean("Carriage: Is Squeezed", TIER.NORMAL);
+		_dashIsFlappedUp = dashboard.registerBoolean("Carriage: Is Flapped Up", TIER.NORMAL);
+		_dashState = dashboard.registerString("State: Carriage", TIER.NORMAL);
 	}
 	
-	public void updateDashboard() 
+	public void updateDashboard(DashboardPublisher dashboard) 
 	{
-		SmartDashboard.putNumber("Carriage: Wheels Feed In %VBus", get_currentCarriageWheelsFeedInVBusCmd());
-		SmartDashboard.putNumber("Carriage: Wheels Feed Out %VBus", get_currentCarriageWheelsFeedOutVBusCmd());
-		SmartDashboard.putBoolean("Carriage: Is Cube In Carriage?", get_isCubeInCarriage());
-		SmartDashboard.putBoolean("Carriage: Is Squeezed", get_isCarriageInSqueezePosition());
-		SmartDashboard.putBoolean("Carriage: Is Flapped Up", get_isFlapInUpPosition());
-		SmartDashboard.putString("State: Carriage", get_carriageWheelsState().toString());
+		dashboard.set(_dashFeedInVBus, get_currentCarriageWheelsFeedInVBusCmd());
+		dashboard.set(_dashFeedOutVBus, get_currentCarriageWheelsFeedOutVBusCmd());
+		dashboard.set(_dashIsCubeIn, get_isCubeInCarriage());
+		dashboard.set(_dashIsSqueezed, get_isCarriageInSqueezePosition());
+		dashboard.set(_dashIsFlappedUp, get_isFlapInUpPosition());
+		dashboard.set(_dashState, get_carriageWheelsState().toString());
 	}
 }
\ No newline at end of file
@@ -6,9 +6,10 @@ import org.usfirst.frc.team4028.robot.RobotMap;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.RobotState;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.Path;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.PathFollower;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.PathFollowingGains;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.Trajectory;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.TrajectoryFollower;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.RigidTransform;
-import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Rotation;
-import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Twist;
 import org.usfirst.frc.team4028.robot.auton.pathfollowing.util.Kinematics;
 
 import com.ctre.phoenix.motorcontrol.ControlMode;
@@ -17,17 +18,22 @@ import com.ctre.phoenix.motorcontrol.LimitSwitchNormal;
 import com.ctre.phoenix.motorcontrol.LimitSwitchSource;
 import com.ctre.phoenix.motorcontrol.StatusFrame;
 import com.ctre.phoenix.motorcontrol.VelocityMeasPeriod;
-import com.ctre.phoenix.motorcontrol.can.TalonSRX;
 
-import edu.wpi.first.wpilibj.DoubleSolenoid;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.command.Subsystem;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 
+import org.usfirst.frc.team4028.robot.hardware.HardwareFactory;
+import org.usfirst.frc.team4028.robot.hardware.IDoubleSolenoid;
+import org.usfirst.frc.team4028.robot.hardware.IGyro;
+import org.usfirst.frc.team4028.robot.hardware.ITalonSRX;
 import org.usfirst.frc.team4028.robot.sensors.NavXGyro;
+import org.usfirst.frc.team4028.robot.util.ControlLoopExecutor;
 import org.usfirst.frc.team4028.robot.util.GeneralUtilities;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher.TIER;
 import org.usfirst.frc.team4028.robot.util.LogDataBE;
+import org.usfirst.frc.team4028.robot.util.LogDataBE.CHANNEL_TYPE;
 //#endregion
 
 /**
@@ -38,10 +44,12 @@ import org.usfirst.frc.team4028.robot.util.LogDataBE;
 public class Chassis extends Subsystem 
 {
 
-	private TalonSRX _leftMaster, _leftSlave, _rightMaster, _rightSlave;
-	private DoubleSolenoid _shifter;
+	// masters de-dup the gains / motion magic / setpoints re-applied every scan in updateChassis
+	private ITalonSRX _leftMaster, _rightMaster;
+	private ITalonSRX _leftSlave, _rightSlave;
+	private IDoubleSolenoid _shifter;
 	
-	private NavXGyro _navX = NavXGyro.getInstance();
+	private IGyro _navX;
 	
 	public static final double ENCODER_COUNTS_PER_WHEEL_REV = 30725.425;		// account for gear boxes
 
@@ -51,11 +59,43 @@ public class Chassis extends Subsystem
 	private boolean _isTurnRight;
 	private static final double ENCODER_ROTATIONS_PER_DEGREE = 46.15/3600;
 	private RobotState _robotState = RobotState.getInstance();
+	// 1 per reader thread: the control pass (guarded by this) & the main thread's logging
+	private final RobotState.PoseSnapshot _controlPose = new RobotState.PoseSnapshot();
+	private final RobotState.PoseSnapshot _logPose = new RobotState.PoseSnapshot();
 	private double _leftMasterVelocityLoggingLastLogTime;
 	private double _leftMasterVelocityLoggingThisTime;
 	private double _leftMasterPreviousVelocity = 0;
 	private double _leftMasterCurrentVelocity = 0;
 	private boolean _isFirstTimeLoggingAccel = true;
+	
+	// optional high rate control thread, all state it touches is guarded by this (synchronized methods)
+	private ControlLoopExecutor _controlLoop;
+
+	// sensor values read 1x per scan by readSensors(), everything else reads from here
+	private volatile SensorSnapshot _sensors = new SensorSnapshot(0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+	/** Immutable set of chassis sensor values all read at the same instant */
+	public static final class SensorSnapshot {
+		public final double timestamp;
+		public final int leftPositionNU, rightPositionNU;
+		public final int leftVelocityNU_100mS, rightVelocityNU_100mS;
+		public final double leftCurrent, rightCurrent;
+		public final double yawDegrees, pitchDegrees;
+
+		public SensorSnapshot(double timestamp, int leftPositionNU, int rightPositionNU,
+								int leftVelocityNU_100mS, int rightVelocityNU_100mS,
+								double leftCurrent, double rightCurrent, double yawDegrees, double pitchDegrees) {
+			this.timestamp = timestamp;
+			this.leftPositionNU = leftPositionNU;
+			this.rightPositionNU = rightPositionNU;
+			this.leftVelocityNU_100mS = leftVelocityNU_100mS;
+			this.rightVelocityNU_100mS = rightVelocityNU_100mS;
+			this.leftCurrent = leftCurrent;
+			this.rightCurrent = rightCurrent;
+			this.yawDegrees = yawDegrees;
+			this.pitchDegrees = pitchDegrees;
+		}
+	}
 
 	public enum ChassisState
 	{
@@ -63,20 +103,26 @@ public class Chassis extends Subsystem
 		PERCENT_VBUS,
 		AUTO_TURN, 
 		FOLLOW_PATH,
+		FOLLOW_TRAJECTORY,
 		DRIVE_SET_DISTANCE
 	}
 	
 	private static final double[] MOTION_MAGIC_TURN_PIDF_GAINS = {0.25, 0.0, 30.0, 0.095};
 	private static final double[] MOTION_MAGIC_STRAIGHT_PIDF_GAINS = {0.15, 0.0, 20.0, 0.095};
 	private static final double[] LOW_GEAR_VELOCITY_PIDF_GAINS = {0.15, 0.0, 1.5, 0.085}; 
-	private static final double[] HIGH_GEAR_VELOCITY_PIDF_GAINS = {0.09, 0.0, 1.3, 0.044}; 
+	public static final double[] HIGH_GEAR_VELOCITY_PIDF_GAINS = {0.09, 0.0, 1.3, 0.044}; 
     
     private static final int[] MOTION_MAGIC_TURN_VEL_ACC = {80 * 150, 170 * 150};
 	private static final int[] MOTION_MAGIC_STRAIGHT_VEL_ACC = {80 * 150, 170 * 150};
 	
+	// the hand tuned gains unless the gain sweep (sim.GainSweep) is trying out others
+	private PathFollowingGains _pathFollowingGains = PathFollowingGains.DEFAULT;
+	private double[] _highGearVelocityPIDFGains = HIGH_GEAR_VELOCITY_PIDF_GAINS;
+
 	ChassisState _chassisState = ChassisState.UNKNOWN;
 	Path _currentPath;
 	PathFollower _pathFollower;
+	TrajectoryFollower _trajectoryFollower;
 	double _leftEncoderPrevDistance, _rightEncoderPrevDistance = 0;
 	double _centerTargetVelocity, _leftTargetVelocity, _rightTargetVelocity;
 	//=====================================================================================
@@ -91,10 +137,13 @@ public class Chassis extends Subsystem
 	
 	// private constructor for singleton pattern
 	private Chassis() {
-		_leftMaster = new TalonSRX(RobotMap.LEFT_DRIVE_MASTER_CAN_ADDR);
-		_leftSlave = new TalonSRX(RobotMap.LEFT_DRIVE_SLAVE_CAN_ADDR);
-		_rightMaster = new TalonSRX(RobotMap.RIGHT_DRIVE_MASTER_CAN_ADDR);
-		_rightSlave = new TalonSRX(RobotMap.RIGHT_DRIVE_SLAVE_CAN_ADDR);
+		// real or simulated devices, see HardwareFactory
+		HardwareFactory hardware = HardwareFactory.getInstance();
+		_leftMaster = hardware.createCachingTalonSRX(RobotMap.LEFT_DRIVE_MASTER_CAN_ADDR);
+		_leftSlave = hardware.createTalonSRX(RobotMap.LEFT_DRIVE_SLAVE_CAN_ADDR);
+		_rightMaster = hardware.createCachingTalonSRX(RobotMap.RIGHT_DRIVE_MASTER_CAN_ADDR);
+		_rightSlave = hardware.createTalonSRX(RobotMap.RIGHT_DRIVE_SLAVE_CAN_ADDR);
+		_navX = hardware.getGyro();
 		
 		_leftSlave.follow(_leftMaster);
 		_rightSlave.follow(_rightMaster);
@@ -112,12 +161,60 @@ public class Chassis extends Subsystem
         configDriveMotors(_leftSlave);
         configDriveMotors(_rightSlave);
 
-		_shifter = new DoubleSolenoid(RobotMap.PCM_CAN_ADDR, RobotMap.SHIFTER_EXTEND_PCM_PORT, RobotMap.SHIFTER_RETRACT_PCM_PORT);
+		_shifter = hardware.createDoubleSolenoid(RobotMap.PCM_CAN_ADDR, RobotMap.SHIFTER_EXTEND_PCM_PORT, RobotMap.SHIFTER_RETRACT_PCM_PORT);
 	
+		_controlLoop = new ControlLoopExecutor("Chassis Loop", new Runnable() {
+			@Override
+			public void run() {
+				readSensors();
+				updateChassis(Timer.getFPGATimestamp());
+			}
+		}, Constants.CHASSIS_CONTROL_LOOP_PERIOD_SEC);
+	}
+
+	//=====================================================================================
+	// Sensor Snapshot
+	//=====================================================================================
+	/** Reads every chassis sensor exactly 1x, call at the top of each scan (and each control thread pass) */
+	public void readSensors() {
+		_sensors = new SensorSnapshot(Timer.getFPGATimestamp(),
+				_leftMaster.getSelectedSensorPosition(0), _rightMaster.getSelectedSensorPosition(0),
+				_leftMaster.getSelectedSensorVelocity(0), _rightMaster.getSelectedSensorVelocity(0),
+				_leftMaster.getOutputCurrent(), _rightMaster.getOutputCurrent(),
+				_navX.getYaw(), _navX.getRoll());
 	}
 
+	public SensorSnapshot get_sensors() {
+		return _sensors;
+	}
 
-	public void updateChassis(double timestamp){
+	//=====================================================================================
+	// Control Loop
+	//=====================================================================================
+	/** Starts running updateChassis on its own thread (if enabled in Constants) */
+	public void startControlLoop() {
+		if (Constants.IS_CHASSIS_CONTROL_LOOP_ENABLED) {
+			_controlLoop.start();
+		}
+	}
+
+	public void stopControlLoop() {
+		_controlLoop.stop();
+	}
+
+	/** When the control thread is running, the main loop must not also call updateChassis */
+	public boolean isControlLoopRunning() {
+		return _controlLoop.isRunning();
+	}
+
+	/** Called from the main loop, skipped while the dedicated control thread owns the chassis updates */
+	public void updateChassisFromMainLoop(double timestamp) {
+		if (!_controlLoop.isRunning()) {
+			updateChassis(timestamp);
+		}
+	}
+
+	public synchronized void updateChassis(double timestamp){
 		switch(_chassisState) {
 			case UNKNOWN:
 			return;
@@ -137,17 +234,18 @@ public class Chassis extends Subsystem
 				return;
 				
 			case FOLLOW_PATH:
-				if (get_isHighGear()) {
-					GeneralUtilities.setPIDFGains(_leftMaster, HIGH_GEAR_VELOCITY_PIDF_GAINS);
-					GeneralUtilities.setPIDFGains(_rightMaster, HIGH_GEAR_VELOCITY_PIDF_GAINS);
-				} else {
-					GeneralUtilities.setPIDFGains(_leftMaster, LOW_GEAR_VELOCITY_PIDF_GAINS);
-					GeneralUtilities.setPIDFGains(_rightMaster, LOW_GEAR_VELOCITY_PIDF_GAINS);
-				}
+				setVelocityPIDFGains();
 				
 				if (_pathFollower != null) 
 					updatePathFollower(timestamp);
 				return;
+				
+			case FOLLOW_TRAJECTORY:
+				setVelocityPIDFGains();
+				
+				if (_trajectoryFollower != null) 
+					updateTrajectoryFollower(timestamp);
+				return;
 		}
 	}
 
@@ -159,7 +257,7 @@ public class Chassis extends Subsystem
 	public synchronized void arcadeDrive(double throttle, double turn) {
 		//_chassisState = ChassisState.PERCENT_VBUS;
 		
-		if(_navX.isPitchPastThreshhold()) 
+		if(NavXGyro.isPitchPastThreshhold(_sensors.pitchDegrees)) 
 		{
 			setLeftRightCommand(ControlMode.PercentOutput, 0.0, 0.0);
 			DriverStation.reportError("Tipping Threshold", false);
@@ -184,7 +282,7 @@ public class Chassis extends Subsystem
 			_shifter.set(Constants.SHIFTER_LOW_GEAR_POS);
 	}
 	
-	private void configMasterMotors(TalonSRX talon) {
+	private void configMasterMotors(ITalonSRX talon) {
 		talon.configSelectedFeedbackSensor(FeedbackDevice.CTRE_MagEncoder_Relative, 0, 0);
 		talon.setStatusFramePeriod(StatusFrame.Status_2_Feedback0, 5, 0);
 	
@@ -195,7 +293,7 @@ public class Chassis extends Subsystem
 		talon.configClosedloopRamp(0.0, 0);
 	}
 	
-	private void configDriveMotors(TalonSRX talon) {
+	private void configDriveMotors(ITalonSRX talon) {
 		talon.configForwardLimitSwitchSource(LimitSwitchSource.Deactivated, LimitSwitchNormal.Disabled, 0);
 		talon.configReverseLimitSwitchSource(LimitSwitchSource.Deactivated, LimitSwitchNormal.Disabled, 0);
         
@@ -213,14 +311,15 @@ public class Chassis extends Subsystem
 
 	public void initDefaultCommand() {}
 	
-	public void setMotionMagicCmdInches(double Distance)
+	public synchronized void setMotionMagicCmdInches(double Distance)
 	{
 		_chassisState=ChassisState.DRIVE_SET_DISTANCE;
-		_leftMtrDriveSetDistanceCmd = _leftMaster.getSelectedSensorPosition(0)+ InchestoNU(Distance);
-		_rightMtrDriveSetDistanceCmd = _rightMaster.getSelectedSensorPosition(0)+InchestoNU(Distance);
+		SensorSnapshot sensors = _sensors;
+		_leftMtrDriveSetDistanceCmd = sensors.leftPositionNU + InchestoNU(Distance);
+		_rightMtrDriveSetDistanceCmd = sensors.rightPositionNU + InchestoNU(Distance);
 
 		System.out.println("Target Position: " + _leftMtrDriveSetDistanceCmd);
-		System.out.println("Current Position: " + _leftMaster.getSelectedSensorPosition(0));
+		System.out.println("Current Position: " + sensors.leftPositionNU);
 		setHighGear(false);
 
 		_leftMaster.configMotionCruiseVelocity(31256, 10);
@@ -237,7 +336,7 @@ public class Chassis extends Subsystem
 		setLeftRightCommand(ControlMode.MotionMagic, _leftMtrDriveSetDistanceCmd, _rightMtrDriveSetDistanceCmd);
 	}
 	
-	public void stop()
+	public synchronized void stop()
 	{
 		setLeftRightCommand(ControlMode.PercentOutput, 0, 0);
 		setHighGear(true);
@@ -256,24 +355,25 @@ public class Chassis extends Subsystem
 	}
 
 	private void moveToTargetAngle() {
+		double yaw = _sensors.yawDegrees;
 		// TODO: This code needs to be simplified. Should convert angles to vectors and use dot product to get angle difference.
-		if((_navX.getYaw() >= 0 && _targetAngle >= 0 && _isTurnRight && _navX.getYaw() > _targetAngle) ||
-			(_navX.getYaw() >= 0 && _targetAngle < 0 && _isTurnRight) ||
-			(_navX.getYaw() < 0 && _targetAngle < 0 && _isTurnRight && Math.abs(_navX.getYaw()) < Math.abs(_targetAngle))) {
-			_angleError = 360 - _navX.getYaw() + _targetAngle;
+		if((yaw >= 0 && _targetAngle >= 0 && _isTurnRight && yaw > _targetAngle) ||
+			(yaw >= 0 && _targetAngle < 0 && _isTurnRight) ||
+			(yaw < 0 && _targetAngle < 0 && _isTurnRight && Math.abs(yaw) < Math.abs(_targetAngle))) {
+			_angleError = 360 - yaw + _targetAngle;
 		}
-		else if((_navX.getYaw() >= 0 && _targetAngle >= 0 && _isTurnRight && _navX.getYaw() < _targetAngle)||
-				(_navX.getYaw() >= 0 && _targetAngle >= 0 && !_isTurnRight && _navX.getYaw() > _targetAngle)||
-				(_navX.getYaw() >= 0 && _targetAngle < 0 && !_isTurnRight) ||
-				(_navX.getYaw() < 0 && _targetAngle >= 0 && _isTurnRight) ||
-				(_navX.getYaw() < 0 && _targetAngle < 0 && _isTurnRight && Math.abs(_navX.getYaw()) > Math.abs(_targetAngle)) ||
-				(_navX.getYaw() < 0 && _targetAngle < 0 && !_isTurnRight && Math.abs(_navX.getYaw()) < Math.abs(_targetAngle))) {
-			_angleError = _targetAngle - _navX.getYaw();
+		else if((yaw >= 0 && _targetAngle >= 0 && _isTurnRight && yaw < _targetAngle)||
+				(yaw >= 0 && _targetAngle >= 0 && !_isTurnRight && yaw > _targetAngle)||
+				(yaw >= 0 && _targetAngle < 0 && !_isTurnRight) ||
+				(yaw < 0 && _targetAngle >= 0 && _isTurnRight) ||
+				(yaw < 0 && _targetAngle < 0 && _isTurnRight && Math.abs(yaw) > Math.abs(_targetAngle)) ||
+				(yaw < 0 && _targetAngle < 0 && !_isTurnRight && Math.abs(yaw) < Math.abs(_targetAngle))) {
+			_angleError = _targetAngle - yaw;
 		}		
-		else if((_navX.getYaw() >= 0 && _targetAngle >= 0 && !_isTurnRight && _navX.getYaw() < _targetAngle)||
-				(_navX.getYaw() < 0 && _targetAngle < 0 && !_isTurnRight && Math.abs(_navX.getYaw()) > Math.abs(_targetAngle))||
-				(_navX.getYaw() < 0 && _targetAngle >= 0 && !_isTurnRight)) {
-			_angleError = _targetAngle - _navX.getYaw() - 360;
+		else if((yaw >= 0 && _targetAngle >= 0 && !_isTurnRight && yaw < _targetAngle)||
+				(yaw < 0 && _targetAngle < 0 && !_isTurnRight && Math.abs(yaw) > Math.abs(_targetAngle))||
+				(yaw < 0 && _targetAngle >= 0 && !_isTurnRight)) {
+			_angleError = _targetAngle - yaw - 360;
 		}			
 		
 		double encoderError = ENCODER_ROTATIONS_PER_DEGREE * _angleError *ENCODER_COUNTS_PER_WHEEL_REV;		
@@ -287,8 +387,8 @@ public class Chassis extends Subsystem
 	//===================================================================================
 
 	public void zeroEncoders(){
-		_leftMaster.getSensorCollection().setQuadraturePosition(0, 10);
-		_rightMaster.getSensorCollection().setQuadraturePosition(0, 10);
+		_leftMaster.setQuadraturePosition(0, 10);
+		_rightMaster.setQuadraturePosition(0, 10);
 	}
 
 	public void zeroGyro(){
@@ -307,12 +407,17 @@ public class Chassis extends Subsystem
 		_autonStartTime = Timer.getFPGATimestamp();
 	}
 
+	/** Resets the robot's field pose, under the control thread's lock so a pass never reads a half reset pose */
+	public synchronized void resetRobotState(double timestamp, RigidTransform startPose) {
+		_robotState.reset(timestamp, startPose);
+	}
+
 	public synchronized void setWantDrivePath(Path path, boolean reversed) {
         if (_currentPath != path || _chassisState != ChassisState.FOLLOW_PATH) {
 			_leftEncoderPrevDistance = get_leftPos()/ENCODER_COUNTS_PER_WHEEL_REV * Constants.DRIVE_WHEEL_DIAMETER_IN * Math.PI;
 	        _rightEncoderPrevDistance = get_leftPos()/ENCODER_COUNTS_PER_WHEEL_REV * Constants.DRIVE_WHEEL_DIAMETER_IN * Math.PI;
             RobotState.getInstance().resetDistanceDriven();
-            _pathFollower = new PathFollower(path, reversed, path.maxAccel, path.maxDecel, path.inertiaSteeringGain);
+            _pathFollower = new PathFollower(path, reversed, path.maxAccel, path.maxDecel, path.inertiaSteeringGain, _pathFollowingGains);
             _chassisState = ChassisState.FOLLOW_PATH;
             _currentPath = path;
         } else {
@@ -320,23 +425,67 @@ public class Chassis extends Subsystem
         }
     }
 
+	/** used for the next path */
+	public synchronized void setPathFollowingGains(PathFollowingGains gains) {
+		_pathFollowingGains = gains;
+	}
+
+	/** {P, I, D, F} of the high gear drive velocity loop, used from the next path following update */
+	public synchronized void setHighGearVelocityPIDFGains(double[] gains) {
+		_highGearVelocityPIDFGains = gains;
+	}
+
 	public void updatePathFollower(double timestamp) {
 		estimateRobotState(timestamp);
-		RigidTransform _robotPose = RobotState.getInstance().getLatestFieldToVehicle().getValue();
-		Twist command = _pathFollower.update(timestamp, _robotPose, RobotState.getInstance().getDistanceDriven(), RobotState.getInstance().getPredictedVelocity().dx);
+		final RobotState.PoseSnapshot pose = _controlPose;
+		_robotState.getLatest(pose);
+		_pathFollower.update(timestamp, pose.x, pose.y, pose.cos, pose.sin, pose.distanceDriven, pose.predictedVelocityDx);
 		if (!_pathFollower.isFinished()) {
-			Kinematics.DriveVelocity setpoint = Kinematics.inverseKinematics(command);
-			final double maxDesired = Math.max(Math.abs(setpoint.left), Math.abs(setpoint.right));
-            final double scale = maxDesired > Constants.DRIVE_VELOCITY_MAX_SETPOINT ? Constants.DRIVE_VELOCITY_MAX_SETPOINT / maxDesired : 1.0;
-            setLeftRightCommand(ControlMode.Velocity, inchesPerSecToNU(setpoint.left * scale), inchesPerSecToNU(setpoint.right * scale));
-            _centerTargetVelocity = command.dx;
-			_leftTargetVelocity = setpoint.left;
-			_rightTargetVelocity = setpoint.right;
+			final double dx = _pathFollower.getCommandDx();
+			final double deltaV = Kinematics.inverseKinematicsDeltaV(_pathFollower.getCommandDtheta());
+			_centerTargetVelocity = dx;
+			_leftTargetVelocity = dx - deltaV;
+			_rightTargetVelocity = dx + deltaV;
+			setLeftRightVelocityCommand(_leftTargetVelocity, _rightTargetVelocity);
+		} else {
+			setLeftRightCommand(ControlMode.Velocity, 0.0, 0.0);
+		}
+	}
+	//====================================================================================
+	// TRAJECTORY FOLLOWING
+	//===================================================================================
+	/** Streams a pre-sampled trajectory of its path (see TrajectoryFollower), done w/ isDoneWithPath() like a path */
+	public synchronized void setWantDriveTrajectory(Trajectory trajectory) {
+		if (_trajectoryFollower == null || _currentPath != trajectory.getPath() || _chassisState != ChassisState.FOLLOW_TRAJECTORY) {
+			_leftEncoderPrevDistance = NUtoInches(get_leftPos());
+			_rightEncoderPrevDistance = NUtoInches(get_rightPos());
+			RobotState.getInstance().resetDistanceDriven();
+			_trajectoryFollower = new TrajectoryFollower(trajectory);
+			_chassisState = ChassisState.FOLLOW_TRAJECTORY;
+			_currentPath = trajectory.getPath();
 		} else {
 			setLeftRightCommand(ControlMode.Velocity, 0.0, 0.0);
 		}
 	}
+
+	private void updateTrajectoryFollower(double timestamp) {
+		estimateRobotState(timestamp);
+		final RobotState.PoseSnapshot pose = _controlPose;
+		_robotState.getLatest(pose);
+		_trajectoryFollower.update(timestamp, pose.x, pose.y, pose.cos, pose.sin, pose.distanceDriven);
+		_leftTargetVelocity = _trajectoryFollower.getLeftVelocity();
+		_rightTargetVelocity = _trajectoryFollower.getRightVelocity();
+		_centerTargetVelocity = (_leftTargetVelocity + _rightTargetVelocity) / 2.0;
+		setLeftRightVelocityCommand(_leftTargetVelocity, _rightTargetVelocity);
+	}
+
+	//====================================================================================
+	// PATH / TRAJECTORY STATUS
+	//===================================================================================
 	public synchronized boolean isDoneWithPath() {
+		if (_chassisState == ChassisState.FOLLOW_TRAJECTORY && _trajectoryFollower != null) {
+			return _trajectoryFollower.isFinished();
+		}
 		if (_chassisState == ChassisState.FOLLOW_PATH && _pathFollower != null){
 			if (_pathFollower.isFinished()){
 				System.out.println("Chassis Done With Path");
@@ -355,11 +504,24 @@ public class Chassis extends Subsystem
     public synchronized void forceDoneWithPath() {
         if (_chassisState == ChassisState.FOLLOW_PATH && _pathFollower != null)
             _pathFollower.forceFinish();
+        else if (_chassisState == ChassisState.FOLLOW_TRAJECTORY && _trajectoryFollower != null)
+            _trajectoryFollower.forceFinish();
 		else{}
 		
            // System.out.println("Robot is not in path following mode");
 	}
+	private synchronized void updatePathFollowerDashboard() {
+		if (_chassisState == ChassisState.FOLLOW_TRAJECTORY && _trajectoryFollower != null) {
+			_trajectoryFollower.updateDashboard();
+		} else if (_pathFollower != null) {
+			_pathFollower.updateDashboard();
+		}
+	}
+
 	public synchronized double getRemainingPathDistance() {
+		if (_chassisState == ChassisState.FOLLOW_TRAJECTORY && _trajectoryFollower != null) {
+			return _trajectoryFollower.remainingPathLength();
+		}
 		if (_pathFollower != null) {
 			return _pathFollower.remainingPathLength();
 		} 
@@ -377,11 +539,11 @@ public class Chassis extends Subsystem
 	// Property Accessors
 	//=====================================================================================
 	public double get_leftSpeed() {
-		return _leftMaster.getSelectedSensorVelocity(0) * (600 / ENCODER_COUNTS_PER_WHEEL_REV);
+		return _sensors.leftVelocityNU_100mS * (600 / ENCODER_COUNTS_PER_WHEEL_REV);
 	}
 	
 	public double get_rightSpeed() {
-		return -_rightMaster.getSelectedSensorVelocity(0) * (600 / ENCODER_COUNTS_PER_WHEEL_REV);
+		return -_sensors.rightVelocityNU_100mS * (600 / ENCODER_COUNTS_PER_WHEEL_REV);
 	}
 
     public double get_leftVelocityInchesPerSec() {
@@ -393,21 +555,26 @@ public class Chassis extends Subsystem
 	}
 	
 
+	/** thread safe view of the chassis state for the main thread */
+	public synchronized ChassisState get_chassisState() {
+		return _chassisState;
+	}
+
 	private synchronized boolean get_isHighGear() {
 		return _shifter.get() == Constants.SHIFTER_HIGH_GEAR_POS;
 	}
 
 	public double get_leftPos()
 	{
-		return _leftMaster.getSelectedSensorPosition(0);
+		return _sensors.leftPositionNU;
 	}
 	public double get_rightPos()
 	{
-		return _rightMaster.getSelectedSensorPosition(0);
+		return _sensors.rightPositionNU;
 	}
 	
 	public double get_Heading() {
-		return _navX.getYaw();
+		return _sensors.yawDegrees;
 	}
 
 	//=====================================================================================
@@ -417,6 +584,23 @@ public class Chassis extends Subsystem
 		_leftMaster.set(mode, leftCommand);
 		_rightMaster.set(mode, rightCommand);
 	}
+
+	/** Velocity mode, both sides scaled down together if either is over the max setpoint */
+	private void setLeftRightVelocityCommand(double leftInchesPerSec, double rightInchesPerSec) {
+		final double maxDesired = Math.max(Math.abs(leftInchesPerSec), Math.abs(rightInchesPerSec));
+		final double scale = maxDesired > Constants.DRIVE_VELOCITY_MAX_SETPOINT ? Constants.DRIVE_VELOCITY_MAX_SETPOINT / maxDesired : 1.0;
+		setLeftRightCommand(ControlMode.Velocity, inchesPerSecToNU(leftInchesPerSec * scale), inchesPerSecToNU(rightInchesPerSec * scale));
+	}
+
+	private void setVelocityPIDFGains() {
+		if (get_isHighGear()) {
+			GeneralUtilities.setPIDFGains(_leftMaster, _highGearVelocityPIDFGains);
+			GeneralUtilities.setPIDFGains(_rightMaster, _highGearVelocityPIDFGains);
+		} else {
+			GeneralUtilities.setPIDFGains(_leftMaster, LOW_GEAR_VELOCITY_PIDF_GAINS);
+			GeneralUtilities.setPIDFGains(_rightMaster, LOW_GEAR_VELOCITY_PIDF_GAINS);
+		}
+	}
 	   
     private static double rpmToInchesPerSecond(double rpm) {
         return rotationsToInches(rpm) / 60;
@@ -443,11 +627,11 @@ public class Chassis extends Subsystem
 		return NU_per_100ms*10*Constants.DRIVE_WHEEL_DIAMETER_IN*Math.PI/(ENCODER_COUNTS_PER_WHEEL_REV);
 	}
 	public double getLeftSpeedRPM() {
-		return _leftMaster.getSelectedSensorVelocity(0) * (600 / ENCODER_COUNTS_PER_WHEEL_REV);
+		return get_leftSpeed();
 	}
 	
 	public double getRightSpeedRPM() {
-		return -_rightMaster.getSelectedSensorVelocity(0) * (600 / ENCODER_COUNTS_PER_WHEEL_REV);
+		return get_rightSpeed();
 	}
 	public double getLeftVelocityInchesPerSec() {
         return rpmToInchesPerSecond(getLeftSpeedRPM());
@@ -459,9 +643,10 @@ public class Chassis extends Subsystem
 	
 	private double getAcceleration(){
 		this._leftMasterVelocityLoggingLastLogTime = this._leftMasterVelocityLoggingThisTime;
-		this._leftMasterVelocityLoggingThisTime = Timer.getFPGATimestamp();
+		SensorSnapshot sensors = _sensors;
+		this._leftMasterVelocityLoggingThisTime = sensors.timestamp;
 		this._leftMasterPreviousVelocity = this._leftMasterCurrentVelocity;
-		this._leftMasterCurrentVelocity = NUper100msToInchesPerSec(_leftMaster.getSelectedSensorVelocity(0));
+		this._leftMasterCurrentVelocity = NUper100msToInchesPerSec(sensors.leftVelocityNU_100mS);
 		if (! this._isFirstTimeLoggingAccel){
 			double dt = this._leftMasterVelocityLoggingThisTime - this._leftMasterVelocityLoggingLastLogTime;
 			double dv = this._leftMasterCurrentVelocity - this._leftMasterPreviousVelocity;
@@ -476,52 +661,83 @@ public class Chassis extends Subsystem
 	
 	private void estimateRobotState( double timestamp)
 	{
-		final double left_distance = NUtoInches(get_leftPos());
-		final double right_distance = NUtoInches(get_rightPos());
-		final Rotation gyro_angle = Rotation.fromDegrees(get_Heading());
-		final Twist odometry_velocity = _robotState.generateOdometryFromSensors(
-				left_distance - _leftEncoderPrevDistance, right_distance - _rightEncoderPrevDistance, gyro_angle);
-		final Twist predicted_velocity = Kinematics.forwardKinematics(getLeftVelocityInchesPerSec(),
-				getRightVelocityInchesPerSec());
-		_robotState.addObservations(timestamp, odometry_velocity, predicted_velocity);
+		// left, right & heading all come from the same snapshot so they describe the same instant
+		SensorSnapshot sensors = _sensors;
+		final double left_distance = NUtoInches(sensors.leftPositionNU);
+		final double right_distance = NUtoInches(sensors.rightPositionNU);
+		// primitive odometry update, nothing is allocated per scan
+		_robotState.addOdometryObservation(timestamp, 
+				left_distance - _leftEncoderPrevDistance, right_distance - _rightEncoderPrevDistance, 
+				Math.toRadians(sensors.yawDegrees),
+				NUper100msToInchesPerSec(sensors.leftVelocityNU_100mS), NUper100msToInchesPerSec(-sensors.rightVelocityNU_100mS));
 		_leftEncoderPrevDistance = left_distance;
 		_rightEncoderPrevDistance = right_distance;
 	}
 	//=====================================================================================
 	// Support Methods
 	//=====================================================================================
-	public void updateLogData(LogDataBE logData) 
+	private int _logLeftVelocity, _logLeftCurrent, _logRightVelocity, _logRightCurrent, _logAcceleration,
+				_logPoseX, _logPoseY, _logPoseHeading;
+
+	public void registerLogChannels(LogDataBE logData) 
 	{
-		logData.AddData("Left Actual Velocity [in/s]", String.valueOf(GeneralUtilities.roundDouble(get_leftVelocityInchesPerSec(), 2)));
-		//logData.AddData("Left Target Velocity [in/s]", String.valueOf(GeneralUtilities.roundDouble(_leftTargetVelocity, 2)));
-		logData.AddData("Left Output Current", String.valueOf(GeneralUtilities.roundDouble(_leftMaster.getOutputCurrent(), 2)));
-		
-		logData.AddData("Right Actual Velocity [in/s]", String.valueOf(GeneralUtilities.roundDouble(-get_rightVelocityInchesPerSec(), 2)));
-		//logData.AddData("Right Target Velocity [in/s]", String.valueOf(GeneralUtilities.roundDouble(_rightTargetVelocity, 2)));
-		logData.AddData("Right Output Current", String.valueOf(GeneralUtilities.roundDouble(_rightMaster.getOutputCurrent(), 2)));
-		logData.AddData("Chassis Acceleration [in/s/s]", String.valueOf(GeneralUtilities.roundDouble(getAcceleration(), 2)));
-		//logData.AddData("Pose X", String.valueOf(RobotState.getInstance().getLatestFieldToVehicle().getValue().getTranslation().x()));
-		//logData.AddData("Pose Y", String.valueOf(RobotState.getInstance().getLatestFieldToVehicle().getValue().getTranslation().y()));
-		//logData.AddData("Pose Angle", String.valueOf(RobotState.getInstance().getLatestFieldToVehicle().getValue().getRotation().getDegrees()));
-		//logData.AddData("Remaining Distance", String.valueOf(getRemainingPathDistance()));
-		
-		//logData.AddData("Center Target Velocity", String.valueOf(GeneralUtilities.roundDouble(_centerTargetVelocity, 2)));
+		_logLeftVelocity = logData.registerChannel("Left Actual Velocity", "in/s", CHANNEL_TYPE.DOUBLE);
+		_logLeftCurrent = logData.registerChannel("Left Output Current", "A", CHANNEL_TYPE.DOUBLE);
+		_logRightVelocity = logData.registerChannel("Right Actual Velocity", "in/s", CHANNEL_TYPE.DOUBLE);
+		_logRightCurrent = logData.registerChannel("Right Output Current", "A", CHANNEL_TYPE.DOUBLE);
+		_logAcceleration = logData.registerChannel("Chassis Acceleration", "in/s/s", CHANNEL_TYPE.DOUBLE);
+		_logPoseX = logData.registerChannel("Robot Pose X", "in", CHANNEL_TYPE.DOUBLE);
+		_logPoseY = logData.registerChannel("Robot Pose Y", "in", CHANNEL_TYPE.DOUBLE);
+		_logPoseHeading = logData.registerChannel("Robot Pose Heading", "deg", CHANNEL_TYPE.DOUBLE);
+	}
 
+	public void updateLogData(LogDataBE logData) 
+	{
+		logData.set(_logLeftVelocity, get_leftVelocityInchesPerSec());
+		logData.set(_logLeftCurrent, _sensors.leftCurrent);
+		logData.set(_logRightVelocity, -get_rightVelocityInchesPerSec());
+		logData.set(_logRightCurrent, _sensors.rightCurrent);
+		logData.set(_logAcceleration, getAcceleration());
+		// 1 snapshot so the logged x, y & heading are the same pose
+		_robotState.getLatest(_logPose);
+		logData.set(_logPoseX, _logPose.x);
+		logData.set(_logPoseY, _logPose.y);
+		logData.set(_logPoseHeading, Math.toDegrees(Math.atan2(_logPose.sin, _logPose.cos)));
 	}
 
 
 	
-	public void updateDashboard() 
+	private int _dashIsHighGear, _dashLeftVelocity, _dashRightVelocity, _dashLeftTargetVelocity, _dashRightTargetVelocity,
+				_dashAngle, _dashRobotPose;
+
+	public void registerDashboardKeys(DashboardPublisher dashboard) 
+	{
+		_dashIsHighGear = dashboard.registerBoolean("IsHighGear", TIER.NORMAL);
+		_dashLeftVelocity = dashboard.registerNumber("Chassis: Left Velocity", TIER.FAST, 0.1);
+		_dashRightVelocity = dashboard.registerNumber("Chassis: Right Velocity", TIER.FAST, 0.1);
+		
+		_dashLeftTargetVelocity = dashboard.registerNumber("Chassis: Left Wheel Target Velocity", TIER.SLOW, 0);
+		_dashRightTargetVelocity = dashboard.registerNumber("Chasiss: Right Wheel Target Velocity", TIER.SLOW, 0);
+		
+		_dashAngle = dashboard.registerNumber("Chassis: Angle", TIER.FAST, 0.1);
+		_dashRobotPose = dashboard.registerString("Chassis: Robot Pose", TIER.SLOW);
+	}
+	
+	public void updateDashboard(DashboardPublisher dashboard) 
 	{
-		SmartDashboard.putBoolean("IsHighGear", get_isHighGear());
-		SmartDashboard.putNumber("Chassis: Left Velocity", GeneralUtilities.roundDouble(get_leftVelocityInchesPerSec(), 2));
-		SmartDashboard.putNumber("Chassis: Right Velocity", GeneralUtilities.roundDouble(get_rightVelocityInchesPerSec(), 2));
+		if (Constants.IS_CHASSIS_CONTROL_LOOP_ENABLED) {
+			_controlLoop.updateDashboard();
+		}
+		dashboard.set(_dashIsHighGear, get_isHighGear());
+		dashboard.set(_dashLeftVelocity, GeneralUtilities.roundDouble(get_leftVelocityInchesPerSec(), 2));
+		dashboard.set(_dashRightVelocity, GeneralUtilities.roundDouble(get_rightVelocityInchesPerSec(), 2));
 		
-		SmartDashboard.putNumber("Chassis: Left Wheel Target Velocity", -1.0); //GeneralUtilities.roundDouble(_leftTargetVelocity, 2));
-		SmartDashboard.putNumber("Chasiss: Right Wheel Target Velocity",  -1.0); // GeneralUtilities.roundDouble(_leftTargetVelocity, 2));
+		dashboard.set(_dashLeftTargetVelocity, -1.0); //GeneralUtilities.roundDouble(_leftTargetVelocity, 2));
+		dashboard.set(_dashRightTargetVelocity, -1.0); // GeneralUtilities.roundDouble(_leftTargetVelocity, 2));
 		
-		SmartDashboard.putNumber("Chassis: Angle", GeneralUtilities.roundDouble(get_Heading(), 2));
-		SmartDashboard.putString("Chassis: Robot Pose", "N/A"); //RobotState.getInstance().getLatestFieldToVehicle().getValue().toString());
+		dashboard.set(_dashAngle, GeneralUtilities.roundDouble(get_Heading(), 2));
+		updatePathFollowerDashboard();
+		dashboard.set(_dashRobotPose, "N/A"); //RobotState.getInstance().getLatestFieldToVehicle().getValue().toString());
 	}
 
-}
\ No newline at end of file
+}
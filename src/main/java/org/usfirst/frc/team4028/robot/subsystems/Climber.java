@@ -2,17 +2,20 @@ package org.usfirst.frc.team4028.robot.subsystems;
 
 //#region  == Define Imports ==
 import org.usfirst.frc.team4028.robot.RobotMap;
+import org.usfirst.frc.team4028.robot.hardware.HardwareFactory;
+import org.usfirst.frc.team4028.robot.hardware.ITalonSRX;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher.TIER;
 import org.usfirst.frc.team4028.robot.util.LogDataBE;
+import org.usfirst.frc.team4028.robot.util.LogDataBE.CHANNEL_TYPE;
 
 import com.ctre.phoenix.motorcontrol.ControlMode;
 import com.ctre.phoenix.motorcontrol.LimitSwitchNormal;
 import com.ctre.phoenix.motorcontrol.LimitSwitchSource;
 import com.ctre.phoenix.motorcontrol.NeutralMode;
-import com.ctre.phoenix.motorcontrol.can.TalonSRX;
 
 import edu.wpi.first.wpilibj.Servo;
 import edu.wpi.first.wpilibj.command.Subsystem;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 //#endregion
 
 /**
@@ -22,11 +25,14 @@ import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 public class Climber extends Subsystem
 {
 	// define class level working variables
-	private TalonSRX _climberMotor; 
+	private ITalonSRX _climberMotor; 
 	private Servo _climberServo;
 
 	private double _targetServoPosition = 0;
 	private boolean _isClimberServoOpen = false;
+	
+	// motor current read 1x per scan by readSensors()
+	private double _climberMotorCurrent = 0;
 
 	public static final double CLIMBER_MOTOR_HIGH_VBUS = 1.0;
 	public static final double CLIMBER_MOTOR_LOW_VBUS = 0.40;
@@ -51,7 +57,7 @@ public class Climber extends Subsystem
 		//====================================================================================
 		//	Config master & slave talon objects
 		//====================================================================================
-		_climberMotor = new TalonSRX(RobotMap.CLIMBER_CAN_ADDRESS);
+		_climberMotor = HardwareFactory.getInstance().createTalonSRX(RobotMap.CLIMBER_CAN_ADDRESS);
 		
 		// set motor phasing
 		_climberMotor.setInverted(false);
@@ -129,11 +135,19 @@ public class Climber extends Subsystem
     	//setDefaultCommand(new Climber_ClimbWithControllers());
     }
 	
+	//=====================================================================================
+	// Sensor Snapshot
+	//=====================================================================================
+	/** Reads the climber sensors exactly 1x, call at the top of each scan */
+	public void readSensors() {
+		_climberMotorCurrent = _climberMotor.getOutputCurrent();
+	}
+	
 	//=====================================================================================
 	// Property Accessors
 	//=====================================================================================
 	private double get_climberMotorCurrent()	{
-		return _climberMotor.getOutputCurrent();
+		return _climberMotorCurrent;
 	}
 
 	public boolean get_isClimberServoOpen()	{
@@ -155,14 +169,29 @@ public class Climber extends Subsystem
 	//=====================================================================================
 	// LogData & Dashboard cmds
 	//=====================================================================================
+	private int _logCurrent;
+
+	public void registerLogChannels(LogDataBE logData) 
+	{
+		_logCurrent = logData.registerChannel("Climber: Current", "A", CHANNEL_TYPE.DOUBLE);
+	}
+
 	public void updateLogData(LogDataBE logData) 
 	{
-		logData.AddData("Climber: Current", String.valueOf(get_climberMotorCurrent()));
+		logData.set(_logCurrent, get_climberMotorCurrent());
+	}
+	
+	private int _dashCurrent, _dashIsServoOpen;
+
+	public void registerDashboardKeys(DashboardPublisher dashboard) 
+	{
+		_dashCurrent = dashboard.registerNumber("Climber:Current:", TIER.NORMAL, 0.1);
+		_dashIsServoOpen = dashboard.registerBoolean("Is Climber Servo Open?:", TIER.NORMAL);
 	}
 	
-	public void updateDashboard() 
+	public void updateDashboard(DashboardPublisher dashboard) 
 	{
-		SmartDashboard.putNumber("Climber:Current:", get_climberMotorCurrent());
-		SmartDashboard.putBoolean("Is Climber Servo Open?:", get_isClimberServoOpen());
+		dashboard.set(_dashCurrent, get_climberMotorCurrent());
+		dashboard.set(_dashIsServoOpen, get_isClimberServoOpen());
 	}
 }
\ No newline at end of file
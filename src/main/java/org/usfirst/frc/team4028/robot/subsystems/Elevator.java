@@ -2,8 +2,13 @@ package org.usfirst.frc.team4028.robot.subsystems;
 
 //#region  == Define Imports ==
 import org.usfirst.frc.team4028.robot.RobotMap;
+import org.usfirst.frc.team4028.robot.hardware.HardwareFactory;
+import org.usfirst.frc.team4028.robot.hardware.ITalonSRX;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher.TIER;
 import org.usfirst.frc.team4028.robot.util.GeneralUtilities;
 import org.usfirst.frc.team4028.robot.util.LogDataBE;
+import org.usfirst.frc.team4028.robot.util.LogDataBE.CHANNEL_TYPE;
 
 import com.ctre.phoenix.motorcontrol.ControlMode;
 import com.ctre.phoenix.motorcontrol.FeedbackDevice;
@@ -12,10 +17,8 @@ import com.ctre.phoenix.motorcontrol.LimitSwitchSource;
 import com.ctre.phoenix.motorcontrol.NeutralMode;
 import com.ctre.phoenix.motorcontrol.StatusFrame;
 import com.ctre.phoenix.motorcontrol.VelocityMeasPeriod;
-import com.ctre.phoenix.motorcontrol.can.TalonSRX;
 
 import edu.wpi.first.wpilibj.command.Subsystem;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 //#endregion
 
 
@@ -29,7 +32,7 @@ public class Elevator extends Subsystem
 	
 	// =================================================================================================================
 	// define class level working variables
-	private TalonSRX _elevatorMotor;
+	private ITalonSRX _elevatorMotor;
 	
 	private int _targetElevatorPositionNU;
 	private int _autonCustomPositionNU = 0;
@@ -47,6 +50,27 @@ public class Elevator extends Subsystem
 	
 	private int _currentUpAccelerationConstant = TELEOP_UP_ACCELERATION; 
 	private int _currentDownAccelerationConstant = TELEOP_DOWN_ACCELERATION;
+	
+	// sensor values read 1x per scan by readSensors(), everything else reads from here
+	private SensorSnapshot _sensors = new SensorSnapshot(0, 0, true, 0, 0);
+	
+	/** Immutable set of elevator sensor values all read at the same instant */
+	public static final class SensorSnapshot {
+		public final int positionNU;
+		public final int velocityNU_100mS;
+		public final boolean isRevLimitSwitchClosed;
+		public final double outputCurrent;
+		public final double outputVoltage;
+		
+		public SensorSnapshot(int positionNU, int velocityNU_100mS, boolean isRevLimitSwitchClosed,
+								double outputCurrent, double outputVoltage) {
+			this.positionNU = positionNU;
+			this.velocityNU_100mS = velocityNU_100mS;
+			this.isRevLimitSwitchClosed = isRevLimitSwitchClosed;
+			this.outputCurrent = outputCurrent;
+			this.outputVoltage = outputVoltage;
+		}
+	}
 		
 	
 	// =================================================================================================================
@@ -136,7 +160,7 @@ public class Elevator extends Subsystem
 	// private constructor
 	private Elevator() {
 		// config master & slave talon objects
-		_elevatorMotor = new TalonSRX(RobotMap.ELEVATOR_LIFT_MASTER_CAN_ADDRESS);
+		_elevatorMotor = HardwareFactory.getInstance().createCachingTalonSRX(RobotMap.ELEVATOR_LIFT_MASTER_CAN_ADDRESS);
 
 		// set motor phasing
 		_elevatorMotor.setInverted(false);
@@ -219,7 +243,33 @@ public class Elevator extends Subsystem
 	
 	private int getActualPositionNU()
 	{
-		return _elevatorMotor.getSelectedSensorPosition(0);	// tomb ADD AFTER 1ST MATCH
+		return _sensors.positionNU;
+	}
+	
+	// =================================================================================================================
+	// Sensor Snapshot
+	// =================================================================================================================
+	/** Reads every elevator sensor exactly 1x, call at the top of each scan */
+	public void readSensors() {
+		_sensors = new SensorSnapshot(_elevatorMotor.getSelectedSensorPosition(0),
+										_elevatorMotor.getSelectedSensorVelocity(0),
+										_elevatorMotor.isRevLimitSwitchClosed(),
+										_elevatorMotor.getOutputCurrent(),
+										_elevatorMotor.getMotorOutputVoltage());
+		
+		// derived values for logging / dashboard, accel is the change in velocity per mSec between scans
+		long now = System.currentTimeMillis();
+		_actualPositionNU = _sensors.positionNU;
+		_actualVelocityNU_100mS = _sensors.velocityNU_100mS;
+		if (_lastScanTimeStamp > 0 && now > _lastScanTimeStamp) {
+			_actualAccelerationNU_100mS_mS = (_actualVelocityNU_100mS - _lastScanActualVelocityNU_100mS) / (now - _lastScanTimeStamp);
+		}
+		_lastScanActualVelocityNU_100mS = _actualVelocityNU_100mS;
+		_lastScanTimeStamp = now;
+	}
+	
+	public SensorSnapshot get_sensors() {
+		return _sensors;
 	}
 		
 	// =================================================================================================================
@@ -234,7 +284,7 @@ public class Elevator extends Subsystem
 	
 	public void zeroElevator() {		
 		// ==== left side ====
-		if (_elevatorMotor.getSensorCollection().isRevLimitSwitchClosed() == false) {
+		if (_sensors.isRevLimitSwitchClosed == false) {
 			_hasElevatorBeenZeroed = true;
 		}
 		else if (_hasElevatorBeenZeroed == false) {
@@ -273,9 +323,11 @@ public class Elevator extends Subsystem
 		
 		
 		// set appropriate gain slot to use (only flip if outside deadband)
-		int currentError = Math.abs(_elevatorMotor.getSelectedSensorPosition(0) - _targetElevatorPositionNU);
+		//	compares against 0 (what _actualPositionNU always was before the sensor snapshot), so every move
+		//	above home still uses the tuned MoveUp gains, the MoveDown gains have never been tuned
+		int currentError = Math.abs(_sensors.positionNU - _targetElevatorPositionNU);
         if (currentError > ELEVATOR_POS_ALLOWABLE_ERROR_IN_NU) {
-			if(_targetElevatorPositionNU > _actualPositionNU) {
+			if(_targetElevatorPositionNU > 0) {
 				SetPidSlotToUse("MoveUp", MOVING_UP_PID_SLOT_INDEX);
 			} else {
 				SetPidSlotToUse("MoveDown", MOVING_DOWN_PID_SLOT_INDEX);
@@ -284,20 +336,22 @@ public class Elevator extends Subsystem
 		_elevatorMotor.set(ControlMode.MotionMagic, _targetElevatorPositionNU);
 	}
 		
+	// always (re)applied, the caching talon only sends the frames that actually changed
+	//	(this also picks up a change to the accel constants w/o a slot change)
 	private void SetPidSlotToUse(String ref, int pidSlot) {
 		if(pidSlot != _pidSlotInUse) {
 			//ReportStateChg("Chg Pid Slot: Ref: [" + ref + "] [" + _pidSlotInUse + "] => [" + pidSlot + "]");
 			_pidSlotInUse = pidSlot;
-			_elevatorMotor.selectProfileSlot(_pidSlotInUse, 0);
-			
-			if(pidSlot == MOVING_UP_PID_SLOT_INDEX) {
-				_elevatorMotor.configMotionCruiseVelocity(UP_CRUISE_VELOCITY, 0);
-				_elevatorMotor.configMotionAcceleration(_currentUpAccelerationConstant, 0);
-			}
-			else if(pidSlot == MOVING_DOWN_PID_SLOT_INDEX) {
-				_elevatorMotor.configMotionCruiseVelocity(DOWN_CRUISE_VELOCITY, 0);
-				_elevatorMotor.configMotionAcceleration(_currentDownAccelerationConstant, 0);
-			}
+		}
+		_elevatorMotor.selectProfileSlot(_pidSlotInUse, 0);
+		
+		if(pidSlot == MOVING_UP_PID_SLOT_INDEX) {
+			_elevatorMotor.configMotionCruiseVelocity(UP_CRUISE_VELOCITY, 0);
+			_elevatorMotor.configMotionAcceleration(_currentUpAccelerationConstant, 0);
+		}
+		else if(pidSlot == MOVING_DOWN_PID_SLOT_INDEX) {
+			_elevatorMotor.configMotionCruiseVelocity(DOWN_CRUISE_VELOCITY, 0);
+			_elevatorMotor.configMotionAcceleration(_currentDownAccelerationConstant, 0);
 		}
 	}
 
@@ -335,7 +389,7 @@ public class Elevator extends Subsystem
 	// Expose Properties of Elevator
 	// ===============================================================================================================
 	private boolean get_isAtTargetPosition(int targetPosition) {
-		int currentError = Math.abs(_elevatorMotor.getSelectedSensorPosition(0) - targetPosition);
+		int currentError = Math.abs(_sensors.positionNU - targetPosition);
 		//System.out.println("Current Error:  " + Integer.toString(currentError));
 		//System.out.println("Current Sensor Pos in NU:   " + _elevatorMotor.getSelectedSensorPosition(0));
 		//System.out.println("Current Target Position in NU:   "+ targetPosition);
@@ -355,11 +409,11 @@ public class Elevator extends Subsystem
 	}
 
 	public double get_elevatorActualPositionNU() {
-		return _elevatorMotor.getSelectedSensorPosition(0);
+		return _sensors.positionNU;
 	}
 
 	public double get_elevatorActualPositionIn() {
-		return NativeUnitsToInches(_elevatorMotor.getSelectedSensorPosition(0));
+		return NativeUnitsToInches(_sensors.positionNU);
 	}
 
 	private double get_actualPositionNU()
@@ -390,18 +444,49 @@ public class Elevator extends Subsystem
 		return positionInInches;
 	}
 	
+	private int _logTargetPosition, _logPosition, _logVelocity, _logAcceleration, _logIsAtTarget, _logScaleBump;
+
+	public void registerLogChannels(LogDataBE logData) 
+	{
+		_logTargetPosition = logData.registerChannel("Elevator: Target Position", "in", CHANNEL_TYPE.DOUBLE);
+		_logPosition = logData.registerChannel("Elevator: Postion", "in", CHANNEL_TYPE.DOUBLE);
+		_logVelocity = logData.registerChannel("Elevator: Velocity", "in/sec", CHANNEL_TYPE.DOUBLE);
+		_logAcceleration = logData.registerChannel("Elevator: AccelNu", "in/sec^2", CHANNEL_TYPE.DOUBLE);
+		_logIsAtTarget = logData.registerChannel("Elevator: At Target Position?", "", CHANNEL_TYPE.BOOLEAN);
+		_logScaleBump = logData.registerChannel("Elevator: Scale Height Bump Amount", "in", CHANNEL_TYPE.DOUBLE);
+		// no elevator state machine in 2019 (was logged as "N/A in 2019"), never set so it logs blank,
+		//	kept so the columns still line up w/ the older logs
+		logData.registerChannel("State: Elevator", "", CHANNEL_TYPE.INT);
+	}
+
 	public void updateLogData(LogDataBE logData) 
 	{
-		logData.AddData("Elevator: Target Position [in]", String.valueOf(NativeUnitsToInches(_targetElevatorPositionNU)));
-		logData.AddData("Elevator: Postion [in]", String.valueOf(NativeUnitsToInches(_actualPositionNU)));	
-		logData.AddData("Elevator: Velocity [in/sec]", String.valueOf(10 * NativeUnitsToInches(_actualVelocityNU_100mS)));	
-		logData.AddData("Elevator: AccelNu [in/sec^2]", String.valueOf(10 * 1000 * NativeUnitsToInches(_actualAccelerationNU_100mS_mS)));
-		logData.AddData("Elevator: At Target Position?", String.valueOf(get_isAtTargetPosition()));
-		logData.AddData("Elevator: Scale Height Bump Amount:", String.valueOf(get_elevatorScaleHeightBumpInches()));	
-		logData.AddData("State: Elevator", "N/A in 2019");
+		logData.set(_logTargetPosition, NativeUnitsToInches(_targetElevatorPositionNU));
+		logData.set(_logPosition, NativeUnitsToInches(_actualPositionNU));
+		logData.set(_logVelocity, 10 * NativeUnitsToInches(_actualVelocityNU_100mS));
+		logData.set(_logAcceleration, 10 * 1000 * NativeUnitsToInches(_actualAccelerationNU_100mS_mS));
+		logData.set(_logIsAtTarget, get_isAtTargetPosition());
+		logData.set(_logScaleBump, get_elevatorScaleHeightBumpInches());
 	}
 	
-	public void updateDashboard() {
+	private int _dashCurrent, _dashVoltage, _dashPosition, _dashPositionInches, _dashVelocity, _dashAcceleration,
+				_dashTargetPosition, _dashIsInPosition, _dashState, _dashScaleBump, _dashIsSmallBump;
+
+	public void registerDashboardKeys(DashboardPublisher dashboard) {
+		_dashCurrent = dashboard.registerNumber("Elevator:Current", TIER.NORMAL, 0.1);
+		_dashVoltage = dashboard.registerNumber("Elevator:VoltageActual", TIER.NORMAL, 0.1);
+		_dashPosition = dashboard.registerNumber("Elevator:Position", TIER.FAST, 10);
+		_dashPositionInches = dashboard.registerNumber("Elevator:Position(in)", TIER.FAST, 0.05);
+		_dashVelocity = dashboard.registerNumber("Elevator:Velocity", TIER.NORMAL, 1);
+		_dashAcceleration = dashboard.registerNumber("Elevator:Acceleration", TIER.NORMAL, 0.01);
+		_dashTargetPosition = dashboard.registerNumber("Elevator:TargetPosition", TIER.NORMAL, 0);
+		_dashIsInPosition = dashboard.registerBoolean("Elevator:IsInPosition", TIER.NORMAL);
+		_dashState = dashboard.registerString("Elevator:State", TIER.SLOW);
+		_dashScaleBump = dashboard.registerNumber("Elevator:Scale Bump", TIER.SLOW, 0);
+		_dashIsSmallBump = dashboard.registerBoolean("Elevator: SmallBump?", TIER.SLOW);
+	}
+
+	public void updateDashboard(DashboardPublisher dashboard) {
 		double actualPosition = 0;
 		double actualVelocity = 0;
 		double actualAcceleration = 0;
@@ -417,18 +502,18 @@ public class Elevator extends Subsystem
 			actualAcceleration = _actualAccelerationNU_100mS_mS;			
 		}
 				
-		SmartDashboard.putNumber("Elevator:Current", _elevatorMotor.getOutputCurrent());
-		SmartDashboard.putNumber("Elevator:VoltageActual", _elevatorMotor.getMotorOutputVoltage());
+		dashboard.set(_dashCurrent, _sensors.outputCurrent);
+		dashboard.set(_dashVoltage, _sensors.outputVoltage);
 		
-		SmartDashboard.putNumber("Elevator:Position", actualPosition);
-		SmartDashboard.putNumber("Elevator:Position(in)", GeneralUtilities.roundDouble((NativeUnitsToInches(get_actualPositionNU())),2));
-		SmartDashboard.putNumber("Elevator:Velocity", GeneralUtilities.roundDouble(actualVelocity, 2));
-		SmartDashboard.putNumber("Elevator:Acceleration", GeneralUtilities.roundDouble(actualAcceleration, 2));
+		dashboard.set(_dashPosition, actualPosition);
+		dashboard.set(_dashPositionInches, GeneralUtilities.roundDouble((NativeUnitsToInches(get_actualPositionNU())),2));
+		dashboard.set(_dashVelocity, GeneralUtilities.roundDouble(actualVelocity, 2));
+		dashboard.set(_dashAcceleration, GeneralUtilities.roundDouble(actualAcceleration, 2));
 
-		SmartDashboard.putNumber("Elevator:TargetPosition",_targetElevatorPositionNU);
-		SmartDashboard.putBoolean("Elevator:IsInPosition", get_isAtTargetPosition());
-		SmartDashboard.putString("Elevator:State", "N/A in 2019");
-		SmartDashboard.putNumber("Elevator:Scale Bump", get_elevatorScaleHeightBumpInches());
-		SmartDashboard.putBoolean("Elevator: SmallBump?", get_isClimbBumpValueEnabled());
+		dashboard.set(_dashTargetPosition, _targetElevatorPositionNU);
+		dashboard.set(_dashIsInPosition, get_isAtTargetPosition());
+		dashboard.set(_dashState, "N/A in 2019");
+		dashboard.set(_dashScaleBump, get_elevatorScaleHeightBumpInches());
+		dashboard.set(_dashIsSmallBump, get_isClimbBumpValueEnabled());
 	}
 }
\ No newline at end of file
@@ -2,19 +2,22 @@ package org.usfirst.frc.team4028.robot.subsystems;
 
 //#region  == Define Imports ==
 import org.usfirst.frc.team4028.robot.RobotMap;
+import org.usfirst.frc.team4028.robot.hardware.HardwareFactory;
+import org.usfirst.frc.team4028.robot.hardware.ITalonSRX;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher.TIER;
 import org.usfirst.frc.team4028.robot.util.GeneralUtilities;
 import org.usfirst.frc.team4028.robot.util.LogDataBE;
+import org.usfirst.frc.team4028.robot.util.LogDataBE.CHANNEL_TYPE;
 
 import com.ctre.phoenix.motorcontrol.ControlMode;
 import com.ctre.phoenix.motorcontrol.FeedbackDevice;
 import com.ctre.phoenix.motorcontrol.LimitSwitchNormal;
 import com.ctre.phoenix.motorcontrol.LimitSwitchSource;
 import com.ctre.phoenix.motorcontrol.NeutralMode;
-import com.ctre.phoenix.motorcontrol.can.TalonSRX;
 
 import edu.wpi.first.wpilibj.command.Subsystem;
 //#endregion
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 
 /**
  * This class defines the Infeed Subsystem, it is responsible for:
@@ -35,10 +38,11 @@ public class Infeed extends Subsystem
 	
 	
 	// motor controllers
-	private TalonSRX _leftSwitchbladeArmMotor; 
-	private TalonSRX _rightSwitchbladeArmMotor;
-	private TalonSRX _leftInfeedWheelMotor;
-	private TalonSRX _rightInfeedWheelMotor;
+	// arm config is re-applied on every move, the caching talons only send what changed
+	private ITalonSRX _leftSwitchbladeArmMotor; 
+	private ITalonSRX _rightSwitchbladeArmMotor;
+	private ITalonSRX _leftInfeedWheelMotor;
+	private ITalonSRX _rightInfeedWheelMotor;
 	
 	private boolean _hasLeftArmBeenHomed;
 	private boolean _hasRightArmBeenHomed;
@@ -47,6 +51,23 @@ public class Infeed extends Subsystem
 
 	private double _currentInFeedWheelsVBusCmd = .50;
 	
+	// sensor values read 1x per scan by readSensors(), everything else reads from here
+	private SensorSnapshot _sensors = new SensorSnapshot(0, 0, true, true);
+	
+	/** Immutable set of infeed arm sensor values all read at the same instant */
+	public static final class SensorSnapshot {
+		public final int leftArmPositionNU, rightArmPositionNU;
+		public final boolean isLeftArmRevLimitSwitchClosed, isRightArmRevLimitSwitchClosed;
+		
+		public SensorSnapshot(int leftArmPositionNU, int rightArmPositionNU,
+								boolean isLeftArmRevLimitSwitchClosed, boolean isRightArmRevLimitSwitchClosed) {
+			this.leftArmPositionNU = leftArmPositionNU;
+			this.rightArmPositionNU = rightArmPositionNU;
+			this.isLeftArmRevLimitSwitchClosed = isLeftArmRevLimitSwitchClosed;
+			this.isRightArmRevLimitSwitchClosed = isRightArmRevLimitSwitchClosed;
+		}
+	}
+	
 	//====================================================================================
 	//	Constants for Closed Loop Gains for Infeed Motors
 	//====================================================================================
@@ -109,7 +130,7 @@ public class Infeed extends Subsystem
 		//====================================================================================
 		
 		//Left Arm Rotator Motor
-		_leftSwitchbladeArmMotor = new TalonSRX(RobotMap.LEFT_SWITCHBLADE_MOTOR_CAN_ADDRESS);
+		_leftSwitchbladeArmMotor = HardwareFactory.getInstance().createCachingTalonSRX(RobotMap.LEFT_SWITCHBLADE_MOTOR_CAN_ADDRESS);
 				
 		_leftSwitchbladeArmMotor.configReverseLimitSwitchSource(LimitSwitchSource.FeedbackConnector, LimitSwitchNormal.NormallyClosed, 0);
 		_leftSwitchbladeArmMotor.configForwardLimitSwitchSource(LimitSwitchSource.Deactivated, LimitSwitchNormal.Disabled, 0);
@@ -141,7 +162,7 @@ public class Infeed extends Subsystem
 		
 		//=====================================================================================
 		//Right Arm Rotator Motor
-		_rightSwitchbladeArmMotor = new TalonSRX(RobotMap.RIGHT_SWITCHBLADE_MOTOR_CAN_ADDRESS);
+		_rightSwitchbladeArmMotor = HardwareFactory.getInstance().createCachingTalonSRX(RobotMap.RIGHT_SWITCHBLADE_MOTOR_CAN_ADDRESS);
 		
 		_rightSwitchbladeArmMotor.configSelectedFeedbackSensor(FeedbackDevice.CTRE_MagEncoder_Relative, 0, 0);
 		
@@ -175,12 +196,12 @@ public class Infeed extends Subsystem
 		
 		//=====================================================================================
 		//Left Arm Drive Motor
-		_leftInfeedWheelMotor = new TalonSRX(RobotMap.LEFT_INFEED_DRIVE_CAN_ADDRESS);
+		_leftInfeedWheelMotor = HardwareFactory.getInstance().createTalonSRX(RobotMap.LEFT_INFEED_DRIVE_CAN_ADDRESS);
 		_leftInfeedWheelMotor.setInverted(true);
 			
 		//=====================================================================================
 		//Right Arm Drive Motor
-		_rightInfeedWheelMotor = new TalonSRX(RobotMap.RIGHT_INFEED_DRIVE_CAN_ADDRESS);
+		_rightInfeedWheelMotor = HardwareFactory.getInstance().createTalonSRX(RobotMap.RIGHT_INFEED_DRIVE_CAN_ADDRESS);
 		_rightInfeedWheelMotor.setInverted(true);
 				
 		//=====================================================================================
@@ -193,6 +214,21 @@ public class Infeed extends Subsystem
 		_hasRightArmBeenHomed = false;
 	}
 	
+	//=====================================================================================
+	// Sensor Snapshot
+	//=====================================================================================
+	/** Reads every infeed sensor exactly 1x, call at the top of each scan */
+	public void readSensors() {
+		_sensors = new SensorSnapshot(_leftSwitchbladeArmMotor.getSelectedSensorPosition(0),
+										_rightSwitchbladeArmMotor.getSelectedSensorPosition(0),
+										_leftSwitchbladeArmMotor.isRevLimitSwitchClosed(),
+										_rightSwitchbladeArmMotor.isRevLimitSwitchClosed());
+	}
+	
+	public SensorSnapshot get_sensors() {
+		return _sensors;
+	}
+	
     // Put methods for controlling this subsystem
     // here. Call these from Commands.
 	public void initReZeroArms()
@@ -204,7 +240,7 @@ public class Infeed extends Subsystem
 	public void zeroArms()
 	{		
 		// ==== left side ====
-		if (_leftSwitchbladeArmMotor.getSensorCollection().isRevLimitSwitchClosed() == false) {
+		if (_sensors.isLeftArmRevLimitSwitchClosed == false) {
 			_leftSwitchbladeArmMotor.setSelectedSensorPosition(0, 0, 0); // zero encoder
 			_leftSwitchbladeArmMotor.set(ControlMode.PercentOutput, 0); // stop motor
 			
@@ -218,7 +254,7 @@ public class Infeed extends Subsystem
 		}
 		
 		// ==== right side ====
-		if (_rightSwitchbladeArmMotor.getSensorCollection().isRevLimitSwitchClosed() == false) {
+		if (_sensors.isRightArmRevLimitSwitchClosed == false) {
 			_rightSwitchbladeArmMotor.setSelectedSensorPosition(0, 0, 0); // zero encoder
 			_rightSwitchbladeArmMotor.set(ControlMode.PercentOutput, 0); // stop motor
 			
@@ -374,11 +410,11 @@ public class Infeed extends Subsystem
 	}
 
 	public double get_currentLeftInfeedPosition() {
-		return _leftSwitchbladeArmMotor.getSelectedSensorPosition(0);
+		return _sensors.leftArmPositionNU;
 	}
 	
 	public double get_currentRightInfeedPosition() {
-		return _rightSwitchbladeArmMotor.getSelectedSensorPosition(0);
+		return _sensors.rightArmPositionNU;
 	}
 
 	public boolean get_isSafeToRunInfeedWheels(){
@@ -417,35 +453,71 @@ public class Infeed extends Subsystem
 	}
 
 	//=====================================================================================
+	private int _logLeftTarget, _logRightTarget, _logLeftPosition, _logRightPosition, _logLeftHomed, _logRightHomed;
+
+	public void registerLogChannels(LogDataBE logData) 
+	{
+		_logLeftTarget = logData.registerChannel("Infeed: Left Target Arm Position", "deg", CHANNEL_TYPE.DOUBLE);
+		_logRightTarget = logData.registerChannel("Infeed: Right Target Arm Position", "deg", CHANNEL_TYPE.DOUBLE);
+		_logLeftPosition = logData.registerChannel("Infeed: L Position", "deg", CHANNEL_TYPE.DOUBLE);
+		_logRightPosition = logData.registerChannel("Infeed: R Position", "deg", CHANNEL_TYPE.DOUBLE);
+		_logLeftHomed = logData.registerChannel("Infeed: L Arm Homed?", "", CHANNEL_TYPE.BOOLEAN);
+		_logRightHomed = logData.registerChannel("Infeed: R Arm Homed?", "", CHANNEL_TYPE.BOOLEAN);
+	}
+
 	public void updateLogData(LogDataBE logData) 
 	{
-		logData.AddData("Infeed: Left Target Arm Position", String.valueOf(nativeUnitsToDegrees(_targetLeftInfeedArmPosition)));
-		logData.AddData("Infeed: Right Target Arm Position", String.valueOf(nativeUnitsToDegrees(_targetRightInfeedArmPosition)));
-		logData.AddData("Infeed: L Position", String.valueOf(nativeUnitsToDegrees(get_currentLeftInfeedPosition())));
-		logData.AddData("Infeed: R Position:", String.valueOf(nativeUnitsToDegrees(get_currentRightInfeedPosition())));
-		logData.AddData("Infeed: L/R Arms Homed?", String.valueOf(get_hasLeftArmBeenHomed()) + " / " + String.valueOf(get_hasRightArmBeenHomed()));
-		logData.AddData("State: Infeed", "N/A for 2019");
+		logData.set(_logLeftTarget, nativeUnitsToDegrees(_targetLeftInfeedArmPosition));
+		logData.set(_logRightTarget, nativeUnitsToDegrees(_targetRightInfeedArmPosition));
+		logData.set(_logLeftPosition, nativeUnitsToDegrees(get_currentLeftInfeedPosition()));
+		logData.set(_logRightPosition, nativeUnitsToDegrees(get_currentRightInfeedPosition()));
+		logData.set(_logLeftHomed, get_hasLeftArmBeenHomed());
+		logData.set(_logRightHomed, get_hasRightArmBeenHomed());
+	}
+    
+	private int _dashWheelsState, _dashWheelsVBus, _dashTargetWideAngle, _dashTargetSqueezeAngle, _dashLeftHomed, _dashRightHomed,
+				_dashAreSafe, _dashInPosition, _dashArmsState, _dashLeftPositionNU, _dashRightPositionNU, _dashLeftAngle, _dashRightAngle;
+
+	public void registerDashboardKeys(DashboardPublisher dashboard) 
+	{
+		_dashWheelsState = dashboard.registerString("InfeedWheels:State", TIER.SLOW);
+		_dashWheelsVBus = dashboard.registerNumber("InfeedWheels:%VBus", TIER.NORMAL, 0.01);
+		
+		_dashTargetWideAngle = dashboard.registerNumber("InfeedArms:Target Wide Angle:", TIER.SLOW, 0);
+		_dashTargetSqueezeAngle = dashboard.registerNumber("InfeedArms:Target Squeeze Angle", TIER.SLOW, 0);
+		
+		_dashLeftHomed = dashboard.registerBoolean("InfeedArms:Left Homed?", TIER.NORMAL);
+		_dashRightHomed = dashboard.registerBoolean("InfeedArms:Right Homed?", TIER.NORMAL);
+		_dashAreSafe = dashboard.registerBoolean("InfeedArms:Are Safe?", TIER.NORMAL);
+		_dashInPosition = dashboard.registerBoolean("InfeedArms:InPosition?", TIER.NORMAL);
+		_dashArmsState = dashboard.registerString("InfeedArms:State", TIER.SLOW);
+		
+		_dashLeftPositionNU = dashboard.registerNumber("InfeedArms:Left Current PositionNU", TIER.NORMAL, 5);
+		_dashRightPositionNU = dashboard.registerNumber("InfeedArms:Right Current PositionNU:", TIER.NORMAL, 5);
+		
+		_dashLeftAngle = dashboard.registerNumber("InfeedArms:Left Current Angle", TIER.NORMAL, 0.1);
+		_dashRightAngle = dashboard.registerNumber("InfeedArms:Right Current Angle:", TIER.NORMAL, 0.1);
 	}
     
-	public void updateDashboard() 
+	public void updateDashboard(DashboardPublisher dashboard) 
 	{
-		SmartDashboard.putString("InfeedWheels:State", "N/A for 2019");
-		SmartDashboard.putNumber("InfeedWheels:%VBus", get_currentInFeedWheelsVBusCmd());
+		dashboard.set(_dashWheelsState, "N/A for 2019");
+		dashboard.set(_dashWheelsVBus, get_currentInFeedWheelsVBusCmd());
 		
-		SmartDashboard.putNumber("InfeedArms:Target Wide Angle:", degreesToNativeUnits(WIDE_INFEED_POSITION_ANGLE));
-		SmartDashboard.putNumber("InfeedArms:Target Squeeze Angle", -1.0); //_currentInFeedArmSqueezeTargetAngle);
+		dashboard.set(_dashTargetWideAngle, degreesToNativeUnits(WIDE_INFEED_POSITION_ANGLE));
+		dashboard.set(_dashTargetSqueezeAngle, -1.0); //_currentInFeedArmSqueezeTargetAngle);
 		
-		SmartDashboard.putBoolean("InfeedArms:Left Homed?", get_hasLeftArmBeenHomed());
-		SmartDashboard.putBoolean("InfeedArms:Right Homed?", get_hasRightArmBeenHomed());
-		SmartDashboard.putBoolean("InfeedArms:Are Safe?", get_areArmsInSafePosition());		
-		SmartDashboard.putBoolean("InfeedArms:InPosition?", get_areArmsInPosition());
-		SmartDashboard.putString("InfeedArms:State", "N/A for 2019");
+		dashboard.set(_dashLeftHomed, get_hasLeftArmBeenHomed());
+		dashboard.set(_dashRightHomed, get_hasRightArmBeenHomed());
+		dashboard.set(_dashAreSafe, get_areArmsInSafePosition());		
+		dashboard.set(_dashInPosition, get_areArmsInPosition());
+		dashboard.set(_dashArmsState, "N/A for 2019");
 		
-		SmartDashboard.putNumber("InfeedArms:Left Current PositionNU", get_currentLeftInfeedPosition());
-		SmartDashboard.putNumber("InfeedArms:Right Current PositionNU:", get_currentRightInfeedPosition());
+		dashboard.set(_dashLeftPositionNU, get_currentLeftInfeedPosition());
+		dashboard.set(_dashRightPositionNU, get_currentRightInfeedPosition());
 		
-		SmartDashboard.putNumber("InfeedArms:Left Current Angle", GeneralUtilities.roundDouble(nativeUnitsToDegrees(get_currentLeftInfeedPosition()), 1));
-		SmartDashboard.putNumber("InfeedArms:Right Current Angle:", GeneralUtilities.roundDouble(nativeUnitsToDegrees(get_currentRightInfeedPosition()), 1));
+		dashboard.set(_dashLeftAngle, GeneralUtilities.roundDouble(nativeUnitsToDegrees(get_currentLeftInfeedPosition()), 1));
+		dashboard.set(_dashRightAngle, GeneralUtilities.roundDouble(nativeUnitsToDegrees(get_currentRightInfeedPosition()), 1));
 	}
 	
 	//=====================================================================================
@@ -0,0 +1,132 @@
+package org.usfirst.frc.team4028.robot.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.usfirst.frc.team4028.robot.Constants;
+import org.usfirst.frc.team4028.robot.util.LogDataBE.CHANNEL_TYPE;
+
+/**
+ * Drains a LogRingBuffer into a compact binary log file on a background thread so that a slow
+ * USB stick can never stall the robot thread.
+ *
+ * File layout (big endian, java.io.DataOutputStream):
+ *   header: int magic, short version, int columnCount, 
+ *           columnCount x (UTF column name, UTF unit, byte LogDataBE.CHANNEL_TYPE ordinal)
+ *   record: double timestamp [mSec since epoch], columnCount x double value
+ */
+public class BinaryLogWriter implements Runnable {
+	public static final int FILE_MAGIC = 0x4C4F4742; // "LOGB"
+	public static final short FILE_VERSION = 2;
+
+	private static final long IDLE_SLEEP_MSEC = 20;
+
+	private final String _logFilePathName;
+	private final String[] _columnNames;
+	private final String[] _columnUnits;
+	private final CHANNEL_TYPE[] _columnTypes;
+	private final LogRingBuffer _ringBuffer;
+	private final Thread _thread;
+
+	private volatile boolean _isRunning = true;
+	private volatile long _writtenRecordCount;
+	private volatile boolean _isFaulted;
+
+	/** the channel schema is fixed for the life of the file, records must be offered in the same order */
+	public BinaryLogWriter(String logFilePathName, LogDataBE schema, int ringBufferCapacity) {
+		int columnCount = schema.getChannelCount();
+		
+		_logFilePathName = logFilePathName;
+		_columnNames = new String[columnCount];
+		_columnUnits = new String[columnCount];
+		_columnTypes = new CHANNEL_TYPE[columnCount];
+		for (int i = 0; i < columnCount; i++) {
+			_columnNames[i] = schema.getName(i);
+			_columnUnits[i] = (schema.getUnit(i) != null) ? schema.getUnit(i) : "";
+			_columnTypes[i] = schema.getType(i);
+		}
+		_ringBuffer = new LogRingBuffer(ringBufferCapacity, columnCount);
+
+		_thread = new Thread(this, "BinaryLogWriter");
+		_thread.setDaemon(true);
+		_thread.setPriority(Thread.MIN_PRIORITY);
+		_thread.start();
+	}
+
+	/** Called from the robot thread, never blocks, returns false if the record was dropped */
+	public boolean offer(double timestampMSec, double[] values, int count) {
+		return _ringBuffer.offer(timestampMSec, values, count);
+	}
+
+	/** Stops the writer thread after it has drained everything queued so far */
+	public void close() {
+		_isRunning = false;
+		try {
+			_thread.join(2000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void run() {
+		double[] record = new double[_ringBuffer.getRecordWidth()];
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(_logFilePathName), 64 * 1024))) {
+			writeHeader(out);
+
+			long lastFlushTimeMSec = System.currentTimeMillis();
+			while (_isRunning || !_ringBuffer.isEmpty()) {
+				boolean isAnyWritten = false;
+				while (_ringBuffer.poll(record)) {
+					for (int i = 0; i < record.length; i++) {
+						out.writeDouble(record[i]);
+					}
+					_writtenRecordCount++;
+					isAnyWritten = true;
+				}
+
+				long now = System.currentTimeMillis();
+				if (now - lastFlushTimeMSec > Constants.BINARY_LOG_FLUSH_INTERVAL_MSEC) {
+					out.flush();
+					lastFlushTimeMSec = now;
+				}
+
+				if (!isAnyWritten) {
+					Thread.sleep(IDLE_SLEEP_MSEC);
+				}
+			}
+			out.flush();
+		} catch (IOException e) {
+			_isFaulted = true;
+			System.out.println("..Error writing binary log: " + _logFilePathName + " " + e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void writeHeader(DataOutputStream out) throws IOException {
+		out.writeInt(FILE_MAGIC);
+		out.writeShort(FILE_VERSION);
+		out.writeInt(_columnNames.length);
+		for (int i = 0; i < _columnNames.length; i++) {
+			out.writeUTF(_columnNames[i]);
+			out.writeUTF(_columnUnits[i]);
+			out.writeByte(_columnTypes[i].ordinal());
+		}
+		out.flush();
+	}
+
+	//============================================================================================
+	// Property Accessors follow
+	//============================================================================================
+	public long getWrittenRecordCount() {
+		return _writtenRecordCount;
+	}
+
+	public boolean isFaulted() {
+		return _isFaulted;
+	}
+}
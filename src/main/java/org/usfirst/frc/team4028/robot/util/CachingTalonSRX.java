@@ -0,0 +1,245 @@
+package org.usfirst.frc.team4028.robot.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.motorcontrol.ControlMode;
+
+import org.usfirst.frc.team4028.robot.hardware.RealTalonSRX;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher.TIER;
+
+/**
+ * TalonSRX that remembers the last value applied per slot / parameter and only sends a CAN frame
+ * when the value changes. This lets control loops re-apply gains, profile slots and setpoints
+ * every scan without re-sending identical frames.
+ *
+ * If the Talon resets (ex. brownout) it loses its RAM config, invalidateAllIfReset() is called every scan
+ * (Robot.readAllSensors) & on each mode change so the next config call is sent again.
+ */
+public class CachingTalonSRX extends RealTalonSRX {
+	private static final int SLOT_COUNT = 4;
+	private static final int PARAM_KP = 0;
+	private static final int PARAM_KI = 1;
+	private static final int PARAM_KD = 2;
+	private static final int PARAM_KF = 3;
+	private static final int PARAM_IZONE = 4;
+	private static final int PARAM_COUNT = 5;
+
+	// totals across every instance, for watching the bus load
+	private static final AtomicLong _totalSentFrameCount = new AtomicLong();
+	private static final AtomicLong _totalSuppressedFrameCount = new AtomicLong();
+	private static final List<CachingTalonSRX> _instances = new ArrayList<CachingTalonSRX>();
+
+	private final double[][] _slotParams = new double[SLOT_COUNT][PARAM_COUNT];
+	private int _motionCruiseVelocity;
+	private int _motionAcceleration;
+	private int _profileSlot;
+	private ControlMode _lastControlMode;
+	private double _lastDemand;
+
+	private long _sentFrameCount;
+	private long _suppressedFrameCount;
+
+	public CachingTalonSRX(int deviceNumber) {
+		super(deviceNumber);
+		invalidateCache();
+
+		synchronized (_instances) {
+			_instances.add(this);
+		}
+	}
+
+	/** Forget everything cached, the next call of each config / set will be sent */
+	public synchronized void invalidateCache() {
+		for (double[] params : _slotParams) {
+			Arrays.fill(params, Double.NaN);
+		}
+		_motionCruiseVelocity = Integer.MIN_VALUE;
+		_motionAcceleration = Integer.MIN_VALUE;
+		_profileSlot = Integer.MIN_VALUE;
+		_lastControlMode = null;
+		_lastDemand = Double.NaN;
+	}
+
+	/** Invalidates the cache of any Talon that has reset since it was last checked */
+	public static void invalidateAllIfReset() {
+		synchronized (_instances) {
+			for (CachingTalonSRX talon : _instances) {
+				if (talon.hasResetOccurred()) {
+					talon.invalidateCache();
+				}
+			}
+		}
+	}
+
+	//=====================================================================================
+	// Closed Loop Gains (per slot)
+	//=====================================================================================
+	// check, send & cache are 1 synchronized section (like configMotion* & set) so 2 threads can't interleave them
+	@Override
+	public synchronized ErrorCode config_kP(int slotIdx, double value, int timeoutMs) {
+		if (isSlotParamCached(slotIdx, PARAM_KP, value)) {
+			return ErrorCode.OK;
+		}
+		return cacheSlotParam(slotIdx, PARAM_KP, value, super.config_kP(slotIdx, value, timeoutMs));
+	}
+
+	@Override
+	public synchronized ErrorCode config_kI(int slotIdx, double value, int timeoutMs) {
+		if (isSlotParamCached(slotIdx, PARAM_KI, value)) {
+			return ErrorCode.OK;
+		}
+		return cacheSlotParam(slotIdx, PARAM_KI, value, super.config_kI(slotIdx, value, timeoutMs));
+	}
+
+	@Override
+	public synchronized ErrorCode config_kD(int slotIdx, double value, int timeoutMs) {
+		if (isSlotParamCached(slotIdx, PARAM_KD, value)) {
+			return ErrorCode.OK;
+		}
+		return cacheSlotParam(slotIdx, PARAM_KD, value, super.config_kD(slotIdx, value, timeoutMs));
+	}
+
+	@Override
+	public synchronized ErrorCode config_kF(int slotIdx, double value, int timeoutMs) {
+		if (isSlotParamCached(slotIdx, PARAM_KF, value)) {
+			return ErrorCode.OK;
+		}
+		return cacheSlotParam(slotIdx, PARAM_KF, value, super.config_kF(slotIdx, value, timeoutMs));
+	}
+
+	@Override
+	public synchronized ErrorCode config_IntegralZone(int slotIdx, int izone, int timeoutMs) {
+		if (isSlotParamCached(slotIdx, PARAM_IZONE, izone)) {
+			return ErrorCode.OK;
+		}
+		return cacheSlotParam(slotIdx, PARAM_IZONE, izone, super.config_IntegralZone(slotIdx, izone, timeoutMs));
+	}
+
+	//=====================================================================================
+	// Motion Magic & Profile Slot
+	//=====================================================================================
+	@Override
+	public synchronized ErrorCode configMotionCruiseVelocity(int sensorUnitsPer100ms, int timeoutMs) {
+		if (sensorUnitsPer100ms == _motionCruiseVelocity) {
+			countSuppressed();
+			return ErrorCode.OK;
+		}
+		ErrorCode errorCode = super.configMotionCruiseVelocity(sensorUnitsPer100ms, timeoutMs);
+		countSent();
+		_motionCruiseVelocity = isOk(errorCode) ? sensorUnitsPer100ms : Integer.MIN_VALUE;
+		return errorCode;
+	}
+
+	@Override
+	public synchronized ErrorCode configMotionAcceleration(int sensorUnitsPer100msPerSec, int timeoutMs) {
+		if (sensorUnitsPer100msPerSec == _motionAcceleration) {
+			countSuppressed();
+			return ErrorCode.OK;
+		}
+		ErrorCode errorCode = super.configMotionAcceleration(sensorUnitsPer100msPerSec, timeoutMs);
+		countSent();
+		_motionAcceleration = isOk(errorCode) ? sensorUnitsPer100msPerSec : Integer.MIN_VALUE;
+		return errorCode;
+	}
+
+	@Override
+	public synchronized void selectProfileSlot(int slotIdx, int pidIdx) {
+		if (pidIdx == 0 && slotIdx == _profileSlot) {
+			countSuppressed();
+			return;
+		}
+		super.selectProfileSlot(slotIdx, pidIdx);
+		countSent();
+		if (pidIdx == 0) {
+			_profileSlot = slotIdx;
+		}
+	}
+
+	//=====================================================================================
+	// Control (set)
+	//=====================================================================================
+	@Override
+	public synchronized void set(ControlMode mode, double demand) {
+		if (mode == _lastControlMode && demand == _lastDemand) {
+			countSuppressed();
+			return;
+		}
+		super.set(mode, demand);
+		countSent();
+		_lastControlMode = mode;
+		_lastDemand = demand;
+	}
+
+	//=====================================================================================
+	// Private Helper methods below
+	//=====================================================================================
+	// caller holds the lock
+	private boolean isSlotParamCached(int slotIdx, int param, double value) {
+		if (slotIdx >= 0 && slotIdx < SLOT_COUNT && _slotParams[slotIdx][param] == value) {
+			countSuppressed();
+			return true;
+		}
+		return false;
+	}
+
+	private ErrorCode cacheSlotParam(int slotIdx, int param, double value, ErrorCode errorCode) {
+		countSent();
+		if (slotIdx >= 0 && slotIdx < SLOT_COUNT) {
+			_slotParams[slotIdx][param] = isOk(errorCode) ? value : Double.NaN;
+		}
+		return errorCode;
+	}
+
+	// a 0 timeout config returns immediately w/o confirmation, treat that as applied
+	private static boolean isOk(ErrorCode errorCode) {
+		return errorCode == null || errorCode == ErrorCode.OK;
+	}
+
+	private void countSent() {
+		_sentFrameCount++;
+		_totalSentFrameCount.incrementAndGet();
+	}
+
+	private void countSuppressed() {
+		_suppressedFrameCount++;
+		_totalSuppressedFrameCount.incrementAndGet();
+	}
+
+	//=====================================================================================
+	// Dashboard cmds
+	//=====================================================================================
+	private static int _dashSentFrames, _dashSuppressedFrames;
+
+	public static void registerDashboardKeys(DashboardPublisher dashboard) {
+		_dashSentFrames = dashboard.registerNumber("CAN: Talon Frames Sent", TIER.SLOW, 0);
+		_dashSuppressedFrames = dashboard.registerNumber("CAN: Talon Frames Suppressed", TIER.SLOW, 0);
+	}
+
+	public static void updateDashboard(DashboardPublisher dashboard) {
+		dashboard.set(_dashSentFrames, _totalSentFrameCount.get());
+		dashboard.set(_dashSuppressedFrames, _totalSuppressedFrameCount.get());
+	}
+
+	//=====================================================================================
+	// Property Accessors follow
+	//=====================================================================================
+	public synchronized long getSentFrameCount() {
+		return _sentFrameCount;
+	}
+
+	public synchronized long getSuppressedFrameCount() {
+		return _suppressedFrameCount;
+	}
+
+	public static long getTotalSentFrameCount() {
+		return _totalSentFrameCount.get();
+	}
+
+	public static long getTotalSuppressedFrameCount() {
+		return _totalSuppressedFrameCount.get();
+	}
+}
@@ -0,0 +1,101 @@
+package org.usfirst.frc.team4028.robot.util;
+
+import org.usfirst.frc.team4028.robot.Constants;
+
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher.TIER;
+
+import edu.wpi.first.wpilibj.Notifier;
+
+/**
+ * Runs a task on its own fixed period Notifier thread, independent of the TimedRobot main loop.
+ * Tracks how late each start is vs. the requested period (jitter) and how long each run takes.
+ * The task is responsible for its own thread safety with the main thread (ex. synchronized methods).
+ */
+public class ControlLoopExecutor {
+	private final Runnable _task;
+	private final double _periodSec;
+	private final long _periodNanos;
+	private Notifier _notifier;	// guarded by this, created in start() so building a subsystem off the robot (sim, tests) needs no HAL
+
+	// guarded by this, recorded on the notifier thread and read on the main thread
+	private final LatencyHistogram _startJitter;
+	private final LatencyHistogram _executionTime;
+
+	private long _lastStartNanos; // guarded by this
+	private volatile boolean _isRunning;
+
+	private final DashboardPublisher _dashboard = DashboardPublisher.getInstance();
+	private final int _dashIsRunning, _dashJitterP99, _dashJitterMax, _dashExecP99, _dashOverruns;
+
+	public ControlLoopExecutor(String name, Runnable task, double periodSec) {
+		_task = task;
+		_periodSec = periodSec;
+		_periodNanos = (long)(periodSec * 1e9);
+
+		_startJitter = new LatencyHistogram(Constants.LOOP_PROFILER_BUCKET_WIDTH_NANOS / 5,
+											Constants.LOOP_PROFILER_BUCKET_COUNT, _periodNanos / 2);
+		_executionTime = new LatencyHistogram(Constants.LOOP_PROFILER_BUCKET_WIDTH_NANOS / 5,
+											Constants.LOOP_PROFILER_BUCKET_COUNT, _periodNanos);
+
+		_dashIsRunning = _dashboard.registerBoolean(name + ": Running?", TIER.NORMAL);
+		_dashJitterP99 = _dashboard.registerNumber(name + ": Jitter p99 [ms]", TIER.SLOW, 0.01);
+		_dashJitterMax = _dashboard.registerNumber(name + ": Jitter max [ms]", TIER.SLOW, 0.01);
+		_dashExecP99 = _dashboard.registerNumber(name + ": Exec p99 [ms]", TIER.SLOW, 0.01);
+		_dashOverruns = _dashboard.registerNumber(name + ": Overruns", TIER.SLOW, 0);
+	}
+
+	public synchronized void start() {
+		if (!_isRunning) {
+			_lastStartNanos = 0;
+			_startJitter.reset();
+			_executionTime.reset();
+			_isRunning = true;
+			if (_notifier == null) {
+				_notifier = new Notifier(new Runnable() {
+					@Override
+					public void run() {
+						runOnce();
+					}
+				});
+			}
+			_notifier.startPeriodic(_periodSec);
+		}
+	}
+
+	public synchronized void stop() {
+		if (_isRunning) {
+			_notifier.stop();
+			_isRunning = false;
+		}
+	}
+
+	public boolean isRunning() {
+		return _isRunning;
+	}
+
+	private void runOnce() {
+		long startNanos = System.nanoTime();
+
+		_task.run();
+
+		long endNanos = System.nanoTime();
+		synchronized (this) {
+			if (_lastStartNanos != 0) {
+				_startJitter.record(Math.abs((startNanos - _lastStartNanos) - _periodNanos));
+			}
+			_executionTime.record(endNanos - startNanos);
+			_lastStartNanos = startNanos;
+		}
+	}
+
+	//=====================================================================================
+	// Dashboard cmds
+	//=====================================================================================
+	public synchronized void updateDashboard() {
+		_dashboard.set(_dashIsRunning, _isRunning);
+		_dashboard.set(_dashJitterP99, _startJitter.getPercentileNanos(99) / 1e6);
+		_dashboard.set(_dashJitterMax, _startJitter.getMaxNanos() / 1e6);
+		_dashboard.set(_dashExecP99, _executionTime.getPercentileNanos(99) / 1e6);
+		_dashboard.set(_dashOverruns, _executionTime.getOverrunCount());
+	}
+}
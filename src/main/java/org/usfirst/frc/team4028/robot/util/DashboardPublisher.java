@@ -0,0 +1,204 @@
+package org.usfirst.frc.team4028.robot.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.usfirst.frc.team4028.robot.Constants;
+
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+
+// Sits between the subsystems and SmartDashboard so the main loop never talks to NetworkTables.
+// Each key is registered 1x (like the log channels) w/ a tier that sets how often it may be sent, and gets back
+//	an int handle. The main loop only writes values thru that handle into a preallocated staging slot.
+// A background Notifier thread sends each tier at its own rate, and only the keys whose value changed
+//	(numbers by more than their epsilon) since they were last sent, so unchanged values cost no Wi-Fi bandwidth.
+public class DashboardPublisher {
+	public enum TIER {
+		FAST(1),		// 50 Hz, what the drive team watches move
+		NORMAL(5),		// 10 Hz
+		SLOW(50);		// 1 Hz, diagnostics & stats
+
+		private final int _publishTicks;	// sent every this many publisher periods
+
+		private TIER(int publishTicks) {
+			_publishTicks = publishTicks;
+		}
+	}
+
+	private enum VALUE_TYPE {
+		NUMBER,
+		BOOLEAN,
+		STRING
+	}
+
+	// registration, guarded by _registrationLock (the arrays are preallocated so the publisher thread can read them w/o locking)
+	private final Object _registrationLock = new Object();
+	private final Map<String, Integer> _handlesByKey = new HashMap<String, Integer>();
+	private final String[] _keys = new String[Constants.DASHBOARD_MAX_KEYS];
+	private final VALUE_TYPE[] _types = new VALUE_TYPE[Constants.DASHBOARD_MAX_KEYS];
+	private final TIER[] _tiers = new TIER[Constants.DASHBOARD_MAX_KEYS];
+	private final double[] _epsilons = new double[Constants.DASHBOARD_MAX_KEYS];
+	private volatile int _keyCount;
+
+	// staging, written by the main loop (numbers & booleans as raw double bits)
+	private final AtomicLongArray _stagedNumbers = new AtomicLongArray(Constants.DASHBOARD_MAX_KEYS);
+	private final AtomicReferenceArray<String> _stagedStrings = new AtomicReferenceArray<String>(Constants.DASHBOARD_MAX_KEYS);
+
+	// only touched by the publisher thread
+	private final double[] _sentNumbers = new double[Constants.DASHBOARD_MAX_KEYS];
+	private final String[] _sentStrings = new String[Constants.DASHBOARD_MAX_KEYS];
+	private final boolean[] _isSent = new boolean[Constants.DASHBOARD_MAX_KEYS];
+	private long _tick;
+	private volatile long _sentCount, _suppressedCount;	// only written by the publisher thread
+
+	private Notifier _notifier;	// created in start() so registering keys off the robot (benchmarks, sim) needs no HAL
+	private boolean _isRunning;
+	private final int _sentCountHandle, _suppressedCountHandle;
+
+	//=====================================================================================
+	// Define Singleton Pattern
+	//=====================================================================================
+	private static DashboardPublisher _instance = new DashboardPublisher();
+
+	public static DashboardPublisher getInstance() {
+		return _instance;
+	}
+
+	// private constructor for singleton pattern
+	private DashboardPublisher() {
+		for (int handle = 0; handle < Constants.DASHBOARD_MAX_KEYS; handle++) {
+			_stagedNumbers.set(handle, Double.doubleToRawLongBits(Double.NaN));
+		}
+		_sentCountHandle = registerNumber("Dashboard: Values Sent", TIER.SLOW, 0.0);
+		_suppressedCountHandle = registerNumber("Dashboard: Values Suppressed", TIER.SLOW, 0.0);
+	}
+
+	public void start() {
+		synchronized (_registrationLock) {
+			if (!_isRunning) {
+				_isRunning = true;
+				_notifier = new Notifier(new Runnable() {
+					@Override
+					public void run() {
+						publish();
+					}
+				});
+				_notifier.startPeriodic(Constants.DASHBOARD_PUBLISH_PERIOD_SEC);
+			}
+		}
+	}
+
+	//============================================================================================
+	// Registration (1x per key, registering a key again w/ the same type & tier returns its existing handle)
+	//============================================================================================
+	/** only sent once it has moved more than epsilon from the value last sent */
+	public int registerNumber(String key, TIER tier, double epsilon) {
+		return register(key, VALUE_TYPE.NUMBER, tier, epsilon);
+	}
+
+	public int registerBoolean(String key, TIER tier) {
+		return register(key, VALUE_TYPE.BOOLEAN, tier, 0.0);
+	}
+
+	public int registerString(String key, TIER tier) {
+		return register(key, VALUE_TYPE.STRING, tier, 0.0);
+	}
+
+	//============================================================================================
+	// Per scan (any thread, never blocks)
+	//============================================================================================
+	public void set(int handle, double value) {
+		_stagedNumbers.lazySet(handle, Double.doubleToRawLongBits(value));
+	}
+
+	public void set(int handle, boolean value) {
+		_stagedNumbers.lazySet(handle, Double.doubleToRawLongBits(value ? 1.0 : 0.0));
+	}
+
+	public void set(int handle, String value) {
+		_stagedStrings.lazySet(handle, value);
+	}
+
+	//=====================================================================================
+	// Property Accessors
+	//=====================================================================================
+	/** values actually sent to NetworkTables */
+	public long getSentCount() {
+		return _sentCount;
+	}
+
+	/** due values that were not sent because they had not changed */
+	public long getSuppressedCount() {
+		return _suppressedCount;
+	}
+
+	//=====================================================================================
+	// Private Helper methods below
+	//=====================================================================================
+	private int register(String key, VALUE_TYPE type, TIER tier, double epsilon) {
+		synchronized (_registrationLock) {
+			Integer existing = _handlesByKey.get(key);
+			if (existing != null) {
+				// 2 owners of 1 key would overwrite each other's value, fail at registration instead
+				if (_types[existing] != type || _tiers[existing] != tier) {
+					throw new IllegalArgumentException("Dashboard key " + key + " is already registered as a "
+														+ _types[existing] + " " + _tiers[existing] + ", not a " + type + " " + tier);
+				}
+				return existing;
+			}
+			if (_keyCount == Constants.DASHBOARD_MAX_KEYS) {
+				throw new IllegalStateException("Too many dashboard keys, raise DASHBOARD_MAX_KEYS: " + key);
+			}
+
+			final int handle = _keyCount;
+			_keys[handle] = key;
+			_types[handle] = type;
+			_tiers[handle] = tier;
+			_epsilons[handle] = epsilon;
+			_handlesByKey.put(key, handle);
+			_keyCount = handle + 1;	// volatile write publishes the slot to the publisher thread
+			return handle;
+		}
+	}
+
+	/** runs on the notifier thread only, never holds a lock the main loop could wait on */
+	private void publish() {
+		_tick++;
+		final int keyCount = _keyCount;
+		for (int handle = 0; handle < keyCount; handle++) {
+			if (_tick % _tiers[handle]._publishTicks != 0) {
+				continue;
+			}
+
+			if (_types[handle] == VALUE_TYPE.STRING) {
+				final String value = _stagedStrings.get(handle);
+				if (value == null || (_isSent[handle] && value.equals(_sentStrings[handle]))) {
+					_suppressedCount++;
+					continue;
+				}
+				SmartDashboard.putString(_keys[handle], value);
+				_sentStrings[handle] = value;
+			} else {
+				final double value = Double.longBitsToDouble(_stagedNumbers.get(handle));
+				if (Double.isNaN(value)
+						|| (_isSent[handle] && Math.abs(value - _sentNumbers[handle]) <= _epsilons[handle])) {
+					_suppressedCount++;
+					continue;
+				}
+				if (_types[handle] == VALUE_TYPE.BOOLEAN) {
+					SmartDashboard.putBoolean(_keys[handle], value != 0.0);
+				} else {
+					SmartDashboard.putNumber(_keys[handle], value);
+				}
+				_sentNumbers[handle] = value;
+			}
+			_isSent[handle] = true;
+			_sentCount++;
+		}
+		set(_sentCountHandle, (double)_sentCount);
+		set(_suppressedCountHandle, (double)_suppressedCount);
+	}
+}
@@ -10,28 +10,43 @@ import java.util.Date;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 
+import org.usfirst.frc.team4028.robot.Constants;
+
 // implements logic to log data to text file
+//  in binary mode the robot thread only queues primitive records, a background thread does the file I/O
 public class DataLogger {
 	private PrintWriter _writer;
+	private BinaryLogWriter _binaryWriter;
     
     private String _logFilePathName;
     private boolean _isLoggingEnabled;
     private Date _loggingStartedDT;
     private Date _lastScanDT;
     private boolean _isHeadersWrittenAlready;
+    private boolean _isBinary;
+    private long _droppedRecordCount;
 
     // constructor, open a new timestamped log file in the target directory
     public DataLogger(String parentFolder, String fileSuffix) throws IOException {
+    	this(parentFolder, fileSuffix, false);
+    }
+
+    // constructor, optionally log in the binary format (the file is created when the 1st scan is written)
+    public DataLogger(String parentFolder, String fileSuffix, boolean isBinary) throws IOException {
+    	_isBinary = isBinary;
+    	
     	SimpleDateFormat outputFormatter = new SimpleDateFormat("yyyyMMdd_HHmmss_SSS");
 		outputFormatter.setTimeZone(TimeZone.getTimeZone("US/Eastern")); 
 		String newDateString = outputFormatter.format(new Date());
     	
     	// build the new filename
-    	String fileName = newDateString + "_" + fileSuffix + ".tsv";
+    	String fileName = newDateString + "_" + fileSuffix + (_isBinary ? ".bin" : ".tsv");
     	// build the full file path name
     	_logFilePathName = parentFolder + File.separator + fileName;
     	
-        _writer = new PrintWriter(new BufferedWriter(new FileWriter(_logFilePathName, true)));
+    	if (!_isBinary) {
+    		_writer = new PrintWriter(new BufferedWriter(new FileWriter(_logFilePathName, true)));
+    	}
     }
     
     // Write a string to the file
@@ -46,7 +61,13 @@ public class DataLogger {
 
     // Write a structured data object to the log file
     public void WriteDataLine(LogDataBE dataToLog) {
+    	if (_isBinary) {
+    		WriteBinaryRecord(dataToLog);
+    		return;
+    	}
+    	
     	if(!_isHeadersWrittenAlready) {
+    		dataToLog.lockSchema();
     		WriteHeaderLine(dataToLog.BuildTSVHeader());
     		_isHeadersWrittenAlready = true;
     	}
@@ -67,8 +88,27 @@ public class DataLogger {
         _lastScanDT = new Date();
     }
         
+    // Queue a structured data object for the background binary writer, this never touches the file
+    private void WriteBinaryRecord(LogDataBE dataToLog) {
+    	if (_binaryWriter == null) {
+    		// the registered channels become the schema header of the file
+    		dataToLog.lockSchema();
+    		_binaryWriter = new BinaryLogWriter(_logFilePathName, dataToLog, Constants.BINARY_LOG_RING_BUFFER_CAPACITY);
+    	}
+    	
+    	double[] values = dataToLog.getValues();
+    	if (!_binaryWriter.offer(System.currentTimeMillis(), values, values.length)) {
+    		_droppedRecordCount++;
+    	}
+    }
+        
     public void close() {
-    	_writer.close(); // close the file
+    	if (_writer != null) {
+    		_writer.close(); // close the file
+    	}
+    	if (_binaryWriter != null) {
+    		_binaryWriter.close(); // drain the queue & close the file
+    	}
     }
     
 	//============================================================================================
@@ -81,4 +121,8 @@ public class DataLogger {
 	public String getLogFilePathName() {
 		return _logFilePathName;
 	}
+	
+	public long getDroppedRecordCount() {
+		return _droppedRecordCount;
+	}
 }
\ No newline at end of file
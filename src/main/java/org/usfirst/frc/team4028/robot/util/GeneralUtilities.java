@@ -14,8 +14,7 @@ import java.util.TimeZone;
 
 import org.usfirst.frc.team4028.robot.Constants;
 import org.usfirst.frc.team4028.robot.Robot;
-
-import com.ctre.phoenix.motorcontrol.can.TalonSRX;
+import org.usfirst.frc.team4028.robot.hardware.ITalonSRX;
 
 import edu.wpi.first.wpilibj.DriverStation;
 
@@ -60,7 +59,7 @@ public class GeneralUtilities {
 		Path alternatePath = Paths.get(Constants.ALTERNATE_LOG_FILE_PATH);
     	if (Files.exists(path)) {
     		try {
-				dataLogger = new DataLogger(Constants.PRIMARY_LOG_FILE_PATH, mode);
+				dataLogger = new DataLogger(Constants.PRIMARY_LOG_FILE_PATH, mode, Constants.IS_BINARY_LOGGING_ENABLED);
 					    		
 	    		System.out.println("..Logging enabled to: " + dataLogger.getLogFilePathName());
 			} catch (IOException e) {
@@ -73,7 +72,7 @@ public class GeneralUtilities {
     	}
     	else if (Files.exists(alternatePath)) {
     		try {
-				dataLogger = new DataLogger(Constants.ALTERNATE_LOG_FILE_PATH, mode);
+				dataLogger = new DataLogger(Constants.ALTERNATE_LOG_FILE_PATH, mode, Constants.IS_BINARY_LOGGING_ENABLED);
 					    		
 	    		System.out.println("..Logging enabled to: " + dataLogger.getLogFilePathName());
 			} catch (IOException e) {
@@ -103,14 +102,14 @@ public class GeneralUtilities {
         return (a - epsilon <= b) && (a + epsilon >= b);
     }
     
-    public static void setPIDFGains(TalonSRX talon, double[] gains) {
+    public static void setPIDFGains(ITalonSRX talon, double[] gains) {
     	talon.config_kP(0, gains[0], 0);
 		talon.config_kI(0, gains[1], 0);
 		talon.config_kD(0, gains[2], 0);
 		talon.config_kF(0, gains[3], 0);
     }
     
-    public static void setMotionMagicConstants(TalonSRX talon, int[] constants) {
+    public static void setMotionMagicConstants(ITalonSRX talon, int[] constants) {
     	talon.configMotionCruiseVelocity(constants[0], 0);
     	talon.configMotionAcceleration(constants[1], 0);
     }
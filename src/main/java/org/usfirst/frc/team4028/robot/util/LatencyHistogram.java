@@ -0,0 +1,92 @@
+package org.usfirst.frc.team4028.robot.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed bucket latency histogram. All storage is allocated in the constructor so recording
+ * a sample from the robot loop never allocates. Samples past the last bucket land in an overflow bucket.
+ */
+public class LatencyHistogram {
+	private final long _bucketWidthNanos;
+	private final long _overrunThresholdNanos;
+	private final long[] _bucketCounts;
+
+	private long _sampleCount;
+	private long _overrunCount;
+	private long _maxNanos;
+	private long _lastNanos;
+
+	/**
+	 * @param bucketWidthNanos resolution of the percentiles
+	 * @param bucketCount # of buckets, the histogram spans bucketWidthNanos * bucketCount
+	 * @param overrunThresholdNanos samples longer than this are counted as overruns
+	 */
+	public LatencyHistogram(long bucketWidthNanos, int bucketCount, long overrunThresholdNanos) {
+		_bucketWidthNanos = bucketWidthNanos;
+		_overrunThresholdNanos = overrunThresholdNanos;
+		// last slot is the overflow bucket
+		_bucketCounts = new long[bucketCount + 1];
+	}
+
+	public void record(long elapsedNanos) {
+		if (elapsedNanos < 0) {
+			elapsedNanos = 0;
+		}
+
+		int bucket = (int)Math.min(elapsedNanos / _bucketWidthNanos, _bucketCounts.length - 1);
+		_bucketCounts[bucket]++;
+		_sampleCount++;
+		_lastNanos = elapsedNanos;
+
+		if (elapsedNanos > _maxNanos) {
+			_maxNanos = elapsedNanos;
+		}
+		if (elapsedNanos > _overrunThresholdNanos) {
+			_overrunCount++;
+		}
+	}
+
+	/** Upper edge of the bucket holding the requested percentile (0 - 100), the max if it is in the overflow bucket */
+	public long getPercentileNanos(double percentile) {
+		if (_sampleCount == 0) {
+			return 0;
+		}
+
+		long target = (long)Math.ceil(_sampleCount * (percentile / 100.0));
+		long cumulative = 0;
+		for (int i = 0; i < _bucketCounts.length - 1; i++) {
+			cumulative += _bucketCounts[i];
+			if (cumulative >= Math.max(1, target)) {
+				return Math.min((i + 1) * _bucketWidthNanos, _maxNanos);
+			}
+		}
+		return _maxNanos;
+	}
+
+	public void reset() {
+		Arrays.fill(_bucketCounts, 0);
+		_sampleCount = 0;
+		_overrunCount = 0;
+		_maxNanos = 0;
+		_lastNanos = 0;
+	}
+
+	//============================================================================================
+	// Property Accessors follow
+	//============================================================================================
+	public long getSampleCount() {
+		return _sampleCount;
+	}
+
+	public long getOverrunCount() {
+		return _overrunCount;
+	}
+
+	public long getMaxNanos() {
+		return _maxNanos;
+	}
+
+	public long getLastNanos() {
+		return _lastNanos;
+	}
+}
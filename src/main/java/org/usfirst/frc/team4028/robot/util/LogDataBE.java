@@ -1,57 +1,146 @@
 package org.usfirst.frc.team4028.robot.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 // This is a "data entity" class that hold the data to logged.
-// Subsystem classes use the Add method to add data in their UpdateLogData method as Name/Value pairs
-// Internally, this class holds the Names & Values in 2 arrays
-// Therefore this class does not need to be changed to support addl data to be logged, it grows dynamically
+// Subsystem classes register their channels 1x (name, unit, type) in their registerLogChannels method
+//	and get back an int handle, then write raw values thru that handle in their updateLogData method.
+// Internally, this class holds 1 preallocated primitive slot per channel that is reused every scan,
+//	so steady state logging does not build strings, box values or grow any lists.
 public class LogDataBE {
+	public enum CHANNEL_TYPE {
+		DOUBLE,
+		INT,
+		BOOLEAN
+	}
+
 	// define class level working variables
-	private List<String> _names;
-	private List<String> _values;
-	
-	public LogDataBE() {
-		_names = new ArrayList<String>();
-		_values = new ArrayList<String>();
-	}
-		
-	public void AddData(String name, String value) {
+	private List<String> _names = new ArrayList<String>();
+	private List<String> _units = new ArrayList<String>();
+	private List<CHANNEL_TYPE> _types = new ArrayList<CHANNEL_TYPE>();
+	private double[] _values = new double[0];
+	private boolean _isSchemaLocked;
+
+	//============================================================================================
+	// Registration (1x at startup)
+	//============================================================================================
+	/** Declare a channel, returns the handle to use when setting its value each scan */
+	public int registerChannel(String name, String unit, CHANNEL_TYPE type) {
+		if (_isSchemaLocked) {
+			throw new IllegalStateException("Log channel registered after logging started: " + name);
+		}
+
 		_names.add(name);
-		_values.add(value);
+		_units.add(unit);
+		_types.add(type);
+		_values = Arrays.copyOf(_values, _names.size());
+		_values[_values.length - 1] = Double.NaN;
+
+		return _values.length - 1;
+	}
+
+	/** Called by the logger when it writes its header, the column set is fixed from here on */
+	public void lockSchema() {
+		_isSchemaLocked = true;
+	}
+
+	//============================================================================================
+	// Per scan
+	//============================================================================================
+	public void set(int handle, double value) {
+		_values[handle] = value;
 	}
-	
-	/** Discard any data currently being held */
+
+	public void set(int handle, int value) {
+		_values[handle] = value;
+	}
+
+	public void set(int handle, boolean value) {
+		_values[handle] = value ? 1.0 : 0.0;
+	}
+
+	/** Discard any data currently being held (channels not set this scan will log as blank) */
 	public void ResetData() {
-		_names.clear();
-		_values.clear();	
+		Arrays.fill(_values, Double.NaN);
 	}
 
 	/** Build a TSV (tab separated value) string for the header row */
 	public String BuildTSVHeader() {
-		return BuildTSVString(_names);
+		String[] items = new String[_names.size()];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = BuildColumnHeader(_names.get(i), _units.get(i));
+		}
+		return BuildTSVString(items, items.length);
 	}
 
 	/** Build a TSV (tab separated value) string for a data row */
 	public String BuildTSVData() {
-		return BuildTSVString(_values);
+		String[] items = new String[_values.length];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = FormatValue(_types.get(i), _values[i]);
+		}
+		return BuildTSVString(items, items.length);
 	}
-	
-	/** Build a TSV string from a List<string> */
-	private String BuildTSVString(List<String> myList) {
+
+	/** Build a TSV string from an array of strings */
+	public static String BuildTSVString(String[] items, int count) {
 		StringBuilder sb = new StringBuilder();
-		
-		for(String item : myList) {
+
+		for(int i = 0; i < count; i++) {
 			// add the item + a tab character
-			sb.append(item + "\t");
+			sb.append(items[i]).append("\t");
 		}
-		
-		String lineToWrite = sb.toString();
-		
+
 		// add trailing crlf
-		lineToWrite = lineToWrite + "\r\n";
-		
-		return lineToWrite;
+		sb.append("\r\n");
+
+		return sb.toString();
+	}
+
+	public static String BuildColumnHeader(String name, String unit) {
+		return (unit == null || unit.isEmpty()) ? name : name + " [" + unit + "]";
+	}
+
+	/** Format a raw slot value the same way for the TSV writer and the offline converter */
+	public static String FormatValue(CHANNEL_TYPE type, double value) {
+		if (Double.isNaN(value)) {
+			return "";
+		}
+
+		switch (type) {
+			case INT:
+				return String.valueOf((long)value);
+			case BOOLEAN:
+				return String.valueOf(value != 0.0);
+			case DOUBLE:
+			default:
+				return String.valueOf(value);
+		}
+	}
+
+	//============================================================================================
+	// Property Accessors follow
+	//============================================================================================
+	public int getChannelCount() {
+		return _names.size();
+	}
+
+	public String getName(int handle) {
+		return _names.get(handle);
+	}
+
+	public String getUnit(int handle) {
+		return _units.get(handle);
+	}
+
+	public CHANNEL_TYPE getType(int handle) {
+		return _types.get(handle);
+	}
+
+	/** raw values for the current scan, 1 slot per registered channel */
+	public double[] getValues() {
+		return _values;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,78 @@
+package org.usfirst.frc.team4028.robot.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single producer / single consumer ring buffer of fixed width double records.
+ * All storage is allocated up front so the robot thread never allocates when it offers a record.
+ * Slot 0 of each record holds the timestamp, the remaining slots hold the column values.
+ */
+public class LogRingBuffer {
+	private final double[] _buffer;
+	private final int _recordWidth;
+	private final int _capacity;
+	private final int _mask;
+
+	// next record the producer will write (only advanced by the producer)
+	private final AtomicLong _tail = new AtomicLong(0);
+	// next record the consumer will read (only advanced by the consumer)
+	private final AtomicLong _head = new AtomicLong(0);
+
+	public LogRingBuffer(int capacity, int valuesPerRecord) {
+		// round up to a power of 2 so we can mask instead of mod
+		_capacity = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+		_mask = _capacity - 1;
+		_recordWidth = valuesPerRecord + 1;
+		_buffer = new double[_capacity * _recordWidth];
+	}
+
+	/** Called from the producer thread, returns false (record is dropped) if the buffer is full */
+	public boolean offer(double timestamp, double[] values, int count) {
+		long tail = _tail.get();
+		if (tail - _head.get() >= _capacity) {
+			return false;
+		}
+
+		int offset = (int)(tail & _mask) * _recordWidth;
+		int valuesToCopy = Math.min(count, _recordWidth - 1);
+		_buffer[offset] = timestamp;
+		System.arraycopy(values, 0, _buffer, offset + 1, valuesToCopy);
+		for (int i = valuesToCopy + 1; i < _recordWidth; i++) {
+			_buffer[offset + i] = Double.NaN;
+		}
+
+		// publish the record to the consumer
+		_tail.lazySet(tail + 1);
+		return true;
+	}
+
+	/** Called from the consumer thread, copies the oldest record (timestamp first) into record */
+	public boolean poll(double[] record) {
+		long head = _head.get();
+		if (head >= _tail.get()) {
+			return false;
+		}
+
+		int offset = (int)(head & _mask) * _recordWidth;
+		System.arraycopy(_buffer, offset, record, 0, _recordWidth);
+
+		// hand the slot back to the producer
+		_head.lazySet(head + 1);
+		return true;
+	}
+
+	//============================================================================================
+	// Property Accessors follow
+	//============================================================================================
+	public boolean isEmpty() {
+		return _head.get() >= _tail.get();
+	}
+
+	public int getRecordWidth() {
+		return _recordWidth;
+	}
+
+	public int getCapacity() {
+		return _capacity;
+	}
+}
@@ -0,0 +1,149 @@
+package org.usfirst.frc.team4028.robot.util;
+
+import org.usfirst.frc.team4028.robot.Constants;
+import org.usfirst.frc.team4028.robot.util.DashboardPublisher.TIER;
+import org.usfirst.frc.team4028.robot.util.LogDataBE.CHANNEL_TYPE;
+
+/**
+ * Times each phase of the periodic robot loop with System.nanoTime() into allocation free histograms.
+ * Usage in a periodic method:
+ * 	long t = _profiler.startScan();
+ * 	... phase work ...
+ * 	t = _profiler.lap(PHASE.SCHEDULER, t);
+ * 	...
+ * 	_profiler.endScan();
+ */
+public class LoopProfiler {
+	public enum PHASE {
+		SCAN("Scan"),
+		SENSORS("Sensor Read"),
+		SCHEDULER("Scheduler"),
+		CHASSIS_UPDATE("Chassis Update"),
+		DASHBOARD("Dashboard"),
+		LOGGING("Logging"),
+		CHASSIS_DASHBOARD("Chassis Dashboard"),
+		ELEVATOR_DASHBOARD("Elevator Dashboard"),
+		INFEED_DASHBOARD("Infeed Dashboard"),
+		CARRIAGE_DASHBOARD("Carriage Dashboard"),
+		CLIMBER_DASHBOARD("Climber Dashboard"),
+		CHASSIS_LOG("Chassis Log"),
+		ELEVATOR_LOG("Elevator Log"),
+		INFEED_LOG("Infeed Log"),
+		CARRIAGE_LOG("Carriage Log"),
+		CLIMBER_LOG("Climber Log");
+
+		private final String _name;
+
+		private PHASE(String name) {
+			_name = name;
+		}
+	}
+
+	private static final double NANOS_PER_MSEC = 1000000.0;
+
+	private final LatencyHistogram[] _histograms = new LatencyHistogram[PHASE.values().length];
+	private final int[] _logHandles = new int[PHASE.values().length];
+	private int _logOverrunsHandle;
+	private final int[] _dashP50Handles = new int[PHASE.values().length];
+	private final int[] _dashP99Handles = new int[PHASE.values().length];
+	private final int[] _dashMaxHandles = new int[PHASE.values().length];
+	private int _dashOverrunsHandle;
+	private long _scanStartNanos;
+	private long _lastDashboardWriteTimeMSec;
+
+	//=====================================================================================
+	// Define Singleton Pattern
+	//=====================================================================================
+	private static LoopProfiler _instance = new LoopProfiler();
+
+	public static LoopProfiler getInstance() {
+		return _instance;
+	}
+
+	// private constructor for singleton pattern
+	private LoopProfiler() {
+		// the budget is for the whole scan, a phase has none of its own so only the scan counts overruns
+		for (int i = 0; i < _histograms.length; i++) {
+			_histograms[i] = new LatencyHistogram(Constants.LOOP_PROFILER_BUCKET_WIDTH_NANOS,
+													Constants.LOOP_PROFILER_BUCKET_COUNT,
+													(i == PHASE.SCAN.ordinal()) ? Constants.LOOP_BUDGET_NANOS : Long.MAX_VALUE);
+		}
+	}
+
+	//=====================================================================================
+	// Timing
+	//=====================================================================================
+	/** Call 1st thing in a periodic method, returns the timestamp to pass to the 1st lap */
+	public long startScan() {
+		_scanStartNanos = System.nanoTime();
+		return _scanStartNanos;
+	}
+
+	/** Records the time since phaseStartNanos against the phase, returns now to chain into the next lap */
+	public long lap(PHASE phase, long phaseStartNanos) {
+		long now = System.nanoTime();
+		_histograms[phase.ordinal()].record(now - phaseStartNanos);
+		return now;
+	}
+
+	/** Call last thing in a periodic method */
+	public void endScan() {
+		lap(PHASE.SCAN, _scanStartNanos);
+	}
+
+	/** Clear the stats, call on each mode change so auton & teleop are reported separately */
+	public void reset() {
+		for (LatencyHistogram histogram : _histograms) {
+			histogram.reset();
+		}
+	}
+
+	public LatencyHistogram getHistogram(PHASE phase) {
+		return _histograms[phase.ordinal()];
+	}
+
+	//=====================================================================================
+	// LogData & Dashboard cmds
+	//=====================================================================================
+	public void registerLogChannels(LogDataBE logData) {
+		for (PHASE phase : PHASE.values()) {
+			_logHandles[phase.ordinal()] = logData.registerChannel("Loop: " + phase._name, "ms", CHANNEL_TYPE.DOUBLE);
+		}
+		_logOverrunsHandle = logData.registerChannel("Loop: Overruns", "", CHANNEL_TYPE.INT);
+	}
+
+	/** Logs the latest sample of each phase (the logging & scan phases are from the prior scan) */
+	public void updateLogData(LogDataBE logData) {
+		for (int i = 0; i < _histograms.length; i++) {
+			logData.set(_logHandles[i], _histograms[i].getLastNanos() / NANOS_PER_MSEC);
+		}
+		logData.set(_logOverrunsHandle, (int)getHistogram(PHASE.SCAN).getOverrunCount());
+	}
+
+	public void registerDashboardKeys(DashboardPublisher dashboard) {
+		for (PHASE phase : PHASE.values()) {
+			final int i = phase.ordinal();
+			_dashP50Handles[i] = dashboard.registerNumber("Loop: " + phase._name + " p50 [ms]", TIER.SLOW, 0.01);
+			_dashP99Handles[i] = dashboard.registerNumber("Loop: " + phase._name + " p99 [ms]", TIER.SLOW, 0.01);
+			_dashMaxHandles[i] = dashboard.registerNumber("Loop: " + phase._name + " max [ms]", TIER.SLOW, 0.01);
+		}
+		_dashOverrunsHandle = dashboard.registerNumber("Loop: Overruns", TIER.SLOW, 0);
+	}
+
+	/** Self throttled to the dashboard's SLOW tier rate since working out the percentiles walks every histogram */
+	public void updateDashboard(DashboardPublisher dashboard) {
+		long now = System.currentTimeMillis();
+		if (now - _lastDashboardWriteTimeMSec < Constants.LOOP_PROFILER_DASHBOARD_PERIOD_MSEC) {
+			return;
+		}
+		_lastDashboardWriteTimeMSec = now;
+
+		for (int i = 0; i < _histograms.length; i++) {
+			LatencyHistogram histogram = _histograms[i];
+			dashboard.set(_dashP50Handles[i], histogram.getPercentileNanos(50) / NANOS_PER_MSEC);
+			dashboard.set(_dashP99Handles[i], histogram.getPercentileNanos(99) / NANOS_PER_MSEC);
+			dashboard.set(_dashMaxHandles[i], histogram.getMaxNanos() / NANOS_PER_MSEC);
+		}
+		dashboard.set(_dashOverrunsHandle, getHistogram(PHASE.SCAN).getOverrunCount());
+	}
+}
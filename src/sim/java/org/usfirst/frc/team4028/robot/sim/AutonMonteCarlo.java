@@ -0,0 +1,176 @@
+package org.usfirst.frc.team4028.robot.sim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.usfirst.frc.team4028.robot.Dashboard.AutonSelection;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.RigidTransform;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Rotation;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Translation;
+import org.usfirst.frc.team4028.robot.sim.AutonSimulator.RunResult;
+
+/**
+ * Runs every auton routine the Dashboard can pick (every auton mode, starting side & game data in its auton table)
+ * thousands of times in the simulator, each run w/ its own start pose error (the robot is placed by hand), wheel
+ * slip, battery and sensor latency, spread over every core (see SimWorkers).
+ * Per routine it reports how often the routine finished & how often a path was cut short by its maxTime
+ * (Auton_RunTimedMotionProfileCommand), the completion time percentiles and the end pose error percentiles
+ * (vs. an undisturbed run) along w/ how far odometry was off from where the robot really ended up.
+ *
+ *   usage: AutonMonteCarlo [runsPerRoutine=1000] [seed=4028] [workers=cores-1]
+ */
+public class AutonMonteCarlo {
+	private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 1.0};
+
+	private AutonMonteCarlo() {}
+
+	public static void main(String[] args) {
+		if (args.length > 0 && args[0].equals(SimWorkers.WORKER_ARG)) {
+			String[] taskArgs = SimWorkers.readTaskArgs();
+			runWorker(taskArgs[0], Integer.parseInt(taskArgs[1]), Integer.parseInt(taskArgs[2]), Long.parseLong(taskArgs[3]));
+			System.exit(0);
+		}
+
+		final int runsPerRoutine = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		final long seed = args.length > 1 ? Long.parseLong(args[1]) : 4028;
+		final int workerCount = args.length > 2 ? Integer.parseInt(args[2]) : SimWorkers.getDefaultWorkerCount();
+
+		// only the names are handed to the workers, each one builds its routines w/ its own Dashboard
+		List<String> routines = new ArrayList<String>();
+		for (AutonSelection routine : new AutonSimulator(new Random(seed), true).getRoutines()) {
+			routines.add(routine.toString());
+		}
+
+		// every routine is split in 1 chunk per worker so all the cores stay busy until the end
+		List<String[]> tasks = new ArrayList<String[]>();
+		List<String> taskRoutines = new ArrayList<String>();
+		for (String routine : routines) {
+			for (int worker = 0; worker < workerCount; worker++) {
+				final int firstRun = runsPerRoutine * worker / workerCount;
+				final int runCount = runsPerRoutine * (worker + 1) / workerCount - firstRun;
+				if (runCount > 0) {
+					tasks.add(new String[] {routine, Integer.toString(firstRun), Integer.toString(runCount), Long.toString(seed)});
+					taskRoutines.add(routine);
+				}
+			}
+		}
+
+		System.out.println("Running " + runsPerRoutine + " runs of " + routines.size() + " routines on " + workerCount + " workers");
+		long startNanos = System.nanoTime();
+		List<List<String>> taskResults = SimWorkers.run(AutonMonteCarlo.class, tasks, workerCount);
+		double elapsedSec = (System.nanoTime() - startNanos) / 1E9;
+
+		System.out.println(String.format("%-24s %6s %7s %9s   %-27s   %-27s   %-15s   %-15s", "Routine", "Runs", "Done %", "MaxTime %",
+				"Time p50/p90/p99/max [s]", "End error p50/p90/p99/max [in]", "Heading p50/p99", "Odometry p50/p99"));
+		for (String routine : routines) {
+			List<String> lines = new ArrayList<String>();
+			for (int i = 0; i < tasks.size(); i++) {
+				if (taskRoutines.get(i).equals(routine)) {
+					lines.addAll(taskResults.get(i));
+				}
+			}
+			printRoutineSummary(routine, lines);
+		}
+		System.out.println(String.format("%d runs in %.1f s (%.0f runs/s)", runsPerRoutine * routines.size(),
+				elapsedSec, runsPerRoutine * routines.size() / elapsedSec));
+	}
+
+	//=====================================================================================
+	// Worker (child JVM)
+	//=====================================================================================
+	private static void runWorker(String routineName, int firstRun, int runCount, long seed) {
+		AutonSimulator simulator = new AutonSimulator(new Random(seed), true);
+		AutonSelection routine = simulator.getRoutine(routineName);
+		DriveTrainModel driveTrain = simulator.getDriveTrainModel();
+		SimGyro gyro = simulator.getHardware().getSimGyro();
+		final RigidTransform startPose = AutonSimulator.getStartPose(routine);
+
+		// the undisturbed run is reseeded the same way in every worker, so each chunk gets the same nominal end pose
+		gyro.setNoiseSeed(getRunSeed(seed, routine, -1));
+		final RigidTransform nominalEndPose = simulator.run(routine).getTruePose();
+
+		for (int run = firstRun; run < firstRun + runCount; run++) {
+			// every disturbance of a run (incl. the gyro noise) only depends on (seed, routine, run),
+			//	not on how the runs were split over the workers
+			Random random = new Random(getRunSeed(seed, routine, run));
+			gyro.setNoiseSeed(random.nextLong());
+			RigidTransform runStartPose = new RigidTransform(
+					new Translation(startPose.getTranslation().x() + random.nextGaussian() * SimConstants.MC_START_POSITION_STD_DEV_IN,
+									startPose.getTranslation().y() + random.nextGaussian() * SimConstants.MC_START_POSITION_STD_DEV_IN),
+					Rotation.fromDegrees(startPose.getRotation().getDegrees() + random.nextGaussian() * SimConstants.MC_START_HEADING_STD_DEV_DEG));
+			driveTrain.setWheelSlip(random.nextDouble() * SimConstants.MC_MAX_WHEEL_SLIP, random.nextDouble() * SimConstants.MC_MAX_WHEEL_SLIP);
+			driveTrain.setBattery(uniform(random, SimConstants.MC_MIN_BATTERY_VOLTAGE, SimConstants.BATTERY_VOLTAGE),
+									uniform(random, SimConstants.BATTERY_RESISTANCE_OHMS, SimConstants.MC_MAX_BATTERY_RESISTANCE_OHMS));
+			driveTrain.setSensorLatency(random.nextDouble() * SimConstants.MC_MAX_SENSOR_LATENCY_SEC);
+
+			RunResult result = simulator.run(routine, runStartPose, AutonSimulator.DEFAULT_TIMEOUT_SEC);
+			System.out.println(SimWorkers.RESULT_PREFIX + (result.isComplete() ? 1 : 0)
+					+ "," + result.getElapsedSec()
+					+ "," + result.getMaxTimeHitCount()
+					+ "," + distance(result.getTruePose(), nominalEndPose)
+					+ "," + Math.abs(headingDifferenceDegrees(result.getTruePose(), nominalEndPose))
+					+ "," + distance(result.getTruePose(), result.getEstimatedPose()));
+		}
+	}
+
+	//=====================================================================================
+	// Private Helper methods below
+	//=====================================================================================
+	private static void printRoutineSummary(String routine, List<String> lines) {
+		final int runs = lines.size();
+		if (runs == 0) {
+			System.out.println(String.format("%-24s %6d", routine, 0));
+			return;
+		}
+		int completeCount = 0, maxTimeHitRuns = 0;
+		double[] elapsedSec = new double[runs];
+		double[] endError = new double[runs];
+		double[] headingError = new double[runs];
+		double[] odometryError = new double[runs];
+		for (int i = 0; i < runs; i++) {
+			String[] fields = lines.get(i).split(",");
+			completeCount += Integer.parseInt(fields[0]);
+			elapsedSec[i] = Double.parseDouble(fields[1]);
+			maxTimeHitRuns += Integer.parseInt(fields[2]) > 0 ? 1 : 0;
+			endError[i] = Double.parseDouble(fields[3]);
+			headingError[i] = Double.parseDouble(fields[4]);
+			odometryError[i] = Double.parseDouble(fields[5]);
+		}
+
+		System.out.println(String.format("%-24s %6d %7.1f %9.1f   %-27s   %-27s   %-15s   %-15s", routine, runs,
+				100.0 * completeCount / runs, 100.0 * maxTimeHitRuns / runs,
+				formatPercentiles(elapsedSec, PERCENTILES), formatPercentiles(endError, PERCENTILES),
+				formatPercentiles(headingError, new double[] {0.5, 0.99}), formatPercentiles(odometryError, new double[] {0.5, 0.99})));
+	}
+
+	/** sorts values */
+	private static String formatPercentiles(double[] values, double[] percentiles) {
+		Arrays.sort(values);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < percentiles.length; i++) {
+			int index = Math.min(values.length - 1, (int)Math.ceil(percentiles[i] * values.length) - 1);
+			sb.append(i == 0 ? "" : "/").append(String.format("%.2f", values[Math.max(0, index)]));
+		}
+		return sb.toString();
+	}
+
+	private static long getRunSeed(long seed, AutonSelection routine, int run) {
+		return seed * 1000003L + routine.toString().hashCode() * 7919L + run;
+	}
+
+	private static double uniform(Random random, double min, double max) {
+		return min + random.nextDouble() * (max - min);
+	}
+
+	private static double distance(RigidTransform a, RigidTransform b) {
+		return Math.hypot(a.getTranslation().x() - b.getTranslation().x(), a.getTranslation().y() - b.getTranslation().y());
+	}
+
+	/** -180 to 180 */
+	private static double headingDifferenceDegrees(RigidTransform a, RigidTransform b) {
+		final double difference = a.getRotation().getDegrees() - b.getRotation().getDegrees();
+		return difference - 360.0 * Math.floor((difference + 180.0) / 360.0);
+	}
+}
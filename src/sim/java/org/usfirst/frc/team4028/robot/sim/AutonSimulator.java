@@ -0,0 +1,398 @@
+package org.usfirst.frc.team4028.robot.sim;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Random;
+
+import org.usfirst.frc.team4028.robot.Constants;
+import org.usfirst.frc.team4028.robot.Dashboard;
+import org.usfirst.frc.team4028.robot.Dashboard.AutonSelection;
+import org.usfirst.frc.team4028.robot.RobotMap;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.Paths;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.Paths.Center;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.RobotState;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.Path;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.PathCursor;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.RigidTransform;
+import org.usfirst.frc.team4028.robot.commands.Auton_RunTimedMotionProfileCommand;
+import org.usfirst.frc.team4028.robot.commands.Elevator_ZeroElevator;
+import org.usfirst.frc.team4028.robot.commands.Infeed_ZeroInfeedArms;
+import org.usfirst.frc.team4028.robot.hardware.HardwareFactory;
+import org.usfirst.frc.team4028.robot.subsystems.Carriage;
+import org.usfirst.frc.team4028.robot.subsystems.Chassis;
+import org.usfirst.frc.team4028.robot.subsystems.Climber;
+import org.usfirst.frc.team4028.robot.subsystems.Elevator;
+import org.usfirst.frc.team4028.robot.subsystems.Infeed;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.hal.sim.DriverStationSim;
+import edu.wpi.first.hal.sim.SimHooks;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.command.Command;
+import edu.wpi.first.wpilibj.command.Scheduler;
+
+/**
+ * Runs the real auton command groups headless on the dev PC, against simulated Talons / navX / solenoids
+ * (see SimHardwareFactory) and the drive train physics model, faster than real time.
+ *
+ * The HAL clock (Timer.getFPGATimestamp) is paused & stepped by the simulator, so every command, the
+ * path follower & the Talon closed loops all see the same virtual time. Each robot loop period does what
+ * Robot.autonomousPeriodic does, then the Talons & the physics are stepped at the Talon's 1 mS rate.
+ *
+ * The routines are the Dashboard's auton table (see Dashboard.getAutonTableSelections), built by the Dashboard.
+ * The subsystems are singletons & the HAL is native, so there is 1 simulator per JVM; runs reuse it.
+ * Needs the WPILib desktop (HAL sim) natives on java.library.path, see gradle simulateAuton.
+ */
+public class AutonSimulator {
+	public static final double DEFAULT_TIMEOUT_SEC = 15.0;	// a whole auton
+	private static final long PHYSICS_PERIOD_USEC = Math.round(SimConstants.PHYSICS_PERIOD_SEC * 1E6);
+	private static final int PHYSICS_STEPS_PER_LOOP = (int)Math.round(SimConstants.ROBOT_LOOP_PERIOD_SEC / SimConstants.PHYSICS_PERIOD_SEC);
+	private static final int PHYSICS_STEPS_PER_CONTROL_LOOP = (int)Math.round(Constants.CHASSIS_CONTROL_LOOP_PERIOD_SEC / SimConstants.PHYSICS_PERIOD_SEC);
+
+	private final SimHardwareFactory _hardware;
+	private final DriveTrainModel _driveTrain;
+	private final Chassis _chassis;
+	private final Elevator _elevator;
+	private final Infeed _infeed;
+	private final Carriage _carriage;
+	private final Climber _climber;
+	private final Dashboard _dashboard;
+	private final boolean _isQuiet;
+
+	/**
+	 * @param random seeds the sensor noise, the same seed gives the same runs
+	 * @param isQuiet drop what the commands print while a routine runs
+	 */
+	public AutonSimulator(Random random, boolean isQuiet) {
+		_isQuiet = isQuiet;
+
+		// the sim devices have to be in place before the 1st subsystem singleton is created
+		_hardware = new SimHardwareFactory(random);
+		HardwareFactory.setInstance(_hardware);
+
+		HAL.initialize(500, 0);
+		SimHooks.pauseTiming();
+		SimHooks.restartTiming();
+		// Command.run cancels every command while the DS is disabled
+		DriverStationSim ds = new DriverStationSim();
+		ds.setDsAttached(true);
+		ds.setAutonomous(true);
+		ds.setEnabled(true);
+		ds.notifyNewData();
+
+		Paths.buildPaths();
+		_chassis = Chassis.getInstance();
+		_elevator = Elevator.getInstance();
+		_infeed = Infeed.getInstance();
+		_carriage = Carriage.getInstance();
+		_climber = Climber.getInstance();
+		_dashboard = Dashboard.getInstance();
+
+		_driveTrain = new DriveTrainModel(_hardware.getTalon(RobotMap.LEFT_DRIVE_MASTER_CAN_ADDR),
+										_hardware.getTalon(RobotMap.RIGHT_DRIVE_MASTER_CAN_ADDR),
+										_hardware.getDoubleSolenoid(RobotMap.SHIFTER_EXTEND_PCM_PORT),
+										_hardware.getSimGyro());
+	}
+
+	//=====================================================================================
+	// Runs
+	//=====================================================================================
+	/** Every routine the Dashboard can hand to autonomousInit */
+	public List<AutonSelection> getRoutines() {
+		return _dashboard.getAutonTableSelections();
+	}
+
+	/** @return the routine whose toString() is name (ex. SWITCH_LEFT_RL) */
+	public AutonSelection getRoutine(String name) {
+		for (AutonSelection routine : getRoutines()) {
+			if (routine.toString().equals(name)) {
+				return routine;
+			}
+		}
+		throw new IllegalArgumentException("No auton routine " + name + " in " + getRoutines());
+	}
+
+	public RunResult run(AutonSelection routine) {
+		return run(routine, getStartPose(routine), DEFAULT_TIMEOUT_SEC);
+	}
+
+	/** Power on (mechanisms un-zeroed at home), robot stopped at startPose, then runs the routine like Robot.autonomousInit/Periodic */
+	public RunResult run(AutonSelection routine, RigidTransform startPose, double timeoutSec) {
+		powerOn(startPose);
+
+		PrintStream console = silenceConsole();
+		try {
+			// ============= autonomousInit =============
+			readAllSensors();
+			_chassis.stop();
+			Command auton = _dashboard.buildAuton(routine);
+			auton.start();
+			Scheduler.getInstance().run();
+			_chassis.recordAutonStartTime();
+			_chassis.zeroSensors();
+			_chassis.setHighGear(true);
+			if (!_infeed.get_hasArmsBeenZeroed()) {
+				new Infeed_ZeroInfeedArms().start();
+			}
+			if (!_elevator.get_hasElevatorBeenZeroed()) {
+				new Elevator_ZeroElevator().start();
+			}
+
+			// ============= autonomousPeriodic =============
+			final int maxTimeHitCountAtStart = Auton_RunTimedMotionProfileCommand.getMaxTimeHitCount();
+			final double startTime = Timer.getFPGATimestamp();
+			boolean isComplete = false;
+			while (Timer.getFPGATimestamp() - startTime < timeoutSec) {
+				readAllSensors();
+				Scheduler.getInstance().run();
+				if (!auton.isRunning()) {
+					isComplete = true;
+					break;
+				}
+				if (!Constants.IS_CHASSIS_CONTROL_LOOP_ENABLED) {
+					_chassis.updateChassis(Timer.getFPGATimestamp());
+				}
+				stepPhysics();
+			}
+			final double elapsedSec = Timer.getFPGATimestamp() - startTime;
+			Scheduler.getInstance().removeAll();
+			_chassis.stop();
+
+			return new RunResult(routine, isComplete, elapsedSec,
+									Auton_RunTimedMotionProfileCommand.getMaxTimeHitCount() - maxTimeHitCountAtStart, _driveTrain.getPose(),
+									RobotState.getInstance().getLatestFieldToVehicle().getValue());
+		} finally {
+			System.setOut(console);
+		}
+	}
+
+	/**
+	 * Follows 1 path on its own (no command group, the chassis as Auton_RunTimedMotionProfileCommand drives it)
+	 * from a stop at the path's start & measures how far the true pose strayed from the path.
+	 */
+	public PathRunResult followPath(Path path, double timeoutSec) {
+		powerOn(path.getStartPose());
+
+		PrintStream console = silenceConsole();
+		try {
+			_chassis.stop();
+			_chassis.zeroSensors();
+			_chassis.setHighGear(true);
+			_chassis.readSensors();
+			_chassis.resetRobotState(Timer.getFPGATimestamp(), path.getStartPose());
+			_chassis.setWantDrivePath(path, path.isReversed());
+
+			// a cursor of our own finds the closest point on the path to where the robot really is
+			PathCursor cursor = new PathCursor(path);
+			Path.TargetPointReport report = null;
+			double sumSquaredError = 0.0, maxError = 0.0;
+			int sampleCount = 0;
+			final double startTime = Timer.getFPGATimestamp();
+			boolean isComplete = false;
+			while (Timer.getFPGATimestamp() - startTime < timeoutSec) {
+				_chassis.readSensors();
+				if (_chassis.isDoneWithPath()) {
+					isComplete = true;
+					break;
+				}
+				if (!Constants.IS_CHASSIS_CONTROL_LOOP_ENABLED) {
+					_chassis.updateChassis(Timer.getFPGATimestamp());
+				}
+				stepPhysics();
+
+				report = cursor.getTargetPoint(_driveTrain.getPose().getTranslation());
+				sumSquaredError += report.closest_point_distance * report.closest_point_distance;
+				maxError = Math.max(maxError, report.closest_point_distance);
+				sampleCount++;
+			}
+			final double elapsedSec = Timer.getFPGATimestamp() - startTime;
+			_chassis.stop();
+
+			final double endError = report == null ? 0.0 : Math.hypot(report.closest_point_distance, report.remaining_path_distance);
+			return new PathRunResult(isComplete, elapsedSec, sampleCount == 0 ? 0.0 : Math.sqrt(sumSquaredError / sampleCount), maxError, endError);
+		} finally {
+			System.setOut(console);
+		}
+	}
+
+	/** Where the drive team places the robot for the routine: the start of the 1st path it drives */
+	public static RigidTransform getStartPose(AutonSelection routine) {
+		switch(routine.autonMode) {
+			case SWITCH:
+				return Paths.getPath(routine.isSwitchLeft ? Center.L_SWITCH : Center.R_SWITCH).getStartPose();
+			case DO_NOTHING:
+			case AUTO_RUN:
+				return Paths.getPath(Center.AUTO_RUN).getStartPose();
+			default:
+				throw new IllegalArgumentException("No start pose for auton routine " + routine + ", add it to getStartPose");
+		}
+	}
+
+	public DriveTrainModel getDriveTrainModel() {
+		return _driveTrain;
+	}
+
+	public SimHardwareFactory getHardware() {
+		return _hardware;
+	}
+
+	//=====================================================================================
+	// Private Helper methods below
+	//=====================================================================================
+	/**
+	 * Puts the devices & the subsystem singletons back to how the robot powers on, so a run doesn't depend on the
+	 * runs before it: the mechanisms at home but not zeroed yet (the auton re-zeros them like autonomousInit does)
+	 */
+	private void powerOn(RigidTransform startPose) {
+		Scheduler.getInstance().removeAll();
+		_hardware.resetTalons();
+		_hardware.resetSolenoids();
+		_driveTrain.reset(startPose);
+
+		_elevator.initReZeroElevator();
+		_elevator.resetElevatorBumpValue();
+		_infeed.initReZeroArms();
+	}
+
+	/** @return the console to restore */
+	private PrintStream silenceConsole() {
+		PrintStream console = System.out;
+		if (_isQuiet) {
+			System.setOut(new PrintStream(new OutputStream() {
+				@Override
+				public void write(int b) {}
+			}));
+		}
+		return console;
+	}
+
+	private void readAllSensors() {
+		_chassis.readSensors();
+		_elevator.readSensors();
+		_infeed.readSensors();
+		_carriage.readSensors();
+		_climber.readSensors();
+	}
+
+	/** 1 robot loop period of Talon closed loops & physics, w/ the chassis control loop in between when it is enabled */
+	private void stepPhysics() {
+		for (int step = 1; step <= PHYSICS_STEPS_PER_LOOP; step++) {
+			_hardware.updateTalons(SimConstants.PHYSICS_PERIOD_SEC);
+			_driveTrain.update(SimConstants.PHYSICS_PERIOD_SEC);
+			SimHooks.stepTiming(PHYSICS_PERIOD_USEC);
+
+			if (Constants.IS_CHASSIS_CONTROL_LOOP_ENABLED && step % PHYSICS_STEPS_PER_CONTROL_LOOP == 0) {
+				_chassis.readSensors();
+				_chassis.updateChassis(Timer.getFPGATimestamp());
+			}
+		}
+	}
+
+	//=====================================================================================
+	// Results
+	//=====================================================================================
+	public static class RunResult {
+		private final AutonSelection _routine;
+		private final boolean _isComplete;
+		private final double _elapsedSec;
+		private final int _maxTimeHitCount;
+		private final RigidTransform _truePose;
+		private final RigidTransform _estimatedPose;
+
+		public RunResult(AutonSelection routine, boolean isComplete, double elapsedSec, int maxTimeHitCount,
+							RigidTransform truePose, RigidTransform estimatedPose) {
+			_routine = routine;
+			_isComplete = isComplete;
+			_elapsedSec = elapsedSec;
+			_maxTimeHitCount = maxTimeHitCount;
+			_truePose = truePose;
+			_estimatedPose = estimatedPose;
+		}
+
+		public AutonSelection getRoutine() {
+			return _routine;
+		}
+
+		/** false if the routine was still running at the timeout */
+		public boolean isComplete() {
+			return _isComplete;
+		}
+
+		public double getElapsedSec() {
+			return _elapsedSec;
+		}
+
+		/** paths (Auton_RunTimedMotionProfileCommand) that were cut short by their maxTime */
+		public int getMaxTimeHitCount() {
+			return _maxTimeHitCount;
+		}
+
+		/** where the model says the robot really ended up */
+		public RigidTransform getTruePose() {
+			return _truePose;
+		}
+
+		/** where the robot (odometry) thinks it ended up */
+		public RigidTransform getEstimatedPose() {
+			return _estimatedPose;
+		}
+
+		@Override
+		public String toString() {
+			return _routine + (_isComplete ? " done in " : " TIMED OUT after ") + String.format("%.2f", _elapsedSec) + " s"
+					+ (_maxTimeHitCount > 0 ? "  paths cut short by maxTime: " + _maxTimeHitCount : "")
+					+ "  true: " + _truePose + "  estimated: " + _estimatedPose;
+		}
+	}
+
+	public static class PathRunResult {
+		private final boolean _isComplete;
+		private final double _elapsedSec;
+		private final double _rmsTrackingError, _maxTrackingError, _endError;
+
+		public PathRunResult(boolean isComplete, double elapsedSec, double rmsTrackingError, double maxTrackingError, double endError) {
+			_isComplete = isComplete;
+			_elapsedSec = elapsedSec;
+			_rmsTrackingError = rmsTrackingError;
+			_maxTrackingError = maxTrackingError;
+			_endError = endError;
+		}
+
+		/** false if the path follower was still running at the timeout */
+		public boolean isComplete() {
+			return _isComplete;
+		}
+
+		public double getElapsedSec() {
+			return _elapsedSec;
+		}
+
+		/** inches from the path, every robot loop */
+		public double getRmsTrackingError() {
+			return _rmsTrackingError;
+		}
+
+		public double getMaxTrackingError() {
+			return _maxTrackingError;
+		}
+
+		/** inches from the end of the path when the follower finished */
+		public double getEndError() {
+			return _endError;
+		}
+	}
+
+	//=====================================================================================
+	// Main
+	//=====================================================================================
+	/** runs every routine 1x,   args: [seed] */
+	public static void main(String[] args) {
+		long seed = args.length > 0 ? Long.parseLong(args[0]) : 4028;
+		AutonSimulator simulator = new AutonSimulator(new Random(seed), true);
+		for (AutonSelection routine : simulator.getRoutines()) {
+			System.out.println(simulator.run(routine));
+		}
+		System.exit(0);
+	}
+}
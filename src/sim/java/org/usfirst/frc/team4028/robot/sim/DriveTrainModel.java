@@ -0,0 +1,221 @@
+package org.usfirst.frc.team4028.robot.sim;
+
+import org.usfirst.frc.team4028.robot.Constants;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.RigidTransform;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Rotation;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Translation;
+import org.usfirst.frc.team4028.robot.subsystems.Chassis;
+
+/**
+ * Physics of the 2 speed, 2 CIM per side differential drive. Every update it reads the master Talons' outputs,
+ * turns them into motor torque w/ the CIM curve (back EMF, battery sag), through the gearbox into wheel force
+ * and integrates the robot's linear & angular velocity. Turning uses the same effective track width as
+ * Kinematics (TRACK_WIDTH_INCHES / TRACK_SCRUBBING_FACTOR), so the wheels scrub exactly as the code assumes.
+ * The true pose is in the same field frame as RobotState (heading clockwise positive, like the navX),
+ * the encoders (quantized by the Talon) & gyro (noise + drift) are fed back from it.
+ * Wheel slip, a weaker battery & sensor latency can be dialed in per run (see AutonMonteCarlo).
+ */
+public class DriveTrainModel {
+	// CIM motor curve @ 12V
+	private static final double CIM_STALL_TORQUE_NM = 2.41;
+	private static final double CIM_STALL_CURRENT_A = 131.0;
+	private static final double CIM_FREE_SPEED_RPM = 5330.0;
+	private static final double CIM_FREE_CURRENT_A = 2.7;
+	private static final double MOTOR_NOMINAL_VOLTAGE = 12.0;
+	private static final double MOTOR_RESISTANCE_OHMS = MOTOR_NOMINAL_VOLTAGE / CIM_STALL_CURRENT_A;
+	private static final double MOTOR_KT_NM_PER_A = CIM_STALL_TORQUE_NM / CIM_STALL_CURRENT_A;
+	private static final double MOTOR_KV_RAD_PER_SEC_PER_V = (CIM_FREE_SPEED_RPM * 2.0 * Math.PI / 60.0)
+															/ (MOTOR_NOMINAL_VOLTAGE - MOTOR_RESISTANCE_OHMS * CIM_FREE_CURRENT_A);
+
+	private static final double METERS_PER_INCH = 0.0254;
+	private static final double KG_PER_LB = 0.45359237;
+	private static final double WHEEL_RADIUS_M = Constants.DRIVE_WHEEL_DIAMETER_IN / 2.0 * METERS_PER_INCH;
+	private static final double EFFECTIVE_TRACK_WIDTH_M = Constants.TRACK_WIDTH_INCHES / Constants.TRACK_SCRUBBING_FACTOR * METERS_PER_INCH;
+	private static final double ROBOT_MASS_KG = SimConstants.ROBOT_MASS_LBS * KG_PER_LB;
+	private static final double ENCODER_NU_PER_METER = Chassis.ENCODER_COUNTS_PER_WHEEL_REV / (2.0 * Math.PI * WHEEL_RADIUS_M);
+	private static final double STOPPED_VELOCITY_M_PER_SEC = 1E-3;
+	private static final int MAX_SENSOR_LATENCY_STEPS = 64;
+
+	private final SimTalonSRX _leftMaster, _rightMaster;
+	private final SimDoubleSolenoid _shifter;
+	private final SimGyro _gyro;
+
+	// state, SI units
+	private double _x, _y;				// field position (m)
+	private double _heading;			// radians, clockwise positive
+	private double _velocity;			// m/s, forward
+	private double _angularVelocity;	// rad/s, counterclockwise positive
+	private double _leftDistance, _rightDistance;	// wheel travel (m)
+	private double _leftCurrent, _rightCurrent;		// per motor (A)
+	private double _batteryVoltage = SimConstants.BATTERY_VOLTAGE;
+
+	// disturbances, kept across reset()
+	private double _leftSlip, _rightSlip;	// fraction of the wheel travel lost to slipping on the carpet
+	private double _restingBatteryVoltage = SimConstants.BATTERY_VOLTAGE;
+	private double _batteryResistance = SimConstants.BATTERY_RESISTANCE_OHMS;
+	private int _sensorLatencySteps;
+	// what the sensors measured, the Talons & navX see it _sensorLatencySteps physics updates late
+	private final double[] _leftDistanceHistory = new double[MAX_SENSOR_LATENCY_STEPS];
+	private final double[] _rightDistanceHistory = new double[MAX_SENSOR_LATENCY_STEPS];
+	private final double[] _headingHistory = new double[MAX_SENSOR_LATENCY_STEPS];
+	private int _historyIndex;
+
+	public DriveTrainModel(SimTalonSRX leftMaster, SimTalonSRX rightMaster, SimDoubleSolenoid shifter, SimGyro gyro) {
+		_leftMaster = leftMaster;
+		_rightMaster = rightMaster;
+		_shifter = shifter;
+		_gyro = gyro;
+	}
+
+	/** Robot stopped at pose (inches, field frame) w/ the encoders at 0 */
+	public void reset(RigidTransform pose) {
+		_x = pose.getTranslation().x() * METERS_PER_INCH;
+		_y = pose.getTranslation().y() * METERS_PER_INCH;
+		_heading = pose.getRotation().getRadians();
+		_velocity = 0.0;
+		_angularVelocity = 0.0;
+		_leftDistance = 0.0;
+		_rightDistance = 0.0;
+		_leftCurrent = 0.0;
+		_rightCurrent = 0.0;
+		_batteryVoltage = _restingBatteryVoltage;
+		_gyro.resetSim(Math.toDegrees(_heading));
+		for (int i = 0; i < MAX_SENSOR_LATENCY_STEPS; i++) {
+			_leftDistanceHistory[i] = 0.0;
+			_rightDistanceHistory[i] = 0.0;
+			_headingHistory[i] = _heading;
+		}
+		publishSensors(0.0);
+	}
+
+	/** Integrate 1 step, call every PHYSICS_PERIOD_SEC after the Talons updated their outputs */
+	public void update(double dt) {
+		final double gearRatio = _shifter.get() == Constants.SHIFTER_HIGH_GEAR_POS ? SimConstants.HIGH_GEAR_RATIO : SimConstants.LOW_GEAR_RATIO;
+		final double halfTrack = EFFECTIVE_TRACK_WIDTH_M / 2.0;
+		// a slipping wheel (& its motor) spins faster than the robot moves over the carpet
+		final double leftVelocity = (_velocity - _angularVelocity * halfTrack) / (1.0 - _leftSlip);
+		final double rightVelocity = (_velocity + _angularVelocity * halfTrack) / (1.0 - _rightSlip);
+
+		// the battery sags w/ the current the motors draw from it (only for their duty cycle, braking pushes current back),
+		//  solved together w/ the motor currents: V = V0 - Rb * n * sum(duty * I) where I = (duty * V - back EMF) / R
+		final double leftDuty = _leftMaster.getMotorOutputPercent();
+		final double rightDuty = _rightMaster.getMotorOutputPercent();
+		final double sagGain = _batteryResistance * SimConstants.DRIVE_MOTORS_PER_SIDE / MOTOR_RESISTANCE_OHMS;
+		_batteryVoltage = (_restingBatteryVoltage + sagGain * (leftDuty * calcBackEmf(leftVelocity, gearRatio) + rightDuty * calcBackEmf(rightVelocity, gearRatio)))
+							/ (1.0 + sagGain * (leftDuty * leftDuty + rightDuty * rightDuty));
+
+		_leftCurrent = calcMotorCurrent(_leftMaster, leftVelocity, gearRatio);
+		_rightCurrent = calcMotorCurrent(_rightMaster, rightVelocity, gearRatio);
+		final double leftForce = calcWheelForce(_leftCurrent, leftVelocity, gearRatio) * (1.0 - _leftSlip);
+		final double rightForce = calcWheelForce(_rightCurrent, rightVelocity, gearRatio) * (1.0 - _rightSlip);
+
+		// the effective (scrubbing) track width is both the turning lever arm & the wheel speed difference per rad/s
+		_velocity += (leftForce + rightForce) / ROBOT_MASS_KG * dt;
+		_angularVelocity += (rightForce - leftForce) * halfTrack / SimConstants.ROBOT_MOMENT_OF_INERTIA_KG_M2 * dt;
+
+		// constant curvature arc over the step, field heading turns opposite to the counterclockwise twist
+		final double distance = _velocity * dt;
+		final double dtheta = -_angularVelocity * dt;
+		final double s, c;
+		if (Math.abs(dtheta) < Constants.EPSILON_NEGATIVE_9) {
+			s = 1.0 - dtheta * dtheta / 6.0;
+			c = 0.5 * dtheta;
+		} else {
+			s = Math.sin(dtheta) / dtheta;
+			c = (1.0 - Math.cos(dtheta)) / dtheta;
+		}
+		final double dx = distance * s;
+		final double dy = distance * c;
+		final double cos = Math.cos(_heading);
+		final double sin = Math.sin(_heading);
+		_x += dx * cos - dy * sin;
+		_y += dx * sin + dy * cos;
+		_heading += dtheta;
+
+		_leftDistance += (_velocity - _angularVelocity * halfTrack) / (1.0 - _leftSlip) * dt;
+		_rightDistance += (_velocity + _angularVelocity * halfTrack) / (1.0 - _rightSlip) * dt;
+
+		publishSensors(dt);
+	}
+
+	//=====================================================================================
+	// Disturbances
+	//=====================================================================================
+	/** fraction (0 to <1) of each wheel's travel lost to slip, the encoders still count all of it */
+	public void setWheelSlip(double leftSlip, double rightSlip) {
+		_leftSlip = leftSlip;
+		_rightSlip = rightSlip;
+	}
+
+	public void setBattery(double restingVoltage, double resistanceOhms) {
+		_restingBatteryVoltage = restingVoltage;
+		_batteryResistance = resistanceOhms;
+	}
+
+	/** the encoders & gyro report the robot as it was this long ago (rounded to physics updates, max 63 mS) */
+	public void setSensorLatency(double latencySec) {
+		_sensorLatencySteps = Math.min((int)Math.round(latencySec / SimConstants.PHYSICS_PERIOD_SEC), MAX_SENSOR_LATENCY_STEPS - 1);
+	}
+
+	//=====================================================================================
+	// Property Accessors follow
+	//=====================================================================================
+	/** true pose, inches, same field frame as RobotState */
+	public RigidTransform getPose() {
+		return new RigidTransform(new Translation(_x / METERS_PER_INCH, _y / METERS_PER_INCH), Rotation.fromRadians(_heading));
+	}
+
+	/** inches per second */
+	public double getVelocity() {
+		return _velocity / METERS_PER_INCH;
+	}
+
+	public double getBatteryVoltage() {
+		return _batteryVoltage;
+	}
+
+	//=====================================================================================
+	// Private Helper methods below
+	//=====================================================================================
+	/** per motor, w/ back EMF from the current wheel speed, 0 when coasting in neutral */
+	private double calcMotorCurrent(SimTalonSRX talon, double wheelVelocity, double gearRatio) {
+		final double output = talon.getMotorOutputPercent();
+		if (output == 0.0 && !talon.isBrakeMode()) {
+			return 0.0;
+		}
+		return (output * _batteryVoltage - calcBackEmf(wheelVelocity, gearRatio)) / MOTOR_RESISTANCE_OHMS;
+	}
+
+	private static double calcBackEmf(double wheelVelocity, double gearRatio) {
+		return wheelVelocity / WHEEL_RADIUS_M * gearRatio / MOTOR_KV_RAD_PER_SEC_PER_V;
+	}
+
+	/** all the motors of 1 side through the gearbox, less rolling resistance (which can't reverse a stopped wheel) */
+	private double calcWheelForce(double motorCurrent, double wheelVelocity, double gearRatio) {
+		final double force = SimConstants.DRIVE_MOTORS_PER_SIDE * MOTOR_KT_NM_PER_A * motorCurrent * gearRatio
+							* SimConstants.DRIVE_GEARBOX_EFFICIENCY / WHEEL_RADIUS_M;
+		if (Math.abs(wheelVelocity) > STOPPED_VELOCITY_M_PER_SEC) {
+			return force - Math.signum(wheelVelocity) * SimConstants.DRIVE_ROLLING_RESISTANCE_N;
+		}
+		if (Math.abs(force) <= SimConstants.DRIVE_ROLLING_RESISTANCE_N) {
+			return 0.0;
+		}
+		return force - Math.signum(force) * SimConstants.DRIVE_ROLLING_RESISTANCE_N;
+	}
+
+	private void publishSensors(double dt) {
+		_historyIndex = (_historyIndex + 1) % MAX_SENSOR_LATENCY_STEPS;
+		_leftDistanceHistory[_historyIndex] = _leftDistance;
+		_rightDistanceHistory[_historyIndex] = _rightDistance;
+		_headingHistory[_historyIndex] = _heading;
+		final int measuredIndex = (_historyIndex - _sensorLatencySteps + MAX_SENSOR_LATENCY_STEPS) % MAX_SENSOR_LATENCY_STEPS;
+
+		_leftMaster.setSimPosition(_leftDistanceHistory[measuredIndex] * ENCODER_NU_PER_METER);
+		_rightMaster.setSimPosition(_rightDistanceHistory[measuredIndex] * ENCODER_NU_PER_METER);
+		_leftMaster.setSimCurrent(Math.abs(_leftCurrent));
+		_rightMaster.setSimCurrent(Math.abs(_rightCurrent));
+		_leftMaster.setSimBusVoltage(_batteryVoltage);
+		_rightMaster.setSimBusVoltage(_batteryVoltage);
+		_gyro.update(Math.toDegrees(_headingHistory[measuredIndex]), dt);
+	}
+}
@@ -0,0 +1,261 @@
+package org.usfirst.frc.team4028.robot.sim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.Paths;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.Paths.Center;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.Paths.Left;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.Paths.Right;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.Path;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.PathFollowingGains;
+import org.usfirst.frc.team4028.robot.sim.AutonSimulator.PathRunResult;
+import org.usfirst.frc.team4028.robot.subsystems.Chassis;
+
+/**
+ * Searches the path following gains in the simulator instead of on the robot: the pure pursuit lookahead,
+ * the velocity profile follower (PATH_FOLLOWING_PROFILE_K*) and the high gear drive velocity kP / kF
+ * (what Auton_PIDConfig / Auton_PIDTune_* estimate). Every gain set follows every path in Paths & is scored
+ * on how far it strayed from the path, how far from the end it stopped and how long it took.
+ *
+ * The search is random (uniform over the ranges below) followed by rounds that sample around the best sets
+ * so far, all of a round's gain sets are spread over every core (see SimWorkers). The hand tuned gains are
+ * always scored too, so the ranking shows what beats them.
+ *
+ *   usage: GainSweep [randomSets=500] [refineRounds=3] [seed=4028] [workers=cores-1]
+ */
+public class GainSweep {
+	// search space, 1 row per gain: name, min, max
+	private static final String[] GAIN_NAMES = {"minLookahead", "maxLookahead", "profileKp", "profileKi", "profileKv",
+												"profileKffv", "profileKffa", "velocityKp", "velocityKf"};
+	private static final double[][] GAIN_RANGES = {
+			{6.0, 24.0},	// inches
+			{10.0, 48.0},	// inches, never less than minLookahead
+			{1.0, 12.0},
+			{0.0, 0.05},
+			{0.0, 0.1},
+			{0.8, 1.2},
+			{0.0, 0.3},
+			{0.02, 0.3},
+			{0.036, 0.055}};
+
+	// scoring, per path (lower is better)
+	private static final double PATH_TIMEOUT_SEC = 10.0;
+	private static final double TIME_WEIGHT_IN_PER_SEC = 2.0;		// 1 sec slower costs as much as 2 in. more error
+	private static final double TIMEOUT_PENALTY = 1000.0;
+	// refinement
+	private static final int REFINE_PARENT_COUNT = 10;
+	private static final int REFINE_CHILDREN_PER_PARENT = 20;
+	private static final double REFINE_STD_DEV_FRACTION = 0.1;		// of each gain's range
+	private static final int RANKED_PRINT_COUNT = 20;
+
+	private GainSweep() {}
+
+	public static void main(String[] args) {
+		if (args.length > 0 && args[0].equals(SimWorkers.WORKER_ARG)) {
+			String[] taskArgs = SimWorkers.readTaskArgs();
+			runWorker(Long.parseLong(taskArgs[0]), Arrays.copyOfRange(taskArgs, 1, taskArgs.length));
+			System.exit(0);
+		}
+
+		final int randomSetCount = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+		final int refineRounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+		final long seed = args.length > 2 ? Long.parseLong(args[2]) : 4028;
+		final int workerCount = args.length > 3 ? Integer.parseInt(args[3]) : SimWorkers.getDefaultWorkerCount();
+		Random random = new Random(seed);
+
+		List<double[]> candidates = new ArrayList<double[]>();
+		candidates.add(getHandTunedGains());
+		for (int i = 0; i < randomSetCount; i++) {
+			double[] gains = new double[GAIN_RANGES.length];
+			for (int g = 0; g < gains.length; g++) {
+				gains[g] = GAIN_RANGES[g][0] + random.nextDouble() * (GAIN_RANGES[g][1] - GAIN_RANGES[g][0]);
+			}
+			candidates.add(clampGains(gains));
+		}
+
+		long startNanos = System.nanoTime();
+		List<ScoredGains> scored = new ArrayList<ScoredGains>();
+		for (int round = 0; round <= refineRounds; round++) {
+			System.out.println("Round " + round + ": scoring " + candidates.size() + " gain sets on " + workerCount + " workers");
+			scored.addAll(score(candidates, seed, workerCount));
+			Collections.sort(scored, BY_SCORE);
+
+			// next round samples around the best so far
+			candidates = new ArrayList<double[]>();
+			for (int parent = 0; parent < Math.min(REFINE_PARENT_COUNT, scored.size()); parent++) {
+				for (int child = 0; child < REFINE_CHILDREN_PER_PARENT; child++) {
+					double[] gains = scored.get(parent).gains.clone();
+					for (int g = 0; g < gains.length; g++) {
+						gains[g] += random.nextGaussian() * REFINE_STD_DEV_FRACTION * (GAIN_RANGES[g][1] - GAIN_RANGES[g][0]);
+					}
+					candidates.add(clampGains(gains));
+				}
+			}
+		}
+
+		System.out.println(String.format("Scored %d gain sets in %.1f s", scored.size(), (System.nanoTime() - startNanos) / 1E9));
+		System.out.println(String.format("%4s %8s %9s %9s %9s %8s %5s   %s", "Rank", "Score", "RMS [in]", "Max [in]", "End [in]", "Time [s]", "Done", "Gains"));
+		for (int rank = 0; rank < scored.size(); rank++) {
+			ScoredGains gains = scored.get(rank);
+			if (rank < RANKED_PRINT_COUNT || gains.isHandTuned()) {
+				System.out.println(String.format("%4d %8.2f %9.2f %9.2f %9.2f %8.2f %5d   %s%s", rank + 1, gains.score, gains.meanRmsError,
+						gains.maxError, gains.meanEndError, gains.meanElapsedSec, gains.completeCount, formatGains(gains.gains),
+						gains.isHandTuned() ? "  (hand tuned)" : ""));
+			}
+		}
+	}
+
+	//=====================================================================================
+	// Worker (child JVM)
+	//=====================================================================================
+	/** scores every gain set (csv) in order, printing 1 RESULT line per set */
+	private static void runWorker(long seed, String[] candidates) {
+		AutonSimulator simulator = new AutonSimulator(new Random(seed), true);
+		Chassis chassis = Chassis.getInstance();
+		List<Path> paths = getAllPaths();
+
+		for (String candidate : candidates) {
+			double[] gains = parseGains(candidate);
+			chassis.setPathFollowingGains(new PathFollowingGains(gains[0], gains[1], gains[2], gains[3], gains[4], gains[5], gains[6]));
+			chassis.setHighGearVelocityPIDFGains(new double[] {gains[7], Chassis.HIGH_GEAR_VELOCITY_PIDF_GAINS[1], Chassis.HIGH_GEAR_VELOCITY_PIDF_GAINS[2], gains[8]});
+
+			double score = 0.0, rmsError = 0.0, maxError = 0.0, endError = 0.0, elapsedSec = 0.0;
+			int completeCount = 0;
+			for (Path path : paths) {
+				PathRunResult result = simulator.followPath(path, PATH_TIMEOUT_SEC);
+				score += result.getRmsTrackingError() + result.getEndError() + TIME_WEIGHT_IN_PER_SEC * result.getElapsedSec()
+							+ (result.isComplete() ? 0.0 : TIMEOUT_PENALTY);
+				rmsError += result.getRmsTrackingError();
+				maxError = Math.max(maxError, result.getMaxTrackingError());
+				endError += result.getEndError();
+				elapsedSec += result.getElapsedSec();
+				completeCount += result.isComplete() ? 1 : 0;
+			}
+			System.out.println(SimWorkers.RESULT_PREFIX + score / paths.size() + "," + rmsError / paths.size() + "," + maxError
+					+ "," + endError / paths.size() + "," + elapsedSec / paths.size() + "," + completeCount);
+		}
+	}
+
+	//=====================================================================================
+	// Private Helper methods below
+	//=====================================================================================
+	/** 1 chunk of gain sets per worker */
+	private static List<ScoredGains> score(List<double[]> candidates, long seed, int workerCount) {
+		List<String[]> tasks = new ArrayList<String[]>();
+		for (int worker = 0; worker < workerCount; worker++) {
+			final int first = candidates.size() * worker / workerCount;
+			final int last = candidates.size() * (worker + 1) / workerCount;
+			if (last > first) {
+				String[] args = new String[1 + last - first];
+				args[0] = Long.toString(seed);
+				for (int i = first; i < last; i++) {
+					args[1 + i - first] = formatGainsCsv(candidates.get(i));
+				}
+				tasks.add(args);
+			}
+		}
+
+		List<ScoredGains> scored = new ArrayList<ScoredGains>();
+		int candidate = 0;
+		for (List<String> lines : SimWorkers.run(GainSweep.class, tasks, workerCount)) {
+			for (String line : lines) {
+				String[] fields = line.split(",");
+				scored.add(new ScoredGains(candidates.get(candidate++), Double.parseDouble(fields[0]), Double.parseDouble(fields[1]),
+						Double.parseDouble(fields[2]), Double.parseDouble(fields[3]), Double.parseDouble(fields[4]), Integer.parseInt(fields[5])));
+			}
+		}
+		return scored;
+	}
+
+	/** every named path that has waypoints (a few names are placeholders w/o a path) */
+	private static List<Path> getAllPaths() {
+		List<Path> paths = new ArrayList<Path>();
+		for (Center pathName : Center.values()) {
+			addIfBuilt(paths, Paths.getPath(pathName));
+		}
+		for (Left pathName : Left.values()) {
+			addIfBuilt(paths, Paths.getPath(pathName));
+		}
+		for (Right pathName : Right.values()) {
+			addIfBuilt(paths, Paths.getPath(pathName));
+		}
+		return paths;
+	}
+
+	private static void addIfBuilt(List<Path> paths, Path path) {
+		if (path != null) {
+			paths.add(path);
+		}
+	}
+
+	private static double[] getHandTunedGains() {
+		PathFollowingGains gains = PathFollowingGains.DEFAULT;
+		return new double[] {gains.minLookahead, gains.maxLookahead, gains.profileKp, gains.profileKi, gains.profileKv,
+								gains.profileKffv, gains.profileKffa, Chassis.HIGH_GEAR_VELOCITY_PIDF_GAINS[0], Chassis.HIGH_GEAR_VELOCITY_PIDF_GAINS[3]};
+	}
+
+	private static double[] clampGains(double[] gains) {
+		for (int g = 0; g < gains.length; g++) {
+			gains[g] = Math.max(GAIN_RANGES[g][0], Math.min(GAIN_RANGES[g][1], gains[g]));
+		}
+		gains[1] = Math.max(gains[0], gains[1]);	// max lookahead
+		return gains;
+	}
+
+	private static String formatGainsCsv(double[] gains) {
+		StringBuilder sb = new StringBuilder();
+		for (int g = 0; g < gains.length; g++) {
+			sb.append(g == 0 ? "" : ",").append(gains[g]);
+		}
+		return sb.toString();
+	}
+
+	private static double[] parseGains(String csv) {
+		String[] fields = csv.split(",");
+		double[] gains = new double[fields.length];
+		for (int g = 0; g < fields.length; g++) {
+			gains[g] = Double.parseDouble(fields[g]);
+		}
+		return gains;
+	}
+
+	private static String formatGains(double[] gains) {
+		StringBuilder sb = new StringBuilder();
+		for (int g = 0; g < gains.length; g++) {
+			sb.append(g == 0 ? "" : " ").append(GAIN_NAMES[g]).append('=').append(String.format("%.4f", gains[g]));
+		}
+		return sb.toString();
+	}
+
+	private static final Comparator<ScoredGains> BY_SCORE = new Comparator<ScoredGains>() {
+		@Override
+		public int compare(ScoredGains a, ScoredGains b) {
+			return Double.compare(a.score, b.score);
+		}
+	};
+
+	private static class ScoredGains {
+		final double[] gains;
+		final double score, meanRmsError, maxError, meanEndError, meanElapsedSec;
+		final int completeCount;
+
+		ScoredGains(double[] gains, double score, double meanRmsError, double maxError, double meanEndError, double meanElapsedSec, int completeCount) {
+			this.gains = gains;
+			this.score = score;
+			this.meanRmsError = meanRmsError;
+			this.maxError = maxError;
+			this.meanEndError = meanEndError;
+			this.meanElapsedSec = meanElapsedSec;
+			this.completeCount = completeCount;
+		}
+
+		boolean isHandTuned() {
+			return Arrays.equals(gains, getHandTunedGains());
+		}
+	}
+}
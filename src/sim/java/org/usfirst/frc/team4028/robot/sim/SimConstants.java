@@ -0,0 +1,29 @@
+package org.usfirst.frc.team4028.robot.sim;
+
+/** The simulator's constants, in the sim source set so they are never part of the robot jar */
+public class SimConstants 
+{
+	/* Drive Train Simulation (see DriveTrainModel) */
+	public static final double ROBOT_MASS_LBS = 125.0;				// w/ bumpers & battery
+	public static final double ROBOT_MOMENT_OF_INERTIA_KG_M2 = 6.0;	// about the center
+	public static final int DRIVE_MOTORS_PER_SIDE = 2;				// CIMs
+	// motor : wheel, picked so the top speeds match the drive velocity kF gains in Chassis
+	public static final double HIGH_GEAR_RATIO = 11.7;
+	public static final double LOW_GEAR_RATIO = 22.7;
+	public static final double DRIVE_GEARBOX_EFFICIENCY = 0.85;
+	public static final double DRIVE_ROLLING_RESISTANCE_N = 20.0;	// per side
+	public static final double BATTERY_VOLTAGE = 12.5;				// resting
+	public static final double BATTERY_RESISTANCE_OHMS = 0.015;
+	public static final double GYRO_NOISE_DEG = 0.05;				// std dev per reading
+	public static final double GYRO_DRIFT_DEG_PER_SEC = 0.01;
+	public static final double PHYSICS_PERIOD_SEC = 0.001;			// Talon closed loop rate
+	public static final double ROBOT_LOOP_PERIOD_SEC = 0.02;		// TimedRobot default period
+	public static final double MECHANISM_FREE_SPEED_NU_PER_100MS = 1500;	// PercentOutput at 100%
+	// Monte Carlo auton runs (see AutonMonteCarlo), every run draws its own disturbances from these
+	public static final double MC_START_POSITION_STD_DEV_IN = 1.5;	// robot placed on the field by hand
+	public static final double MC_START_HEADING_STD_DEV_DEG = 1.0;
+	public static final double MC_MAX_WHEEL_SLIP = 0.05;			// uniform 0 .. max, per side
+	public static final double MC_MIN_BATTERY_VOLTAGE = 11.8;		// uniform min .. BATTERY_VOLTAGE
+	public static final double MC_MAX_BATTERY_RESISTANCE_OHMS = 0.03;	// uniform BATTERY_RESISTANCE_OHMS .. max
+	public static final double MC_MAX_SENSOR_LATENCY_SEC = 0.02;	// uniform 0 .. max
+}
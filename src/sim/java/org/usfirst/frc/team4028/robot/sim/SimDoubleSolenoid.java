@@ -0,0 +1,25 @@
+package org.usfirst.frc.team4028.robot.sim;
+
+import org.usfirst.frc.team4028.robot.hardware.IDoubleSolenoid;
+
+import edu.wpi.first.wpilibj.DoubleSolenoid.Value;
+
+/** Simulated double solenoid, switches instantly */
+public class SimDoubleSolenoid implements IDoubleSolenoid {
+	private Value _value = Value.kOff;
+
+	@Override
+	public void set(Value value) {
+		_value = value;
+	}
+
+	@Override
+	public Value get() {
+		return _value;
+	}
+
+	/** back to power on (off) */
+	public void resetSim() {
+		_value = Value.kOff;
+	}
+}
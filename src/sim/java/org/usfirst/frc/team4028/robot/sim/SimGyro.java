@@ -0,0 +1,52 @@
+package org.usfirst.frc.team4028.robot.sim;
+
+import java.util.Random;
+
+import org.usfirst.frc.team4028.robot.hardware.IGyro;
+
+/** Simulated navX: the model's true heading + a slow drift + gaussian noise on every reading */
+public class SimGyro implements IGyro {
+	private final Random _random;
+	private double _trueHeadingDegrees;		// clockwise positive, unwrapped
+	private double _driftDegrees;
+	private double _zeroDegrees;			// true heading + drift when last zeroed
+
+	public SimGyro(Random random) {
+		_random = random;
+	}
+
+	/** Called by the model every physics update */
+	public void update(double trueHeadingDegrees, double dt) {
+		_trueHeadingDegrees = trueHeadingDegrees;
+		_driftDegrees += SimConstants.GYRO_DRIFT_DEG_PER_SEC * dt;
+	}
+
+	/** Restarts the noise sequence, so a run's noise doesn't depend on how many readings earlier runs took */
+	public void setNoiseSeed(long seed) {
+		_random.setSeed(seed);
+	}
+
+	public void resetSim(double trueHeadingDegrees) {
+		_trueHeadingDegrees = trueHeadingDegrees;
+		_driftDegrees = 0.0;
+		_zeroDegrees = 0.0;
+	}
+
+	@Override
+	public double getYaw() {
+		final double yaw = _trueHeadingDegrees + _driftDegrees - _zeroDegrees
+							+ _random.nextGaussian() * SimConstants.GYRO_NOISE_DEG;
+		// -180 to 180 like the navX
+		return yaw - 360.0 * Math.floor((yaw + 180.0) / 360.0);
+	}
+
+	@Override
+	public void zeroYaw() {
+		_zeroDegrees = _trueHeadingDegrees + _driftDegrees;
+	}
+
+	@Override
+	public double getRoll() {
+		return 0.0;
+	}
+}
@@ -0,0 +1,94 @@
+package org.usfirst.frc.team4028.robot.sim;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.usfirst.frc.team4028.robot.hardware.HardwareFactory;
+import org.usfirst.frc.team4028.robot.hardware.IDoubleSolenoid;
+import org.usfirst.frc.team4028.robot.hardware.IGyro;
+import org.usfirst.frc.team4028.robot.hardware.ITalonSRX;
+
+/**
+ * Hands the subsystems simulated devices and keeps track of them (by CAN address / PCM forward channel)
+ * so the physics model can find the ones it drives. Install w/ HardwareFactory.setInstance() before
+ * any subsystem is created.
+ */
+public class SimHardwareFactory extends HardwareFactory {
+	private final Map<Integer, SimTalonSRX> _talonsByCanAddress = new HashMap<Integer, SimTalonSRX>();
+	private final List<SimTalonSRX> _talons = new ArrayList<SimTalonSRX>();
+	private final Map<Integer, SimDoubleSolenoid> _solenoidsByForwardChannel = new HashMap<Integer, SimDoubleSolenoid>();
+	private final SimGyro _gyro;
+
+	public SimHardwareFactory(Random random) {
+		_gyro = new SimGyro(random);
+	}
+
+	//=====================================================================================
+	// Devices
+	//=====================================================================================
+	@Override
+	public ITalonSRX createTalonSRX(int canAddress) {
+		SimTalonSRX talon = new SimTalonSRX(canAddress);
+		_talonsByCanAddress.put(canAddress, talon);
+		_talons.add(talon);
+		return talon;
+	}
+
+	/** nothing to gain from caching w/o a CAN bus */
+	@Override
+	public ITalonSRX createCachingTalonSRX(int canAddress) {
+		return createTalonSRX(canAddress);
+	}
+
+	@Override
+	public IDoubleSolenoid createDoubleSolenoid(int pcmCanAddress, int forwardChannel, int reverseChannel) {
+		SimDoubleSolenoid solenoid = new SimDoubleSolenoid();
+		_solenoidsByForwardChannel.put(forwardChannel, solenoid);
+		return solenoid;
+	}
+
+	@Override
+	public IGyro getGyro() {
+		return _gyro;
+	}
+
+	//=====================================================================================
+	// Simulation
+	//=====================================================================================
+	/** 1 closed loop pass of every Talon, call every SimConstants.PHYSICS_PERIOD_SEC before the physics model */
+	public void updateTalons(double dt) {
+		for (int i = 0; i < _talons.size(); i++) {
+			_talons.get(i).update(dt);
+		}
+	}
+
+	/** every Talon back to power on (mechanisms at home), see SimTalonSRX.resetSim */
+	public void resetTalons() {
+		for (int i = 0; i < _talons.size(); i++) {
+			_talons.get(i).resetSim();
+		}
+	}
+
+	/** every solenoid back to power on (off) */
+	public void resetSolenoids() {
+		for (SimDoubleSolenoid solenoid : _solenoidsByForwardChannel.values()) {
+			solenoid.resetSim();
+		}
+	}
+
+	/** @return null until the subsystem that owns it has been created */
+	public SimTalonSRX getTalon(int canAddress) {
+		return _talonsByCanAddress.get(canAddress);
+	}
+
+	public SimDoubleSolenoid getDoubleSolenoid(int forwardChannel) {
+		return _solenoidsByForwardChannel.get(forwardChannel);
+	}
+
+	public SimGyro getSimGyro() {
+		return _gyro;
+	}
+}
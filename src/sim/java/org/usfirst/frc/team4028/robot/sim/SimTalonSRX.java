@@ -0,0 +1,564 @@
+package org.usfirst.frc.team4028.robot.sim;
+
+import java.util.Arrays;
+
+import org.usfirst.frc.team4028.robot.hardware.ITalonSRX;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.FeedbackDevice;
+import com.ctre.phoenix.motorcontrol.LimitSwitchNormal;
+import com.ctre.phoenix.motorcontrol.LimitSwitchSource;
+import com.ctre.phoenix.motorcontrol.NeutralMode;
+import com.ctre.phoenix.motorcontrol.RemoteLimitSwitchSource;
+import com.ctre.phoenix.motorcontrol.StatusFrame;
+import com.ctre.phoenix.motorcontrol.VelocityMeasPeriod;
+
+/**
+ * Simulated Talon SRX. Runs the same closed loops as the Talon firmware every update (1 mSec):
+ * PercentOutput (w/ open loop ramp), Velocity & Position PIDF and Motion Magic (trapezoidal profile + PIDF),
+ * in native units and w/ the gains scaled to 1023 = full output. Velocity is measured like the Talon does,
+ * the change in position over the measurement period averaged over the measurement window.
+ *
+ * The sensor is either driven by a physics model (see DriveTrainModel, setSimPosition) or, for the
+ * mechanisms, by a kinematic model that tracks closed loop targets perfectly and moves at
+ * MECHANISM_FREE_SPEED_NU_PER_100MS * output in open loop, w/ a hard stop (the reverse limit switch) at 0.
+ * Positive output always moves the sensor positive, setInverted only matters to the physical wiring.
+ */
+public class SimTalonSRX implements ITalonSRX {
+	private static final int SLOT_COUNT = 4;
+	private static final int FULL_OUTPUT = 1023;
+	// Talon defaults
+	private static final int DEFAULT_VELOCITY_MEAS_PERIOD_MS = 100;
+	private static final int DEFAULT_VELOCITY_MEAS_WINDOW = 64;
+
+	private final int _deviceID;
+
+	// config
+	private final double[] _kP = new double[SLOT_COUNT];
+	private final double[] _kI = new double[SLOT_COUNT];
+	private final double[] _kD = new double[SLOT_COUNT];
+	private final double[] _kF = new double[SLOT_COUNT];
+	private final int[] _integralZone = new int[SLOT_COUNT];
+	private final int[] _allowableError = new int[SLOT_COUNT];
+	private int _profileSlot;
+	private int _motionCruiseVelocity;
+	private int _motionAcceleration;
+	private double _openLoopRampSec;
+	private double _closedLoopRampSec;
+	private double _peakOutputForward = 1.0;
+	private double _peakOutputReverse = -1.0;
+	private boolean _isInverted;
+	private boolean _isBrakeMode = true;
+	private boolean _isReverseLimitSwitchEnabled;
+	private LimitSwitchNormal _fwdLimitSwitchNormal = LimitSwitchNormal.NormallyOpen;
+	private LimitSwitchNormal _revLimitSwitchNormal = LimitSwitchNormal.NormallyOpen;
+	private boolean _isForwardSoftLimitEnabled;
+	private int _forwardSoftLimit;
+
+	// control
+	private ControlMode _controlMode = ControlMode.PercentOutput;
+	private double _demand;
+	private SimTalonSRX _master;
+	private double _output;					// -1 to 1
+	private double _integralAccumulator;
+	private double _lastError;
+	private boolean _isMotionMagicActive;
+	private double _motionMagicPosition;	// NU
+	private double _motionMagicVelocity;	// NU per sec
+
+	// sensor
+	private boolean _isDrivenByModel;
+	private double _positionNU;				// physical position, 0 at the reverse hard stop
+	private double _sensorOffsetNU;			// from setSelectedSensorPosition
+	private double _outputCurrent;
+	private double _busVoltage = SimConstants.BATTERY_VOLTAGE;
+	private int _velocityMeasPeriodMs = DEFAULT_VELOCITY_MEAS_PERIOD_MS;
+	private int _velocityMeasWindow = DEFAULT_VELOCITY_MEAS_WINDOW;
+	// 1 entry per update: reported position history & per update velocity measurements, as ring buffers
+	private final int[] _positionHistory = new int[DEFAULT_VELOCITY_MEAS_PERIOD_MS + 1];
+	private final double[] _velocityMeasurements = new double[DEFAULT_VELOCITY_MEAS_WINDOW];
+	private double _velocityMeasurementSum;
+	private int _updateCount;
+	private double _measuredVelocity;		// NU per 100 mSec
+
+	public SimTalonSRX(int deviceID) {
+		_deviceID = deviceID;
+	}
+
+	//=====================================================================================
+	// Simulation
+	//=====================================================================================
+	/** Runs 1 closed loop pass, call every PHYSICS_PERIOD_SEC before the physics model */
+	public void update(double dt) {
+		measureVelocity();
+		_output = clampOutput(calcOutput(dt));
+
+		if (!_isDrivenByModel) {
+			updateKinematicMechanism(dt);
+		}
+	}
+
+	/** Sensor position from a physics model (switches this Talon off the kinematic mechanism model) */
+	public void setSimPosition(double positionNU) {
+		_isDrivenByModel = true;
+		_positionNU = positionNU;
+	}
+
+	public void setSimCurrent(double amps) {
+		_outputCurrent = amps;
+	}
+
+	public void setSimBusVoltage(double volts) {
+		_busVoltage = volts;
+	}
+
+	/** Back to power on: mechanism at home, sensor 0, neutral output. Config is kept (like a disable / enable). */
+	public void resetSim() {
+		_controlMode = ControlMode.PercentOutput;
+		_demand = 0.0;
+		_output = 0.0;
+		_integralAccumulator = 0.0;
+		_lastError = 0.0;
+		_isMotionMagicActive = false;
+		_positionNU = 0.0;
+		_sensorOffsetNU = 0.0;
+		_outputCurrent = 0.0;
+		clearVelocityMeasurements();
+	}
+
+	public boolean isBrakeMode() {
+		return _isBrakeMode;
+	}
+
+	public boolean isInverted() {
+		return _isInverted;
+	}
+
+	public ControlMode getControlMode() {
+		return _controlMode;
+	}
+
+	//=====================================================================================
+	// Control
+	//=====================================================================================
+	@Override
+	public void set(ControlMode mode, double demand) {
+		if (mode != _controlMode || (mode == ControlMode.MotionMagic && !_isMotionMagicActive)) {
+			// a new closed loop starts clean, motion magic starts its profile from where the sensor is now
+			_integralAccumulator = 0.0;
+			_lastError = 0.0;
+			_isMotionMagicActive = mode == ControlMode.MotionMagic;
+			_motionMagicPosition = getSensorPosition();
+			_motionMagicVelocity = _measuredVelocity * 10.0;
+		}
+		if (mode != ControlMode.Follower) {
+			_master = null;
+		}
+		_controlMode = mode;
+		_demand = demand;
+	}
+
+	@Override
+	public void set(ControlMode mode, double demand0, double demand1) {
+		set(mode, demand0);
+	}
+
+	@Override
+	public void follow(ITalonSRX master) {
+		_master = (SimTalonSRX) master;
+		_controlMode = ControlMode.Follower;
+	}
+
+	@Override
+	public void setInverted(boolean invert) {
+		_isInverted = invert;
+	}
+
+	@Override
+	public void setSensorPhase(boolean phaseSensor) {
+		// the simulated sensor is always in phase w/ the output
+	}
+
+	@Override
+	public void setNeutralMode(NeutralMode neutralMode) {
+		_isBrakeMode = neutralMode != NeutralMode.Coast;
+	}
+
+	@Override
+	public void selectProfileSlot(int slotIdx, int pidIdx) {
+		if (pidIdx == 0) {
+			_profileSlot = slotIdx;
+		}
+	}
+
+	//=====================================================================================
+	// Config
+	//=====================================================================================
+	@Override
+	public ErrorCode config_kP(int slotIdx, double value, int timeoutMs) {
+		_kP[slotIdx] = value;
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode config_kI(int slotIdx, double value, int timeoutMs) {
+		_kI[slotIdx] = value;
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode config_kD(int slotIdx, double value, int timeoutMs) {
+		_kD[slotIdx] = value;
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode config_kF(int slotIdx, double value, int timeoutMs) {
+		_kF[slotIdx] = value;
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode config_IntegralZone(int slotIdx, int izone, int timeoutMs) {
+		_integralZone[slotIdx] = izone;
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configAllowableClosedloopError(int slotIdx, int allowableClosedLoopError, int timeoutMs) {
+		_allowableError[slotIdx] = allowableClosedLoopError;
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configMotionCruiseVelocity(int sensorUnitsPer100ms, int timeoutMs) {
+		_motionCruiseVelocity = sensorUnitsPer100ms;
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configMotionAcceleration(int sensorUnitsPer100msPerSec, int timeoutMs) {
+		_motionAcceleration = sensorUnitsPer100msPerSec;
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configOpenloopRamp(double secondsFromNeutralToFull, int timeoutMs) {
+		_openLoopRampSec = secondsFromNeutralToFull;
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configClosedloopRamp(double secondsFromNeutralToFull, int timeoutMs) {
+		_closedLoopRampSec = secondsFromNeutralToFull;
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configPeakOutputForward(double percentOut, int timeoutMs) {
+		_peakOutputForward = percentOut;
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configPeakOutputReverse(double percentOut, int timeoutMs) {
+		_peakOutputReverse = percentOut;
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configNominalOutputForward(double percentOut, int timeoutMs) {
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configNominalOutputReverse(double percentOut, int timeoutMs) {
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public void enableCurrentLimit(boolean enable) {}
+
+	@Override
+	public ErrorCode configContinuousCurrentLimit(int amps, int timeoutMs) {
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configPeakCurrentLimit(int amps, int timeoutMs) {
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configPeakCurrentDuration(int milliseconds, int timeoutMs) {
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configSelectedFeedbackSensor(FeedbackDevice feedbackDevice, int pidIdx, int timeoutMs) {
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode setStatusFramePeriod(StatusFrame frame, int periodMs, int timeoutMs) {
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configVelocityMeasurementPeriod(VelocityMeasPeriod period, int timeoutMs) {
+		_velocityMeasPeriodMs = Math.min(period.value, DEFAULT_VELOCITY_MEAS_PERIOD_MS);
+		clearVelocityMeasurements();
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configVelocityMeasurementWindow(int windowSize, int timeoutMs) {
+		_velocityMeasWindow = Math.max(1, Math.min(windowSize, DEFAULT_VELOCITY_MEAS_WINDOW));
+		clearVelocityMeasurements();
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configForwardLimitSwitchSource(LimitSwitchSource type, LimitSwitchNormal normalOpenOrClose, int timeoutMs) {
+		_fwdLimitSwitchNormal = normalOpenOrClose;
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configReverseLimitSwitchSource(LimitSwitchSource type, LimitSwitchNormal normalOpenOrClose, int timeoutMs) {
+		_isReverseLimitSwitchEnabled = type == LimitSwitchSource.FeedbackConnector && normalOpenOrClose != LimitSwitchNormal.Disabled;
+		_revLimitSwitchNormal = normalOpenOrClose;
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configForwardLimitSwitchSource(RemoteLimitSwitchSource type, LimitSwitchNormal normalOpenOrClose, int deviceID, int timeoutMs) {
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configReverseLimitSwitchSource(RemoteLimitSwitchSource type, LimitSwitchNormal normalOpenOrClose, int deviceID, int timeoutMs) {
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configForwardSoftLimitThreshold(int forwardSensorLimit, int timeoutMs) {
+		_forwardSoftLimit = forwardSensorLimit;
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configForwardSoftLimitEnable(boolean enable, int timeoutMs) {
+		_isForwardSoftLimitEnabled = enable;
+		return ErrorCode.OK;
+	}
+
+	@Override
+	public ErrorCode configReverseSoftLimitEnable(boolean enable, int timeoutMs) {
+		return ErrorCode.OK;
+	}
+
+	//=====================================================================================
+	// Sensors
+	//=====================================================================================
+	@Override
+	public int getSelectedSensorPosition(int pidIdx) {
+		return getSensorPosition();
+	}
+
+	@Override
+	public int getSelectedSensorVelocity(int pidIdx) {
+		return (int) Math.round(_measuredVelocity);
+	}
+
+	@Override
+	public ErrorCode setSelectedSensorPosition(int sensorPos, int pidIdx, int timeoutMs) {
+		_sensorOffsetNU = sensorPos - Math.floor(_positionNU);
+		return ErrorCode.OK;
+	}
+
+	/** the only sensor simulated is the quad encoder, so this is the same as setting the selected sensor */
+	@Override
+	public ErrorCode setQuadraturePosition(int newPosition, int timeoutMs) {
+		return setSelectedSensorPosition(newPosition, 0, timeoutMs);
+	}
+
+	@Override
+	public double getOutputCurrent() {
+		return _outputCurrent;
+	}
+
+	@Override
+	public double getMotorOutputVoltage() {
+		return _output * _busVoltage;
+	}
+
+	@Override
+	public double getMotorOutputPercent() {
+		return _output;
+	}
+
+	/** no forward switches on this robot, so it is never pressed */
+	@Override
+	public boolean isFwdLimitSwitchClosed() {
+		return _fwdLimitSwitchNormal == LimitSwitchNormal.NormallyClosed;
+	}
+
+	/** the switch is pressed at the hard stop, a normally closed switch opens when pressed */
+	@Override
+	public boolean isRevLimitSwitchClosed() {
+		final boolean isPressed = isAtReverseHardStop();
+		return _revLimitSwitchNormal == LimitSwitchNormal.NormallyClosed ? !isPressed : isPressed;
+	}
+
+	@Override
+	public int getDeviceID() {
+		return _deviceID;
+	}
+
+	//=====================================================================================
+	// Private Helper methods below
+	//=====================================================================================
+	private int getSensorPosition() {
+		return (int) (Math.floor(_positionNU) + _sensorOffsetNU);
+	}
+
+	private boolean isAtReverseHardStop() {
+		return !_isDrivenByModel && _positionNU <= 0.0;
+	}
+
+	/** change in position over the measurement period, rolling average over the window (like the Talon) */
+	private void measureVelocity() {
+		final int position = getSensorPosition();
+		_positionHistory[_updateCount % _positionHistory.length] = position;
+		final int periodMs = Math.min(_velocityMeasPeriodMs, _updateCount);
+		double measurement = 0.0;
+		if (periodMs > 0) {
+			final int periodStart = _positionHistory[(_updateCount - periodMs) % _positionHistory.length];
+			measurement = (position - periodStart) * 100.0 / periodMs;
+		}
+		// running sum over the window, the oldest measurement drops out as the new one goes in
+		final int windowIndex = _updateCount % _velocityMeasWindow;
+		_velocityMeasurementSum += measurement - _velocityMeasurements[windowIndex];
+		_velocityMeasurements[windowIndex] = measurement;
+		_updateCount++;
+		_measuredVelocity = _velocityMeasurementSum / Math.min(_velocityMeasWindow, _updateCount);
+	}
+
+	/** the history restarts at the current position */
+	private void clearVelocityMeasurements() {
+		Arrays.fill(_positionHistory, 0);
+		Arrays.fill(_velocityMeasurements, 0.0);
+		_velocityMeasurementSum = 0.0;
+		_updateCount = 0;
+		_measuredVelocity = 0.0;
+	}
+
+	private double calcOutput(double dt) {
+		switch (_controlMode) {
+			case PercentOutput:
+				return ramp(_demand, _openLoopRampSec, dt);
+
+			case Follower:
+				return _master != null ? _master._output : 0.0;
+
+			case Velocity:
+				return ramp(calcPIDF(_demand - _measuredVelocity, _demand), _closedLoopRampSec, dt);
+
+			case Position:
+				return ramp(calcPIDF(_demand - getSensorPosition(), _demand), _closedLoopRampSec, dt);
+
+			case MotionMagic:
+				updateMotionMagicProfile(dt);
+				return ramp(calcPIDF(_motionMagicPosition - getSensorPosition(), _motionMagicVelocity / 10.0), _closedLoopRampSec, dt);
+
+			default:
+				return 0.0;
+		}
+	}
+
+	/** Talon closed loop math, gains are in 1023 = full output per NU of error, D is per 1 mSec loop */
+	private double calcPIDF(double error, double feedForwardTarget) {
+		final int slot = _profileSlot;
+		double pidOutput = 0.0;
+		if (Math.abs(error) <= _allowableError[slot]) {
+			_integralAccumulator = 0.0;
+		} else {
+			if (_integralZone[slot] != 0 && Math.abs(error) > _integralZone[slot]) {
+				_integralAccumulator = 0.0;
+			} else {
+				_integralAccumulator += error;
+			}
+			pidOutput = _kP[slot] * error + _kI[slot] * _integralAccumulator + _kD[slot] * (error - _lastError);
+		}
+		_lastError = error;
+		return (pidOutput + _kF[slot] * feedForwardTarget) / FULL_OUTPUT;
+	}
+
+	/** trapezoidal profile toward the target at the cruise velocity & acceleration (Motion Magic) */
+	private void updateMotionMagicProfile(double dt) {
+		final double cruiseVelocity = _motionCruiseVelocity * 10.0;	// NU per sec
+		final double acceleration = _motionAcceleration * 10.0;		// NU per sec per sec
+		if (acceleration <= 0.0 || cruiseVelocity <= 0.0) {
+			return;
+		}
+		final double distanceToGo = _demand - _motionMagicPosition;
+		final double direction = Math.signum(distanceToGo);
+		final double stoppingDistance = _motionMagicVelocity * _motionMagicVelocity / (2.0 * acceleration);
+		if (Math.abs(distanceToGo) <= stoppingDistance && Math.signum(_motionMagicVelocity) == direction) {
+			_motionMagicVelocity -= direction * Math.min(acceleration * dt, Math.abs(_motionMagicVelocity));
+		} else {
+			_motionMagicVelocity += direction * acceleration * dt;
+			_motionMagicVelocity = Math.max(-cruiseVelocity, Math.min(cruiseVelocity, _motionMagicVelocity));
+		}
+		_motionMagicPosition += _motionMagicVelocity * dt;
+		if (Math.abs(_demand - _motionMagicPosition) < acceleration * dt * dt && Math.abs(_motionMagicVelocity) < acceleration * dt) {
+			_motionMagicPosition = _demand;
+			_motionMagicVelocity = 0.0;
+		}
+	}
+
+	private double ramp(double target, double rampSec, double dt) {
+		if (rampSec <= 0.0) {
+			return target;
+		}
+		final double maxChange = dt / rampSec;
+		return _output + Math.max(-maxChange, Math.min(maxChange, target - _output));
+	}
+
+	private double clampOutput(double output) {
+		output = Math.max(_peakOutputReverse, Math.min(_peakOutputForward, output));
+		if (_isReverseLimitSwitchEnabled && isAtReverseHardStop()) {
+			output = Math.max(output, 0.0);
+		}
+		if (_isForwardSoftLimitEnabled && getSensorPosition() >= _forwardSoftLimit) {
+			output = Math.min(output, 0.0);
+		}
+		return output;
+	}
+
+	/** mechanisms (elevator, arms, wheels): closed loops track perfectly, open loop moves at a fixed free speed */
+	private void updateKinematicMechanism(double dt) {
+		switch (_controlMode) {
+			case MotionMagic:
+				_positionNU = _motionMagicPosition - _sensorOffsetNU;
+				break;
+
+			case Position:
+				_positionNU = _demand - _sensorOffsetNU;
+				break;
+
+			case Velocity:
+				_positionNU += _demand * 10.0 * dt;
+				break;
+
+			default:
+				_positionNU += _output * SimConstants.MECHANISM_FREE_SPEED_NU_PER_100MS * 10.0 * dt;
+				break;
+		}
+		if (_isReverseLimitSwitchEnabled) {
+			_positionNU = Math.max(0.0, _positionNU);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package org.usfirst.frc.team4028.robot.sim;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Spreads simulator work over every core. The subsystems are singletons & the HAL clock is native, so 1 JVM can
+ * only run 1 simulation at a time: each task runs in its own child JVM (same classpath & natives), a fixed pool
+ * keeps 1 child per core busy. A child is started w/ only WORKER_ARG on its command line, its task's args come
+ * over its stdin (1 per line, read w/ readTaskArgs) since a big task (ex. hundreds of gain sets) doesn't fit
+ * in a command line on Windows. A child reports back by printing lines that start w/ RESULT_PREFIX, anything
+ * else it prints is dropped.
+ */
+public class SimWorkers {
+	public static final String WORKER_ARG = "--worker";
+	public static final String RESULT_PREFIX = "RESULT,";
+
+	private SimWorkers() {}
+
+	/** 1 core is left for the OS (& this JVM) */
+	public static int getDefaultWorkerCount() {
+		return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+	}
+
+	/**
+	 * Runs mainClass.main(WORKER_ARG) in a child JVM for every entry of taskArgs, workerCount at a time.
+	 * @return the RESULT lines (prefix stripped) of every task, in the order of taskArgs
+	 */
+	public static List<List<String>> run(final Class<?> mainClass, List<String[]> taskArgs, int workerCount) {
+		ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+		try {
+			List<Future<List<String>>> futures = new ArrayList<Future<List<String>>>();
+			for (final String[] args : taskArgs) {
+				futures.add(executor.submit(new Callable<List<String>>() {
+					@Override
+					public List<String> call() throws IOException, InterruptedException {
+						return runChild(mainClass, args);
+					}
+				}));
+			}
+
+			List<List<String>> results = new ArrayList<List<String>>();
+			for (Future<List<String>> future : futures) {
+				results.add(future.get());
+			}
+			return results;
+		} catch (InterruptedException | ExecutionException ex) {
+			throw new RuntimeException("Simulator worker failed", ex);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/** Called by the child (main got WORKER_ARG), @return the task's args sent by run() */
+	public static String[] readTaskArgs() {
+		List<String> args = new ArrayList<String>();
+		try {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				args.add(line);
+			}
+		} catch (IOException ex) {
+			throw new RuntimeException("Error reading the worker's task", ex);
+		}
+		return args.toArray(new String[args.size()]);
+	}
+
+	//=====================================================================================
+	// Private Helper methods below
+	//=====================================================================================
+	private static List<String> runChild(Class<?> mainClass, String[] args) throws IOException, InterruptedException {
+		List<String> command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add("-Djava.library.path=" + System.getProperty("java.library.path"));
+		command.add(mainClass.getName());
+		command.add(WORKER_ARG);
+
+		Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		// the child reads its whole task before it prints anything worth reading
+		PrintWriter writer = new PrintWriter(new OutputStreamWriter(process.getOutputStream()));
+		for (String arg : args) {
+			writer.println(arg);
+		}
+		writer.close();
+
+		List<String> results = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.startsWith(RESULT_PREFIX)) {
+					results.add(line.substring(RESULT_PREFIX.length()));
+				}
+			}
+		} finally {
+			reader.close();
+		}
+
+		int exitCode = process.waitFor();
+		if (exitCode != 0) {
+			throw new IOException(mainClass.getSimpleName() + " worker exited w/ " + exitCode);
+		}
+		return results;
+	}
+}
@@ -0,0 +1,107 @@
+package org.usfirst.frc.team4028.robot.auton.pathfollowing.control;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.Paths;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.Paths.Center;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.Paths.Left;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.RigidTransform;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.motion.Twist;
+
+/**
+ * PathFollower.update runs every scan, it must not allocate (a gc pause on the RoboRIO is a missed scan).
+ * Each path is followed once against an ideal drivetrain to record the poses, then replayed from reset() while
+ * the thread's allocated bytes are counted. Same paths as PathFollowingBenchmark.pathFollowerUpdate.
+ */
+public class PathFollowerAllocationTest {
+	private static final double SCAN_PERIOD_SEC = 0.01;
+	private static final int MAX_SCAN_COUNT = 1500;	// 15 sec
+	private static final int WARMUP_PASS_COUNT = 5;
+	private static final int MEASURED_PASS_COUNT = 5;
+
+	@Test
+	public void updateDoesNotAllocate_AutoRun() {
+		assertUpdateDoesNotAllocate(Paths.getPath(Center.AUTO_RUN));
+	}
+
+	@Test
+	public void updateDoesNotAllocate_CenterLSwitch() {
+		assertUpdateDoesNotAllocate(Paths.getPath(Center.L_SWITCH));
+	}
+
+	@Test
+	public void updateDoesNotAllocate_LeftRScale() {
+		assertUpdateDoesNotAllocate(Paths.getPath(Left.R_SCALE));
+	}
+
+	private static void assertUpdateDoesNotAllocate(Path path) {
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assertTrue("JVM can't count allocated bytes", threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		final long threadId = Thread.currentThread().getId();
+
+		PathFollower follower = new PathFollower(path, path.isReversed(), path.maxAccel, path.maxDecel, path.inertiaSteeringGain);
+		double[][] poses = recordPoses(follower, path);
+		int scanCount = poses.length;
+
+		// a few more from reset() so anything created lazily on the 1st pass already exists & most of it is compiled
+		for (int i = 0; i < WARMUP_PASS_COUNT; i++) {
+			follower.reset();
+			replay(follower, poses, scanCount);
+		}
+
+		// the JVM itself sometimes allocates a few 100 bytes on this thread while it is still compiling, that doesn't
+		// happen every pass, an allocation in update() does => the fewest bytes of any pass
+		long overheadBytes = measureOverhead(threadBean, threadId);
+		long allocatedBytes = Long.MAX_VALUE;
+		for (int i = 0; i < MEASURED_PASS_COUNT; i++) {
+			follower.reset();
+			long startBytes = threadBean.getThreadAllocatedBytes(threadId);
+			replay(follower, poses, scanCount);
+			allocatedBytes = Math.min(allocatedBytes, threadBean.getThreadAllocatedBytes(threadId) - startBytes - overheadBytes);
+		}
+
+		assertTrue("path never finished", follower.isFinished());
+		assertEquals("bytes allocated by " + scanCount + " PathFollower.update calls", 0, Math.max(0, allocatedBytes));
+	}
+
+	/** Follows the path w/ an ideal drivetrain, @return {t, x, y, cos, sin, displacement, velocity} per scan */
+	private static double[][] recordPoses(PathFollower follower, Path path) {
+		double[][] poses = new double[MAX_SCAN_COUNT][];
+		RigidTransform pose = path.getStartPose();
+		double displacement = 0.0;
+		double velocity = 0.0;
+		int scanCount = 0;
+		while (scanCount < MAX_SCAN_COUNT && !follower.isFinished()) {
+			double t = scanCount * SCAN_PERIOD_SEC;
+			double[] scan = {t, pose.getTranslation().x(), pose.getTranslation().y(), pose.getRotation().cos(),
+								pose.getRotation().sin(), displacement, velocity};
+			poses[scanCount++] = scan;
+
+			follower.update(scan[0], scan[1], scan[2], scan[3], scan[4], scan[5], scan[6]);
+			velocity = follower.getCommandDx();
+			displacement += velocity * SCAN_PERIOD_SEC;
+			pose = pose.transformBy(RigidTransform.exp(
+					new Twist(velocity * SCAN_PERIOD_SEC, 0.0, follower.getCommandDtheta() * SCAN_PERIOD_SEC)));
+		}
+		return Arrays.copyOf(poses, scanCount);
+	}
+
+	private static void replay(PathFollower follower, double[][] poses, int scanCount) {
+		for (int i = 0; i < scanCount; i++) {
+			double[] scan = poses[i];
+			follower.update(scan[0], scan[1], scan[2], scan[3], scan[4], scan[5], scan[6]);
+		}
+	}
+
+	// what reading the counter itself costs, so only update() is counted
+	private static long measureOverhead(com.sun.management.ThreadMXBean threadBean, long threadId) {
+		long startBytes = threadBean.getThreadAllocatedBytes(threadId);
+		return threadBean.getThreadAllocatedBytes(threadId) - startBytes;
+	}
+}
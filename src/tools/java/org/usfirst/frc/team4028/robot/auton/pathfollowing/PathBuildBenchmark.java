@@ -0,0 +1,83 @@
+package org.usfirst.frc.team4028.robot.auton.pathfollowing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.Path;
+
+/**
+ * Run on a dev machine by the gradle benchmarkPathBuild task (not on the robot).
+ * Times building every path in Paths sequentially vs. in parallel on the fork-join pool,
+ * and checks that both produce exactly the same (serialized) paths.
+ * 	usage: PathBuildBenchmark [iterations]
+ */
+public class PathBuildBenchmark {
+	private static final int WARMUP_ITERATIONS = 5;
+	private static final int DEFAULT_ITERATIONS = 20;
+	
+	public static void main(String[] args) throws IOException {
+		int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_ITERATIONS;
+		Enum<?>[] pathNames = Paths.getAllPathNames();
+		
+		// let the JIT compile the path building code before timing it
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			Paths.buildPathsFromWaypoints(pathNames, false);
+			Paths.buildPathsFromWaypoints(pathNames, true);
+		}
+		
+		double[] sequentialMSec = new double[iterations];
+		double[] parallelMSec = new double[iterations];
+		for (int i = 0; i < iterations; i++) {
+			sequentialMSec[i] = timeBuild(pathNames, false);
+			parallelMSec[i] = timeBuild(pathNames, true);
+		}
+		
+		byte[] sequentialBytes = serialize(pathNames, Paths.buildPathsFromWaypoints(pathNames, false));
+		byte[] parallelBytes = serialize(pathNames, Paths.buildPathsFromWaypoints(pathNames, true));
+		boolean isIdentical = Arrays.equals(sequentialBytes, parallelBytes);
+		
+		System.out.println("PathBuildBenchmark: " + pathNames.length + " path names, " + iterations + " iterations, "
+							+ ForkJoinPool.commonPool().getParallelism() + " worker threads ("
+							+ Runtime.getRuntime().availableProcessors() + " cores)");
+		printResult("sequential", sequentialMSec);
+		printResult("parallel", parallelMSec);
+		System.out.println("  speedup:    " + (mean(sequentialMSec) / mean(parallelMSec)) + "x");
+		System.out.println("  identical:  " + isIdentical + " (" + sequentialBytes.length + " bytes)");
+		if (!isIdentical) {
+			System.exit(1);
+		}
+	}
+	
+	private static double timeBuild(Enum<?>[] pathNames, boolean isParallel) {
+		long startNanos = System.nanoTime();
+		Paths.buildPathsFromWaypoints(pathNames, isParallel);
+		return (System.nanoTime() - startNanos) / 1000000.0;
+	}
+	
+	private static byte[] serialize(Enum<?>[] pathNames, Path[] paths) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			Paths.writePathCache(out, pathNames, paths);
+		}
+		return bytes.toByteArray();
+	}
+	
+	private static void printResult(String name, double[] timesMSec) {
+		double min = Double.MAX_VALUE;
+		for (double time : timesMSec) {
+			min = Math.min(min, time);
+		}
+		System.out.println("  " + name + ": mean " + mean(timesMSec) + " mSec, min " + min + " mSec");
+	}
+	
+	private static double mean(double[] values) {
+		double sum = 0;
+		for (double value : values) {
+			sum += value;
+		}
+		return sum / values.length;
+	}
+}
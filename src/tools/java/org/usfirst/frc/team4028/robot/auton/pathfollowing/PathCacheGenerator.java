@@ -0,0 +1,41 @@
+package org.usfirst.frc.team4028.robot.auton.pathfollowing;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.Path;
+
+/**
+ * Run at compile time by the gradle generatePathCache task (not on the robot).
+ * Builds every path in Paths from its waypoints and writes them into the binary resource that
+ * Paths.buildPaths() loads in robotInit, so the RoboRIO doesn't spend boot time building them.
+ * 	usage: PathCacheGenerator <output file>
+ */
+public class PathCacheGenerator {
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			System.err.println("usage: PathCacheGenerator <output file>");
+			System.exit(1);
+		}
+		File outputFile = new File(args[0]);
+		if (outputFile.getParentFile() != null) {
+			outputFile.getParentFile().mkdirs();
+		}
+		
+		// paths are independent, build them across all the cores of the build machine
+		long startNanos = System.nanoTime();
+		Enum<?>[] pathNames = Paths.getAllPathNames();
+		Path[] paths = Paths.buildPathsFromWaypoints(pathNames, true);
+		double buildTimeMSec = (System.nanoTime() - startNanos) / 1000000.0;
+		
+		int pathCount;
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(outputFile)))) {
+			pathCount = Paths.writePathCache(out, pathNames, paths);
+		}
+		System.out.println("PathCacheGenerator: built " + pathCount + " paths in " + buildTimeMSec + " mSec, wrote "
+							+ outputFile.length() + " bytes to " + outputFile.getPath());
+	}
+}
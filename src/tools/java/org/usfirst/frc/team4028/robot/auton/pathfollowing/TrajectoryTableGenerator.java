@@ -0,0 +1,87 @@
+package org.usfirst.frc.team4028.robot.auton.pathfollowing;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import org.usfirst.frc.team4028.robot.Constants;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.Path;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.Trajectory;
+import org.usfirst.frc.team4028.robot.auton.pathfollowing.control.TrajectorySampler;
+
+/**
+ * Run at compile time by the gradle generateTrajectoryCache task (not on the robot).
+ * Samples every path in Paths into its trajectory table and writes them into the binary resource that
+ * Paths.getTrajectory() reads, so the RoboRIO never runs TrajectorySampler. With a csv dir (gradle
+ * sampleTrajectories) each table is also written as a csv (t, x, y, heading, left & right velocity, distance)
+ * to plot / check before taking it to the field.
+ * 	usage: TrajectoryTableGenerator <output file> [csv dir]
+ */
+public class TrajectoryTableGenerator {
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1 || args.length > 2) {
+			System.err.println("usage: TrajectoryTableGenerator <output file> [csv dir]");
+			System.exit(1);
+		}
+		File outputFile = new File(args[0]);
+		if (outputFile.getParentFile() != null) {
+			outputFile.getParentFile().mkdirs();
+		}
+		File csvDir = args.length > 1 ? new File(args[1]) : null;
+		if (csvDir != null) {
+			csvDir.mkdirs();
+		}
+
+		// sampled from the same waypoint built paths PathCacheGenerator writes, so each table matches its cached path
+		long startNanos = System.nanoTime();
+		Enum<?>[] pathNames = Paths.getAllPathNames();
+		Path[] paths = Paths.buildPathsFromWaypoints(pathNames, true);
+		Trajectory[] trajectories = new Trajectory[pathNames.length];
+		for (int i = 0; i < pathNames.length; i++) {
+			if (paths[i] != null) {
+				trajectories[i] = TrajectorySampler.sample(paths[i], Constants.TRAJECTORY_SAMPLE_PERIOD_SEC);
+			}
+		}
+		double sampleTimeMSec = (System.nanoTime() - startNanos) / 1000000.0;
+
+		int trajectoryCount;
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(outputFile)))) {
+			trajectoryCount = Paths.writeTrajectoryCache(out, pathNames, trajectories);
+		}
+		System.out.println("TrajectoryTableGenerator: sampled " + trajectoryCount + " trajectories in " + sampleTimeMSec
+							+ " mSec, wrote " + outputFile.length() + " bytes to " + outputFile.getPath());
+
+		if (csvDir != null) {
+			for (int i = 0; i < pathNames.length; i++) {
+				if (trajectories[i] == null) {
+					continue;
+				}
+				Trajectory trajectory = trajectories[i];
+				File csvFile = new File(csvDir, getName(pathNames[i]) + ".csv");
+				writeCsv(csvFile, trajectory);
+				int last = trajectory.getSampleCount() - 1;
+				System.out.println(getName(pathNames[i]) + ": " + trajectory.getSampleCount() + " samples, "
+									+ trajectory.getDuration() + " sec, ends at (" + trajectory.getX(last) + ", "
+									+ trajectory.getY(last) + ") => " + csvFile.getPath());
+			}
+		}
+	}
+
+	private static void writeCsv(File outputFile, Trajectory trajectory) throws IOException {
+		try (PrintWriter out = new PrintWriter(outputFile)) {
+			out.println("t,x,y,heading_deg,left_vel,right_vel,distance");
+			for (int i = 0; i < trajectory.getSampleCount(); i++) {
+				out.println((i * trajectory.getDt()) + "," + trajectory.getX(i) + "," + trajectory.getY(i) + ","
+							+ Math.toDegrees(trajectory.getHeadingRadians(i)) + "," + trajectory.getLeftVelocity(i) + ","
+							+ trajectory.getRightVelocity(i) + "," + trajectory.getDistance(i));
+			}
+		}
+	}
+
+	private static String getName(Enum<?> pathName) {
+		return pathName.getDeclaringClass().getSimpleName() + "." + pathName.name();
+	}
+}
@@ -0,0 +1,90 @@
+package org.usfirst.frc.team4028.robot.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import org.usfirst.frc.team4028.robot.util.LogDataBE.CHANNEL_TYPE;
+
+/**
+ * Offline tool (run on a laptop, not on the robot) that converts a binary log written by
+ * BinaryLogWriter into the same .tsv layout DataLogger writes in text mode.
+ *
+ * usage: BinaryLogConverter <input.bin> [output.tsv]
+ */
+public class BinaryLogConverter {
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.out.println("usage: BinaryLogConverter <input.bin> [output.tsv]");
+			return;
+		}
+
+		String inputPathName = args[0];
+		String outputPathName = (args.length > 1) ? args[1] : inputPathName.replaceAll("\\.bin$", "") + ".tsv";
+
+		long recordCount = convert(inputPathName, outputPathName);
+		System.out.println("..Converted " + recordCount + " records to: " + outputPathName);
+	}
+
+	/** Converts a binary log to tsv, returns the # of data rows written */
+	public static long convert(String inputPathName, String outputPathName) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(inputPathName)));
+			 PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(outputPathName)))) {
+
+			//=========== header ===========
+			if (in.readInt() != BinaryLogWriter.FILE_MAGIC) {
+				throw new IOException("Not a binary log file: " + inputPathName);
+			}
+			short version = in.readShort();
+			if (version != BinaryLogWriter.FILE_VERSION) {
+				throw new IOException("Unsupported binary log version: " + version);
+			}
+
+			int columnCount = in.readInt();
+			String[] items = new String[columnCount];
+			CHANNEL_TYPE[] types = new CHANNEL_TYPE[columnCount];
+			for (int i = 0; i < columnCount; i++) {
+				String name = in.readUTF();
+				String unit = in.readUTF();
+				types[i] = CHANNEL_TYPE.values()[in.readByte()];
+				items[i] = LogDataBE.BuildColumnHeader(name, unit);
+			}
+			out.print("StartDeltaMS" + "\t" + "LastScanDeltaMS" + "\t" + LogDataBE.BuildTSVString(items, columnCount));
+
+			//=========== records ===========
+			long recordCount = 0;
+			long firstTimestampMSec = 0;
+			long lastTimestampMSec = 0;
+			while (true) {
+				long timestampMSec;
+				try {
+					timestampMSec = (long)in.readDouble();
+					for (int i = 0; i < columnCount; i++) {
+						items[i] = LogDataBE.FormatValue(types[i], in.readDouble());
+					}
+				} catch (EOFException e) {
+					// end of file (or a partial last record if the robot was powered off mid write)
+					break;
+				}
+
+				if (recordCount == 0) {
+					firstTimestampMSec = timestampMSec;
+					lastTimestampMSec = timestampMSec;
+				}
+
+				out.print((timestampMSec - firstTimestampMSec) + "\t" + (timestampMSec - lastTimestampMSec) + "\t"
+							+ LogDataBE.BuildTSVString(items, columnCount));
+
+				lastTimestampMSec = timestampMSec;
+				recordCount++;
+			}
+
+			return recordCount;
+		}
+	}
+}